@@ -0,0 +1,282 @@
+package suga.engine;
+
+import suga.engine.game.Game;
+import suga.engine.graphics.GraphicsPanel;
+import suga.engine.jobs.JobSystem;
+import suga.engine.input.keyboard.GameKeyListener;
+import suga.engine.input.mouse.GameMouseListener;
+import suga.engine.logger.GeneralLogger;
+import suga.engine.logger.Level;
+import suga.engine.logger.Logger;
+import suga.engine.threads.GameLogicThread;
+import suga.engine.threads.GraphicsThread;
+import suga.engine.threads.SugaThread;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+
+/**
+ * An Engine runs a single game with its own threads, window, and logger. Many engines can run in the same process, for
+ * example to simulate several headless matches at once. The static methods on {@link GameEngine} act on a default
+ * engine.
+ *
+ * @author Sugaku
+ */
+public class Engine {
+
+    /**
+     * The engine bound to each thread. Threads started by an engine are bound to it.
+     */
+    private static final ThreadLocal<Engine> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The longest time, in milliseconds, {@link #stop()} waits for the logic and graphics threads to finish.
+     */
+    public static final long DEFAULT_STOP_TIMEOUT = 1000;
+
+    /**
+     * The currently opened frame.
+     */
+    protected JFrame frame;
+
+    /**
+     * The current graphics thread if one is running.
+     */
+    protected SugaThread graphics;
+
+    /**
+     * The current game logic thread if one is running.
+     */
+    protected SugaThread logic;
+
+    /**
+     * The game being run by this engine.
+     */
+    protected Game game;
+
+    /**
+     * The logger currently being used by this engine.
+     */
+    protected volatile Logger logger;
+
+    /**
+     * The job system engine work can be submitted to. Runs on the common pool.
+     */
+    protected final JobSystem jobs = new JobSystem();
+
+    /**
+     * Creates a new Engine with a GeneralLogger.
+     */
+    public Engine () {
+        this(new GeneralLogger());
+    }
+
+    /**
+     * Creates a new Engine with the given logger.
+     *
+     * @param logger The logger to use for this engine.
+     */
+    public Engine (Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Accessor method for the engine bound to the calling thread.
+     *
+     * @return The engine bound to the calling thread, or the default engine if the thread isn't bound.
+     */
+    public static Engine current () {
+        Engine engine = CURRENT.get();
+        return engine == null ? GameEngine.getDefault() : engine;
+    }
+
+    /**
+     * Binds the calling thread to the given engine, so that {@link GameEngine#getLogger()} returns its logger.
+     *
+     * @param engine The engine to bind to. Null to unbind the thread.
+     */
+    public static void bind (Engine engine) {
+        if (engine == null) CURRENT.remove();
+        else CURRENT.set(engine);
+    }
+
+    /**
+     * Accessor method for the logger being used by this engine.
+     *
+     * @return The logger currently in use by this engine.
+     */
+    public Logger getLogger () {
+        return logger;
+    }
+
+    /**
+     * Setter method for the logger being used by this engine.
+     *
+     * @param logger The new logger for this engine to use.
+     */
+    public void setLogger (Logger logger) {
+        this.logger.log("GameEngine: Switching to a new logger.");
+        this.logger = logger;
+        this.logger.log("GameEngine: Switched logger.");
+    }
+
+    /**
+     * Accessor method for the game being run by this engine.
+     *
+     * @return The game being run or null if none have been launched.
+     */
+    public Game getGame () {
+        return game;
+    }
+
+    /**
+     * Accessor method for the job system of this engine.
+     *
+     * @return The job system engine work can be submitted to.
+     */
+    public JobSystem getJobs () {
+        return jobs;
+    }
+
+    /**
+     * Accessor method for the game logic thread of this engine.
+     *
+     * @return The game logic thread or null if none have been launched.
+     */
+    public SugaThread getLogicThread () {
+        return logic;
+    }
+
+    /**
+     * Accessor method for the graphics thread of this engine.
+     *
+     * @return The graphics thread or null if running headless.
+     */
+    public SugaThread getGraphicsThread () {
+        return graphics;
+    }
+
+    /**
+     * Closes both the logic and graphics thread, along with the game window if there is one. Waits up to
+     * {@link #DEFAULT_STOP_TIMEOUT} milliseconds for the threads to finish.
+     */
+    public void stop () {
+        stop(DEFAULT_STOP_TIMEOUT);
+    }
+
+    /**
+     * Closes both the logic and graphics thread, along with the game window if there is one. Waits up to the given time
+     * for the threads to finish before closing the window. A thread stopping its own engine doesn't wait for itself.
+     *
+     * @param timeoutMillis The longest time to wait for both threads, in milliseconds.
+     * @return True if both threads finished in time.
+     */
+    public boolean stop (long timeoutMillis) {
+        logger.log("GameEngine: Stopping the game.");
+        if (graphics != null) graphics.setStopped(true);
+        if (logic != null) logic.setStopped(true);
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        boolean finished = true;
+        try {
+            if (graphics != null) finished = graphics.awaitStopped(deadline - System.currentTimeMillis());
+            if (logic != null && Thread.currentThread() != logic)
+                finished &= logic.awaitStopped(deadline - System.currentTimeMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finished = false;
+        }
+        if (finished) logger.log("GameEngine: Stopped logic and graphics threads.");
+        else logger.log("GameEngine: Logic and graphics threads didn't stop within " + timeoutMillis + "ms.", Level.WARNING);
+        if (frame != null) {
+            frame.dispatchEvent(new WindowEvent(frame, WindowEvent.WINDOW_CLOSING));
+            logger.log("GameEngine: Sent request to close frame.");
+        }
+        return finished;
+    }
+
+    /**
+     * Creates a new game window with all the possible configuration options being specified.
+     *
+     * @param width         The width to create the game window at.
+     * @param height        The height to create the game window at.
+     * @param name          The name for the resulting window.
+     * @param border        Whether to hide the border or not when creating the window.
+     * @param panel         The graphics panel to be used for this game.
+     * @param background    The background color for the panel.
+     * @param logicRate     How many times per second the game logic should be called.
+     * @param frameRate     How many frames per second should the graphics thread target.
+     * @param keyListener   The key listener to be used for this new window. Will override active frame.
+     * @param mouseListener The mouse listener to use for this window. Will override active frame.
+     * @param game          The game to attach to this window. Will override currently active panel or input listeners.
+     */
+    public void launchGameWindow (int width, int height, String name, boolean border, GraphicsPanel panel,
+                                  Color background, int logicRate, int frameRate, GameKeyListener keyListener,
+                                  GameMouseListener mouseListener, Game game) {
+        logger.log("GameEngine: Starting the game window.");
+        this.game = game;
+        panel.setBackground(background);
+        frame = new JFrame(name);
+        frame.setSize(width, height);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.getContentPane().add(panel, BorderLayout.CENTER);
+        frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
+        frame.setUndecorated(!border);
+        frame.setVisible(true);
+        graphics = new GraphicsThread(panel, frameRate, this);
+        graphics.start();
+        logger.log("GameEngine: Started graphics thread and window.");
+        game.setPanel(panel);
+        keyListener.setFrame(frame);
+        mouseListener.setFrame(frame);
+        game.setKeyListener(keyListener);
+        game.setMouseListener(mouseListener);
+        GameLogicThread logicThread = new GameLogicThread(game, logicRate, this);
+        frame.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed (KeyEvent e) {
+                logicThread.wake();
+            }
+
+            @Override
+            public void keyReleased (KeyEvent e) {
+                logicThread.wake();
+            }
+        });
+        frame.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed (MouseEvent e) {
+                logicThread.wake();
+            }
+
+            @Override
+            public void mouseReleased (MouseEvent e) {
+                logicThread.wake();
+            }
+        });
+        logic = logicThread;
+        logic.start();
+        logger.log("GameEngine: Linked input listeners and started game logic thread.");
+    }
+
+    /**
+     * Starts the given game without a window, graphics thread, or input listeners. Only the game logic thread is run,
+     * so no AWT or Swing resources are needed. Useful for running simulations on servers and in CI. The game is given
+     * a null panel, so draw listeners are never registered.
+     *
+     * @param game      The game to run.
+     * @param logicRate How many times per second the game logic should be called.
+     * @return The thread running the game logic.
+     */
+    public SugaThread launchHeadless (Game game, int logicRate) {
+        logger.log("GameEngine: Starting the game headless.");
+        this.game = game;
+        frame = null;
+        graphics = null;
+        game.setPanel(null);
+        logic = new GameLogicThread(game, logicRate, this);
+        logic.start();
+        logger.log("GameEngine: Started game logic thread.");
+        return logic;
+    }
+}
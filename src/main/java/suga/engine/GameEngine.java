@@ -2,44 +2,25 @@ package suga.engine;
 
 import suga.engine.graphics.GraphicsPanel;
 import suga.engine.input.mouse.GameMouseListener;
-import suga.engine.logger.GeneralLogger;
 import suga.engine.logger.Logger;
-import suga.engine.threads.GameLogicThread;
-import suga.engine.threads.GraphicsThread;
 import suga.engine.threads.SugaThread;
 import suga.engine.input.keyboard.GameKeyListener;
 import suga.engine.game.Game;
 
-import javax.swing.*;
 import java.awt.*;
-import java.awt.event.WindowEvent;
 
 /**
- * A collection of static methods that are used to make starting, closing and managing a game easier.
+ * A collection of static methods that are used to make starting, closing and managing a game easier. These act on a
+ * default {@link Engine}. Games which need several engines in one process should create them directly.
  *
  * @author Sugaku
  */
 public class GameEngine {
 
     /**
-     * The currently opened frame.
+     * The engine the static methods act on.
      */
-    protected static JFrame frame;
-
-    /**
-     * The current graphics thread if one is running.
-     */
-    protected static SugaThread graphics;
-
-    /**
-     * The current game logic thread if one is running.
-     */
-    protected static SugaThread logic;
-
-    /**
-     * The logger currently being used by the GameEngine.
-     */
-    protected static Logger logger = new GeneralLogger();
+    protected static final Engine defaultEngine = new Engine();
 
     /**
      * An enum of pre-defined resolutions to open a game window at.
@@ -55,35 +36,49 @@ public class GameEngine {
     }
 
     /**
-     * Accessor method for the logger being used by the GameEngine.
+     * Accessor method for the engine the static methods act on.
+     *
+     * @return The default engine.
+     */
+    public static Engine getDefault () {
+        return defaultEngine;
+    }
+
+    /**
+     * Accessor method for the logger being used by the engine bound to the calling thread. Threads which aren't bound
+     * to an engine use the logger of the default engine.
      *
      * @return The logger currently in use by the GameEngine.
      */
     public static Logger getLogger () {
-        return logger;
+        return Engine.current().getLogger();
     }
 
     /**
-     * Setter method for the logger being used by the GameEngine.
+     * Setter method for the logger being used by the default engine.
      *
      * @param logger The new logger for the GameEngine to use.
      */
     public static void setLogger (Logger logger) {
-        GameEngine.logger.log("GameEngine: Switching to a new logger.");
-        GameEngine.logger = logger;
-        GameEngine.logger.log("GameEngine: Switched logger.");
+        defaultEngine.setLogger(logger);
     }
 
     /**
-     * Closes both the logic and graphics thread.
+     * Closes both the logic and graphics thread of the default engine, along with the game window if there is one.
      */
     public static void stop () {
-        logger.log("GameEngine: Stopping the game.");
-        graphics.setStopped(true);
-        logic.setStopped(true);
-        logger.log("GameEngine: Stopped logic and graphics threads.");
-        frame.dispatchEvent(new WindowEvent(frame, WindowEvent.WINDOW_CLOSING));
-        logger.log("GameEngine: Sent request to close frame.");
+        defaultEngine.stop();
+    }
+
+    /**
+     * Closes both the logic and graphics thread of the default engine, along with the game window if there is one.
+     * Waits up to the given time for the threads to finish.
+     *
+     * @param timeoutMillis The longest time to wait for both threads, in milliseconds.
+     * @return True if both threads finished in time.
+     */
+    public static boolean stop (long timeoutMillis) {
+        return defaultEngine.stop(timeoutMillis);
     }
 
     /**
@@ -104,25 +99,19 @@ public class GameEngine {
     public static void launchGameWindow (int width, int height, String name, boolean border, GraphicsPanel panel,
                                          Color background, int logicRate, int frameRate, GameKeyListener keyListener,
                                          GameMouseListener mouseListener, Game game) {
-        logger.log("GameEngine: Starting the game window.");
-        panel.setBackground(background);
-        frame = new JFrame(name);
-        frame.setSize(width, height);
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.getContentPane().add(panel, BorderLayout.CENTER);
-        frame.setExtendedState(JFrame.MAXIMIZED_BOTH);
-        frame.setUndecorated(!border);
-        frame.setVisible(true);
-        graphics = new GraphicsThread(panel, frameRate);
-        graphics.start();
-        logger.log("GameEngine: Started graphics thread and window.");
-        game.setPanel(panel);
-        keyListener.setFrame(frame);
-        mouseListener.setFrame(frame);
-        game.setKeyListener(keyListener);
-        game.setMouseListener(mouseListener);
-        logic = new GameLogicThread(game, logicRate);
-        logic.start();
-        logger.log("GameEngine: Linked input listeners and started game logic thread.");
+        defaultEngine.launchGameWindow(width, height, name, border, panel, background, logicRate, frameRate,
+                keyListener, mouseListener, game);
+    }
+
+    /**
+     * Starts the given game on the default engine without a window, graphics thread, or input listeners.
+     *
+     * @param game      The game to run.
+     * @param logicRate How many times per second the game logic should be called.
+     * @return The thread running the game logic.
+     * @see Engine#launchHeadless(Game, int)
+     */
+    public static SugaThread launchHeadless (Game game, int logicRate) {
+        return defaultEngine.launchHeadless(game, logicRate);
     }
 }
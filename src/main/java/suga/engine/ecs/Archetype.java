@@ -0,0 +1,221 @@
+package suga.engine.ecs;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * An Archetype holds every entity that has exactly the same set of components. Each component is stored in its own
+ * dense array of doubles so that systems can loop over them without chasing references or making virtual calls. The
+ * fields of the entity in row r for a component of width w are found at [r * w, r * w + w).
+ *
+ * @author Sugaku
+ */
+public class Archetype {
+
+    /**
+     * The mask of the component types held by this archetype.
+     */
+    private final long mask;
+
+    /**
+     * The component types held by this archetype.
+     */
+    private final ComponentType[] types;
+
+    /**
+     * The component arrays of this archetype indexed by component type id. Null for types this archetype doesn't have.
+     */
+    private final double[][] columns = new double[ComponentType.MAX_TYPES][];
+
+    /**
+     * The entity stored in each row of this archetype.
+     */
+    private int[] entities;
+
+    /**
+     * The number of entities in this archetype.
+     */
+    private int size = 0;
+
+    /**
+     * Creates a new, empty, archetype with the given component types.
+     *
+     * @param types The component types held by this archetype.
+     */
+    public Archetype (ComponentType... types) {
+        this.types = types.clone();
+        this.mask = ComponentType.maskOf(types);
+        int capacity = 16;
+        entities = new int[capacity];
+        for (ComponentType type : types) columns[type.getId()] = new double[capacity * type.getWidth()];
+    }
+
+    /**
+     * Accessor method for the mask of the component types held by this archetype.
+     *
+     * @return The mask of this archetype.
+     */
+    public long getMask () {
+        return mask;
+    }
+
+    /**
+     * Accessor method for the component types held by this archetype.
+     *
+     * @return A copy of the component types held by this archetype.
+     */
+    public ComponentType[] getTypes () {
+        return types.clone();
+    }
+
+    /**
+     * Checks whether this archetype holds every component in the given mask.
+     *
+     * @param required The mask of the component types to check for.
+     * @return True if and only if this archetype has every given component.
+     */
+    public boolean matches (long required) {
+        return (mask & required) == required;
+    }
+
+    /**
+     * Accessor method for the number of entities in this archetype.
+     *
+     * @return The number of entities stored in this archetype.
+     */
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Accessor method for the entity in the given row.
+     *
+     * @param row The row to get the entity of.
+     * @return The id of the entity in the given row.
+     */
+    public int getEntity (int row) {
+        return entities[row];
+    }
+
+    /**
+     * Accessor method for the dense array of the given component. Only the first {@link #size()} rows are valid. The
+     * returned array is replaced whenever the archetype grows, so it should not be held onto between updates.
+     *
+     * @param type The component type to get the array of.
+     * @return The array of the given component or null if this archetype doesn't have it.
+     */
+    public double[] column (ComponentType type) {
+        return columns[type.getId()];
+    }
+
+    /**
+     * Adds a new row for the given entity. The components of the new row are all zero.
+     *
+     * @param entity The entity to add to this archetype.
+     * @return The row the entity was added to.
+     */
+    int add (int entity) {
+        if (size == entities.length) {
+            int capacity = entities.length * 2;
+            entities = Arrays.copyOf(entities, capacity);
+            for (ComponentType type : types)
+                columns[type.getId()] = Arrays.copyOf(columns[type.getId()], capacity * type.getWidth());
+        }
+        entities[size] = entity;
+        for (ComponentType type : types)
+            Arrays.fill(columns[type.getId()], size * type.getWidth(), (size + 1) * type.getWidth(), 0);
+        return size++;
+    }
+
+    /**
+     * Removes the given row by moving the last row into its place.
+     *
+     * @param row The row to remove.
+     * @return The entity which was moved into the given row, or -1 if the removed row was the last one.
+     */
+    int remove (int row) {
+        int last = --size;
+        if (row == last) return -1;
+        entities[row] = entities[last];
+        for (ComponentType type : types) {
+            int w = type.getWidth();
+            System.arraycopy(columns[type.getId()], last * w, columns[type.getId()], row * w, w);
+        }
+        return entities[row];
+    }
+
+    /**
+     * Copies the components shared between the given row of this archetype and a row of another archetype.
+     *
+     * @param row     The row in this archetype to copy from.
+     * @param other   The archetype to copy into.
+     * @param dest    The row in the other archetype to copy into.
+     */
+    void copyTo (int row, Archetype other, int dest) {
+        for (ComponentType type : types) {
+            double[] to = other.columns[type.getId()];
+            if (to == null) continue;
+            int w = type.getWidth();
+            System.arraycopy(columns[type.getId()], row * w, to, dest * w, w);
+        }
+    }
+
+    /**
+     * Writes the entities and components of this archetype into the given buffer. Components are written column by
+     * column in order of component id.
+     *
+     * @param buffer The buffer to write to.
+     */
+    void save (ByteBuffer buffer) {
+        buffer.putLong(mask).putInt(size);
+        buffer.asIntBuffer().put(entities, 0, size);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+        for (long m = mask; m != 0; m &= m - 1) {
+            int id = Long.numberOfTrailingZeros(m);
+            int length = size * ComponentType.byId(id).getWidth();
+            buffer.asDoubleBuffer().put(columns[id], 0, length);
+            buffer.position(buffer.position() + length * Double.BYTES);
+        }
+    }
+
+    /**
+     * Replaces the entities and components of this archetype with those in the given buffer. The mask has already been
+     * read from the buffer.
+     *
+     * @param buffer The buffer to read from.
+     */
+    void load (ByteBuffer buffer) {
+        size = buffer.getInt();
+        if (size > entities.length) {
+            int capacity = Math.max(size, entities.length * 2);
+            entities = new int[capacity];
+            for (ComponentType type : types) columns[type.getId()] = new double[capacity * type.getWidth()];
+        }
+        buffer.asIntBuffer().get(entities, 0, size);
+        buffer.position(buffer.position() + size * Integer.BYTES);
+        for (long m = mask; m != 0; m &= m - 1) {
+            int id = Long.numberOfTrailingZeros(m);
+            int length = size * ComponentType.byId(id).getWidth();
+            buffer.asDoubleBuffer().get(columns[id], 0, length);
+            buffer.position(buffer.position() + length * Double.BYTES);
+        }
+    }
+
+    /**
+     * Removes every entity from this archetype.
+     */
+    void clear () {
+        size = 0;
+    }
+
+    /**
+     * Finds the number of bytes {@link #save(ByteBuffer)} would currently write.
+     *
+     * @return The saved size of this archetype in bytes.
+     */
+    int getSaveSize () {
+        int bytes = Long.BYTES + Integer.BYTES + size * Integer.BYTES;
+        for (ComponentType type : types) bytes += size * type.getWidth() * Double.BYTES;
+        return bytes;
+    }
+}
@@ -0,0 +1,153 @@
+package suga.engine.ecs;
+
+/**
+ * A ComponentType describes a component which can be attached to entities in a {@link World}. Every component is a
+ * fixed number of doubles which are stored in dense arrays, one per archetype, rather than in objects.
+ *
+ * @author Sugaku
+ */
+public final class ComponentType {
+
+    /**
+     * The largest number of component types which may exist at once. Archetypes are identified by a bit mask.
+     */
+    public static final int MAX_TYPES = 64;
+
+    /**
+     * Every component type indexed by id.
+     */
+    private static final ComponentType[] TYPES = new ComponentType[MAX_TYPES];
+
+    /**
+     * The number of component types that have been created so far.
+     */
+    private static int created = 0;
+
+    /**
+     * The position of an entity. Stored as x, y, z.
+     */
+    public static final ComponentType POSITION = new ComponentType("position", 3);
+
+    /**
+     * The velocity of an entity. Stored as x, y, z.
+     */
+    public static final ComponentType VELOCITY = new ComponentType("velocity", 3);
+
+    /**
+     * The acceleration of an entity. Stored as x, y, z.
+     */
+    public static final ComponentType ACCELERATION = new ComponentType("acceleration", 3);
+
+    /**
+     * The name of this component type. Only used for debugging.
+     */
+    private final String name;
+
+    /**
+     * The number of doubles that make up this component.
+     */
+    private final int width;
+
+    /**
+     * The unique id of this component type. Used as the bit for this type in archetype masks.
+     */
+    private final int id;
+
+    /**
+     * Creates a new ComponentType with the given name and width.
+     *
+     * @param name  The name of the component type.
+     * @param width The number of doubles that make up this component.
+     */
+    public ComponentType (String name, int width) {
+        if (width <= 0) throw new IllegalArgumentException("Components must have at least one field!");
+        synchronized (ComponentType.class) {
+            if (created >= MAX_TYPES) throw new IllegalStateException("No more than " + MAX_TYPES + " component types may exist!");
+            id = created++;
+            TYPES[id] = this;
+        }
+        this.name = name;
+        this.width = width;
+    }
+
+    /**
+     * Accessor method for the name of this component type.
+     *
+     * @return The name of this component type.
+     */
+    public String getName () {
+        return name;
+    }
+
+    /**
+     * Accessor method for the number of doubles that make up this component.
+     *
+     * @return The width of this component.
+     */
+    public int getWidth () {
+        return width;
+    }
+
+    /**
+     * Accessor method for the unique id of this component type.
+     *
+     * @return The id of this component type.
+     */
+    public int getId () {
+        return id;
+    }
+
+    /**
+     * Accessor method for the bit used by this component type in archetype masks.
+     *
+     * @return The mask bit of this component type.
+     */
+    public long getMask () {
+        return 1L << id;
+    }
+
+    /**
+     * Creates a mask covering all the given component types.
+     *
+     * @param types The component types to include in the mask.
+     * @return The mask with the bit of each given component type set.
+     */
+    public static long maskOf (ComponentType... types) {
+        long mask = 0;
+        for (ComponentType type : types) mask |= type.getMask();
+        return mask;
+    }
+
+    /**
+     * Finds the component type with the given id.
+     *
+     * @param id The id of the component type.
+     * @return The component type or null if there is none with the id.
+     */
+    public static ComponentType byId (int id) {
+        return id < 0 || id >= MAX_TYPES ? null : TYPES[id];
+    }
+
+    /**
+     * Finds every component type in the given mask.
+     *
+     * @param mask The mask of component types.
+     * @return The component types in the mask ordered by id.
+     */
+    public static ComponentType[] fromMask (long mask) {
+        ComponentType[] types = new ComponentType[Long.bitCount(mask)];
+        int i = 0;
+        for (long m = mask; m != 0; m &= m - 1) types[i++] = TYPES[Long.numberOfTrailingZeros(m)];
+        return types;
+    }
+
+    /**
+     * Converts this component type into a string.
+     *
+     * @return The name of this component type.
+     */
+    @Override
+    public String toString () {
+        return name;
+    }
+}
@@ -0,0 +1,25 @@
+package suga.engine.ecs;
+
+/**
+ * An EcsSystem is logic that runs over every entity with a given set of components. Rather than being called once per
+ * entity, systems are handed whole archetypes at a time so that they can loop over the dense component arrays.
+ *
+ * @author Sugaku
+ */
+public interface EcsSystem {
+
+    /**
+     * Accessor method for the components an archetype must have for this system to run on it.
+     *
+     * @return The component types required by this system.
+     */
+    ComponentType[] getComponents ();
+
+    /**
+     * Runs this system over every entity in the given archetype. Entities should not be created or destroyed from
+     * inside this method.
+     *
+     * @param archetype An archetype that has every component required by this system.
+     */
+    void update (Archetype archetype);
+}
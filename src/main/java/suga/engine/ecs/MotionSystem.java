@@ -0,0 +1,41 @@
+package suga.engine.ecs;
+
+/**
+ * The MotionSystem moves entities the same way {@link suga.engine.physics.BasicPhysical} moves physical objects. The
+ * velocity is added to the position and then, if the entity has one, the acceleration is added to the velocity.
+ *
+ * @author Sugaku
+ */
+public class MotionSystem implements EcsSystem {
+
+    /**
+     * The components an archetype must have for this system to run on it.
+     */
+    private static final ComponentType[] COMPONENTS = { ComponentType.POSITION, ComponentType.VELOCITY };
+
+    /**
+     * Accessor method for the components an archetype must have for this system to run on it.
+     *
+     * @return The component types required by this system.
+     */
+    @Override
+    public ComponentType[] getComponents () {
+        return COMPONENTS;
+    }
+
+    /**
+     * Runs this system over every entity in the given archetype.
+     *
+     * @param archetype An archetype that has every component required by this system.
+     */
+    @Override
+    public void update (Archetype archetype) {
+        double[] pos = archetype.column(ComponentType.POSITION);
+        double[] vel = archetype.column(ComponentType.VELOCITY);
+        double[] accel = archetype.column(ComponentType.ACCELERATION);
+        int n = archetype.size() * 3;
+        for (int i = 0; i < n; i++) pos[i] += vel[i];
+        if (accel != null)
+            for (int i = 0; i < n; i++) vel[i] += accel[i];
+    }
+}
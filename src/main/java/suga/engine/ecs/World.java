@@ -0,0 +1,439 @@
+package suga.engine.ecs;
+
+import suga.engine.snapshot.Saveable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A World holds entities made of components, grouped into archetypes, and the systems which run over them. It is meant
+ * for entity types that are numerous enough for per object logic calls to matter. Games can move such types over from
+ * GameObjects one at a time while everything else keeps working as before.
+ * <p>
+ * An entity id packs the index the entity is stored at with the generation of that index, the same way a
+ * {@link suga.engine.game.GameObjectTable} handle does. Destroying an entity moves its index to the next generation, so
+ * ids kept past {@link #destroy(int)} never refer to the entity which later reuses the index.
+ *
+ * @author Sugaku
+ */
+public class World implements Saveable {
+
+    /**
+     * The number of low bits of an entity id holding its index.
+     */
+    public static final int INDEX_BITS = 22;
+
+    /**
+     * The largest number of entities a world can hold at once.
+     */
+    public static final int MAX_ENTITIES = 1 << INDEX_BITS;
+
+    /**
+     * Masks the generation of an entity id once shifted down. Generations wrap around after this many.
+     */
+    protected static final int GENERATION_MASK = (1 << (Integer.SIZE - 1 - INDEX_BITS)) - 1;
+
+    /**
+     * Every archetype in this world indexed by its mask.
+     */
+    protected final Map<Long, Archetype> archetypes = new HashMap<>();
+
+    /**
+     * Every archetype in this world in the order they were created.
+     */
+    protected final List<Archetype> archetypeList = new ArrayList<>();
+
+    /**
+     * The systems of this world in the order they should run.
+     */
+    protected final List<EcsSystem> systems = new ArrayList<>();
+
+    /**
+     * The archetypes each system runs over, in the same order as {@link #systems}.
+     */
+    protected final List<List<Archetype>> matches = new ArrayList<>();
+
+    /**
+     * The number of archetypes that existed when {@link #matches} was last built.
+     */
+    protected int matched = 0;
+
+    /**
+     * The archetype of the entity at each index. Null for indexes which are not currently in use.
+     */
+    protected Archetype[] entityArchetype = new Archetype[16];
+
+    /**
+     * The row the entity at each index is stored at within its archetype.
+     */
+    protected int[] entityRow = new int[16];
+
+    /**
+     * The current generation of each index. Advanced whenever the entity at an index is destroyed.
+     */
+    protected int[] generations = new int[16];
+
+    /**
+     * Indexes whose entity has been destroyed and can be reused.
+     */
+    protected int[] free = new int[16];
+
+    /**
+     * The number of indexes in {@link #free}.
+     */
+    protected int freeCount = 0;
+
+    /**
+     * The next index that has never been used.
+     */
+    protected int nextId = 0;
+
+    /**
+     * The number of living entities in this world.
+     */
+    protected int count = 0;
+
+    /**
+     * Creates a new entity with the given components. Every component starts zeroed.
+     *
+     * @param types The components the new entity has.
+     * @return The id of the new entity.
+     * @throws IllegalStateException Thrown if the world already holds {@link #MAX_ENTITIES} entities.
+     */
+    public int create (ComponentType... types) {
+        int index;
+        if (freeCount > 0) index = free[--freeCount];
+        else if (nextId < MAX_ENTITIES) index = nextId++;
+        else throw new IllegalStateException("The world can't hold more than " + MAX_ENTITIES + " entities.");
+        if (index >= entityArchetype.length) {
+            entityArchetype = Arrays.copyOf(entityArchetype, entityArchetype.length * 2);
+            entityRow = Arrays.copyOf(entityRow, entityArchetype.length);
+            generations = Arrays.copyOf(generations, entityArchetype.length);
+        }
+        int entity = index | generations[index] << INDEX_BITS;
+        Archetype archetype = getArchetype(types);
+        entityArchetype[index] = archetype;
+        entityRow[index] = archetype.add(entity);
+        count++;
+        return entity;
+    }
+
+    /**
+     * Destroys the given entity. Its index may be reused by later entities, but under a new id. Should not be called
+     * while systems are running.
+     *
+     * @param entity The entity to destroy.
+     */
+    public void destroy (int entity) {
+        if (!isAlive(entity)) return;
+        int index = index(entity);
+        detach(entity);
+        entityArchetype[index] = null;
+        generations[index] = (generations[index] + 1) & GENERATION_MASK;
+        if (freeCount == free.length) free = Arrays.copyOf(free, free.length * 2);
+        free[freeCount++] = index;
+        count--;
+    }
+
+    /**
+     * Checks whether the given entity currently exists.
+     *
+     * @param entity The entity to check.
+     * @return True if and only if the entity exists. False once it has been destroyed, even if its index was reused.
+     */
+    public boolean isAlive (int entity) {
+        int index = index(entity);
+        return entity >= 0 && index < nextId && entityArchetype[index] != null
+                && generations[index] == entity >>> INDEX_BITS;
+    }
+
+    /**
+     * Finds the index the given entity is stored at.
+     *
+     * @param entity The id of the entity.
+     * @return The index of the entity.
+     */
+    public static int index (int entity) {
+        return entity & (MAX_ENTITIES - 1);
+    }
+
+    /**
+     * Accessor method for the number of living entities in this world.
+     *
+     * @return The number of entities that exist.
+     */
+    public int size () {
+        return count;
+    }
+
+    /**
+     * Checks whether the given entity has the given component.
+     *
+     * @param entity The entity to check.
+     * @param type   The component type to look for.
+     * @return True if and only if the entity exists and has the component.
+     */
+    public boolean has (int entity, ComponentType type) {
+        return isAlive(entity) && entityArchetype[index(entity)].matches(type.getMask());
+    }
+
+    /**
+     * Adds the given component to the given entity. Moves the entity to a different archetype, so should not be called
+     * while systems are running. The new component starts zeroed.
+     *
+     * @param entity The entity to add the component to.
+     * @param type   The component type to add.
+     */
+    public void addComponent (int entity, ComponentType type) {
+        if (!isAlive(entity) || has(entity, type)) return;
+        ComponentType[] current = entityArchetype[index(entity)].getTypes();
+        ComponentType[] types = Arrays.copyOf(current, current.length + 1);
+        types[current.length] = type;
+        move(entity, getArchetype(types));
+    }
+
+    /**
+     * Removes the given component from the given entity. Moves the entity to a different archetype, so should not be
+     * called while systems are running.
+     *
+     * @param entity The entity to remove the component from.
+     * @param type   The component type to remove.
+     */
+    public void removeComponent (int entity, ComponentType type) {
+        if (!has(entity, type)) return;
+        ComponentType[] types = Arrays.stream(entityArchetype[index(entity)].getTypes())
+                .filter((t) -> t != type).toArray(ComponentType[]::new);
+        move(entity, getArchetype(types));
+    }
+
+    /**
+     * Accessor method for a single field of a component on an entity. Systems should read the archetype arrays
+     * directly instead.
+     *
+     * @param entity The entity to read from.
+     * @param type   The component type to read.
+     * @param field  The index of the field within the component.
+     * @return The value of the field.
+     */
+    public double get (int entity, ComponentType type, int field) {
+        return column(entity, type)[entityRow[index(entity)] * type.getWidth() + field];
+    }
+
+    /**
+     * Sets a single field of a component on an entity.
+     *
+     * @param entity The entity to modify.
+     * @param type   The component type to modify.
+     * @param field  The index of the field within the component.
+     * @param value  The new value of the field.
+     */
+    public void set (int entity, ComponentType type, int field, double value) {
+        column(entity, type)[entityRow[index(entity)] * type.getWidth() + field] = value;
+    }
+
+    /**
+     * Sets every field of a component on an entity.
+     *
+     * @param entity The entity to modify.
+     * @param type   The component type to modify.
+     * @param values The new values of the component. Must match the width of the component type.
+     */
+    public void set (int entity, ComponentType type, double... values) {
+        if (values.length != type.getWidth())
+            throw new IllegalArgumentException("Expected " + type.getWidth() + " values for " + type + ".");
+        System.arraycopy(values, 0, column(entity, type), entityRow[index(entity)] * type.getWidth(), values.length);
+    }
+
+    /**
+     * Destroys every entity in this world. Systems and archetypes are kept, so the world can be filled again without
+     * registering its systems a second time.
+     */
+    public void clear () {
+        for (int i = 0; i < archetypeList.size(); i++) archetypeList.get(i).clear();
+        Arrays.fill(entityArchetype, null);
+        for (int i = 0; i < nextId; i++) generations[i] = (generations[i] + 1) & GENERATION_MASK;
+        nextId = 0;
+        count = 0;
+        freeCount = 0;
+    }
+
+    /**
+     * Adds a system to the end of the list of systems run each update.
+     *
+     * @param system The system to add.
+     */
+    public void addSystem (EcsSystem system) {
+        systems.add(system);
+        matches.add(new ArrayList<>());
+        matched = -1;
+    }
+
+    /**
+     * Runs every system, in order, over every archetype that has the components it needs. Usually called once per
+     * logic tick by the game.
+     */
+    public void update () {
+        if (matched != archetypeList.size()) rebuildMatches();
+        for (int i = 0; i < systems.size(); i++) {
+            EcsSystem system = systems.get(i);
+            List<Archetype> list = matches.get(i);
+            for (int j = 0; j < list.size(); j++) {
+                Archetype archetype = list.get(j);
+                if (archetype.size() > 0) system.update(archetype);
+            }
+        }
+    }
+
+    /**
+     * Finds, or creates, the archetype with exactly the given component types.
+     *
+     * @param types The component types of the archetype.
+     * @return The archetype holding entities with exactly the given components.
+     */
+    public Archetype getArchetype (ComponentType... types) {
+        long mask = ComponentType.maskOf(types);
+        Archetype archetype = archetypes.get(mask);
+        if (archetype == null) {
+            archetype = new Archetype(types);
+            archetypes.put(mask, archetype);
+            archetypeList.add(archetype);
+        }
+        return archetype;
+    }
+
+    /**
+     * Writes every entity and its components into the given buffer, along with the generation of every index. Systems
+     * are not saved.
+     *
+     * @param buffer The buffer to write to.
+     */
+    @Override
+    public void save (ByteBuffer buffer) {
+        buffer.putInt(nextId).putInt(count).putInt(freeCount);
+        buffer.asIntBuffer().put(free, 0, freeCount).put(generations, 0, nextId);
+        buffer.position(buffer.position() + (freeCount + nextId) * Integer.BYTES);
+        int used = 0;
+        for (int i = 0; i < archetypeList.size(); i++) if (archetypeList.get(i).size() > 0) used++;
+        buffer.putInt(used);
+        for (int i = 0; i < archetypeList.size(); i++)
+            if (archetypeList.get(i).size() > 0) archetypeList.get(i).save(buffer);
+    }
+
+    /**
+     * Replaces every entity in this world with those in the given buffer. Entity ids are the same as when the world
+     * was saved, and ids of entities which weren't in it stay invalid. Systems are kept.
+     *
+     * @param buffer The buffer to read from.
+     */
+    @Override
+    public void load (ByteBuffer buffer) {
+        int used = nextId;
+        nextId = buffer.getInt();
+        count = buffer.getInt();
+        freeCount = buffer.getInt();
+        if (freeCount > free.length) free = new int[freeCount];
+        if (nextId > entityArchetype.length) {
+            entityArchetype = new Archetype[nextId];
+            entityRow = new int[nextId];
+            generations = new int[nextId];
+        } else Arrays.fill(entityArchetype, null);
+        buffer.asIntBuffer().get(free, 0, freeCount).get(generations, 0, nextId);
+        buffer.position(buffer.position() + (freeCount + nextId) * Integer.BYTES);
+        for (int i = nextId; i < used; i++) generations[i] = (generations[i] + 1) & GENERATION_MASK;
+        for (int i = 0; i < archetypeList.size(); i++) archetypeList.get(i).clear();
+        int archetypeCount = buffer.getInt();
+        for (int i = 0; i < archetypeCount; i++) {
+            Archetype archetype = findArchetype(buffer.getLong());
+            archetype.load(buffer);
+            for (int row = 0; row < archetype.size(); row++) {
+                int index = index(archetype.getEntity(row));
+                entityArchetype[index] = archetype;
+                entityRow[index] = row;
+            }
+        }
+    }
+
+    /**
+     * Accessor method for the number of bytes {@link #save(ByteBuffer)} would currently write.
+     *
+     * @return The saved size of this world in bytes.
+     */
+    @Override
+    public int getSaveSize () {
+        int bytes = 4 * Integer.BYTES + (freeCount + nextId) * Integer.BYTES;
+        for (Archetype archetype : archetypeList) if (archetype.size() > 0) bytes += archetype.getSaveSize();
+        return bytes;
+    }
+
+    /**
+     * Finds the archetype with the given mask, creating it if needed. Searches the list of archetypes rather than
+     * hashing, so finding an existing archetype doesn't allocate.
+     *
+     * @param mask The mask of component types of the archetype.
+     * @return The archetype with the given mask.
+     */
+    protected Archetype findArchetype (long mask) {
+        for (int i = 0; i < archetypeList.size(); i++)
+            if (archetypeList.get(i).getMask() == mask) return archetypeList.get(i);
+        return getArchetype(ComponentType.fromMask(mask));
+    }
+
+    /**
+     * Rebuilds the list of archetypes each system runs over.
+     */
+    protected void rebuildMatches () {
+        for (int i = 0; i < systems.size(); i++) {
+            long required = ComponentType.maskOf(systems.get(i).getComponents());
+            List<Archetype> list = matches.get(i);
+            list.clear();
+            for (Archetype archetype : archetypeList)
+                if (archetype.matches(required)) list.add(archetype);
+        }
+        matched = archetypeList.size();
+    }
+
+    /**
+     * Finds the array holding the given component for the given entity.
+     *
+     * @param entity The entity to look up.
+     * @param type   The component type to look up.
+     * @return The array of the component in the entity's archetype.
+     */
+    private double[] column (int entity, ComponentType type) {
+        if (!isAlive(entity)) throw new IllegalArgumentException("Entity " + entity + " does not exist.");
+        double[] column = entityArchetype[index(entity)].column(type);
+        if (column == null) throw new IllegalArgumentException("Entity " + entity + " does not have " + type + ".");
+        return column;
+    }
+
+    /**
+     * Moves the given entity into another archetype, keeping the components the two have in common.
+     *
+     * @param entity The entity to move.
+     * @param to     The archetype to move the entity into.
+     */
+    private void move (int entity, Archetype to) {
+        int index = index(entity);
+        Archetype from = entityArchetype[index];
+        int row = to.add(entity);
+        from.copyTo(entityRow[index], to, row);
+        detach(entity);
+        entityArchetype[index] = to;
+        entityRow[index] = row;
+    }
+
+    /**
+     * Removes the given entity's row from its archetype, fixing the row of whichever entity takes its place.
+     *
+     * @param entity The entity to remove from its archetype.
+     */
+    private void detach (int entity) {
+        int index = index(entity);
+        int moved = entityArchetype[index].remove(entityRow[index]);
+        if (moved != -1) entityRow[index(moved)] = entityRow[index];
+    }
+}
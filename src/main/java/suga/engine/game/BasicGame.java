@@ -1,45 +1,183 @@
 package suga.engine.game;
 
 import suga.engine.GameEngine;
+import suga.engine.ecs.World;
 import suga.engine.game.objects.AIAgent;
 import suga.engine.game.objects.GameObject;
+import suga.engine.game.objects.Poolable;
+import suga.engine.game.scripts.ScriptRunner;
+import suga.engine.game.systems.BasicGameSystem;
+import suga.engine.game.systems.GameSystem;
+import suga.engine.game.systems.Resource;
+import suga.engine.game.systems.SystemScheduler;
 import suga.engine.graphics.DrawListener;
 import suga.engine.graphics.GraphicsPanel;
+import suga.engine.graphics.RenderState;
 import suga.engine.input.mouse.BasicMouseListener;
 import suga.engine.input.mouse.GameMouseListener;
 import suga.engine.logger.Level;
 import suga.engine.physics.BasicPhysicsEngine;
+import suga.engine.physics.Physical;
 import suga.engine.physics.PhysicsEngine;
+import suga.engine.physics.Vector;
 import suga.engine.physics.collidables.Collidable;
+import suga.engine.snapshot.Saveable;
+import suga.engine.snapshot.Snapshots;
+import suga.engine.threads.GameLogicThread;
 import suga.engine.threads.SugaThread;
+import suga.engine.threads.TripleBuffer;
 import suga.engine.input.keyboard.GameKeyListener;
 import suga.engine.input.keyboard.KeyValue;
 
+import java.awt.Point;
 import java.awt.event.MouseEvent;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Games require a main game loop to run along with game components that need to be run every game cycle.
  *
  * @author Sugaku
  */
-public class BasicGame implements Game {
+public class BasicGame implements Game, Saveable {
 
     /**
-     * A list of game objects for this game. Their logic should be called every cycle.
+     * Written at the start of every snapshot to recognize it.
      */
-    protected Map<String, GameObject> objects = new HashMap<>();
+    public static final int SNAPSHOT_MAGIC = 0x53554741;
+
+    /**
+     * The version of the snapshot format written by {@link #save(ByteBuffer)}.
+     */
+    public static final int SNAPSHOT_VERSION = 4;
+
+    /**
+     * The game objects for this game indexed by handle. Their logic should be called every cycle.
+     */
+    protected final GameObjectTable objects = new GameObjectTable();
+
+    /**
+     * Used to find which game object is at a given position on screen.
+     */
+    protected GameObjectPicker picker = new GameObjectPicker();
 
     /**
      * The physics engine that will be used with this game.
      */
-    protected PhysicsEngine physics = new BasicPhysicsEngine();
+    protected PhysicsEngine physics = createPhysics();
+
+    /**
+     * Spawns and despawns requested while the loop is running. Applied at the end of each tick.
+     */
+    protected CommandBuffer commands = new CommandBuffer();
+
+    /**
+     * The number of ticks this game has run.
+     */
+    protected long tick = 0;
+
+    /**
+     * The slots of objects whose draw listener is registered by someone other than the game, such as a pool.
+     */
+    protected final BitSet undrawn = new BitSet();
+
+    /**
+     * The draw priority of each object indexed by slot. Saved so that recreated objects are drawn as before.
+     */
+    protected DrawListener.Priorities[] priorities = new DrawListener.Priorities[16];
+
+    /**
+     * The id of each type registered with {@link #registerType(Class, Supplier)}, which objects of that type are saved
+     * with.
+     */
+    protected final Map<Class<?>, Integer> typeIds = new HashMap<>();
+
+    /**
+     * Creates objects of each registered type, indexed by type id.
+     */
+    protected final List<Supplier<? extends GameObject>> factories = new ArrayList<>();
+
+    /**
+     * The pools created by this game. Told to take back their objects whenever objects are removed in bulk.
+     */
+    protected final List<GameObjectPool<?>> pools = new ArrayList<>();
+
+    /**
+     * The handle recorded in each slot by the snapshot being loaded, or {@link GameObjectTable#INVALID}. Kept between
+     * loads to avoid allocating.
+     */
+    protected long[] restored = new long[16];
+
+    /**
+     * The colliders of objects removed by the snapshot being loaded. Kept between loads to avoid allocating.
+     */
+    protected final List<Collidable> restoreRemoved = new ArrayList<>();
+
+    /**
+     * The colliders of objects recreated by the snapshot being loaded. Kept between loads to avoid allocating.
+     */
+    protected final List<Collidable> restoreAdded = new ArrayList<>();
+
+    /**
+     * The last tick an object of an unregistered type was removed on, or -1 if none have been. Snapshots from this
+     * tick or earlier hold objects which can't be recreated.
+     */
+    protected long lastRemoval = -1;
+
+    /**
+     * Whether the game is currently inside {@link #loop()}. While true, spawns and despawns are deferred.
+     */
+    protected volatile boolean ticking = false;
+
+    /**
+     * Applies the commands recorded during a tick to this game.
+     */
+    protected final CommandBuffer.Handler applier = new CommandBuffer.Handler() {
+
+        /**
+         * Called for every recorded spawn.
+         *
+         * @param handle   The handle of the object to spawn.
+         * @param priority The priority the object should be drawn at.
+         * @param drawn    Whether the game should register the object's draw listener.
+         */
+        @Override
+        public void spawn (long handle, DrawListener.Priorities priority, boolean drawn) {
+            BasicGame.this.spawn(handle, priority, drawn);
+        }
+
+        /**
+         * Called for every recorded despawn.
+         *
+         * @param handle The handle of the object to despawn.
+         */
+        @Override
+        public void despawn (long handle) {
+            BasicGame.this.despawn(handle);
+        }
+    };
 
     /**
      * A list of AIAgents that should have their logic run every cycle.
      */
     protected List<AIAgent> agents = new ArrayList<>();
 
+    /**
+     * The entity component world of this game. Holds entity types too numerous to be GameObjects.
+     */
+    protected final World world = new World();
+
+    /**
+     * Runs the stages of the game loop. Stages which don't conflict with each other may run at the same time.
+     */
+    protected SystemScheduler scheduler = createScheduler();
+
+    /**
+     * Runs the scripts of this game once per tick after object logic.
+     */
+    protected final ScriptRunner scripts = new ScriptRunner();
+
     /**
      * A Map of scenes indexed by name.
      */
@@ -55,6 +193,28 @@ public class BasicGame implements Game {
      */
     protected GraphicsPanel panel;
 
+    /**
+     * The render states handed from the logic thread to the drawing thread after each tick.
+     */
+    protected final TripleBuffer<RenderState> renderStates = new TripleBuffer<>(RenderState::new);
+
+    /**
+     * The position each slot had when the last render state was published, as x, y, and z. Used as the previous
+     * position of the next render state.
+     */
+    protected double[] renderedPositions = new double[16 * 3];
+
+    /**
+     * The handle in each slot when the last render state was published. Objects new to a slot don't interpolate.
+     */
+    protected long[] renderedHandles = new long[16];
+
+    /**
+     * The length of a tick in nanoseconds used to interpolate between render states, or 0 to use the period of the
+     * logic thread.
+     */
+    protected long tickNanos = 0;
+
     /**
      * The key listener that is being used by this game.
      */
@@ -72,7 +232,7 @@ public class BasicGame implements Game {
 
     /**
      * Creates a new game without a given panel and game input listeners. These should be set with setters before
-     * calling {@link #loop()}.
+     * calling {@link #loop()}, unless the game is being run headless in which case they can be left unset.
      */
     public BasicGame () {
 
@@ -87,6 +247,7 @@ public class BasicGame implements Game {
      */
     public BasicGame (GraphicsPanel panel, GameKeyListener listener, BasicMouseListener mouseListener) {
         this.panel = panel;
+        if (panel != null) panel.setRenderStates(renderStates);
         keyListener = listener;
         this.mouseListener = mouseListener;
     }
@@ -109,6 +270,7 @@ public class BasicGame implements Game {
     @Override
     public void setPanel (GraphicsPanel panel) {
         this.panel = panel;
+        if (panel != null) panel.setRenderStates(renderStates);
     }
 
     /**
@@ -143,18 +305,134 @@ public class BasicGame implements Game {
     }
 
     /**
-     * The main logic loop for the game. Will be called depending on the rate of the logic thread.
+     * The main logic loop for the game. Will be called depending on the rate of the logic thread. Game objects added or
+     * removed during the loop are spawned and despawned together once every stage has finished. Any stage may have
+     * moved any object, so the picker re-reads every object's bounds before its next pick.
      */
     @Override
     public void loop () {
-        physics.checkCollisions();
-        physics.update();
-        for (AIAgent a : agents) a.runLogic();
-        for (GameObject gO : objects.values()) gO.runLogic();
+        ticking = true;
+        try {
+            scheduler.run();
+        } finally {
+            synchronized (this) {
+                ticking = false;
+                commands.apply(applier);
+            }
+            picker.markDirty();
+        }
+        tick++;
+        if (panel != null) publishRenderState();
+    }
+
+    /**
+     * Copies the position of every physical object into the back render state and hands it to the drawing thread.
+     * Called at the end of each tick while the game has a panel. Objects which aren't Physical are represented by their
+     * collider if they have one, otherwise they're left out.
+     */
+    protected void publishRenderState () {
+        RenderState state = renderStates.getBack();
+        state.clear(tick);
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject object = objects.getAt(i);
+            Physical physical = object instanceof Physical p ? p : object.getCollider();
+            if (physical == null) continue;
+            long handle = objects.handleAt(i);
+            int slot = GameObjectTable.slot(handle);
+            if (slot >= renderedHandles.length) {
+                int length = Math.max(slot + 1, renderedHandles.length * 2);
+                renderedHandles = Arrays.copyOf(renderedHandles, length);
+                renderedPositions = Arrays.copyOf(renderedPositions, length * 3);
+            }
+            Vector pos = physical.getPos();
+            int r = slot * 3;
+            if (renderedHandles[slot] != handle) {
+                renderedHandles[slot] = handle;
+                renderedPositions[r] = pos.getX();
+                renderedPositions[r + 1] = pos.getY();
+                renderedPositions[r + 2] = pos.getZ();
+            }
+            state.add(handle, slot, pos.getX(), pos.getY(), pos.getZ(),
+                    renderedPositions[r], renderedPositions[r + 1], renderedPositions[r + 2]);
+            renderedPositions[r] = pos.getX();
+            renderedPositions[r + 1] = pos.getY();
+            renderedPositions[r + 2] = pos.getZ();
+        }
+        state.setTiming(System.nanoTime(), getTickNanos());
+        renderStates.publish();
+    }
+
+    /**
+     * Finds the length of a tick used to interpolate between render states. Uses the period the logic thread is paced
+     * to rather than the measured time between ticks, which pauses and catch-up bursts would distort.
+     *
+     * @return The length of a tick in nanoseconds, or 0 if it isn't known.
+     */
+    protected long getTickNanos () {
+        if (tickNanos > 0) return tickNanos;
+        return thread instanceof GameLogicThread logic ? logic.getPacer().getPeriod() : 0;
+    }
+
+    /**
+     * Sets the length of a tick used to interpolate between render states, for games which aren't run by a
+     * {@link GameLogicThread}.
+     *
+     * @param nanos The length of a tick in nanoseconds, or 0 to use the period of the logic thread.
+     */
+    public void setTickLength (long nanos) {
+        tickNanos = Math.max(0, nanos);
     }
 
     /**
-     * Processes inputs given by players. Is run during pause.
+     * Creates the physics engine used by this game.
+     *
+     * @return The physics engine to use for this game.
+     */
+    protected PhysicsEngine createPhysics () {
+        return new BasicPhysicsEngine();
+    }
+
+    /**
+     * Creates the scheduler used by {@link #loop()} with the built-in stages of the game loop. These are, in order,
+     * physics, AIAgents, the entity component world, GameObjects, and scripts. Each conflicts with the one before it, so
+     * on their own they run one after another on the logic thread. Once a system is added which doesn't conflict with
+     * all of them, the stages are run on the scheduler's pool instead, still in dependency order.
+     *
+     * @return The scheduler to use for this game.
+     */
+    protected SystemScheduler createScheduler () {
+        SystemScheduler scheduler = new SystemScheduler();
+        scheduler.addSystem(new BasicGameSystem("physics", () -> {
+            physics.checkCollisions();
+            physics.update();
+        }, Set.of(), Set.of(Resource.PHYSICS)));
+        scheduler.addSystem(new BasicGameSystem("agents", () -> {
+            for (AIAgent a : agents) a.runLogic();
+        }, Set.of(), Set.of(Resource.AGENTS, Resource.OBJECTS, Resource.PHYSICS)));
+        scheduler.addSystem(new BasicGameSystem("world", () -> world.update(),
+                Set.of(Resource.OBJECTS), Set.of(Resource.WORLD)));
+        scheduler.addSystem(new BasicGameSystem("objects", () -> {
+            for (int i = 0; i < objects.size(); i++) objects.getAt(i).runLogic();
+        }, Set.of(), Set.of(Resource.OBJECTS, Resource.PHYSICS)));
+        scheduler.addSystem(new BasicGameSystem("scripts", () -> scripts.update(tick),
+                Set.of(), Set.of(Resource.SCRIPTS, Resource.OBJECTS, Resource.PHYSICS)));
+        return scheduler;
+    }
+
+    /**
+     * Adds a system to the game loop. It runs after every earlier stage it conflicts with, and at the same time as any
+     * stages it doesn't conflict with.
+     *
+     * @param system The system to add to the game loop.
+     */
+    @Override
+    public void addSystem (GameSystem system) {
+        scheduler.addSystem(system);
+    }
+
+    /**
+     * Processes inputs given by players. Is run during pause. Input listeners which haven't been set, such as when
+     * running headless, are skipped.
      */
     @Override
     public void processInput () {
@@ -162,11 +440,14 @@ public class BasicGame implements Game {
             GameEngine.getLogger().log("BasicGame: No loaded scene. Cannot process inputs.", Level.WARNING);
             return;
         }
-        Stack<MouseEvent> mice = mouseListener.getEvents();
-        while (mice.size() > 0) {
-            MouseEvent e = mice.pop();
-            loadedScene.mouseInput(e.getPoint(), e.getButton() == 1);
+        if (mouseListener != null) {
+            Stack<MouseEvent> mice = mouseListener.getEvents();
+            while (mice.size() > 0) {
+                MouseEvent e = mice.pop();
+                loadedScene.mouseInput(e.getPoint(), e.getButton() == 1);
+            }
         }
+        if (keyListener == null) return;
         Stack<KeyValue> keys = keyListener.getKeyPresses();
         while (keys.size() > 0)
             loadedScene.keyboardInput(keys.pop(), true);
@@ -176,29 +457,222 @@ public class BasicGame implements Game {
     }
 
     /**
-     * Adds a GameObject by the given name.
+     * Adds a GameObject by the given name. If an object with the same name exists it is removed.
      *
      * @param name The name of the game object. Can be used later to remove the item.
      * @param object The game object to add.
      */
     @Override
     public void addGameObject (String name, GameObject object) {
-        objects.put(name, object);
+        addGameObject(name, object, DrawListener.Priorities.FOREGROUND);
+    }
+
+    /**
+     * Adds a GameObject without a name. It can only be accessed with the returned handle.
+     *
+     * @param object The game object to add.
+     * @return The handle of the game object.
+     */
+    @Override
+    public long addGameObject (GameObject object) {
+        return addGameObject(null, object, DrawListener.Priorities.FOREGROUND);
+    }
+
+    /**
+     * Adds a GameObject by the given name which is drawn at the given priority. If an object with the same name exists
+     * it is removed. When called during {@link #loop()} the object can be found straight away, but only starts running
+     * logic and drawing at the end of the tick. Safe to call from systems running on the scheduler's pool.
+     *
+     * @param name     The name of the game object. May be null.
+     * @param object   The game object to add.
+     * @param priority The priority to draw the game object at.
+     * @return The handle of the game object. Should be kept for fast access to the object later.
+     */
+    @Override
+    public long addGameObject (String name, GameObject object, DrawListener.Priorities priority) {
+        return addGameObject(name, object, priority, true);
+    }
+
+    /**
+     * Adds a GameObject by the given name, possibly leaving its draw listener for the caller to register. Otherwise the
+     * same as {@link #addGameObject(String, GameObject, DrawListener.Priorities)}.
+     *
+     * @param name     The name of the game object. May be null.
+     * @param object   The game object to add.
+     * @param priority The priority the game object is drawn at. Also decides which objects are picked first.
+     * @param drawn    Whether the game should register and remove the object's draw listener.
+     * @return The handle of the game object.
+     */
+    @Override
+    public synchronized long addGameObject (String name, GameObject object, DrawListener.Priorities priority, boolean drawn) {
+        if (name != null) removeGameObject(objects.getHandle(name));
+        long handle = objects.reserve(name, object);
+        if (ticking) commands.spawn(handle, priority, drawn);
+        else spawn(handle, priority, drawn);
+        return handle;
+    }
+
+    /**
+     * Creates a pool which spawns objects into this game, reusing released objects rather than allocating new ones.
+     *
+     * @param factory  Creates new objects when the pool is empty.
+     * @param priority The priority to draw spawned objects at.
+     * @param <T>      The type of object in the pool.
+     * @return The newly created pool.
+     */
+    @Override
+    public <T extends Poolable> GameObjectPool<T> createPool (Supplier<T> factory, DrawListener.Priorities priority) {
+        GameObjectPool<T> pool = new GameObjectPool<>(this, factory, priority);
+        pools.add(pool);
+        return pool;
+    }
+
+    /**
+     * Removes the GameObject with the given handle. Its draw listener and collider are removed as well. When called
+     * during {@link #loop()} the object is removed at the end of the tick instead. Safe to call from systems running
+     * on the scheduler's pool.
+     *
+     * @param handle The handle of the game object to remove.
+     * @return True if an object was, or will be, removed. False if the handle was already invalid.
+     */
+    @Override
+    public synchronized boolean removeGameObject (long handle) {
+        if (!objects.isValid(handle)) return false;
+        if (ticking) commands.despawn(handle);
+        else despawn(handle);
+        return true;
+    }
+
+    /**
+     * Activates a reserved game object, registering its draw listener and collider.
+     *
+     * @param handle   The handle of the reserved game object.
+     * @param priority The priority to draw the game object at.
+     * @param drawn    Whether to register the object's draw listener.
+     */
+    protected void spawn (long handle, DrawListener.Priorities priority, boolean drawn) {
+        if (!objects.activate(handle)) return;
+        Collidable collidable = attach(handle, priority, drawn);
+        if (collidable != null) physics.addObject(collidable);
+    }
+
+    /**
+     * Gives an activated game object its handle and registers its draw listener and pick bounds.
+     *
+     * @param handle   The handle of the activated game object.
+     * @param priority The priority to draw the game object at.
+     * @param drawn    Whether to register the object's draw listener.
+     * @return The collider of the object for the caller to add to physics, or null if it has none.
+     */
+    protected Collidable attach (long handle, DrawListener.Priorities priority, boolean drawn) {
+        GameObject object = objects.get(handle);
+        object.setHandle(handle);
+        int slot = GameObjectTable.slot(handle);
+        undrawn.set(slot, !drawn);
+        if (slot >= priorities.length) priorities = Arrays.copyOf(priorities, Math.max(slot + 1, priorities.length * 2));
+        priorities[slot] = priority;
+        DrawListener listener = object.getDrawListener();
+        if (drawn && listener != null && panel != null) panel.registerListener(priority, listener);
+        picker.add(slot, object, priority);
+        return object.getCollider();
+    }
+
+    /**
+     * Removes a game object from the table along with its draw listener and collider.
+     *
+     * @param handle The handle of the game object to remove.
+     */
+    protected void despawn (long handle) {
+        GameObject object = objects.remove(handle);
+        if (object == null) return;
+        if (!typeIds.containsKey(object.getClass())) lastRemoval = tick;
+        int slot = GameObjectTable.slot(handle);
         DrawListener listener = object.getDrawListener();
-        if (listener != null) panel.registerListener(listener);
+        if (!undrawn.get(slot) && listener != null && panel != null) panel.removeListener(listener);
+        undrawn.clear(slot);
         Collidable collidable = object.getCollider();
-        if (collidable != null) physics.addObject(collidable);
+        if (collidable != null) physics.removeObject(collidable);
+        picker.remove(GameObjectTable.slot(handle));
     }
 
     /**
-     * Accessor method for game objects.
+     * Accessor method for game objects by name. Hashes the name, so code that runs every tick should look the handle up
+     * once with {@link #getHandle(String)} and use {@link #getGameObject(long)} instead.
      *
      * @param name The name of the object to attempt to get.
      * @return The found object or null.
      */
     @Override
-    public GameObject getGameObject (String name) {
-        return objects.get(name);
+    public synchronized GameObject getGameObject (String name) {
+        return objects.get(objects.getHandle(name));
+    }
+
+    /**
+     * Accessor method for game objects by handle. This is a single array access. Synchronized like the methods which
+     * change the table, so systems on the scheduler's pool never see a slot and generation from different changes.
+     *
+     * @param handle The handle of the object to get.
+     * @return The found object or null if the handle is no longer valid.
+     */
+    @Override
+    public synchronized GameObject getGameObject (long handle) {
+        return objects.get(handle);
+    }
+
+    /**
+     * Accessor method for a read only view of every game object. Objects are added and removed through
+     * {@link #addGameObject(String, GameObject)} and {@link #removeGameObject(long)}.
+     *
+     * @return The game objects of this game.
+     */
+    @Override
+    public GameObjectView getObjects () {
+        return objects;
+    }
+
+    /**
+     * Accessor method for the runner of this game's scripts. Scripts started on it are resumed every tick after object
+     * logic.
+     *
+     * @return The script runner of this game.
+     */
+    @Override
+    public ScriptRunner getScripts () {
+        return scripts;
+    }
+
+    /**
+     * Finds the handle of the game object with the given name.
+     *
+     * @param name The name of the object.
+     * @return The handle of the object or {@link GameObjectTable#INVALID} if there is no object with the name.
+     */
+    @Override
+    public synchronized long getHandle (String name) {
+        return objects.getHandle(name);
+    }
+
+    /**
+     * Finds the top most GameObject whose hit box contains the given position. Objects drawn at a higher priority are
+     * considered first. Usually called by scenes when handling mouse input.
+     *
+     * @param pos The position to look for an object at.
+     * @return The top most object at the given position or null.
+     */
+    @Override
+    public GameObject pick (Point pos) {
+        return picker.pick(pos);
+    }
+
+    /**
+     * Marks the game object with the given handle as moved so it can be picked at its new position. Objects moved
+     * during {@link #loop()} are refreshed automatically, this is for objects moved between ticks, such as by a scene
+     * handling input.
+     *
+     * @param handle The handle of the object which has moved.
+     */
+    public void markMoved (long handle) {
+        if (objects.isValid(handle)) picker.markMoved(GameObjectTable.slot(handle));
     }
 
     /**
@@ -211,6 +685,279 @@ public class BasicGame implements Game {
         agents.add(agent);
     }
 
+    /**
+     * Accessor method for the number of ticks this game has run.
+     *
+     * @return The number of times {@link #loop()} has completed.
+     */
+    @Override
+    public long getTick () {
+        return tick;
+    }
+
+    /**
+     * Accessor method for the last tick an object whose type isn't registered was removed on, including by
+     * {@link #clear()}. Loading a snapshot of this tick or an earlier one can't restore every object it holds.
+     *
+     * @return The last tick an object which can't be recreated was removed on, or -1 if none have been.
+     */
+    public long getLastRemoval () {
+        return lastRemoval;
+    }
+
+    /**
+     * Registers a type of game object which can be recreated when a snapshot holding it is loaded after the object was
+     * removed, or into a game which never had it. Objects are matched by their exact class. The factory should create
+     * an object with the same collider and draw listener setup, as only Saveable state is restored into it. Every
+     * game a snapshot is loaded into must register the same types in the same order. Types spawned by a
+     * {@link GameObjectPool} shouldn't be registered, as recreated objects don't belong to the pool.
+     *
+     * @param type    The class of the objects.
+     * @param factory Creates a new object of the type.
+     * @param <T>     The type of the objects.
+     */
+    public <T extends GameObject> void registerType (Class<T> type, Supplier<T> factory) {
+        if (typeIds.containsKey(type)) return;
+        typeIds.put(type, factories.size());
+        factories.add(factory);
+    }
+
+    /**
+     * Writes the state of this game into the given buffer. This includes the tick, the loaded scene, the state of every
+     * Saveable GameObject, collider, AIAgent, and system, the running scripts, and the entity component world. Every
+     * object is recorded with its handle, registered type, name, and draw priority so it can be recreated, and objects
+     * which aren't Saveable are recorded by only that. Doesn't allocate, and saving the same state twice writes the
+     * same bytes. Should not be called during {@link #loop()}.
+     *
+     * @param buffer The buffer to write to. Must have at least {@link #getSaveSize()} bytes remaining.
+     */
+    @Override
+    public void save (ByteBuffer buffer) {
+        buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putLong(tick);
+        Snapshots.putString(buffer, getLoadedSceneName());
+        buffer.putInt(objects.size());
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject object = objects.getAt(i);
+            long handle = objects.handleAt(i);
+            int slot = GameObjectTable.slot(handle);
+            Integer type = typeIds.get(object.getClass());
+            buffer.putLong(handle).putInt(type == null ? -1 : type);
+            Snapshots.putString(buffer, objects.getName(handle));
+            buffer.put((byte) priorities[slot].ordinal()).put((byte) (undrawn.get(slot) ? 0 : 1));
+            putState(buffer, object);
+            Collidable collider = object.getCollider();
+            putState(buffer, collider == object ? null : collider);
+        }
+        buffer.putInt(agents.size());
+        for (AIAgent agent : agents) putState(buffer, agent);
+        scripts.save(buffer);
+        buffer.putInt(scheduler.size());
+        for (int i = 0; i < scheduler.size(); i++) putState(buffer, scheduler.getSystem(i));
+        world.save(buffer);
+    }
+
+    /**
+     * Restores the state of this game from the given buffer. Objects are matched to the snapshot by handle, and restored
+     * in place. Objects which have been added since the snapshot are removed, with their colliders removed from
+     * physics in bulk. Objects in the snapshot which no longer exist are recreated with the factory of their type,
+     * given back their handle, name, and draw priority, and added to physics in bulk. Objects whose type isn't
+     * registered can't be recreated and are skipped, which {@link #getLastRemoval()} can be used to avoid. Objects are
+     * left in the order they were saved in, so logic runs in the same order. The loaded scene is switched back without
+     * being loaded again. Only allocates to recreate objects, and to read events no script has waited on. Should not
+     * be called during {@link #loop()}.
+     *
+     * @param buffer The buffer to read from.
+     * @throws IllegalArgumentException Thrown if the buffer doesn't hold a snapshot of a supported version.
+     */
+    @Override
+    public void load (ByteBuffer buffer) {
+        if (buffer.getInt() != SNAPSHOT_MAGIC) throw new IllegalArgumentException("The buffer does not hold a snapshot.");
+        int version = buffer.getInt();
+        if (version != SNAPSHOT_VERSION) throw new IllegalArgumentException("Unsupported snapshot version " + version + ".");
+        tick = buffer.getLong();
+        if (!Snapshots.matchesString(buffer, getLoadedSceneName())) {
+            loadedScene = null;
+            for (Map.Entry<String, Scene> entry : scenes.entrySet())
+                if (Snapshots.matchesString(buffer, entry.getKey())) loadedScene = entry.getValue();
+        }
+        Snapshots.skipString(buffer);
+        int count = buffer.getInt();
+        int start = buffer.position();
+        Arrays.fill(restored, GameObjectTable.INVALID);
+        for (int i = 0; i < count; i++) {
+            long handle = buffer.getLong();
+            int slot = GameObjectTable.slot(handle);
+            if (slot >= restored.length) restored = Arrays.copyOf(restored, Math.max(slot + 1, restored.length * 2));
+            restored[slot] = handle;
+            skipObject(buffer);
+        }
+        for (int i = objects.size() - 1; i >= 0; i--) {
+            long handle = objects.handleAt(i);
+            int slot = GameObjectTable.slot(handle);
+            if (slot < restored.length && restored[slot] == handle) continue;
+            GameObject object = objects.remove(handle);
+            DrawListener listener = object.getDrawListener();
+            if (!undrawn.get(slot) && listener != null && panel != null) panel.removeListener(listener);
+            undrawn.clear(slot);
+            Collidable collidable = object.getCollider();
+            if (collidable != null) restoreRemoved.add(collidable);
+            picker.remove(slot);
+        }
+        physics.removeObjects(restoreRemoved);
+        restoreRemoved.clear();
+        buffer.position(start);
+        int missing = 0;
+        int placed = 0;
+        for (int i = 0; i < count; i++) {
+            long handle = buffer.getLong();
+            int type = buffer.getInt();
+            GameObject object = objects.get(handle);
+            if (object == null && type >= 0 && type < factories.size()) object = recreate(buffer, handle, type);
+            else {
+                Snapshots.skipString(buffer);
+                buffer.position(buffer.position() + 2);
+            }
+            if (object == null) missing++;
+            else objects.moveTo(handle, placed++);
+            getState(buffer, object);
+            Collidable collider = object == null ? null : object.getCollider();
+            getState(buffer, collider == object ? null : collider);
+        }
+        physics.addObjects(restoreAdded);
+        restoreAdded.clear();
+        int agentCount = buffer.getInt();
+        for (int i = 0; i < agentCount; i++) getState(buffer, i < agents.size() ? agents.get(i) : null);
+        scripts.load(buffer);
+        int systemCount = buffer.getInt();
+        for (int i = 0; i < systemCount; i++) getState(buffer, i < scheduler.size() ? scheduler.getSystem(i) : null);
+        world.load(buffer);
+        picker.markDirty();
+        for (GameObjectPool<?> pool : pools) pool.prune();
+        if (missing > 0)
+            GameEngine.getLogger().log("BasicGame: " + missing + " objects in the snapshot couldn't be recreated and were skipped.", Level.WARNING);
+    }
+
+    /**
+     * Recreates an object of the given type with the given handle, reading its name and draw priority from the buffer.
+     * Its collider is added to {@link #restoreAdded} to be added to physics with the others.
+     *
+     * @param buffer The buffer positioned at the object's name.
+     * @param handle The handle the object had.
+     * @param type   The registered type of the object.
+     * @return The recreated object, or null if the factory failed or the handle's slot is in use.
+     */
+    protected GameObject recreate (ByteBuffer buffer, long handle, int type) {
+        String name = Snapshots.getString(buffer);
+        DrawListener.Priorities priority = DrawListener.Priorities.values()[buffer.get()];
+        boolean drawn = buffer.get() != 0;
+        GameObject object = factories.get(type).get();
+        if (object == null || !objects.reserveAt(handle, name, object)) return null;
+        objects.activate(handle);
+        Collidable collidable = attach(handle, priority, drawn);
+        if (collidable != null) restoreAdded.add(collidable);
+        return object;
+    }
+
+    /**
+     * Moves the position of the buffer past everything recorded for an object after its handle.
+     *
+     * @param buffer The buffer positioned after an object's handle.
+     */
+    protected static void skipObject (ByteBuffer buffer) {
+        buffer.position(buffer.position() + Integer.BYTES);
+        Snapshots.skipString(buffer);
+        buffer.position(buffer.position() + 2);
+        for (int state = 0; state < 2; state++) {
+            int size = buffer.getInt();
+            if (size > 0) buffer.position(buffer.position() + size);
+        }
+    }
+
+    /**
+     * Accessor method for the number of bytes {@link #save(ByteBuffer)} would currently write.
+     *
+     * @return The size of a snapshot of this game in bytes.
+     */
+    @Override
+    public int getSaveSize () {
+        int bytes = 2 * Integer.BYTES + Long.BYTES + Snapshots.stringSize(getLoadedSceneName()) + Integer.BYTES;
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject object = objects.getAt(i);
+            Collidable collider = object.getCollider();
+            bytes += Long.BYTES + Integer.BYTES + Snapshots.stringSize(objects.getName(objects.handleAt(i))) + 2;
+            bytes += stateSize(object) + stateSize(collider == object ? null : collider);
+        }
+        bytes += Integer.BYTES;
+        for (AIAgent agent : agents) bytes += stateSize(agent);
+        bytes += scripts.getSaveSize() + Integer.BYTES;
+        for (int i = 0; i < scheduler.size(); i++) bytes += stateSize(scheduler.getSystem(i));
+        return bytes + world.getSaveSize();
+    }
+
+    /**
+     * Finds the name the loaded scene was registered under.
+     *
+     * @return The name of the loaded scene or null if there is none.
+     */
+    protected String getLoadedSceneName () {
+        if (loadedScene == null) return null;
+        for (Map.Entry<String, Scene> entry : scenes.entrySet())
+            if (entry.getValue() == loadedScene) return entry.getKey();
+        return null;
+    }
+
+    /**
+     * Writes the state of the given object prefixed by its size. Objects which aren't Saveable are written with a size
+     * of -1.
+     *
+     * @param buffer The buffer to write to.
+     * @param object The object to save.
+     */
+    protected static void putState (ByteBuffer buffer, Object object) {
+        if (!(object instanceof Saveable saveable)) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(saveable.getSaveSize());
+        saveable.save(buffer);
+    }
+
+    /**
+     * Reads state written by {@link #putState(ByteBuffer, Object)} into the given object. The state is skipped if the
+     * object is null or not Saveable.
+     *
+     * @param buffer The buffer to read from.
+     * @param object The object to load into. May be null.
+     */
+    protected static void getState (ByteBuffer buffer, Object object) {
+        int size = buffer.getInt();
+        if (size < 0) return;
+        int end = buffer.position() + size;
+        if (object instanceof Saveable saveable) saveable.load(buffer);
+        buffer.position(end);
+    }
+
+    /**
+     * Finds the number of bytes {@link #putState(ByteBuffer, Object)} writes for the given object.
+     *
+     * @param object The object to measure.
+     * @return The size of the object's state including its size prefix.
+     */
+    protected static int stateSize (Object object) {
+        return Integer.BYTES + (object instanceof Saveable saveable ? saveable.getSaveSize() : 0);
+    }
+
+    /**
+     * Accessor method for the entity component world of this game. Its systems are run every tick after AIAgents but
+     * before GameObject logic.
+     *
+     * @return The world holding this game's entities.
+     */
+    @Override
+    public World getWorld () {
+        return world;
+    }
+
     /**
      * Registers a new DrawingListener. This will not register anything beyond the draw method. Usually used by UI,
      * hence the name.
@@ -219,19 +966,34 @@ public class BasicGame implements Game {
      */
     @Override
     public void addDrawingListener (DrawListener listener) {
-        panel.registerListener(listener);
+        if (panel != null) panel.registerListener(listener);
     }
 
     /**
-     * Clears all AIAgents, physics managers, GameObjects, and PanelListeners.
+     * Clears all AIAgents, physics managers, GameObjects, scripts, entities, and PanelListeners. Systems added to the
+     * entity component world are kept. Handles to cleared objects stay invalid, even once their slots are reused, and
+     * an empty render state is published so cleared objects aren't drawn.
      */
     @Override
     public void clear () {
-        physics = new BasicPhysicsEngine();
+        physics = createPhysics();
         agents = new ArrayList<>();
-        objects = new HashMap<>();
+        scripts.clear();
+        world.clear();
+        for (int i = 0; i < objects.size(); i++)
+            if (!typeIds.containsKey(objects.getAt(i).getClass())) lastRemoval = tick;
+        objects.clear();
+        commands.clear();
+        picker.clear();
+        undrawn.clear();
+        for (GameObjectPool<?> pool : pools) pool.prune();
+        Arrays.fill(renderedHandles, GameObjectTable.INVALID);
+        if (panel != null) {
+            renderStates.getBack().clear(tick);
+            renderStates.publish();
+        }
         if (panel != null) panel.clearListeners();
-        else GameEngine.getLogger().log("A clear of game objects was requested but this game does not have an active panel.", Level.WARNING);
+        else GameEngine.getLogger().log("Cleared a game without a panel, there are no listeners to clear.", Level.DEBUG);
         GameEngine.getLogger().log("Cleared game objects.", Level.INFO);
     }
 
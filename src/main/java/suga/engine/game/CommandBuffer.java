@@ -0,0 +1,139 @@
+package suga.engine.game;
+
+import suga.engine.graphics.DrawListener;
+
+import java.util.Arrays;
+
+/**
+ * A CommandBuffer records spawns and despawns of game objects while the game loop is running so that they can be
+ * applied together once nothing is iterating over the game's objects. Commands are stored in parallel arrays so that
+ * recording them doesn't allocate once the buffer has grown to fit a typical tick. Commands may be recorded from any
+ * thread, as systems which don't conflict run on a pool during the tick.
+ *
+ * @author Sugaku
+ */
+public class CommandBuffer {
+
+    /**
+     * Applies the commands of a CommandBuffer.
+     *
+     * @author Sugaku
+     */
+    public interface Handler {
+
+        /**
+         * Called for every recorded spawn.
+         *
+         * @param handle   The handle of the object to spawn.
+         * @param priority The priority the object should be drawn at.
+         * @param drawn    Whether the game should register the object's draw listener.
+         */
+        void spawn (long handle, DrawListener.Priorities priority, boolean drawn);
+
+        /**
+         * Called for every recorded despawn.
+         *
+         * @param handle The handle of the object to despawn.
+         */
+        void despawn (long handle);
+    }
+
+    /**
+     * The handle each command applies to.
+     */
+    protected long[] handles = new long[16];
+
+    /**
+     * The draw priority of each spawn command. Null for despawn commands.
+     */
+    protected DrawListener.Priorities[] priorities = new DrawListener.Priorities[16];
+
+    /**
+     * Whether the game should register the draw listener of each spawn command.
+     */
+    protected boolean[] drawn = new boolean[16];
+
+    /**
+     * The number of commands recorded.
+     */
+    protected int size = 0;
+
+    /**
+     * Records that the object with the given handle should be spawned.
+     *
+     * @param handle   The handle of the object to spawn.
+     * @param priority The priority the object should be drawn at.
+     */
+    public synchronized void spawn (long handle, DrawListener.Priorities priority) {
+        record(handle, priority, true);
+    }
+
+    /**
+     * Records that the object with the given handle should be spawned, possibly without registering its draw listener.
+     *
+     * @param handle   The handle of the object to spawn.
+     * @param priority The priority the object should be drawn at.
+     * @param drawn    Whether the game should register the object's draw listener.
+     */
+    public synchronized void spawn (long handle, DrawListener.Priorities priority, boolean drawn) {
+        record(handle, priority, drawn);
+    }
+
+    /**
+     * Records that the object with the given handle should be despawned.
+     *
+     * @param handle The handle of the object to despawn.
+     */
+    public synchronized void despawn (long handle) {
+        record(handle, null, false);
+    }
+
+    /**
+     * Accessor method for the number of commands waiting to be applied.
+     *
+     * @return The number of commands recorded.
+     */
+    public synchronized int size () {
+        return size;
+    }
+
+    /**
+     * Passes every recorded command to the given handler in the order they were recorded, then clears the buffer.
+     * Commands recorded by the handler are applied as part of the same batch.
+     *
+     * @param handler The handler to apply the commands with.
+     */
+    public synchronized void apply (Handler handler) {
+        for (int i = 0; i < size; i++) {
+            if (priorities[i] == null) handler.despawn(handles[i]);
+            else handler.spawn(handles[i], priorities[i], drawn[i]);
+        }
+        clear();
+    }
+
+    /**
+     * Discards every recorded command.
+     */
+    public synchronized void clear () {
+        Arrays.fill(priorities, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Records a single command.
+     *
+     * @param handle   The handle the command applies to.
+     * @param priority The priority of a spawn or null for a despawn.
+     * @param drawn    Whether the draw listener of a spawned object should be registered.
+     */
+    private void record (long handle, DrawListener.Priorities priority, boolean drawn) {
+        if (size == handles.length) {
+            handles = Arrays.copyOf(handles, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+            this.drawn = Arrays.copyOf(this.drawn, size * 2);
+        }
+        handles[size] = handle;
+        this.drawn[size] = drawn;
+        priorities[size++] = priority;
+    }
+}
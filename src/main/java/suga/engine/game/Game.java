@@ -1,15 +1,27 @@
 package suga.engine.game;
 
+import suga.engine.GameEngine;
+import suga.engine.ecs.World;
 import suga.engine.game.objects.AIAgent;
+import suga.engine.game.scripts.ScriptRunner;
 import suga.engine.game.objects.GameObject;
+import suga.engine.game.objects.Poolable;
+import suga.engine.game.systems.GameSystem;
 import suga.engine.graphics.DrawListener;
 import suga.engine.graphics.GraphicsPanel;
 import suga.engine.input.mouse.GameMouseListener;
+import suga.engine.logger.Level;
 import suga.engine.threads.SugaThread;
 import suga.engine.input.keyboard.GameKeyListener;
 
+import java.awt.*;
+import java.util.function.Supplier;
+
 /**
  * Games require a main game loop to run along with game components that need to be run every game cycle.
+ * <p>
+ * Handles, pools, systems, scripts, and the entity component world are optional. Their methods have defaults which
+ * report them as unsupported, so existing games keep compiling. {@link BasicGame} supports all of them.
  *
  * @author Sugaku
  */
@@ -56,13 +68,25 @@ public interface Game {
      */
     void loop ();
 
+    /**
+     * Adds a system to the game loop. It runs after every earlier stage it conflicts with, and at the same time as any
+     * stages it doesn't conflict with.
+     *
+     * @param system The system to add to the game loop.
+     */
+    default void addSystem (GameSystem system) {
+        GameEngine.getLogger().log("Game: " + getClass().getSimpleName() + " does not support systems.", Level.WARNING);
+    }
+
     /**
      * Processes inputs given by players. Is run during pause.
      */
     void processInput ();
 
     /**
-     * Adds a GameObject by the given name.
+     * Adds a GameObject by the given name. If an object with the same name exists it is removed. Its handle can be
+     * found with {@link #getHandle(String)}, or returned by adding it with
+     * {@link #addGameObject(String, GameObject, DrawListener.Priorities)}.
      *
      * @param name The name of the game object. Can be used later to remove the item.
      * @param object The game object to add.
@@ -70,13 +94,120 @@ public interface Game {
     void addGameObject (String name, GameObject object);
 
     /**
-     * Accessor method for game objects.
+     * Adds a GameObject without a name. It can only be accessed with the returned handle.
+     *
+     * @param object The game object to add.
+     * @return The handle of the game object.
+     */
+    default long addGameObject (GameObject object) {
+        return addGameObject(null, object, DrawListener.Priorities.FOREGROUND);
+    }
+
+    /**
+     * Adds a GameObject by the given name which is drawn at the given priority. If an object with the same name exists
+     * it is removed.
+     *
+     * @param name     The name of the game object. May be null.
+     * @param object   The game object to add.
+     * @param priority The priority to draw the game object at.
+     * @return The handle of the game object. Should be kept for fast access to the object later.
+     */
+    default long addGameObject (String name, GameObject object, DrawListener.Priorities priority) {
+        return addGameObject(name, object, priority, true);
+    }
+
+    /**
+     * Adds a GameObject by the given name, possibly leaving its draw listener for the caller to register. Pools use this
+     * to keep one listener registered for each of their objects rather than registering it again on every spawn. By
+     * default the object is added with {@link #addGameObject(String, GameObject)}, ignoring the priority and whether
+     * it's drawn, and its handle is found by name.
+     *
+     * @param name     The name of the game object. May be null.
+     * @param object   The game object to add.
+     * @param priority The priority the game object is drawn at. Also decides which objects are picked first.
+     * @param drawn    Whether the game should register and remove the object's draw listener.
+     * @return The handle of the game object, or {@link GameObjectTable#INVALID} if this game doesn't support handles.
+     */
+    default long addGameObject (String name, GameObject object, DrawListener.Priorities priority, boolean drawn) {
+        addGameObject(name, object);
+        return getHandle(name);
+    }
+
+    /**
+     * Creates a pool which spawns objects into this game, reusing released objects rather than allocating new ones.
+     *
+     * @param factory  Creates new objects when the pool is empty.
+     * @param priority The priority to draw spawned objects at.
+     * @param <T>      The type of object in the pool.
+     * @return The newly created pool.
+     */
+    default <T extends Poolable> GameObjectPool<T> createPool (Supplier<T> factory, DrawListener.Priorities priority) {
+        return new GameObjectPool<>(this, factory, priority);
+    }
+
+    /**
+     * Removes the GameObject with the given handle. Its draw listener and collider are removed as well.
+     *
+     * @param handle The handle of the game object to remove.
+     * @return True if an object was removed. False if the handle was already invalid, or this game doesn't support
+     * handles.
+     */
+    default boolean removeGameObject (long handle) {
+        GameEngine.getLogger().log("Game: " + getClass().getSimpleName() + " does not support handles.", Level.WARNING);
+        return false;
+    }
+
+    /**
+     * Accessor method for game objects by name. Hashes the name, so code that runs every tick should look the handle up
+     * once with {@link #getHandle(String)} and use {@link #getGameObject(long)} instead.
      *
      * @param name The name of the object to attempt to get.
      * @return The found object or null.
      */
     GameObject getGameObject (String name);
 
+    /**
+     * Accessor method for game objects by handle. This is a single array access.
+     *
+     * @param handle The handle of the object to get.
+     * @return The found object or null if the handle is no longer valid, or this game doesn't support handles.
+     */
+    default GameObject getGameObject (long handle) {
+        return null;
+    }
+
+    /**
+     * Finds the handle of the game object with the given name.
+     *
+     * @param name The name of the object.
+     * @return The handle of the object or {@link GameObjectTable#INVALID} if there is no object with the name, or this
+     * game doesn't support handles.
+     */
+    default long getHandle (String name) {
+        return GameObjectTable.INVALID;
+    }
+
+    /**
+     * Accessor method for a read only view of every game object. Objects are added and removed through
+     * {@link #addGameObject(String, GameObject)} and {@link #removeGameObject(long)}.
+     *
+     * @return The game objects of this game, or null if this game doesn't support handles.
+     */
+    default GameObjectView getObjects () {
+        return null;
+    }
+
+    /**
+     * Finds the top most GameObject whose hit box contains the given position. Objects drawn at a higher priority are
+     * considered first. Usually called by scenes when handling mouse input.
+     *
+     * @param pos The position to look for an object at.
+     * @return The top most object at the given position or null. Always null if this game doesn't support picking.
+     */
+    default GameObject pick (Point pos) {
+        return null;
+    }
+
     /**
      * Registers a new AI agent so that it can be called every tick after collisions but before object logic.
      *
@@ -84,6 +215,35 @@ public interface Game {
      */
     void addAgent (AIAgent agent);
 
+    /**
+     * Accessor method for the runner of this game's scripts. Scripts started on it are resumed every tick after object
+     * logic.
+     *
+     * @return The script runner of this game, or null if this game doesn't support scripts.
+     */
+    default ScriptRunner getScripts () {
+        return null;
+    }
+
+    /**
+     * Accessor method for the number of ticks this game has run.
+     *
+     * @return The number of times {@link #loop()} has completed, or 0 if this game doesn't count ticks.
+     */
+    default long getTick () {
+        return 0;
+    }
+
+    /**
+     * Accessor method for the entity component world of this game. Its systems are run every tick after AIAgents but
+     * before GameObject logic.
+     *
+     * @return The world holding this game's entities, or null if this game doesn't support entities.
+     */
+    default World getWorld () {
+        return null;
+    }
+
     /**
      * Registers a new DrawingListener. This will not register anything beyond the draw method. Usually used by UI,
      * hence the name.
@@ -0,0 +1,257 @@
+package suga.engine.game;
+
+import suga.engine.game.objects.GameObject;
+import suga.engine.graphics.DrawListener;
+import suga.engine.physics.GridSpatialIndex;
+import suga.engine.physics.Physical;
+import suga.engine.physics.collidables.Collidable;
+import suga.engine.physics.hitboxes.HitBox;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The GameObjectPicker resolves a position on screen to the top most GameObject drawn there. Objects are found through
+ * a spatial index over their hit boxes, so a click only looks at the objects near it. Objects drawn at a higher
+ * priority are on top, and within the same priority objects added later are on top as they're drawn later. The index
+ * is only refreshed on the first pick after something has moved. Objects can be reported as moved one at a time, or
+ * the whole picker marked dirty when any object may have moved, such as after a tick has run game code. A dirty refresh
+ * re-reads every object's bounds but only touches the grid for objects which changed cells.
+ *
+ * @author Sugaku
+ */
+public class GameObjectPicker {
+
+    /**
+     * The spatial index over the bounds of each pickable object.
+     */
+    protected final GridSpatialIndex index;
+
+    /**
+     * The objects known to this picker indexed by their id.
+     */
+    protected GameObject[] objects = new GameObject[16];
+
+    /**
+     * The draw priority of each object indexed by id. Higher values are drawn on top.
+     */
+    protected int[] layers = new int[16];
+
+    /**
+     * The order each object was added in indexed by id. Higher values are drawn on top.
+     */
+    protected long[] order = new long[16];
+
+    /**
+     * One more than the largest id that has been used.
+     */
+    protected int limit = 0;
+
+    /**
+     * The number of objects that have been added. Used to order objects within the same priority.
+     */
+    protected long added = 0;
+
+    /**
+     * Whether every object may have moved since the index was last refreshed.
+     */
+    protected boolean dirty = false;
+
+    /**
+     * The ids of objects which have moved since the index was last refreshed.
+     */
+    protected final BitSet moved = new BitSet();
+
+    /**
+     * The id of each object indexed by its collider. Used to find which entry a moved collider belongs to.
+     */
+    protected final Map<Collidable, Integer> ids = new IdentityHashMap<>();
+
+    /**
+     * The collider each object had when it was added, indexed by id.
+     */
+    protected Collidable[] colliders = new Collidable[16];
+
+    /**
+     * Holds the bounds of the object being updated, so updating doesn't allocate.
+     */
+    private final double[] bounds = new double[4];
+
+    /**
+     * The best candidate found by the current pick.
+     */
+    private int best;
+
+    /**
+     * Creates a new GameObjectPicker with a cell size of 64 pixels.
+     */
+    public GameObjectPicker () {
+        this(64);
+    }
+
+    /**
+     * Creates a new GameObjectPicker with the given cell size. Cells should be around the size of a typical object.
+     *
+     * @param cellSize The width and height of a single cell in the spatial index.
+     */
+    public GameObjectPicker (double cellSize) {
+        index = new GridSpatialIndex(cellSize);
+    }
+
+    /**
+     * Adds the given object to this picker. Objects without a collider are remembered but can't be picked until they
+     * have one. If there is already an object with the given id it is replaced.
+     *
+     * @param id       The id of the object. Should be small and dense, such as the slot of its handle.
+     * @param object   The object to make pickable.
+     * @param priority The priority the object is drawn at.
+     */
+    public void add (int id, GameObject object, DrawListener.Priorities priority) {
+        if (id >= objects.length) {
+            int length = Math.max(id + 1, objects.length * 2);
+            objects = Arrays.copyOf(objects, length);
+            layers = Arrays.copyOf(layers, length);
+            order = Arrays.copyOf(order, length);
+            colliders = Arrays.copyOf(colliders, length);
+        }
+        if (objects[id] != null) remove(id);
+        objects[id] = object;
+        colliders[id] = object.getCollider();
+        if (colliders[id] != null) ids.put(colliders[id], id);
+        layers[id] = layer(priority);
+        order[id] = added++;
+        limit = Math.max(limit, id + 1);
+        update(id);
+    }
+
+    /**
+     * Removes the object with the given id from this picker.
+     *
+     * @param id The id of the object which should no longer be pickable.
+     */
+    public void remove (int id) {
+        if (id < 0 || id >= limit) return;
+        index.remove(id);
+        if (colliders[id] != null) ids.remove(colliders[id]);
+        objects[id] = null;
+        colliders[id] = null;
+        moved.clear(id);
+    }
+
+    /**
+     * Removes every object from this picker.
+     */
+    public void clear () {
+        index.clear();
+        Arrays.fill(objects, null);
+        Arrays.fill(colliders, null);
+        ids.clear();
+        moved.clear();
+        limit = 0;
+        dirty = false;
+    }
+
+    /**
+     * Marks the whole index as out of date, such as after a snapshot is loaded. Every entry is refreshed on the next
+     * pick. Prefer {@link #markMoved(int)} when only a few objects have moved.
+     */
+    public void markDirty () {
+        dirty = true;
+    }
+
+    /**
+     * Marks the entry of the object with the given id as out of date. It's refreshed on the next pick.
+     *
+     * @param id The id of the object which has moved.
+     */
+    public void markMoved (int id) {
+        if (id >= 0 && id < limit && objects[id] != null) moved.set(id);
+    }
+
+    /**
+     * Marks the entry of the object with the given collider as out of date. Given to the physics engine so that objects
+     * it moves are refreshed. Colliders which don't belong to a pickable object are ignored.
+     *
+     * @param physical The physical object which has moved.
+     */
+    public void moved (Physical physical) {
+        Integer id = ids.get(physical);
+        if (id != null) moved.set(id);
+    }
+
+    /**
+     * Re-reads the hit box of every out of date object, or of every object if the picker is dirty, and moves its entry
+     * in the index if needed. Objects whose bounds are still within the same cells only have their bounds updated.
+     */
+    public void refresh () {
+        if (dirty) {
+            for (int id = 0; id < limit; id++)
+                if (objects[id] != null) update(id);
+        } else {
+            for (int id = moved.nextSetBit(0); id >= 0; id = moved.nextSetBit(id + 1))
+                if (objects[id] != null) update(id);
+        }
+        moved.clear();
+        dirty = false;
+    }
+
+    /**
+     * Finds the top most object whose hit box contains the given point.
+     *
+     * @param pos The point to pick at.
+     * @return The top most object at the given point or null if there are none.
+     */
+    public GameObject pick (Point pos) {
+        return pick(pos.getX(), pos.getY());
+    }
+
+    /**
+     * Finds the top most object whose hit box contains the given point.
+     *
+     * @param x The x value of the point to pick at.
+     * @param y The y value of the point to pick at.
+     * @return The top most object at the given point or null if there are none.
+     */
+    public GameObject pick (double x, double y) {
+        if (dirty || !moved.isEmpty()) refresh();
+        best = -1;
+        index.queryPoint(x, y, (id) -> {
+            if (best == -1 || layers[id] > layers[best] || (layers[id] == layers[best] && order[id] > order[best]))
+                best = id;
+        });
+        return best == -1 ? null : objects[best];
+    }
+
+    /**
+     * Updates the entry of the object with the given id to match its current hit box.
+     *
+     * @param id The id of the object to update.
+     */
+    protected void update (int id) {
+        Collidable collider = objects[id].getCollider();
+        HitBox hitBox = collider == null ? null : collider.getHitBox();
+        if (hitBox == null) {
+            index.remove(id);
+            return;
+        }
+        hitBox.writeBounds(bounds, 0);
+        index.put(id, bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    /**
+     * Converts the given draw priority into a layer number. Higher numbers are drawn on top.
+     *
+     * @param priority The priority to convert.
+     * @return The layer the priority is drawn at.
+     */
+    protected static int layer (DrawListener.Priorities priority) {
+        return switch (priority) {
+            case BACKGROUND -> 0;
+            case FOREGROUND -> 1;
+            case GUI -> 2;
+        };
+    }
+}
@@ -0,0 +1,318 @@
+package suga.engine.game;
+
+import suga.engine.game.objects.Poolable;
+import suga.engine.graphics.DrawListener;
+import suga.engine.graphics.GraphicsPanel;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * A GameObjectPool spawns objects of a single type into a game, reusing released objects rather than allocating new
+ * ones. Released objects are reset and kept until the game has actually removed them, which may be at the end of the
+ * current tick, and are then handed out again by the next spawn. Each pooled object keeps a single draw listener
+ * registered with the panel for as long as the pool exists, which only draws the object while it's spawned, so
+ * spawning and releasing never changes the panel's listeners.
+ *
+ * @param <T> The type of object in this pool.
+ * @author Sugaku
+ */
+public class GameObjectPool<T extends Poolable> {
+
+    /**
+     * A pooled object along with the listener which draws it while it's spawned.
+     *
+     * @author Sugaku
+     */
+    protected final class Entry implements DrawListener {
+
+        /**
+         * The pooled object.
+         */
+        protected final T object;
+
+        /**
+         * Whether the object is spawned and should be drawn.
+         */
+        protected volatile boolean visible = false;
+
+        /**
+         * The panel this entry is registered with, or null if it isn't registered.
+         */
+        protected GraphicsPanel panel = null;
+
+        /**
+         * The number of times the panel had been cleared when this entry was registered.
+         */
+        protected int clears = 0;
+
+        /**
+         * Creates a new Entry for the given object.
+         *
+         * @param object The pooled object.
+         */
+        protected Entry (T object) {
+            this.object = object;
+        }
+
+        /**
+         * Draws the object if it's spawned.
+         *
+         * @param width  The width of the pixel map.
+         * @param height The height of the pixel map.
+         * @param panel  The panel to apply changes to.
+         */
+        @Override
+        public void applyChanges (int width, int height, GraphicsPanel panel) {
+            if (!visible) return;
+            DrawListener listener = object.getDrawListener();
+            if (listener != null) listener.applyChanges(width, height, panel);
+        }
+
+        /**
+         * Registers this entry with the game's panel unless it's already registered there. Entries are registered again
+         * after the panel's listeners are cleared, such as by a scene load.
+         */
+        protected void register () {
+            GraphicsPanel current = game.getPanel();
+            if (current == panel && (current == null || current.getClears() == clears)) return;
+            if (panel != null && panel != current) panel.removeListener(this);
+            panel = null;
+            if (current == null || object.getDrawListener() == null) return;
+            current.registerListener(priority, this);
+            panel = current;
+            clears = current.getClears();
+        }
+    }
+
+    /**
+     * The game objects from this pool are spawned into.
+     */
+    protected final Game game;
+
+    /**
+     * Creates new objects when the pool is empty.
+     */
+    protected final Supplier<T> factory;
+
+    /**
+     * The priority objects from this pool are drawn at.
+     */
+    protected final DrawListener.Priorities priority;
+
+    /**
+     * Entries which are ready to be spawned. Only the first {@link #freeCount} values are valid.
+     */
+    protected Object[] free = new Object[16];
+
+    /**
+     * The number of entries in {@link #free}.
+     */
+    protected int freeCount = 0;
+
+    /**
+     * Released entries which the game may not have removed yet. Only the first {@link #releasedCount} values are valid.
+     */
+    protected Object[] released = new Object[16];
+
+    /**
+     * The handle each released object had, indexed the same as {@link #released}.
+     */
+    protected long[] releasedHandles = new long[16];
+
+    /**
+     * The number of entries in {@link #released}.
+     */
+    protected int releasedCount = 0;
+
+    /**
+     * The spawned entry in each handle slot. Used to tell whether a handle was given out by this pool.
+     */
+    protected Object[] spawned = new Object[16];
+
+    /**
+     * The handle each spawned entry was given, indexed the same as {@link #spawned}.
+     */
+    protected long[] spawnedHandles = new long[16];
+
+    /**
+     * The number of objects from this pool that are currently spawned.
+     */
+    protected int active = 0;
+
+    /**
+     * Creates a new, empty, GameObjectPool. Pools should usually be created with
+     * {@link Game#createPool(Supplier, DrawListener.Priorities)} so the game can tell them when it removes their objects.
+     *
+     * @param game     The game to spawn objects into.
+     * @param factory  Creates new objects when the pool is empty.
+     * @param priority The priority to draw spawned objects at.
+     */
+    public GameObjectPool (Game game, Supplier<T> factory, DrawListener.Priorities priority) {
+        this.game = game;
+        this.factory = factory;
+        this.priority = priority;
+    }
+
+    /**
+     * Creates the given number of objects ahead of time so that spawning them later doesn't allocate.
+     *
+     * @param count The number of objects to create.
+     */
+    public void prewarm (int count) {
+        for (int i = 0; i < count; i++) push(new Entry(factory.get()));
+    }
+
+    /**
+     * Spawns an object into the game, reusing a released one if possible. Spawning during a tick takes effect once the
+     * tick has finished.
+     *
+     * @return The handle of the spawned object.
+     */
+    public long spawn () {
+        reclaim();
+        Entry entry = freeCount > 0 ? pop() : new Entry(factory.get());
+        entry.register();
+        long handle = game.addGameObject(null, entry.object, priority, false);
+        int slot = GameObjectTable.slot(handle);
+        if (slot >= spawned.length) {
+            int length = Math.max(slot + 1, spawned.length * 2);
+            spawned = Arrays.copyOf(spawned, length);
+            spawnedHandles = Arrays.copyOf(spawnedHandles, length);
+        }
+        if (spawned[slot] != null) recycle(slot);
+        spawned[slot] = entry;
+        spawnedHandles[slot] = handle;
+        entry.visible = true;
+        active++;
+        return handle;
+    }
+
+    /**
+     * Accessor method for a spawned object by handle.
+     *
+     * @param handle The handle of the object.
+     * @return The object or null if the handle is invalid or wasn't given out by this pool.
+     */
+    public T get (long handle) {
+        Entry entry = entry(handle);
+        return entry == null ? null : entry.object;
+    }
+
+    /**
+     * Removes the object with the given handle from the game and returns it to this pool. The object is reset once the
+     * game has removed it.
+     *
+     * @param handle The handle of the object to release.
+     * @return True if the object was released. False if the handle is invalid or wasn't given out by this pool.
+     */
+    public boolean release (long handle) {
+        Entry entry = entry(handle);
+        if (entry == null || !game.removeGameObject(handle)) return false;
+        spawned[GameObjectTable.slot(handle)] = null;
+        entry.visible = false;
+        active--;
+        if (releasedCount == released.length) {
+            released = Arrays.copyOf(released, releasedCount * 2);
+            releasedHandles = Arrays.copyOf(releasedHandles, releasedCount * 2);
+        }
+        released[releasedCount] = entry;
+        releasedHandles[releasedCount++] = handle;
+        return true;
+    }
+
+    /**
+     * Accessor method for the number of objects from this pool that are currently spawned.
+     *
+     * @return The number of spawned objects.
+     */
+    public int getActive () {
+        return active;
+    }
+
+    /**
+     * Accessor method for the number of objects waiting to be spawned again.
+     *
+     * @return The number of free objects, including released ones the game may not have removed yet.
+     */
+    public int getFree () {
+        return freeCount + releasedCount;
+    }
+
+    /**
+     * Takes back every spawned object which the game has removed without it being released, such as by clearing the
+     * game or loading a snapshot. Called by the game after it removes objects in bulk.
+     */
+    protected void prune () {
+        for (int slot = 0; slot < spawned.length; slot++)
+            if (spawned[slot] != null && game.getGameObject(spawnedHandles[slot]) == null) recycle(slot);
+        reclaim();
+    }
+
+    /**
+     * Finds the spawned entry with the given handle.
+     *
+     * @param handle The handle of the object.
+     * @return The entry or null if the handle is invalid or wasn't given out by this pool.
+     */
+    @SuppressWarnings("unchecked")
+    protected Entry entry (long handle) {
+        int slot = GameObjectTable.slot(handle);
+        if (slot < 0 || slot >= spawned.length || spawned[slot] == null || spawnedHandles[slot] != handle) return null;
+        Entry entry = (Entry) spawned[slot];
+        return game.getGameObject(handle) == entry.object ? entry : null;
+    }
+
+    /**
+     * Moves released objects into the free stack once the game has removed them. Removals are applied in the order they
+     * were requested, so once the most recently released object is gone every other released object is as well.
+     */
+    @SuppressWarnings("unchecked")
+    protected void reclaim () {
+        if (releasedCount == 0 || game.getGameObject(releasedHandles[releasedCount - 1]) != null) return;
+        for (int i = 0; i < releasedCount; i++) {
+            Entry entry = (Entry) released[i];
+            released[i] = null;
+            entry.object.reset();
+            push(entry);
+        }
+        releasedCount = 0;
+    }
+
+    /**
+     * Takes back the spawned entry in the given slot, whose object the game has already removed.
+     *
+     * @param slot The slot of the entry.
+     */
+    @SuppressWarnings("unchecked")
+    private void recycle (int slot) {
+        Entry entry = (Entry) spawned[slot];
+        spawned[slot] = null;
+        entry.visible = false;
+        entry.object.reset();
+        push(entry);
+        active--;
+    }
+
+    /**
+     * Pushes the given entry onto the free stack.
+     *
+     * @param entry The entry which is ready to be spawned.
+     */
+    private void push (Entry entry) {
+        if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+        free[freeCount++] = entry;
+    }
+
+    /**
+     * Pops an entry off of the free stack.
+     *
+     * @return The most recently freed entry.
+     */
+    @SuppressWarnings("unchecked")
+    private Entry pop () {
+        Entry entry = (Entry) free[--freeCount];
+        free[freeCount] = null;
+        return entry;
+    }
+}
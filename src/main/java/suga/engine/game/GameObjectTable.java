@@ -0,0 +1,370 @@
+package suga.engine.game;
+
+import suga.engine.game.objects.GameObject;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The GameObjectTable stores game objects by handle. A handle packs the slot an object is stored in with the generation
+ * of that slot, so looking an object up is a single array access and handles to removed objects never find the object
+ * that reuses their slot. Objects are also kept in a dense array so they can be iterated without gaps. Names are kept
+ * in a separate index which should only be used for the occasional lookup.
+ *
+ * @author Sugaku
+ */
+public class GameObjectTable implements GameObjectView {
+
+    /**
+     * A handle which never refers to an object.
+     */
+    public static final long INVALID = 0;
+
+    /**
+     * The object in each slot. Null for unused slots.
+     */
+    protected GameObject[] slots = new GameObject[16];
+
+    /**
+     * The current generation of each slot. Incremented whenever the object in a slot is removed.
+     */
+    protected int[] generations = new int[16];
+
+    /**
+     * The position of each slot in the dense array. -1 for unused slots.
+     */
+    protected int[] densePos = new int[16];
+
+    /**
+     * The name of the object in each slot. Null if the object was added without a name.
+     */
+    protected String[] slotNames = new String[16];
+
+    /**
+     * Every object in the table with no gaps. Only the first {@link #size} values are valid.
+     */
+    protected GameObject[] dense = new GameObject[16];
+
+    /**
+     * The slot of each object in the dense array.
+     */
+    protected int[] denseSlot = new int[16];
+
+    /**
+     * The number of objects in the table.
+     */
+    protected int size = 0;
+
+    /**
+     * Slots which are unused and can be reused.
+     */
+    protected int[] free = new int[16];
+
+    /**
+     * The number of slots in {@link #free}.
+     */
+    protected int freeCount = 0;
+
+    /**
+     * The next slot that has never been used.
+     */
+    protected int nextSlot = 0;
+
+    /**
+     * The handle of each named object indexed by name.
+     */
+    protected final Map<String, Long> names = new HashMap<>();
+
+    /**
+     * Creates a new, empty, GameObjectTable.
+     */
+    public GameObjectTable () {
+        Arrays.fill(generations, 1);
+        Arrays.fill(densePos, -1);
+    }
+
+    /**
+     * Adds the given object to the table. If another object already has the given name it stops being findable by
+     * name, but otherwise remains in the table.
+     *
+     * @param name   The name of the object. May be null.
+     * @param object The object to add.
+     * @return The handle of the object.
+     */
+    public long add (String name, GameObject object) {
+        long handle = reserve(name, object);
+        activate(handle);
+        return handle;
+    }
+
+    /**
+     * Gives the given object a slot and handle without adding it to the dense array. The object can be found by handle
+     * and by name, but isn't iterated over until {@link #activate(long)} is called.
+     *
+     * @param name   The name of the object. May be null.
+     * @param object The object to reserve a slot for.
+     * @return The handle of the object.
+     */
+    public long reserve (String name, GameObject object) {
+        int slot;
+        if (freeCount > 0) slot = free[--freeCount];
+        else {
+            slot = nextSlot++;
+            if (slot >= slots.length) grow(slots.length * 2);
+        }
+        slots[slot] = object;
+        slotNames[slot] = name;
+        long handle = handle(slot, generations[slot]);
+        if (name != null) {
+            Long previous = names.put(name, handle);
+            if (previous != null && isValid(previous)) slotNames[slot(previous)] = null;
+        }
+        return handle;
+    }
+
+    /**
+     * Gives the given object the exact slot and generation of the given handle, such as when recreating an object
+     * from a snapshot. Otherwise the same as {@link #reserve(String, GameObject)}.
+     *
+     * @param handle The handle the object should have.
+     * @param name   The name of the object. May be null.
+     * @param object The object to reserve a slot for.
+     * @return True if the object was given the handle. False if the handle is invalid or its slot is in use.
+     */
+    public boolean reserveAt (long handle, String name, GameObject object) {
+        int slot = slot(handle);
+        if (slot < 0 || generation(handle) == 0) return false;
+        if (slot < nextSlot) {
+            if (slots[slot] != null) return false;
+            for (int i = 0; i < freeCount; i++) {
+                if (free[i] == slot) {
+                    free[i] = free[--freeCount];
+                    break;
+                }
+            }
+        } else {
+            if (slot >= slots.length) grow(Math.max(slot + 1, slots.length * 2));
+            for (int unused = nextSlot; unused < slot; unused++) {
+                if (freeCount == free.length) free = Arrays.copyOf(free, free.length * 2);
+                free[freeCount++] = unused;
+            }
+            nextSlot = slot + 1;
+        }
+        generations[slot] = generation(handle);
+        slots[slot] = object;
+        slotNames[slot] = name;
+        if (name != null) {
+            Long previous = names.put(name, handle);
+            if (previous != null && previous != handle && isValid(previous)) slotNames[slot(previous)] = null;
+        }
+        return true;
+    }
+
+    /**
+     * Adds a reserved object to the dense array so that it is iterated over.
+     *
+     * @param handle The handle of the reserved object.
+     * @return True if the object was activated. False if the handle is invalid or the object is already active.
+     */
+    public boolean activate (long handle) {
+        if (!isValid(handle)) return false;
+        int slot = slot(handle);
+        if (densePos[slot] != -1) return false;
+        if (size == dense.length) {
+            dense = Arrays.copyOf(dense, size * 2);
+            denseSlot = Arrays.copyOf(denseSlot, size * 2);
+        }
+        dense[size] = slots[slot];
+        denseSlot[size] = slot;
+        densePos[slot] = size++;
+        return true;
+    }
+
+    /**
+     * Removes the object with the given handle. The handle, and any copies of it, become invalid.
+     *
+     * @param handle The handle of the object to remove.
+     * @return The removed object or null if the handle was already invalid.
+     */
+    public GameObject remove (long handle) {
+        if (!isValid(handle)) return null;
+        int slot = slot(handle);
+        GameObject object = slots[slot];
+        int pos = densePos[slot];
+        if (pos != -1) {
+            int last = --size;
+            if (pos != last) {
+                dense[pos] = dense[last];
+                denseSlot[pos] = denseSlot[last];
+                densePos[denseSlot[pos]] = pos;
+            }
+            dense[last] = null;
+            densePos[slot] = -1;
+        }
+        if (slotNames[slot] != null) names.remove(slotNames[slot]);
+        slotNames[slot] = null;
+        slots[slot] = null;
+        generations[slot] = generations[slot] == Integer.MAX_VALUE ? 1 : generations[slot] + 1;
+        if (freeCount == free.length) free = Arrays.copyOf(free, free.length * 2);
+        free[freeCount++] = slot;
+        return object;
+    }
+
+    /**
+     * Accessor method for the object with the given handle.
+     *
+     * @param handle The handle of the object.
+     * @return The object or null if the handle is invalid.
+     */
+    @Override
+    public GameObject get (long handle) {
+        int slot = slot(handle);
+        if (slot < 0 || slot >= nextSlot || generations[slot] != generation(handle)) return null;
+        return slots[slot];
+    }
+
+    /**
+     * Checks whether the given handle refers to an object in the table.
+     *
+     * @param handle The handle to check.
+     * @return True if and only if the handle refers to an object.
+     */
+    @Override
+    public boolean isValid (long handle) {
+        return get(handle) != null;
+    }
+
+    /**
+     * Finds the handle of the object with the given name. The handle should be kept rather than looking the name up
+     * repeatedly.
+     *
+     * @param name The name of the object.
+     * @return The handle of the object or {@link #INVALID} if there is no object with the name.
+     */
+    @Override
+    public long getHandle (String name) {
+        Long handle = names.get(name);
+        return handle == null ? INVALID : handle;
+    }
+
+    /**
+     * Accessor method for the number of active objects in the table.
+     *
+     * @return The number of objects in the dense array.
+     */
+    @Override
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Accessor method for an object by its position in the dense array. Removing an object moves the last object into
+     * its position.
+     *
+     * @param i The position in the dense array, from 0 to {@link #size()} - 1.
+     * @return The object at the given position.
+     */
+    @Override
+    public GameObject getAt (int i) {
+        return dense[i];
+    }
+
+    /**
+     * Accessor method for the handle of an object by its position in the dense array.
+     *
+     * @param i The position in the dense array, from 0 to {@link #size()} - 1.
+     * @return The handle of the object at the given position.
+     */
+    @Override
+    public long handleAt (int i) {
+        int slot = denseSlot[i];
+        return handle(slot, generations[slot]);
+    }
+
+    /**
+     * Moves the active object with the given handle to the given position in the dense array, swapping it with the
+     * object there. Used to restore the order objects are iterated in.
+     *
+     * @param handle The handle of the object to move.
+     * @param i      The position to move it to, from 0 to {@link #size()} - 1.
+     */
+    public void moveTo (long handle, int i) {
+        if (!isValid(handle) || i < 0 || i >= size) return;
+        int slot = slot(handle);
+        int pos = densePos[slot];
+        if (pos == -1 || pos == i) return;
+        int other = denseSlot[i];
+        dense[pos] = dense[i];
+        denseSlot[pos] = other;
+        densePos[other] = pos;
+        dense[i] = slots[slot];
+        denseSlot[i] = slot;
+        densePos[slot] = i;
+    }
+
+    /**
+     * Accessor method for the name of the object with the given handle.
+     *
+     * @param handle The handle of the object.
+     * @return The name of the object, or null if it has none or the handle is invalid.
+     */
+    @Override
+    public String getName (long handle) {
+        return isValid(handle) ? slotNames[slot(handle)] : null;
+    }
+
+    /**
+     * Removes every object from the table, including reserved ones. Every handle given out so far becomes invalid.
+     */
+    public void clear () {
+        for (int slot = 0; slot < nextSlot; slot++)
+            if (slots[slot] != null) remove(handle(slot, generations[slot]));
+    }
+
+    /**
+     * Gets the slot a handle refers to.
+     *
+     * @param handle The handle to unpack.
+     * @return The slot of the handle.
+     */
+    public static int slot (long handle) {
+        return (int) handle;
+    }
+
+    /**
+     * Gets the generation a handle refers to.
+     *
+     * @param handle The handle to unpack.
+     * @return The generation of the handle.
+     */
+    public static int generation (long handle) {
+        return (int) (handle >>> 32);
+    }
+
+    /**
+     * Packs the given slot and generation into a handle.
+     *
+     * @param slot       The slot of the handle.
+     * @param generation The generation of the handle.
+     * @return The packed handle.
+     */
+    public static long handle (int slot, int generation) {
+        return ((long) generation << 32) | (slot & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Grows the per slot arrays to the given length.
+     *
+     * @param length The new length of the per slot arrays.
+     */
+    private void grow (int length) {
+        int old = slots.length;
+        slots = Arrays.copyOf(slots, length);
+        slotNames = Arrays.copyOf(slotNames, length);
+        generations = Arrays.copyOf(generations, length);
+        densePos = Arrays.copyOf(densePos, length);
+        Arrays.fill(generations, old, length, 1);
+        Arrays.fill(densePos, old, length, -1);
+    }
+}
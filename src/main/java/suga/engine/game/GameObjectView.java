@@ -0,0 +1,67 @@
+package suga.engine.game;
+
+import suga.engine.game.objects.GameObject;
+
+/**
+ * A GameObjectView is a read only view of the game objects in a game. Objects can be looked up by handle or name and
+ * iterated by position, but are only added and removed through the game itself.
+ *
+ * @author Sugaku
+ */
+public interface GameObjectView {
+
+    /**
+     * Accessor method for the object with the given handle.
+     *
+     * @param handle The handle of the object.
+     * @return The object or null if the handle is invalid.
+     */
+    GameObject get (long handle);
+
+    /**
+     * Checks whether the given handle refers to an object.
+     *
+     * @param handle The handle to check.
+     * @return True if and only if the handle refers to an object.
+     */
+    boolean isValid (long handle);
+
+    /**
+     * Finds the handle of the object with the given name.
+     *
+     * @param name The name of the object.
+     * @return The handle of the object or {@link GameObjectTable#INVALID} if there is no object with the name.
+     */
+    long getHandle (String name);
+
+    /**
+     * Accessor method for the name of the object with the given handle.
+     *
+     * @param handle The handle of the object.
+     * @return The name of the object, or null if it has none or the handle is invalid.
+     */
+    String getName (long handle);
+
+    /**
+     * Accessor method for the number of active objects.
+     *
+     * @return The number of objects which can be iterated over.
+     */
+    int size ();
+
+    /**
+     * Accessor method for an object by its position. Removing an object moves another into its position.
+     *
+     * @param i The position of the object, from 0 to {@link #size()} - 1.
+     * @return The object at the given position.
+     */
+    GameObject getAt (int i);
+
+    /**
+     * Accessor method for the handle of an object by its position.
+     *
+     * @param i The position of the object, from 0 to {@link #size()} - 1.
+     * @return The handle of the object at the given position.
+     */
+    long handleAt (int i);
+}
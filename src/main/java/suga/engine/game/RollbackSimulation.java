@@ -0,0 +1,124 @@
+package suga.engine.game;
+
+import suga.engine.snapshot.RollbackBuffer;
+
+/**
+ * A RollbackSimulation steps a game one tick at a time while keeping snapshots of its last few ticks. When input for a
+ * past tick arrives late, the game is rewound to that tick and every tick since is simulated again with the corrected
+ * input. Input isn't read from listeners, instead a {@link TickInput} is asked to apply the input of each tick so that
+ * replayed ticks see the same input as the original ones, apart from any corrections.
+ * <p>
+ * Removed objects are recreated by loading a snapshot only if their type is registered with
+ * {@link BasicGame#registerType(Class, java.util.function.Supplier)}, so the game refuses to roll back to a tick at or
+ * before the last removal of an unregistered object. Games which despawn often should register the types they despawn.
+ * Running scripts and Saveable systems are part of the snapshot, and ended scripts are remembered for as long as the
+ * window.
+ *
+ * @param <G> The type of game being simulated.
+ * @author Sugaku
+ */
+public class RollbackSimulation<G extends BasicGame> {
+
+    /**
+     * Applies the input of a single tick to the game before the tick is run.
+     *
+     * @author Sugaku
+     */
+    @FunctionalInterface
+    public interface TickInput {
+
+        /**
+         * Called before the given tick is run, both the first time and whenever it is replayed.
+         *
+         * @param tick The tick about to be run.
+         */
+        void apply (long tick);
+    }
+
+    /**
+     * The game being simulated.
+     */
+    protected final G game;
+
+    /**
+     * Applies the input of each tick.
+     */
+    protected final TickInput input;
+
+    /**
+     * The snapshots of the last few ticks. The snapshot of a tick is the state right before it ran.
+     */
+    protected final RollbackBuffer history;
+
+    /**
+     * The number of ticks replayed by the last rollback.
+     */
+    protected int replayed = 0;
+
+    /**
+     * Creates a new RollbackSimulation which can rewind the given number of ticks.
+     *
+     * @param game   The game to simulate.
+     * @param frames The number of ticks that can be rolled back.
+     * @param input  Applies the input of each tick.
+     */
+    public RollbackSimulation (G game, int frames, TickInput input) {
+        this.game = game;
+        this.input = input;
+        history = new RollbackBuffer(game, frames);
+        game.getScripts().setHistory(frames);
+    }
+
+    /**
+     * Saves the current state of the game and then runs a single tick.
+     */
+    public void step () {
+        long tick = game.getTick();
+        history.capture(tick);
+        input.apply(tick);
+        game.loop();
+    }
+
+    /**
+     * Rewinds the game to right before the given tick and runs every tick since again. Should be called once the input
+     * of the given tick, and any tick after it, has been corrected.
+     *
+     * @param tick The earliest tick whose input changed.
+     * @return True if the game was rolled back. False if the tick is too old, hasn't happened yet, or an object which
+     * can't be recreated has been removed since it.
+     */
+    public boolean rollback (long tick) {
+        long current = game.getTick();
+        if (tick >= current || tick <= game.getLastRemoval() || !history.restore(tick)) return false;
+        replayed = (int) (current - tick);
+        while (game.getTick() < current) step();
+        return true;
+    }
+
+    /**
+     * Accessor method for the game being simulated.
+     *
+     * @return The simulated game.
+     */
+    public G getGame () {
+        return game;
+    }
+
+    /**
+     * Accessor method for the oldest tick that can currently be rolled back to.
+     *
+     * @return The oldest tick held in the history.
+     */
+    public long getOldestTick () {
+        return Math.max(0, game.getTick() - history.getFrames());
+    }
+
+    /**
+     * Accessor method for the number of ticks replayed by the last rollback.
+     *
+     * @return The number of replayed ticks.
+     */
+    public int getReplayed () {
+        return replayed;
+    }
+}
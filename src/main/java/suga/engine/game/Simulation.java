@@ -0,0 +1,93 @@
+package suga.engine.game;
+
+import suga.engine.input.ScriptedInput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Simulation runs a game on the calling thread as fast as possible rather than at a fixed logic rate. Input comes
+ * from scripted sources which are advanced before each tick, so a simulation always plays out the same way. Used for
+ * AI training, balance testing, and other cases where a whole match should be simulated in seconds.
+ *
+ * @author Sugaku
+ */
+public class Simulation {
+
+    /**
+     * The game being simulated.
+     */
+    protected final Game game;
+
+    /**
+     * The scripted input sources advanced before each tick.
+     */
+    protected final List<ScriptedInput> inputs = new ArrayList<>();
+
+    /**
+     * The number of ticks that have been simulated.
+     */
+    protected long tick = 0;
+
+    /**
+     * The number of ticks per second achieved by the last call to {@link #step(int)}.
+     */
+    protected double ticksPerSecond = 0;
+
+    /**
+     * Creates a new Simulation of the given game.
+     *
+     * @param game The game to simulate. Its input listeners should be scripted, or unset.
+     */
+    public Simulation (Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Adds a scripted input source which is advanced before each tick. It should also be set as an input listener on
+     * the game.
+     *
+     * @param input The scripted input source to add.
+     */
+    public void addInput (ScriptedInput input) {
+        inputs.add(input);
+    }
+
+    /**
+     * Runs the given number of ticks back to back. Each tick advances the scripted inputs, then processes input and
+     * runs the game loop. Exceptions thrown by the game are not caught.
+     *
+     * @param ticks The number of ticks to run.
+     * @return The number of ticks per second achieved.
+     */
+    public double step (int ticks) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            for (ScriptedInput input : inputs) input.advance(tick);
+            game.processInput();
+            game.loop();
+            tick++;
+        }
+        long elapsed = System.nanoTime() - start;
+        ticksPerSecond = elapsed == 0 ? Double.POSITIVE_INFINITY : ticks * 1e9 / elapsed;
+        return ticksPerSecond;
+    }
+
+    /**
+     * Accessor method for the number of ticks that have been simulated. This is also the tick the next step starts at.
+     *
+     * @return The number of ticks simulated.
+     */
+    public long getTick () {
+        return tick;
+    }
+
+    /**
+     * Accessor method for the number of ticks per second achieved by the last call to {@link #step(int)}.
+     *
+     * @return The achieved ticks per second.
+     */
+    public double getTicksPerSecond () {
+        return ticksPerSecond;
+    }
+}
@@ -1,17 +1,37 @@
 package suga.engine.game.objects;
 
+import suga.engine.game.GameObjectTable;
 import suga.engine.graphics.GraphicsPanel;
 import suga.engine.graphics.DrawListener;
+import suga.engine.graphics.RenderState;
 import suga.engine.physics.BasicPhysical;
 import suga.engine.physics.Vector;
 import suga.engine.physics.collidables.Collidable;
 
 /**
- * A game object has its own physical position within the world, and a DrawListener to draw it each frame.
+ * A game object has its own physical position within the world, and a DrawListener to draw it each frame. Drawing reads
+ * the object's position from the render state published after each tick rather than from the object itself, so a frame
+ * never sees a position the logic thread is part way through changing. Subclasses draw themselves by overriding
+ * {@link #draw(int, int, GraphicsPanel, Vector)}.
  *
  * @author Sugaku
  */
-public class BasicGameObject extends BasicPhysical implements DrawListener, GameObject {
+public class BasicGameObject extends BasicPhysical implements DrawListener, Poolable {
+
+    /**
+     * The handle this object was spawned with, or {@link GameObjectTable#INVALID} if it hasn't been spawned.
+     */
+    protected volatile long handle = GameObjectTable.INVALID;
+
+    /**
+     * The position this object is drawn at in the current frame. Only used by the drawing thread.
+     */
+    protected final Vector drawPos = new Vector();
+
+    /**
+     * The collider of this object, or null if it doesn't have one.
+     */
+    protected Collidable collider = null;
 
     /**
      * Creates a new BasicGameObject with zero vectors and a mass of 1.
@@ -32,6 +52,18 @@ public class BasicGameObject extends BasicPhysical implements DrawListener, Game
         super(pos, vel, accel, mass);
     }
 
+    /**
+     * Puts this object back at the origin with no velocity or acceleration and a mass of 1. The existing vectors are
+     * zeroed in place.
+     */
+    @Override
+    public void reset () {
+        pos.update(Vector.ZERO);
+        vel.update(Vector.ZERO);
+        accel.update(Vector.ZERO);
+        mass = 1;
+    }
+
     /**
      * Called every logic frame to run the logic on this GameObject.
      */
@@ -60,13 +92,27 @@ public class BasicGameObject extends BasicPhysical implements DrawListener, Game
     }
 
     /**
-     * Assigns a collider to this GameObject.
+     * Sets the position of this object. The collider, if there is one, is moved along with it.
      *
-     * @param collider The collider to assign to this GameObject.
+     * @param pos The new position for this object.
      */
     @Override
-    public void setCollider (Collidable collider) {
+    public void setPos (Vector pos) {
+        super.setPos(pos);
+        follow();
+    }
 
+    /**
+     * Assigns a collider to this GameObject. The collider and its hit box share this object's position from then on, so
+     * they move whenever this object does. Should be assigned before the object is added to a game, as the collider is
+     * only registered with physics when the object is spawned.
+     *
+     * @param collider The collider to assign to this GameObject, or null to remove it.
+     */
+    @Override
+    public void setCollider (Collidable collider) {
+        this.collider = collider;
+        follow();
     }
 
     /**
@@ -76,11 +122,32 @@ public class BasicGameObject extends BasicPhysical implements DrawListener, Game
      */
     @Override
     public Collidable getCollider () {
-        return null;
+        return collider;
+    }
+
+    /**
+     * Points the collider and its hit box at this object's position.
+     */
+    protected void follow () {
+        if (collider == null) return;
+        collider.setPos(pos);
+        if (collider.getHitBox() != null) collider.getHitBox().setPos(pos);
     }
 
     /**
-     * Called every drawing frame so programs have a chance to make their voices heard on what gets drawn.
+     * Called by the game when this object is spawned with the handle it was given.
+     *
+     * @param handle The handle of this object.
+     */
+    @Override
+    public void setHandle (long handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * Called every drawing frame so programs have a chance to make their voices heard on what gets drawn. Finds where
+     * this object is in the panel's render state, interpolated for the frame, and draws it there. Objects which haven't
+     * been published yet aren't drawn. Without a render state the object's own position is drawn instead.
      *
      * @param width  The width of the pixel map.
      * @param height The height of the pixel map.
@@ -88,6 +155,26 @@ public class BasicGameObject extends BasicPhysical implements DrawListener, Game
      */
     @Override
     public void applyChanges (int width, int height, GraphicsPanel panel) {
+        RenderState state = panel.getRenderState();
+        if (state == null) drawPos.update(pos);
+        else {
+            long handle = this.handle;
+            int row = state.indexOf(handle, GameObjectTable.slot(handle));
+            if (row < 0) return;
+            state.interpolate(row, panel.getRenderAlpha(), drawPos);
+        }
+        draw(width, height, panel, drawPos);
+    }
+
+    /**
+     * Draws this object at the given position. Does nothing by default.
+     *
+     * @param width  The width of the pixel map.
+     * @param height The height of the pixel map.
+     * @param panel  The panel to apply changes to.
+     * @param pos    The position to draw this object at this frame. Only valid during the call.
+     */
+    protected void draw (int width, int height, GraphicsPanel panel, Vector pos) {
 
     }
 }
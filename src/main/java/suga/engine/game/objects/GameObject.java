@@ -42,4 +42,14 @@ public interface GameObject {
      * @return Either the Collider attached to this GameObject or null.
      */
     Collidable getCollider ();
+
+    /**
+     * Called by the game when this object is spawned with the handle it was given. Objects which draw themselves use it
+     * to find their row in the render state. Does nothing by default.
+     *
+     * @param handle The handle of this object.
+     */
+    default void setHandle (long handle) {
+
+    }
 }
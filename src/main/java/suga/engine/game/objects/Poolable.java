@@ -0,0 +1,16 @@
+package suga.engine.game.objects;
+
+/**
+ * A Poolable GameObject can be reset to a freshly created state so that it can be reused rather than allocating a new
+ * object every time one is spawned.
+ *
+ * @author Sugaku
+ */
+public interface Poolable extends GameObject {
+
+    /**
+     * Called when this object is returned to its pool. Should put this object back into the state it was created in,
+     * reusing any objects it owns rather than allocating new ones.
+     */
+    void reset ();
+}
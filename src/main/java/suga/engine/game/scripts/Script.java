@@ -0,0 +1,143 @@
+package suga.engine.game.scripts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A Script is gameplay logic written as a sequence of steps and waits, such as "wait two seconds, move, wait for a
+ * collision", instead of a state machine checked every tick. Scripts are run by a {@link ScriptRunner}, which only
+ * touches a script when its wait is over. A script remembers which step it is on, so each script should only be run
+ * by one runner at a time.
+ *
+ * @author Sugaku
+ */
+public class Script {
+
+    /**
+     * The steps of this script in order.
+     */
+    protected final List<Step> steps = new ArrayList<>();
+
+    /**
+     * Whether the script starts again from its first step after its last one.
+     */
+    protected boolean repeating = false;
+
+    /**
+     * The index of the next step to run.
+     */
+    protected int next = 0;
+
+    /**
+     * Adds a step to the end of this script.
+     *
+     * @param step The step to add.
+     * @return This script.
+     */
+    public Script step (Step step) {
+        steps.add(step);
+        return this;
+    }
+
+    /**
+     * Adds an action to the end of this script which is followed right away by the next step.
+     *
+     * @param action The action to run.
+     * @return This script.
+     */
+    public Script then (Runnable action) {
+        return step((tick) -> {
+            action.run();
+            return Wait.NONE;
+        });
+    }
+
+    /**
+     * Adds a wait for the given number of ticks to the end of this script.
+     *
+     * @param ticks The number of ticks to wait.
+     * @return This script.
+     */
+    public Script waitTicks (long ticks) {
+        Wait wait = Wait.ticks(ticks);
+        return step((tick) -> wait);
+    }
+
+    /**
+     * Adds a wait for the given number of seconds to the end of this script.
+     *
+     * @param seconds  The number of seconds to wait.
+     * @param tickRate The number of ticks per second.
+     * @return This script.
+     */
+    public Script waitSeconds (double seconds, int tickRate) {
+        return waitTicks(Math.round(seconds * tickRate));
+    }
+
+    /**
+     * Adds a wait for the given event to the end of this script.
+     *
+     * @param event The event to wait for.
+     * @return This script.
+     */
+    public Script waitFor (String event) {
+        Wait wait = Wait.event(event);
+        return step((tick) -> wait);
+    }
+
+    /**
+     * Adds a wait to the end of this script which checks the given condition once a tick until it holds.
+     *
+     * @param condition The condition to wait for.
+     * @return This script.
+     */
+    public Script waitUntil (BooleanSupplier condition) {
+        return step((tick) -> condition.getAsBoolean() ? Wait.NONE : Wait.AGAIN);
+    }
+
+    /**
+     * Makes this script start again from its first step after its last one, until it is stopped.
+     *
+     * @return This script.
+     */
+    public Script repeat () {
+        repeating = true;
+        return this;
+    }
+
+    /**
+     * Runs steps until one of them waits.
+     *
+     * @param tick The current tick.
+     * @return What the script is waiting for. {@link Wait#DONE} once the last step has run.
+     */
+    public Wait resume (long tick) {
+        int ran = 0;
+        while (next < steps.size()) {
+            Wait wait = steps.get(next).run(tick);
+            if (wait.getKind() == Wait.Kind.AGAIN) return wait;
+            next++;
+            if (repeating && next == steps.size()) next = 0;
+            if (wait.getKind() != Wait.Kind.NONE) return wait;
+            if (++ran > steps.size()) return Wait.NEXT_TICK; // A repeating script which never waits runs once a tick.
+        }
+        return Wait.DONE;
+    }
+
+    /**
+     * Starts this script over from its first step.
+     */
+    public void reset () {
+        next = 0;
+    }
+
+    /**
+     * Checks whether every step of this script has run.
+     *
+     * @return True if the script is finished.
+     */
+    public boolean isFinished () {
+        return next >= steps.size();
+    }
+}
@@ -0,0 +1,422 @@
+package suga.engine.game.scripts;
+
+import suga.engine.GameEngine;
+import suga.engine.logger.Level;
+import suga.engine.snapshot.Saveable;
+import suga.engine.snapshot.Snapshots;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * A ScriptRunner resumes scripts on the logic thread once whatever they are waiting for is over. Sleeping scripts are
+ * kept in a queue ordered by the tick they wake on, and scripts waiting for an event are kept with that event, so a
+ * tick only touches the scripts which actually run. Thousands of idle scripts therefore cost nothing per tick, unlike
+ * state machines which are all checked every tick. Scripts which wake on the same tick always run in the order they
+ * were started, so runs are deterministic.
+ * <p>
+ * The runner can be saved and loaded as part of a snapshot. Scripts are matched by the order they were started in, so
+ * loading only restores scripts this runner has started. Scripts which ended since the snapshot are only remembered
+ * for the number of ticks given to {@link #setHistory(int)}. Only the step each script is on is restored, state
+ * captured by the steps themselves is not. Running scripts are saved in the order they were started, so saving the same
+ * state twice writes the same bytes, and neither saving nor loading allocates once every event has been waited on.
+ *
+ * @author Sugaku
+ */
+public class ScriptRunner implements Saveable {
+
+    /**
+     * A script being run along with when it next wakes.
+     *
+     * @author Sugaku
+     */
+    protected static final class Entry {
+
+        /**
+         * The script being run.
+         */
+        final Script script;
+
+        /**
+         * The order the script was started in. Breaks ties between scripts waking on the same tick.
+         */
+        final long order;
+
+        /**
+         * The tick the script next runs on.
+         */
+        long wake;
+
+        /**
+         * The event the script is waiting for, or null if it isn't waiting for one.
+         */
+        String event = null;
+
+        /**
+         * Whether the script has been stopped.
+         */
+        boolean stopped = false;
+
+        /**
+         * The tick the script ended or was stopped on.
+         */
+        long ended = 0;
+
+        /**
+         * Creates a new entry.
+         *
+         * @param script The script being run.
+         * @param order  The order the script was started in.
+         * @param wake   The tick the script first runs on.
+         */
+        Entry (Script script, long order, long wake) {
+            this.script = script;
+            this.order = order;
+            this.wake = wake;
+        }
+    }
+
+    /**
+     * Scripts waiting for a tick, soonest first.
+     */
+    protected final PriorityQueue<Entry> sleeping = new PriorityQueue<>((a, b) ->
+            a.wake != b.wake ? Long.compare(a.wake, b.wake) : Long.compare(a.order, b.order));
+
+    /**
+     * Scripts waiting for each event, in the order they started waiting. Lists are kept once created so that waiting on
+     * an event again doesn't allocate.
+     */
+    protected final Map<String, List<Entry>> waiting = new HashMap<>();
+
+    /**
+     * Every event which has been waited on, in the order they were first waited on. Used to find the events of a
+     * snapshot without allocating.
+     */
+    protected final List<String> events = new ArrayList<>();
+
+    /**
+     * Every running script.
+     */
+    protected final Map<Script, Entry> entries = new IdentityHashMap<>();
+
+    /**
+     * Every running script in the order they were started, followed by {@link #runningCount}. May also hold ended
+     * scripts until they're compacted away.
+     */
+    protected Entry[] running = new Entry[16];
+
+    /**
+     * The number of entries in {@link #running}.
+     */
+    protected int runningCount = 0;
+
+    /**
+     * Every running script, and scripts which ended within the last {@link #history} ticks, by the order they were
+     * started in. Used to find the scripts of a snapshot.
+     */
+    protected final Map<Long, Entry> known = new HashMap<>();
+
+    /**
+     * Scripts which have ended, roughly in the order they ended. Forgotten once they're older than {@link #history}.
+     */
+    protected final ArrayDeque<Entry> ended = new ArrayDeque<>();
+
+    /**
+     * The number of ticks ended scripts are remembered for, so snapshots taken while they ran can be loaded.
+     */
+    protected int history = 0;
+
+    /**
+     * The number of scripts started so far.
+     */
+    protected long started = 0;
+
+    /**
+     * The last tick run, or -1 if none have been.
+     */
+    protected long tick = -1;
+
+    /**
+     * Starts running the given script from its current step on the next tick.
+     *
+     * @param script The script to run.
+     * @return True if the script was started. False if it is already running.
+     */
+    public boolean start (Script script) {
+        if (entries.containsKey(script)) return false;
+        Entry entry = new Entry(script, started++, tick + 1);
+        entries.put(script, entry);
+        known.put(entry.order, entry);
+        sleeping.add(entry);
+        run(entry);
+        return true;
+    }
+
+    /**
+     * Adds the given entry to the end of {@link #running}. Entries must be added in the order they were started.
+     *
+     * @param entry The entry to add.
+     */
+    protected void run (Entry entry) {
+        if (runningCount == running.length) running = Arrays.copyOf(running, running.length * 2);
+        running[runningCount++] = entry;
+    }
+
+    /**
+     * Adds the given entry to the scripts waiting for its event.
+     *
+     * @param entry The entry waiting for an event.
+     */
+    protected void await (Entry entry) {
+        List<Entry> list = waiting.get(entry.event);
+        if (list == null) {
+            list = new ArrayList<>();
+            waiting.put(entry.event, list);
+            events.add(entry.event);
+        }
+        list.add(entry);
+    }
+
+    /**
+     * Stops running the given script. Its current step is kept, so starting it again carries on where it stopped.
+     *
+     * @param script The script to stop.
+     * @return True if the script was running.
+     */
+    public boolean stop (Script script) {
+        Entry entry = entries.remove(script);
+        if (entry == null) return false;
+        end(entry);
+        if (entry.event != null) {
+            List<Entry> list = waiting.get(entry.event);
+            if (list != null) list.remove(entry);
+        }
+        return true;
+    }
+
+    /**
+     * Signals an event, waking every script waiting for it on the next tick.
+     *
+     * @param event The event to signal.
+     * @return The number of scripts woken.
+     */
+    public int signal (String event) {
+        List<Entry> list = waiting.get(event);
+        if (list == null) return 0;
+        int count = list.size();
+        for (int i = 0; i < count; i++) {
+            Entry entry = list.get(i);
+            entry.event = null;
+            entry.wake = tick + 1;
+            sleeping.add(entry);
+        }
+        list.clear();
+        return count;
+    }
+
+    /**
+     * Runs every script which wakes on or before the given tick. Called once per tick by the game loop. A script whose
+     * step throws an exception is logged and ended, so the other scripts still run. A step which throws an error ends
+     * its script before the error is passed on.
+     *
+     * @param now The current tick.
+     */
+    public void update (long now) {
+        tick = now;
+        while (!sleeping.isEmpty() && sleeping.peek().wake <= now) {
+            Entry entry = sleeping.poll();
+            if (entry.stopped) continue;
+            Wait wait;
+            try {
+                wait = entry.script.resume(now);
+            } catch (Exception e) {
+                GameEngine.getLogger().log("ScriptRunner: A script step failed, ending the script.", e, Level.EXCEPTION);
+                entries.remove(entry.script);
+                end(entry);
+                continue;
+            } catch (Error e) {
+                entries.remove(entry.script);
+                end(entry);
+                throw e;
+            }
+            switch (wait.getKind()) {
+                case TICKS, AGAIN -> {
+                    entry.wake = now + Math.max(1, wait.getTicks());
+                    sleeping.add(entry);
+                }
+                case EVENT -> {
+                    entry.event = wait.getEvent();
+                    await(entry);
+                }
+                default -> {
+                    entries.remove(entry.script);
+                    end(entry);
+                }
+            }
+        }
+        while (!ended.isEmpty() && ended.peek().ended < now - history) {
+            Entry entry = ended.poll();
+            if (entry.stopped && entry.ended < now - history) known.remove(entry.order, entry);
+        }
+    }
+
+    /**
+     * Marks the given entry as ended on the current tick. It's remembered for {@link #history} ticks.
+     *
+     * @param entry The entry which has ended.
+     */
+    protected void end (Entry entry) {
+        entry.stopped = true;
+        entry.ended = tick;
+        ended.add(entry);
+        if (runningCount > 2 * entries.size() + 16) compact();
+    }
+
+    /**
+     * Removes ended scripts from {@link #running}, keeping the order of the others.
+     */
+    protected void compact () {
+        int kept = 0;
+        for (int i = 0; i < runningCount; i++) if (!running[i].stopped) running[kept++] = running[i];
+        Arrays.fill(running, kept, runningCount, null);
+        runningCount = kept;
+    }
+
+    /**
+     * Sets the number of ticks ended scripts are remembered for. Loading a snapshot restores scripts which ended since
+     * it was taken only if it's no older than this.
+     *
+     * @param ticks The number of ticks to remember ended scripts for.
+     */
+    public void setHistory (int ticks) {
+        history = Math.max(0, ticks);
+    }
+
+    /**
+     * Checks whether the given script is running.
+     *
+     * @param script The script to check.
+     * @return True if the script was started and hasn't finished or been stopped.
+     */
+    public boolean isRunning (Script script) {
+        return entries.containsKey(script);
+    }
+
+    /**
+     * Accessor method for the number of running scripts.
+     *
+     * @return The number of running scripts.
+     */
+    public int size () {
+        return entries.size();
+    }
+
+    /**
+     * Stops every script.
+     */
+    public void clear () {
+        for (Entry entry : entries.values()) entry.stopped = true;
+        entries.clear();
+        Arrays.fill(running, 0, runningCount, null);
+        runningCount = 0;
+        sleeping.clear();
+        waiting.clear();
+        events.clear();
+        known.clear();
+        ended.clear();
+    }
+
+    /**
+     * Writes the tick, and the step and wait of every running script in the order they were started, into the given
+     * buffer.
+     *
+     * @param buffer The buffer to write to. Must have at least {@link #getSaveSize()} bytes remaining.
+     */
+    @Override
+    public void save (ByteBuffer buffer) {
+        buffer.putLong(tick).putLong(started).putInt(entries.size());
+        for (int i = 0; i < runningCount; i++) {
+            Entry entry = running[i];
+            if (entry.stopped) continue;
+            buffer.putLong(entry.order).putLong(entry.wake).putInt(entry.script.next);
+            Snapshots.putString(buffer, entry.event);
+        }
+    }
+
+    /**
+     * Restores running scripts from the given buffer. Scripts started since the snapshot are stopped, and scripts which
+     * ended since are started again if they're still remembered. Scripts this runner doesn't know of are skipped. Only
+     * allocates for events which no script here has waited on.
+     *
+     * @param buffer The buffer to read from.
+     */
+    @Override
+    public void load (ByteBuffer buffer) {
+        long now = tick;
+        tick = buffer.getLong();
+        started = buffer.getLong();
+        for (int i = 0; i < runningCount; i++) {
+            Entry entry = running[i];
+            if (entry.stopped) continue;
+            entry.stopped = true;
+            entry.ended = now;
+            ended.add(entry);
+        }
+        entries.clear();
+        Arrays.fill(running, 0, runningCount, null);
+        runningCount = 0;
+        sleeping.clear();
+        for (int i = 0; i < events.size(); i++) waiting.get(events.get(i)).clear();
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            Entry entry = known.get(buffer.getLong());
+            long wake = buffer.getLong();
+            int next = buffer.getInt();
+            if (entry == null || entries.containsKey(entry.script)) {
+                Snapshots.skipString(buffer);
+                continue;
+            }
+            entry.event = readEvent(buffer, entry.event);
+            entry.stopped = false;
+            entry.wake = wake;
+            entry.script.next = next;
+            entries.put(entry.script, entry);
+            run(entry);
+            if (entry.event == null) sleeping.add(entry);
+            else await(entry);
+        }
+    }
+
+    /**
+     * Reads the name of an event from the given buffer, reusing the given name or an event already waited on if it
+     * matches.
+     *
+     * @param buffer  The buffer positioned at the name of an event.
+     * @param current The event the script was last waiting for, which is checked first. May be null.
+     * @return The event read, or null if none was saved.
+     */
+    protected String readEvent (ByteBuffer buffer, String current) {
+        String event = null;
+        if (Snapshots.matchesString(buffer, current)) event = current;
+        else if (!Snapshots.matchesString(buffer, null)) {
+            for (int i = 0; i < events.size() && event == null; i++)
+                if (Snapshots.matchesString(buffer, events.get(i))) event = events.get(i);
+            if (event == null) return Snapshots.getString(buffer);
+        }
+        Snapshots.skipString(buffer);
+        return event;
+    }
+
+    /**
+     * Accessor method for the number of bytes {@link #save(ByteBuffer)} would currently write.
+     *
+     * @return The size of this runner's saved state in bytes.
+     */
+    @Override
+    public int getSaveSize () {
+        int bytes = 2 * Long.BYTES + Integer.BYTES;
+        for (int i = 0; i < runningCount; i++)
+            if (!running[i].stopped) bytes += 2 * Long.BYTES + Integer.BYTES + Snapshots.stringSize(running[i].event);
+        return bytes;
+    }
+}
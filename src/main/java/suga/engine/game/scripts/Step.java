@@ -0,0 +1,18 @@
+package suga.engine.game.scripts;
+
+/**
+ * A single step of a {@link Script}. Runs on the logic thread and says what the script waits for before its next step.
+ *
+ * @author Sugaku
+ */
+@FunctionalInterface
+public interface Step {
+
+    /**
+     * Runs this step.
+     *
+     * @param tick The current tick.
+     * @return What to wait for before the next step.
+     */
+    Wait run (long tick);
+}
@@ -0,0 +1,139 @@
+package suga.engine.game.scripts;
+
+/**
+ * A Wait tells a {@link ScriptRunner} what a script is waiting for after running one of its steps. Waits without
+ * arguments are shared constants, so yielding every tick doesn't allocate.
+ *
+ * @author Sugaku
+ */
+public final class Wait {
+
+    /**
+     * The kinds of wait.
+     *
+     * @author Sugaku
+     */
+    public enum Kind {
+
+        /**
+         * Runs the next step right away, in the same tick.
+         */
+        NONE,
+
+        /**
+         * Runs the next step after the given number of ticks.
+         */
+        TICKS,
+
+        /**
+         * Runs the next step on the tick after the given event is signalled.
+         */
+        EVENT,
+
+        /**
+         * Runs the same step again on the next tick.
+         */
+        AGAIN,
+
+        /**
+         * Ends the script.
+         */
+        DONE
+    }
+
+    /**
+     * Runs the next step right away, in the same tick.
+     */
+    public static final Wait NONE = new Wait(Kind.NONE, 0, null);
+
+    /**
+     * Runs the next step on the next tick.
+     */
+    public static final Wait NEXT_TICK = new Wait(Kind.TICKS, 1, null);
+
+    /**
+     * Runs the same step again on the next tick. Used to wait until a condition holds.
+     */
+    public static final Wait AGAIN = new Wait(Kind.AGAIN, 1, null);
+
+    /**
+     * Ends the script.
+     */
+    public static final Wait DONE = new Wait(Kind.DONE, 0, null);
+
+    /**
+     * The kind of this wait.
+     */
+    private final Kind kind;
+
+    /**
+     * The number of ticks to wait.
+     */
+    private final long ticks;
+
+    /**
+     * The event to wait for.
+     */
+    private final String event;
+
+    /**
+     * Creates a new wait. Waits are created through the constants and static methods of this class.
+     *
+     * @param kind  The kind of wait.
+     * @param ticks The number of ticks to wait.
+     * @param event The event to wait for.
+     */
+    private Wait (Kind kind, long ticks, String event) {
+        this.kind = kind;
+        this.ticks = ticks;
+        this.event = event;
+    }
+
+    /**
+     * Creates a wait which runs the next step after the given number of ticks.
+     *
+     * @param ticks The number of ticks to wait. Waiting zero ticks runs the next step right away.
+     * @return The created wait.
+     */
+    public static Wait ticks (long ticks) {
+        if (ticks <= 0) return NONE;
+        return ticks == 1 ? NEXT_TICK : new Wait(Kind.TICKS, ticks, null);
+    }
+
+    /**
+     * Creates a wait which runs the next step on the tick after the given event is signalled.
+     *
+     * @param event The event to wait for.
+     * @return The created wait.
+     */
+    public static Wait event (String event) {
+        return new Wait(Kind.EVENT, 0, event);
+    }
+
+    /**
+     * Accessor method for the kind of this wait.
+     *
+     * @return The kind of wait.
+     */
+    public Kind getKind () {
+        return kind;
+    }
+
+    /**
+     * Accessor method for the number of ticks to wait.
+     *
+     * @return The number of ticks.
+     */
+    public long getTicks () {
+        return ticks;
+    }
+
+    /**
+     * Accessor method for the event to wait for.
+     *
+     * @return The event or null if this wait isn't for an event.
+     */
+    public String getEvent () {
+        return event;
+    }
+}
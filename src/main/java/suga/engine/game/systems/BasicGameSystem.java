@@ -0,0 +1,84 @@
+package suga.engine.game.systems;
+
+import java.util.Set;
+
+/**
+ * A simple implementation of the GameSystem interface which runs the given logic.
+ *
+ * @author Sugaku
+ */
+public class BasicGameSystem implements GameSystem {
+
+    /**
+     * The name of this system.
+     */
+    protected final String name;
+
+    /**
+     * The logic run by this system.
+     */
+    protected final Runnable logic;
+
+    /**
+     * The resources read by this system.
+     */
+    protected final Set<Resource> reads;
+
+    /**
+     * The resources written by this system.
+     */
+    protected final Set<Resource> writes;
+
+    /**
+     * Creates a new BasicGameSystem.
+     *
+     * @param name   The name of the system.
+     * @param logic  The logic to run each tick.
+     * @param reads  The resources read by the system.
+     * @param writes The resources written by the system.
+     */
+    public BasicGameSystem (String name, Runnable logic, Set<Resource> reads, Set<Resource> writes) {
+        this.name = name;
+        this.logic = logic;
+        this.reads = Set.copyOf(reads);
+        this.writes = Set.copyOf(writes);
+    }
+
+    /**
+     * Accessor method for the name of this system. Used when logging.
+     *
+     * @return The name of this system.
+     */
+    @Override
+    public String getName () {
+        return name;
+    }
+
+    /**
+     * Accessor method for the resources this system reads but does not modify.
+     *
+     * @return The resources read by this system.
+     */
+    @Override
+    public Set<Resource> getReads () {
+        return reads;
+    }
+
+    /**
+     * Accessor method for the resources this system modifies.
+     *
+     * @return The resources written by this system.
+     */
+    @Override
+    public Set<Resource> getWrites () {
+        return writes;
+    }
+
+    /**
+     * Runs this system once.
+     */
+    @Override
+    public void run () {
+        logic.run();
+    }
+}
@@ -0,0 +1,38 @@
+package suga.engine.game.systems;
+
+import java.util.Set;
+
+/**
+ * A GameSystem is a single stage of the game loop. Each system declares the resources it reads and writes so that
+ * systems which don't conflict can be run at the same time.
+ *
+ * @author Sugaku
+ */
+public interface GameSystem {
+
+    /**
+     * Accessor method for the name of this system. Used when logging.
+     *
+     * @return The name of this system.
+     */
+    String getName ();
+
+    /**
+     * Accessor method for the resources this system reads but does not modify.
+     *
+     * @return The resources read by this system.
+     */
+    Set<Resource> getReads ();
+
+    /**
+     * Accessor method for the resources this system modifies.
+     *
+     * @return The resources written by this system.
+     */
+    Set<Resource> getWrites ();
+
+    /**
+     * Runs this system once. Called every tick by the scheduler, possibly on a different thread than the last tick.
+     */
+    void run ();
+}
@@ -0,0 +1,69 @@
+package suga.engine.game.systems;
+
+/**
+ * A Resource is a piece of game data that systems declare they read or write. Two systems conflict when one writes a
+ * resource the other reads or writes, and conflicting systems are never run at the same time. Resources are compared by
+ * identity so each one should be created once and shared.
+ *
+ * @author Sugaku
+ */
+public final class Resource {
+
+    /**
+     * The physics engine and the state of every Physical registered to it.
+     */
+    public static final Resource PHYSICS = new Resource("physics");
+
+    /**
+     * The AIAgents of the game.
+     */
+    public static final Resource AGENTS = new Resource("agents");
+
+    /**
+     * The GameObjects of the game.
+     */
+    public static final Resource OBJECTS = new Resource("objects");
+
+    /**
+     * The entity component world of the game.
+     */
+    public static final Resource WORLD = new Resource("world");
+
+    /**
+     * The scripts run by the game.
+     */
+    public static final Resource SCRIPTS = new Resource("scripts");
+
+    /**
+     * The name of this resource. Only used for debugging.
+     */
+    private final String name;
+
+    /**
+     * Creates a new Resource with the given name.
+     *
+     * @param name The name of this resource.
+     */
+    public Resource (String name) {
+        this.name = name;
+    }
+
+    /**
+     * Accessor method for the name of this resource.
+     *
+     * @return The name of this resource.
+     */
+    public String getName () {
+        return name;
+    }
+
+    /**
+     * Converts this resource into a string.
+     *
+     * @return The name of this resource.
+     */
+    @Override
+    public String toString () {
+        return name;
+    }
+}
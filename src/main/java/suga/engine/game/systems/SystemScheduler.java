@@ -0,0 +1,251 @@
+package suga.engine.game.systems;
+
+import suga.engine.Engine;
+import suga.engine.logger.Level;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The SystemScheduler runs a list of GameSystems once per tick. A system depends on every earlier system it conflicts
+ * with, which forms a dependency graph. Systems are started on a work stealing pool as soon as everything they depend
+ * on has finished, so systems which don't conflict run at the same time. When the graph is a single chain the systems
+ * are simply run in order on the calling thread. Either way a system which throws an exception is logged and the rest
+ * still run. Errors are rethrown on the calling thread once every other system has finished.
+ *
+ * @author Sugaku
+ */
+public class SystemScheduler {
+
+    /**
+     * The pool used to run systems in parallel.
+     */
+    protected final ForkJoinPool pool;
+
+    /**
+     * The systems of this scheduler in the order they were added.
+     */
+    protected final List<GameSystem> systems = new ArrayList<>();
+
+    /**
+     * The systems which must wait for each system to finish, indexed the same as {@link #systems}.
+     */
+    protected int[][] dependents = new int[0][];
+
+    /**
+     * The number of systems each system waits for, indexed the same as {@link #systems}.
+     */
+    protected int[] dependencies = new int[0];
+
+    /**
+     * Whether no two systems can run at the same time. If so systems are run in order on the calling thread.
+     */
+    protected boolean serial = true;
+
+    /**
+     * Whether systems have changed since the dependency graph was last built.
+     */
+    protected boolean dirty = false;
+
+    /**
+     * Creates a new SystemScheduler which runs systems on the common pool.
+     */
+    public SystemScheduler () {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new SystemScheduler which runs systems on the given pool.
+     *
+     * @param pool The pool to run systems on.
+     */
+    public SystemScheduler (ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Adds a system to the end of this scheduler. It will run after every earlier system it conflicts with.
+     *
+     * @param system The system to add.
+     */
+    public void addSystem (GameSystem system) {
+        systems.add(system);
+        dirty = true;
+    }
+
+    /**
+     * Removes the given system from this scheduler.
+     *
+     * @param system The system to remove.
+     */
+    public void removeSystem (GameSystem system) {
+        if (systems.remove(system)) dirty = true;
+    }
+
+    /**
+     * Accessor method for the systems of this scheduler.
+     *
+     * @return A copy of the systems in the order they were added.
+     */
+    public List<GameSystem> getSystems () {
+        return List.copyOf(systems);
+    }
+
+    /**
+     * Accessor method for the number of systems in this scheduler.
+     *
+     * @return The number of systems.
+     */
+    public int size () {
+        return systems.size();
+    }
+
+    /**
+     * Accessor method for a single system by the order it was added in. Unlike {@link #getSystems()} doesn't copy.
+     *
+     * @param index The index of the system.
+     * @return The system at the given index.
+     */
+    public GameSystem getSystem (int index) {
+        return systems.get(index);
+    }
+
+    /**
+     * Checks whether the given systems may not be run at the same time. This is the case if either writes a resource
+     * the other reads or writes.
+     *
+     * @param a The first system.
+     * @param b The second system.
+     * @return True if and only if the two systems conflict.
+     */
+    public static boolean conflicts (GameSystem a, GameSystem b) {
+        return overlaps(a.getWrites(), b.getWrites()) || overlaps(a.getWrites(), b.getReads())
+                || overlaps(a.getReads(), b.getWrites());
+    }
+
+    /**
+     * Runs every system once, returning after all of them have finished. Systems which throw an exception are logged.
+     *
+     * @throws Error Rethrown if a system threw an error. Every other system still runs first.
+     */
+    public void run () {
+        if (dirty) build();
+        Engine engine = Engine.current();
+        if (serial) {
+            Error error = null;
+            for (GameSystem system : systems) {
+                try {
+                    system.run();
+                } catch (Exception e) {
+                    log(engine, system, e);
+                } catch (Error e) {
+                    if (error == null) error = e;
+                }
+            }
+            if (error != null) throw error;
+            return;
+        }
+        int n = systems.size();
+        AtomicIntegerArray waiting = new AtomicIntegerArray(dependencies);
+        CountDownLatch finished = new CountDownLatch(n);
+        AtomicReference<Error> error = new AtomicReference<>();
+        for (int i = 0; i < n; i++)
+            if (dependencies[i] == 0) submit(i, waiting, finished, error, engine);
+        boolean interrupted = false;
+        while (finished.getCount() > 0) {
+            try {
+                finished.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (error.get() != null) throw error.get();
+    }
+
+    /**
+     * Starts the given system on the pool with the tick's engine bound, so the system logs to the same engine it would on
+     * the logic thread. Once it finishes, even if it failed, every dependent that is no longer waiting is started.
+     *
+     * @param i        The index of the system to start.
+     * @param waiting  The number of unfinished dependencies of each system this tick.
+     * @param finished Counts down once for each system that finishes this tick.
+     * @param error    The first error thrown by a system this tick.
+     * @param engine   The engine of the thread running this tick. Bound while the system runs, and failures are logged
+     *                 to it.
+     */
+    private void submit (int i, AtomicIntegerArray waiting, CountDownLatch finished, AtomicReference<Error> error,
+                         Engine engine) {
+        pool.execute(() -> {
+            Engine previous = Engine.current();
+            Engine.bind(engine);
+            try {
+                systems.get(i).run();
+            } catch (Exception e) {
+                log(engine, systems.get(i), e);
+            } catch (Error e) {
+                error.compareAndSet(null, e);
+            } finally {
+                Engine.bind(previous);
+                for (int d : dependents[i])
+                    if (waiting.decrementAndGet(d) == 0) submit(d, waiting, finished, error, engine);
+                finished.countDown();
+            }
+        });
+    }
+
+    /**
+     * Logs that the given system failed.
+     *
+     * @param engine The engine to log to.
+     * @param system The system which failed.
+     * @param e      The exception thrown by the system.
+     */
+    private static void log (Engine engine, GameSystem system, Exception e) {
+        engine.getLogger().log("SystemScheduler: System '" + system.getName() + "' failed.", e, Level.EXCEPTION);
+    }
+
+    /**
+     * Builds the dependency graph from the current list of systems.
+     */
+    protected void build () {
+        int n = systems.size();
+        List<List<Integer>> edges = new ArrayList<>();
+        dependencies = new int[n];
+        int[] depth = new int[n];
+        for (int i = 0; i < n; i++) {
+            edges.add(new ArrayList<>());
+            for (int j = 0; j < i; j++) {
+                if (conflicts(systems.get(j), systems.get(i))) {
+                    edges.get(j).add(i);
+                    dependencies[i]++;
+                    depth[i] = Math.max(depth[i], depth[j] + 1);
+                }
+            }
+        }
+        dependents = new int[n][];
+        for (int i = 0; i < n; i++) dependents[i] = edges.get(i).stream().mapToInt(Integer::intValue).toArray();
+        int[] perDepth = new int[n + 1];
+        for (int d : depth) perDepth[d]++;
+        serial = Arrays.stream(perDepth).allMatch((c) -> c <= 1);
+        dirty = false;
+    }
+
+    /**
+     * Checks whether the two given sets share any resource.
+     *
+     * @param a The first set of resources.
+     * @param b The second set of resources.
+     * @return True if and only if a resource is in both sets.
+     */
+    private static boolean overlaps (Set<Resource> a, Set<Resource> b) {
+        for (Resource r : a) if (b.contains(r)) return true;
+        return false;
+    }
+}
@@ -0,0 +1,157 @@
+package suga.engine.graphics;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferStrategy;
+import java.io.Serial;
+
+/**
+ * A 2d graphics window which is actively rendered. Rather than requesting repaints that Swing performs, and coalesces,
+ * on the event dispatch thread, the graphics thread draws each frame into a {@link BufferStrategy} on a canvas and
+ * flips it to the screen as soon as it's finished. The event dispatch thread is left free to dispatch input.
+ *
+ * @author Sugaku
+ */
+public class ActiveGraphics2d extends Graphics2d {
+
+    /**
+     * The serial version of the panel.
+     */
+    @Serial
+    private static final long serialVersionUID = 4412093857120384L;
+
+    /**
+     * The number of buffers to render through. Two buffers page flip when the platform supports it, and blit otherwise.
+     */
+    public static final int BUFFERS = 2;
+
+    /**
+     * A canvas which draws nothing itself and passes mouse input on to its window, so listeners on the game frame see
+     * the same events they would for a passive panel.
+     *
+     * @author Sugaku
+     */
+    protected static class ActiveCanvas extends Canvas {
+
+        /**
+         * The serial version of the canvas.
+         */
+        @Serial
+        private static final long serialVersionUID = 7730214590129843L;
+
+        /**
+         * Creates a new ActiveCanvas which ignores repaint requests and can't take keyboard focus away from the frame.
+         */
+        public ActiveCanvas () {
+            setIgnoreRepaint(true);
+            setFocusable(false);
+            enableEvents(AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK | AWTEvent.MOUSE_WHEEL_EVENT_MASK);
+        }
+
+        /**
+         * Passes mouse events on to the window containing this canvas, converted to its coordinates.
+         *
+         * @param event The event to process.
+         */
+        @Override
+        protected void processEvent (AWTEvent event) {
+            Window window = SwingUtilities.getWindowAncestor(this);
+            if (event instanceof MouseEvent mouse && window != null)
+                window.dispatchEvent(SwingUtilities.convertMouseEvent(this, mouse, window));
+            else super.processEvent(event);
+        }
+    }
+
+    /**
+     * The canvas frames are presented on.
+     */
+    protected final Canvas canvas = new ActiveCanvas();
+
+    /**
+     * The buffers frames are drawn into, or null until the canvas is first displayable.
+     */
+    protected volatile BufferStrategy strategy = null;
+
+    /**
+     * Creates a new ActiveGraphics2d with a canvas filling the whole panel.
+     */
+    public ActiveGraphics2d () {
+        super();
+        setLayout(new BorderLayout());
+        setIgnoreRepaint(true);
+        add(canvas, BorderLayout.CENTER);
+    }
+
+    /**
+     * Draws and presents a whole frame on the calling thread. Draw listeners are called once, and their output is drawn
+     * again if the buffer contents are lost before the frame is shown.
+     *
+     * @return True if the frame was shown. False if the canvas isn't displayable yet or has no area.
+     */
+    @Override
+    public boolean render () {
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+        if (!canvas.isDisplayable() || width <= 0 || height <= 0) {
+            applyListenerChanges();
+            return false;
+        }
+        BufferStrategy buffers = strategy;
+        if (buffers == null) {
+            canvas.createBufferStrategy(BUFFERS);
+            buffers = strategy = canvas.getBufferStrategy();
+        }
+        drawing(width, height);
+        try {
+            do {
+                do {
+                    Graphics graphics = buffers.getDrawGraphics();
+                    try {
+                        graphics.setColor(getBackground());
+                        graphics.fillRect(0, 0, width, height);
+                        paintQueued(graphics);
+                    } finally {
+                        graphics.dispose();
+                    }
+                } while (buffers.contentsRestored());
+                buffers.show();
+            } while (buffers.contentsLost());
+        } catch (IllegalStateException e) {
+            strategy = null; // The canvas was removed while drawing. A new strategy is made once it's displayable again.
+            return false;
+        } finally {
+            clearQueued();
+        }
+        Toolkit.getDefaultToolkit().sync();
+        return true;
+    }
+
+    /**
+     * Does nothing, as every frame is drawn by {@link #render()} on the graphics thread. Keeps Swing from calling draw
+     * listeners on the event dispatch thread at the same time.
+     *
+     * @param graphics The graphics object Swing is painting with.
+     */
+    @Override
+    public void paintComponent (Graphics graphics) {
+    }
+
+    /**
+     * Forgets the buffer strategy when the panel is removed, since it's released along with the canvas.
+     */
+    @Override
+    public void removeNotify () {
+        strategy = null;
+        super.removeNotify();
+    }
+
+    /**
+     * Accessor method for the canvas frames are presented on.
+     *
+     * @return The canvas of this panel.
+     */
+    public Canvas getCanvas () {
+        return canvas;
+    }
+}
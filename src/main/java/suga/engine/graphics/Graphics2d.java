@@ -56,6 +56,17 @@ public class Graphics2d extends GraphicsPanel {
     public void paintComponent (Graphics graphics) {
         super.paintComponent(graphics);
         drawing(getWidth(), getHeight());
+        paintQueued(graphics);
+        clearQueued();
+    }
+
+    /**
+     * Draws the pixels and images added by draw listeners this frame onto the given graphics object. May be called more
+     * than once per frame if the frame has to be drawn again.
+     *
+     * @param graphics The graphics object to draw onto.
+     */
+    protected void paintQueued (Graphics graphics) {
         for (Pixel p : updatePoints) {
             graphics.setColor(p.color());
             graphics.fillRect(p.x(), p.y(), 1, 1);
@@ -63,6 +74,12 @@ public class Graphics2d extends GraphicsPanel {
         for (DrawImage i : images) {
             graphics.drawImage(i.image(), i.x(), i.y(), i.width(), i.height(), null);
         }
+    }
+
+    /**
+     * Forgets the pixels and images added this frame, once they've been drawn.
+     */
+    protected void clearQueued () {
         updatePoints = new ArrayList<>();
         images = new ArrayList<>();
     }
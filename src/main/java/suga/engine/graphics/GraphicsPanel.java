@@ -3,15 +3,14 @@ package suga.engine.graphics;
 import suga.engine.GameEngine;
 import suga.engine.logger.Level;
 import suga.engine.threads.SugaThread;
+import suga.engine.threads.TripleBuffer;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.Serial;
-import java.util.ArrayList;
-import java.util.ConcurrentModificationException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.List;
 
 /**
  * A graphics panel is used to draw graphics to the computer screen. It can either be 3d or 2d.
@@ -31,6 +30,57 @@ public abstract class GraphicsPanel extends JPanel implements GraphicsPanelInter
      */
     protected volatile Map<DrawListener.Priorities, ArrayList<DrawListener>> drawingListeners = new HashMap<>();
 
+    /**
+     * Changes to the drawing listeners which have been requested but not yet applied. These are applied by the drawing
+     * thread at the start of each frame, so the listener lists are never modified while they're being drawn. Changes
+     * are coalesced as they're requested, so the list stays bounded even while no frames are drawn. Guarded by itself.
+     */
+    protected final List<ListenerChange> pendingChanges = new ArrayList<>();
+
+    /**
+     * The listeners which are, or will be once the waiting changes are applied, registered in the current listener map.
+     * Used to skip removing listeners which were never registered. Guarded by {@link #pendingChanges}.
+     */
+    protected volatile Set<DrawListener> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The number of times every listener has been cleared. Lets owners of long lived listeners know when to register
+     * them again.
+     */
+    protected volatile int clears = 0;
+
+    /**
+     * The changes being applied this frame. Only used by the drawing thread.
+     */
+    private final List<ListenerChange> applying = new ArrayList<>();
+
+    /**
+     * A requested change to the drawing listeners of this panel.
+     *
+     * @param target   The listener map the change was requested against. Changes requested before the listeners were
+     *                 cleared are applied to the discarded map.
+     * @param priority The priority to register the listener at. Null when removing the listener.
+     * @param listener The listener to register or remove.
+     * @author Sugaku
+     */
+    protected record ListenerChange (Map<DrawListener.Priorities, ArrayList<DrawListener>> target,
+                                     DrawListener.Priorities priority, DrawListener listener) { }
+
+    /**
+     * The render states published by the game, or null if the game doesn't publish any.
+     */
+    protected volatile TripleBuffer<RenderState> renderStates = null;
+
+    /**
+     * The render state being drawn this frame, or null if the game doesn't publish any.
+     */
+    protected RenderState renderState = null;
+
+    /**
+     * How far this frame is between the tick before the render state and the render state's tick.
+     */
+    protected double renderAlpha = 1;
+
     /**
      * The thread that is currently running this GraphicsPanel. May be null in some cases.
      */
@@ -43,6 +93,10 @@ public abstract class GraphicsPanel extends JPanel implements GraphicsPanelInter
      * @param height The height of the pixels that can be defined.
      */
     public void drawing (int width, int height) {
+        applyListenerChanges();
+        TripleBuffer<RenderState> states = renderStates;
+        renderState = states == null ? null : states.acquire();
+        renderAlpha = renderState == null ? 1 : renderState.getAlpha(System.nanoTime());
         DrawListener.Priorities[] order = new DrawListener.Priorities[]{
                 DrawListener.Priorities.BACKGROUND,
                 DrawListener.Priorities.FOREGROUND,
@@ -55,10 +109,21 @@ public abstract class GraphicsPanel extends JPanel implements GraphicsPanelInter
                         l.applyChanges(width, height, this);
             }
         } catch (ConcurrentModificationException e) {
-            GameEngine.getLogger().log(e, Level.WARNING); // This sometimes occurs when loading while drawing a frame.
+            GameEngine.getLogger().log(e, Level.WARNING); // Listeners may still modify collections they are drawing.
         }
     }
 
+    /**
+     * Called by the graphics thread once per frame. Passive panels request a repaint, which Swing performs later on the
+     * event dispatch thread. Active panels override this to draw and present the whole frame on the calling thread.
+     *
+     * @return True if the frame was drawn or requested. False if it couldn't be drawn yet.
+     */
+    public boolean render () {
+        repaint();
+        return true;
+    }
+
     /**
      * Sets the thread that is calling repaint on this GraphicsPanel.
      *
@@ -68,6 +133,37 @@ public abstract class GraphicsPanel extends JPanel implements GraphicsPanelInter
         this.thread = thread;
     }
 
+    /**
+     * Sets where the render state drawn each frame comes from. The newest published state is acquired at the start of
+     * each frame, so listeners see the same state for the whole frame.
+     *
+     * @param states The render states published by the game, or null if it doesn't publish any.
+     */
+    public final void setRenderStates (TripleBuffer<RenderState> states) {
+        renderStates = states;
+    }
+
+    /**
+     * Accessor method for the render state being drawn this frame. Draw listeners should read positions from here
+     * rather than from live game objects, which the logic thread may be changing.
+     *
+     * @return The render state of this frame, or null if the game doesn't publish any.
+     */
+    public final RenderState getRenderState () {
+        return renderState;
+    }
+
+    /**
+     * Accessor method for how far this frame is between the tick before the render state and the render state's tick.
+     * Draw listeners pass this to {@link RenderState#interpolate(int, double, suga.engine.physics.Vector)} so objects
+     * move smoothly even when there are several frames per tick.
+     *
+     * @return The interpolation fraction of this frame, from 0 to 1.
+     */
+    public final double getRenderAlpha () {
+        return renderAlpha;
+    }
+
     /**
      * Adds the drawing listener to this instance.
      *
@@ -78,22 +174,115 @@ public abstract class GraphicsPanel extends JPanel implements GraphicsPanelInter
     }
 
     /**
-     * Adds the drawing listener to this instance with the given priority.
+     * Adds the drawing listener to this instance with the given priority. Takes effect at the start of the next frame.
      *
      * @param priority The priority to register the listener at.
      * @param listener The listener to register.
      */
     public final void registerListener (DrawListener.Priorities priority, DrawListener listener) {
-        if (!drawingListeners.containsKey(priority)) drawingListeners.put(priority, new ArrayList<>());
-        drawingListeners.get(priority).add(listener);
+        synchronized (pendingChanges) {
+            pendingChanges.add(new ListenerChange(drawingListeners, priority, listener));
+        }
+    }
+
+    /**
+     * De-registers the given drawing listener from every priority it was registered at. Takes effect at the start of the
+     * next frame. Registrations of the listener which haven't been applied yet are cancelled instead, and nothing is
+     * requested if the listener isn't registered or its removal is already waiting.
+     *
+     * @param listener The listener to de-register.
+     */
+    public final void removeListener (DrawListener listener) {
+        synchronized (pendingChanges) {
+            Map<DrawListener.Priorities, ArrayList<DrawListener>> target = drawingListeners;
+            boolean pending = false;
+            for (int i = pendingChanges.size() - 1; i >= 0; i--) {
+                ListenerChange change = pendingChanges.get(i);
+                if (change.listener() != listener || change.target() != target) continue;
+                if (change.priority() != null) pendingChanges.remove(i);
+                else pending = true;
+            }
+            if (!pending && registered.contains(listener)) pendingChanges.add(new ListenerChange(target, null, listener));
+        }
     }
 
     /**
      * De-registers all draw listeners for this panel. New ones need to be added with
-     * {@link #registerListener(DrawListener)}.
+     * {@link #registerListener(DrawListener)}. Takes effect immediately, as a frame being drawn keeps drawing the old
+     * listeners.
      */
     public final void clearListeners () {
         drawingListeners = new HashMap<>();
+        registered = Collections.newSetFromMap(new IdentityHashMap<>());
+        clears++;
+    }
+
+    /**
+     * Accessor method for the number of times {@link #clearListeners()} has been called. Listeners registered before
+     * the count last changed are no longer registered.
+     *
+     * @return The number of times every listener has been cleared.
+     */
+    public final int getClears () {
+        return clears;
+    }
+
+    /**
+     * Accessor method for the number of listener changes waiting for the next frame.
+     *
+     * @return The number of requested changes which haven't been applied.
+     */
+    public final int getPendingChanges () {
+        synchronized (pendingChanges) {
+            return pendingChanges.size();
+        }
+    }
+
+    /**
+     * Applies every requested change to the drawing listeners in the order they were requested. Called at the start of
+     * each frame by {@link #drawing(int, int)}. Consecutive removals are applied together in a single pass.
+     */
+    protected void applyListenerChanges () {
+        synchronized (pendingChanges) {
+            if (pendingChanges.isEmpty()) return;
+            Map<DrawListener.Priorities, ArrayList<DrawListener>> current = drawingListeners;
+            for (ListenerChange change : pendingChanges) {
+                if (change.target() != current) continue;
+                if (change.priority() == null) registered.remove(change.listener());
+                else registered.add(change.listener());
+            }
+            applying.addAll(pendingChanges);
+            pendingChanges.clear();
+        }
+        Set<DrawListener> removals = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<DrawListener.Priorities, ArrayList<DrawListener>> removeFrom = null;
+        for (ListenerChange change : applying) {
+            if (change.priority() == null && (removeFrom == null || removeFrom == change.target())) {
+                removeFrom = change.target();
+                removals.add(change.listener());
+                continue;
+            }
+            removeAll(removeFrom, removals);
+            removeFrom = null;
+            if (change.priority() == null) {
+                removeFrom = change.target();
+                removals.add(change.listener());
+            } else change.target().computeIfAbsent(change.priority(), (p) -> new ArrayList<>()).add(change.listener());
+        }
+        removeAll(removeFrom, removals);
+        applying.clear();
+    }
+
+    /**
+     * Removes the given listeners from every priority of the given map and then empties the given set.
+     *
+     * @param target   The listener map to remove from. May be null if there is nothing to remove.
+     * @param removals The listeners to remove. Compared by identity.
+     */
+    private static void removeAll (Map<DrawListener.Priorities, ArrayList<DrawListener>> target, Set<DrawListener> removals) {
+        if (removals.isEmpty()) return;
+        for (ArrayList<DrawListener> listeners : target.values()) listeners.removeIf(removals::contains);
+        removals.clear();
     }
 
     /**
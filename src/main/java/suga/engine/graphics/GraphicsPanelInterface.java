@@ -42,6 +42,13 @@ public interface GraphicsPanelInterface {
      */
     void registerListener (DrawListener.Priorities priority, DrawListener listener);
 
+    /**
+     * De-registers the given drawing listener from every priority it was registered at.
+     *
+     * @param listener The listener to de-register.
+     */
+    void removeListener (DrawListener listener);
+
     /**
      * De-registers all draw listeners for this panel. New ones need to be added with
      * {@link #registerListener(DrawListener)}.
@@ -0,0 +1,198 @@
+package suga.engine.graphics;
+
+import suga.engine.physics.Vector;
+
+import java.util.Arrays;
+
+/**
+ * A RenderState is a copy of everything needed to draw the game as of a single tick. The logic thread fills one after
+ * each tick and hands it to the drawing thread, so drawing reads a consistent copy instead of fields the logic thread
+ * may be changing. Objects are found by their handle, in a single array access. Each object also keeps its position
+ * from the tick before, so frames drawn between ticks can interpolate between the two rather than stutter when the
+ * frame rate is higher than the logic rate.
+ *
+ * @author Sugaku
+ */
+public class RenderState {
+
+    /**
+     * The tick this state was captured after, or -1 if it is empty.
+     */
+    protected long tick = -1;
+
+    /**
+     * The handle of the object in each row.
+     */
+    protected long[] handles = new long[16];
+
+    /**
+     * The position of the object in each row, as x, y, and z.
+     */
+    protected double[] positions = new double[16 * 3];
+
+    /**
+     * The position of the object in each row as of the tick before, as x, y, and z.
+     */
+    protected double[] previous = new double[16 * 3];
+
+    /**
+     * The time this state was published in nanoseconds.
+     */
+    protected long publishedAt = 0;
+
+    /**
+     * The expected time between ticks in nanoseconds, or 0 if unknown.
+     */
+    protected long tickNanos = 0;
+
+    /**
+     * The number of rows.
+     */
+    protected int size = 0;
+
+    /**
+     * The row of each handle indexed by slot. Only valid where the handle in that row matches.
+     */
+    protected int[] rowBySlot = new int[16];
+
+    /**
+     * Empties this state so it can be filled for the given tick.
+     *
+     * @param tick The tick being captured.
+     */
+    public void clear (long tick) {
+        this.tick = tick;
+        size = 0;
+    }
+
+    /**
+     * Adds an object which didn't move since the tick before to this state.
+     *
+     * @param handle The handle of the object.
+     * @param slot   The slot of the handle.
+     * @param pos    The position of the object.
+     */
+    public void add (long handle, int slot, Vector pos) {
+        add(handle, slot, pos.getX(), pos.getY(), pos.getZ(), pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * Adds an object to this state.
+     *
+     * @param handle The handle of the object.
+     * @param slot   The slot of the handle.
+     * @param x      The x position of the object.
+     * @param y      The y position of the object.
+     * @param z      The z position of the object.
+     * @param lastX  The x position of the object as of the tick before.
+     * @param lastY  The y position of the object as of the tick before.
+     * @param lastZ  The z position of the object as of the tick before.
+     */
+    public void add (long handle, int slot, double x, double y, double z, double lastX, double lastY, double lastZ) {
+        if (size == handles.length) {
+            handles = Arrays.copyOf(handles, size * 2);
+            positions = Arrays.copyOf(positions, size * 6);
+            previous = Arrays.copyOf(previous, size * 6);
+        }
+        if (slot >= rowBySlot.length) rowBySlot = Arrays.copyOf(rowBySlot, Math.max(slot + 1, rowBySlot.length * 2));
+        handles[size] = handle;
+        positions[size * 3] = x;
+        positions[size * 3 + 1] = y;
+        positions[size * 3 + 2] = z;
+        previous[size * 3] = lastX;
+        previous[size * 3 + 1] = lastY;
+        previous[size * 3 + 2] = lastZ;
+        rowBySlot[slot] = size++;
+    }
+
+    /**
+     * Finds the row of the object with the given handle.
+     *
+     * @param handle The handle of the object.
+     * @param slot   The slot of the handle.
+     * @return The row of the object or -1 if it isn't in this state.
+     */
+    public int indexOf (long handle, int slot) {
+        if (slot < 0 || slot >= rowBySlot.length) return -1;
+        int row = rowBySlot[slot];
+        return row < size && handles[row] == handle ? row : -1;
+    }
+
+    /**
+     * Reads the position of an object into the given vector.
+     *
+     * @param row The row of the object.
+     * @param out The vector to write the position into.
+     */
+    public void getPosition (int row, Vector out) {
+        out.setX(positions[row * 3]);
+        out.setY(positions[row * 3 + 1]);
+        out.setZ(positions[row * 3 + 2]);
+    }
+
+    /**
+     * Reads the position of an object part way between the tick before and this tick into the given vector.
+     *
+     * @param row   The row of the object.
+     * @param alpha How far between the two ticks to read, from 0 for the tick before to 1 for this tick.
+     * @param out   The vector to write the position into.
+     */
+    public void interpolate (int row, double alpha, Vector out) {
+        int i = row * 3;
+        out.setX(previous[i] + (positions[i] - previous[i]) * alpha);
+        out.setY(previous[i + 1] + (positions[i + 1] - previous[i + 1]) * alpha);
+        out.setZ(previous[i + 2] + (positions[i + 2] - previous[i + 2]) * alpha);
+    }
+
+    /**
+     * Sets when this state was published and how long until the next one is expected.
+     *
+     * @param now       The time this state was published in nanoseconds.
+     * @param tickNanos The expected time between ticks in nanoseconds, or 0 if unknown.
+     */
+    public void setTiming (long now, long tickNanos) {
+        publishedAt = now;
+        this.tickNanos = tickNanos;
+    }
+
+    /**
+     * Finds how far a frame drawn at the given time is between the tick before and this tick. Frames are drawn a tick
+     * behind the logic so that there is always a newer position to move towards.
+     *
+     * @param now The time the frame is drawn in nanoseconds.
+     * @return The fraction of a tick since this state was published, from 0 to 1. Always 1 if the tick length is
+     *         unknown.
+     */
+    public double getAlpha (long now) {
+        if (tickNanos <= 0) return 1;
+        return Math.min(1, Math.max(0, (now - publishedAt) / (double) tickNanos));
+    }
+
+    /**
+     * Accessor method for the tick this state was captured after.
+     *
+     * @return The tick of this state or -1 if nothing has been captured.
+     */
+    public long getTick () {
+        return tick;
+    }
+
+    /**
+     * Accessor method for the number of objects in this state.
+     *
+     * @return The number of objects.
+     */
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Accessor method for the handle of the object in the given row.
+     *
+     * @param row The row of the object.
+     * @return The handle of the object.
+     */
+    public long getHandle (int row) {
+        return handles[row];
+    }
+}
@@ -19,9 +19,9 @@ public abstract class BasicMenu implements Menu {
     protected List<String> options;
 
     /**
-     * The currently selected option.
+     * The currently selected option. Changed by input on the logic thread and read once per frame while drawing.
      */
-    protected int currentSelection = 0;
+    protected volatile int currentSelection = 0;
 
     /**
      * Creates a new BasicMenu with the given options for buttons.
@@ -34,7 +34,8 @@ public abstract class BasicMenu implements Menu {
     }
 
     /**
-     * Called every drawing frame so programs have a chance to make their voices heard on what gets drawn.
+     * Called every drawing frame so programs have a chance to make their voices heard on what gets drawn. Reads the
+     * selection once so the whole frame is drawn with the same option highlighted, even if input changes it meanwhile.
      *
      * @param width  The width of the pixel map.
      * @param height The height of the pixel map.
@@ -42,6 +43,18 @@ public abstract class BasicMenu implements Menu {
      */
     @Override
     public void applyChanges (int width, int height, GraphicsPanel panel) {
+        draw(width, height, panel, currentSelection);
+    }
+
+    /**
+     * Draws this menu with the given option highlighted. Does nothing by default.
+     *
+     * @param width     The width of the pixel map.
+     * @param height    The height of the pixel map.
+     * @param panel     The panel to apply changes to.
+     * @param selection The option to highlight this frame.
+     */
+    protected void draw (int width, int height, GraphicsPanel panel, int selection) {
 
     }
 
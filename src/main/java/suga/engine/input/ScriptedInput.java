@@ -0,0 +1,18 @@
+package suga.engine.input;
+
+/**
+ * A ScriptedInput replays input which was scheduled ahead of time at specific game ticks, rather than reading it from a
+ * window. Used to drive games in simulations and tests.
+ *
+ * @author Sugaku
+ */
+public interface ScriptedInput {
+
+    /**
+     * Releases every input scheduled at or before the given tick so that the game reads it on its next call to
+     * processInput().
+     *
+     * @param tick The tick the game is about to run.
+     */
+    void advance (long tick);
+}
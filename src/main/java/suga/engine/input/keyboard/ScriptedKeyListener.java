@@ -0,0 +1,93 @@
+package suga.engine.input.keyboard;
+
+import suga.engine.input.ScriptedInput;
+
+import java.util.PriorityQueue;
+
+/**
+ * The ScriptedKeyListener is a StackGameKeyListener whose key presses and releases are scheduled at game ticks instead
+ * of coming from a window.
+ *
+ * @author Sugaku
+ */
+public class ScriptedKeyListener extends StackGameKeyListener implements ScriptedInput {
+
+    /**
+     * A key press or release scheduled at a tick.
+     *
+     * @param tick    The tick the event happens at.
+     * @param order   The order the event was scheduled in. Keeps events at the same tick in order.
+     * @param key     The key being pressed or released.
+     * @param pressed True if the key is pressed, false if it is released.
+     * @author Sugaku
+     */
+    protected record ScriptedKey (long tick, long order, KeyValue key, boolean pressed) { }
+
+    /**
+     * The events which haven't happened yet ordered by tick.
+     */
+    protected final PriorityQueue<ScriptedKey> script = new PriorityQueue<>((a, b) ->
+            a.tick() != b.tick() ? Long.compare(a.tick(), b.tick()) : Long.compare(a.order(), b.order()));
+
+    /**
+     * The number of events that have been scheduled.
+     */
+    protected long scheduled = 0;
+
+    /**
+     * Schedules the given key to be pressed at the given tick.
+     *
+     * @param tick The tick to press the key at.
+     * @param key  The key to press.
+     */
+    public void press (long tick, KeyValue key) {
+        script.add(new ScriptedKey(tick, scheduled++, key, true));
+    }
+
+    /**
+     * Schedules the given key to be released at the given tick.
+     *
+     * @param tick The tick to release the key at.
+     * @param key  The key to release.
+     */
+    public void release (long tick, KeyValue key) {
+        script.add(new ScriptedKey(tick, scheduled++, key, false));
+    }
+
+    /**
+     * Schedules the given key to be pressed at the given tick and held for the given number of ticks.
+     *
+     * @param tick     The tick to press the key at.
+     * @param key      The key to tap.
+     * @param duration The number of ticks to hold the key for.
+     */
+    public void tap (long tick, KeyValue key, long duration) {
+        press(tick, key);
+        release(tick + duration, key);
+    }
+
+    /**
+     * Presses and releases every key scheduled at or before the given tick.
+     *
+     * @param tick The tick the game is about to run.
+     */
+    @Override
+    public void advance (long tick) {
+        while (!script.isEmpty() && script.peek().tick() <= tick) {
+            ScriptedKey event = script.poll();
+            if (event.pressed() && !heldKeys.contains(event.key())) {
+                keysPressed.add(event.key());
+                heldKeys.add(event.key());
+            } else if (!event.pressed() && heldKeys.remove(event.key())) keysReleased.add(event.key());
+        }
+    }
+
+    /**
+     * Accessor method for the number of events that haven't happened yet.
+     *
+     * @return The number of scheduled events remaining.
+     */
+    public int getRemaining () {
+        return script.size();
+    }
+}
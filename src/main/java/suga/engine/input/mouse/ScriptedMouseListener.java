@@ -0,0 +1,131 @@
+package suga.engine.input.mouse;
+
+import suga.engine.input.ScriptedInput;
+
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.util.PriorityQueue;
+
+/**
+ * The ScriptedMouseListener is a BasicMouseListener whose presses and releases are scheduled at game ticks instead of
+ * coming from a window. The mouse position is the position of the last event that happened.
+ *
+ * @author Sugaku
+ */
+public class ScriptedMouseListener extends BasicMouseListener implements ScriptedInput {
+
+    /**
+     * The component scripted events come from. Mouse events require a source, but it is never shown.
+     */
+    protected static final Component SOURCE = new Component() { };
+
+    /**
+     * A mouse press or release scheduled at a tick.
+     *
+     * @param tick  The tick the event happens at.
+     * @param order The order the event was scheduled in. Keeps events at the same tick in order.
+     * @param event The event to add to the stack of mouse events.
+     * @author Sugaku
+     */
+    protected record ScriptedClick (long tick, long order, MouseEvent event) { }
+
+    /**
+     * The events which haven't happened yet ordered by tick.
+     */
+    protected final PriorityQueue<ScriptedClick> script = new PriorityQueue<>((a, b) ->
+            a.tick() != b.tick() ? Long.compare(a.tick(), b.tick()) : Long.compare(a.order(), b.order()));
+
+    /**
+     * The number of events that have been scheduled.
+     */
+    protected long scheduled = 0;
+
+    /**
+     * The position of the last event that happened.
+     */
+    protected Point position = new Point();
+
+    /**
+     * Schedules the given mouse button to be pressed at the given tick and position.
+     *
+     * @param tick   The tick to press the button at.
+     * @param x      The x position of the mouse.
+     * @param y      The y position of the mouse.
+     * @param button The button to press, such as {@link MouseEvent#BUTTON1}.
+     */
+    public void press (long tick, int x, int y, int button) {
+        schedule(tick, MouseEvent.MOUSE_PRESSED, x, y, button);
+    }
+
+    /**
+     * Schedules the given mouse button to be released at the given tick and position.
+     *
+     * @param tick   The tick to release the button at.
+     * @param x      The x position of the mouse.
+     * @param y      The y position of the mouse.
+     * @param button The button to release, such as {@link MouseEvent#BUTTON1}.
+     */
+    public void release (long tick, int x, int y, int button) {
+        schedule(tick, MouseEvent.MOUSE_RELEASED, x, y, button);
+    }
+
+    /**
+     * Schedules the given mouse button to be pressed and released at the given tick and position.
+     *
+     * @param tick   The tick to click at.
+     * @param x      The x position of the mouse.
+     * @param y      The y position of the mouse.
+     * @param button The button to click, such as {@link MouseEvent#BUTTON1}.
+     */
+    public void click (long tick, int x, int y, int button) {
+        press(tick, x, y, button);
+        release(tick, x, y, button);
+    }
+
+    /**
+     * Adds every event scheduled at or before the given tick to the stack of mouse events.
+     *
+     * @param tick The tick the game is about to run.
+     */
+    @Override
+    public void advance (long tick) {
+        while (!script.isEmpty() && script.peek().tick() <= tick) {
+            MouseEvent event = script.poll().event();
+            position = event.getPoint();
+            events.add(event);
+        }
+    }
+
+    /**
+     * Returns the position of the last scripted event.
+     *
+     * @return The current scripted mouse position.
+     */
+    @Override
+    public Point getMousePos () {
+        return new Point(position);
+    }
+
+    /**
+     * Accessor method for the number of events that haven't happened yet.
+     *
+     * @return The number of scheduled events remaining.
+     */
+    public int getRemaining () {
+        return script.size();
+    }
+
+    /**
+     * Schedules a mouse event of the given type.
+     *
+     * @param tick   The tick the event happens at.
+     * @param id     The type of mouse event.
+     * @param x      The x position of the mouse.
+     * @param y      The y position of the mouse.
+     * @param button The button of the event.
+     */
+    private void schedule (long tick, int id, int x, int y, int button) {
+        MouseEvent event = new MouseEvent(SOURCE, id, 0, 0, x, y, 1, false, button);
+        script.add(new ScriptedClick(tick, scheduled++, event));
+    }
+}
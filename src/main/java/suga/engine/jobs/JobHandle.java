@@ -0,0 +1,177 @@
+package suga.engine.jobs;
+
+import suga.engine.Engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A JobHandle refers to a job submitted to a {@link JobSystem}. It can be waited on, used as a dependency of later
+ * jobs, and read afterwards for how long the job waited and ran.
+ *
+ * @author Sugaku
+ */
+public class JobHandle {
+
+    /**
+     * The name of the job, used to group its timing.
+     */
+    protected final String name;
+
+    /**
+     * The work done by the job.
+     */
+    protected final Runnable work;
+
+    /**
+     * The engine of the thread which submitted the job. Bound while the job runs and used to log failures.
+     */
+    protected final Engine engine;
+
+    /**
+     * The number of unfinished dependencies, plus one until the job has been fully submitted.
+     */
+    protected final AtomicInteger waiting = new AtomicInteger(1);
+
+    /**
+     * Released once the job has finished.
+     */
+    protected final CountDownLatch finished = new CountDownLatch(1);
+
+    /**
+     * Jobs waiting on this one. Guarded by this handle and cleared once this job finishes.
+     */
+    protected List<JobHandle> dependents = new ArrayList<>();
+
+    /**
+     * When the job was submitted in nanoseconds.
+     */
+    protected final long submittedAt = System.nanoTime();
+
+    /**
+     * When the job started running in nanoseconds, or 0 if it hasn't yet.
+     */
+    protected volatile long startedAt = 0;
+
+    /**
+     * When the job finished in nanoseconds, or 0 if it hasn't yet.
+     */
+    protected volatile long finishedAt = 0;
+
+    /**
+     * The exception or error thrown by the job, or null if it didn't throw one.
+     */
+    protected volatile Throwable failure = null;
+
+    /**
+     * Creates a new JobHandle. Jobs are created by {@link JobSystem#submit(String, Runnable, JobHandle...)}.
+     *
+     * @param name   The name of the job.
+     * @param work   The work done by the job.
+     * @param engine The engine of the submitting thread.
+     */
+    protected JobHandle (String name, Runnable work, Engine engine) {
+        this.name = name;
+        this.work = work;
+        this.engine = engine;
+    }
+
+    /**
+     * Registers a job to be released once this job finishes.
+     *
+     * @param dependent The job waiting on this one.
+     * @return True if the dependent must wait. False if this job already finished.
+     */
+    protected synchronized boolean addDependent (JobHandle dependent) {
+        if (dependents == null) return false;
+        dependents.add(dependent);
+        return true;
+    }
+
+    /**
+     * Marks this job as finished and hands back every job that was waiting on it.
+     *
+     * @param now The time the job finished in nanoseconds.
+     * @return The jobs waiting on this one.
+     */
+    protected synchronized List<JobHandle> complete (long now) {
+        List<JobHandle> waiting = dependents;
+        dependents = null;
+        finishedAt = now;
+        finished.countDown();
+        return waiting;
+    }
+
+    /**
+     * Waits until this job has finished. Pool threads which wait are compensated for, so waiting from inside another
+     * job can't starve the pool.
+     *
+     * @throws InterruptedException Thrown if the waiting thread is interrupted.
+     */
+    public void await () throws InterruptedException {
+        if (finished.getCount() == 0) return;
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block () throws InterruptedException {
+                finished.await();
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable () {
+                return finished.getCount() == 0;
+            }
+        });
+    }
+
+    /**
+     * Checks whether this job has finished, successfully or not.
+     *
+     * @return True if the job has finished.
+     */
+    public boolean isDone () {
+        return finished.getCount() == 0;
+    }
+
+    /**
+     * Accessor method for the name of this job.
+     *
+     * @return The name of the job.
+     */
+    public String getName () {
+        return name;
+    }
+
+    /**
+     * Accessor method for the exception or error thrown by this job.
+     *
+     * @return The throwable or null if the job didn't throw one, or hasn't finished.
+     */
+    public Throwable getFailure () {
+        return failure;
+    }
+
+    /**
+     * Accessor method for how long this job waited between being submitted and starting, including the time spent
+     * waiting on dependencies.
+     *
+     * @return The wait in nanoseconds, or -1 if the job hasn't started.
+     */
+    public long getWaitTime () {
+        long started = startedAt;
+        return started == 0 ? -1 : started - submittedAt;
+    }
+
+    /**
+     * Accessor method for how long this job ran.
+     *
+     * @return The run time in nanoseconds, or -1 if the job hasn't finished.
+     */
+    public long getRunTime () {
+        long done = finishedAt;
+        return done == 0 ? -1 : done - startedAt;
+    }
+}
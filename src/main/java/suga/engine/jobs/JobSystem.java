@@ -0,0 +1,267 @@
+package suga.engine.jobs;
+
+import suga.engine.Engine;
+import suga.engine.logger.Level;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * A JobSystem runs small pieces of engine work, such as physics, AI, particles, audio mixing, or asset decoding, on a
+ * work stealing ForkJoinPool. Jobs may depend on earlier jobs and only start once all of them have finished, which
+ * makes continuations a job with a single dependency. Ranges of indices can be split across every core with
+ * {@link #parallelFor(String, int, int, int, IntConsumer, JobHandle...)}. The time spent in jobs is totalled by name
+ * so it is clear where the cores go.
+ *
+ * @author Sugaku
+ */
+public class JobSystem {
+
+    /**
+     * The running totals for every job with the same name.
+     *
+     * @author Sugaku
+     */
+    protected static final class Timer {
+
+        /**
+         * The number of jobs which have finished.
+         */
+        final LongAdder count = new LongAdder();
+
+        /**
+         * The total run time in nanoseconds.
+         */
+        final LongAdder total = new LongAdder();
+
+        /**
+         * The longest run time in nanoseconds.
+         */
+        final AtomicLong max = new AtomicLong();
+    }
+
+    /**
+     * The pool jobs run on.
+     */
+    protected final ForkJoinPool pool;
+
+    /**
+     * The timing of jobs by name.
+     */
+    protected final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new JobSystem running on the common pool.
+     */
+    public JobSystem () {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new JobSystem running on the given pool.
+     *
+     * @param pool The pool to run jobs on.
+     */
+    public JobSystem (ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Submits a job which starts once every given dependency has finished. A dependency which fails still counts as
+     * finished, dependents can check {@link JobHandle#getFailure()} if they need to.
+     *
+     * @param name         The name of the job, used to group its timing.
+     * @param work         The work to do.
+     * @param dependencies The jobs which must finish first.
+     * @return The handle of the new job.
+     */
+    public JobHandle submit (String name, Runnable work, JobHandle... dependencies) {
+        JobHandle job = new JobHandle(name, work, Engine.current());
+        for (JobHandle dependency : dependencies) {
+            job.waiting.incrementAndGet();
+            if (!dependency.addDependent(job)) job.waiting.decrementAndGet();
+        }
+        release(job);
+        return job;
+    }
+
+    /**
+     * Submits a job which starts once the given job has finished.
+     *
+     * @param previous The job to continue from.
+     * @param name     The name of the job.
+     * @param work     The work to do.
+     * @return The handle of the new job.
+     */
+    public JobHandle then (JobHandle previous, String name, Runnable work) {
+        return submit(name, work, previous);
+    }
+
+    /**
+     * Submits a job which calls the given body with every index in a range, splitting the range across the pool until
+     * pieces are no larger than the grain. Finishes once every index has been visited.
+     *
+     * @param name         The name of the job.
+     * @param start        The first index, inclusive.
+     * @param end          The last index, exclusive.
+     * @param grain        The most indices visited by one piece. Larger grains split less.
+     * @param body         Called once with each index, possibly from many threads at once.
+     * @param dependencies The jobs which must finish first.
+     * @return The handle of the new job.
+     */
+    public JobHandle parallelFor (String name, int start, int end, int grain, IntConsumer body,
+                                  JobHandle... dependencies) {
+        int pieceSize = Math.max(1, grain);
+        return submit(name, () -> pool.invoke(new Range(start, end, pieceSize, body)), dependencies);
+    }
+
+    /**
+     * Waits until every given job has finished.
+     *
+     * @param jobs The jobs to wait on.
+     * @throws InterruptedException Thrown if the waiting thread is interrupted.
+     */
+    public static void awaitAll (JobHandle... jobs) throws InterruptedException {
+        for (JobHandle job : jobs) job.await();
+    }
+
+    /**
+     * Accessor method for the time spent in jobs so far, grouped by name.
+     *
+     * @return The timing of each name, most total time first.
+     */
+    public List<JobTiming> getTimings () {
+        List<JobTiming> timings = new ArrayList<>();
+        timers.forEach((name, timer) ->
+                timings.add(new JobTiming(name, timer.count.sum(), timer.total.sum(), timer.max.get())));
+        timings.sort(Comparator.comparingLong(JobTiming::total).reversed());
+        return timings;
+    }
+
+    /**
+     * Forgets the time spent in every job so far.
+     */
+    public void resetTimings () {
+        timers.clear();
+    }
+
+    /**
+     * Accessor method for the pool jobs run on.
+     *
+     * @return The pool of this job system.
+     */
+    public ForkJoinPool getPool () {
+        return pool;
+    }
+
+    /**
+     * Releases one hold on the given job, starting it once nothing holds it.
+     *
+     * @param job The job to release.
+     */
+    protected void release (JobHandle job) {
+        if (job.waiting.decrementAndGet() == 0) pool.execute(() -> run(job));
+    }
+
+    /**
+     * Runs the given job on the current thread, records its timing, and releases its dependents. Dependents are
+     * released even if the job throws an error, so nothing waiting on it is left blocked.
+     *
+     * @param job The job to run.
+     */
+    protected void run (JobHandle job) {
+        Engine previous = Engine.current();
+        Engine.bind(job.engine);
+        job.startedAt = System.nanoTime();
+        try {
+            job.work.run();
+        } catch (Exception e) {
+            job.failure = e;
+            job.engine.getLogger().log("JobSystem: Job '" + job.name + "' failed.", e, Level.EXCEPTION);
+        } catch (Throwable e) {
+            job.failure = e;
+            job.engine.getLogger().log("JobSystem: Job '" + job.name + "' failed with " + e + ".", Level.ERROR);
+        } finally {
+            Engine.bind(previous);
+            long finished = System.nanoTime();
+            long runTime = finished - job.startedAt;
+            Timer timer = timers.computeIfAbsent(job.name, (n) -> new Timer());
+            timer.count.increment();
+            timer.total.add(runTime);
+            timer.max.accumulateAndGet(runTime, Math::max);
+            List<JobHandle> dependents = job.complete(finished);
+            for (JobHandle dependent : dependents) release(dependent);
+        }
+    }
+
+    /**
+     * A range of indices which splits itself in half until it is no larger than its grain.
+     *
+     * @author Sugaku
+     */
+    protected static final class Range extends RecursiveAction {
+
+        /**
+         * The serial version of the range.
+         */
+        @Serial
+        private static final long serialVersionUID = 2958301746519284L;
+
+        /**
+         * The first index, inclusive.
+         */
+        private final int start;
+
+        /**
+         * The last index, exclusive.
+         */
+        private final int end;
+
+        /**
+         * The most indices to visit without splitting.
+         */
+        private final int grain;
+
+        /**
+         * Called with each index.
+         */
+        private final IntConsumer body;
+
+        /**
+         * Creates a new range.
+         *
+         * @param start The first index, inclusive.
+         * @param end   The last index, exclusive.
+         * @param grain The most indices to visit without splitting.
+         * @param body  Called with each index.
+         */
+        Range (int start, int end, int grain, IntConsumer body) {
+            this.start = start;
+            this.end = end;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        /**
+         * Visits every index in this range, splitting it first if it is larger than the grain.
+         */
+        @Override
+        protected void compute () {
+            if (end - start <= grain) {
+                for (int i = start; i < end; i++) body.accept(i);
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new Range(start, middle, grain, body), new Range(middle, end, grain, body));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package suga.engine.jobs;
+
+/**
+ * The time spent running every job with the same name, as of one moment. Durations are in nanoseconds.
+ *
+ * @param name  The name of the jobs.
+ * @param count The number of jobs which have finished.
+ * @param total The total time spent running them.
+ * @param max   The longest any one of them ran.
+ * @author Sugaku
+ */
+public record JobTiming (String name, long count, long total, long max) {
+
+    /**
+     * Accessor method for the average time spent running one job.
+     *
+     * @return The average duration in nanoseconds, or 0 if none have finished.
+     */
+    public double average () {
+        return count == 0 ? 0 : (double) total / count;
+    }
+}
@@ -0,0 +1,86 @@
+package suga.engine.network;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A BitReader reads values written by a {@link BitWriter} from a ByteBuffer.
+ *
+ * @author Sugaku
+ */
+public class BitReader {
+
+    /**
+     * The buffer being read from.
+     */
+    protected ByteBuffer buffer;
+
+    /**
+     * Bits which have been read from the buffer but not returned yet, in the lowest {@link #pending} bits.
+     */
+    protected long scratch = 0;
+
+    /**
+     * The number of bits in {@link #scratch}.
+     */
+    protected int pending = 0;
+
+    /**
+     * Starts reading from the current position of the given buffer. Readers can be reused by calling this again.
+     *
+     * @param buffer The buffer to read from.
+     */
+    public void reset (ByteBuffer buffer) {
+        this.buffer = buffer;
+        scratch = 0;
+        pending = 0;
+    }
+
+    /**
+     * Reads the given number of bits.
+     *
+     * @param bits The number of bits to read, from 0 to 64.
+     * @return The bits read as the lowest bits of the value.
+     * @throws java.nio.BufferUnderflowException Thrown if the buffer runs out of bits.
+     */
+    public long readBits (int bits) {
+        if (bits > 32) {
+            long high = readBits(bits - 32);
+            return (high << 32) | readBits(32);
+        }
+        if (bits == 0) return 0;
+        while (pending < bits) {
+            scratch = (scratch << 8) | (buffer.get() & 0xFF);
+            pending += 8;
+        }
+        pending -= bits;
+        return (scratch >>> pending) & (-1L >>> (64 - bits));
+    }
+
+    /**
+     * Reads a single bit.
+     *
+     * @return The bit read.
+     */
+    public boolean readBoolean () {
+        return readBits(1) == 1;
+    }
+
+    /**
+     * Reads a value written by {@link BitWriter#writeUnsigned(long)}.
+     *
+     * @return The value read.
+     */
+    public long readUnsigned () {
+        return readBits((int) readBits(7));
+    }
+
+    /**
+     * Reads a value written by {@link BitWriter#writeSigned(long)}.
+     *
+     * @return The value read.
+     */
+    public long readSigned () {
+        long zigzag = readUnsigned();
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
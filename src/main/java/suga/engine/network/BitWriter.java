@@ -0,0 +1,136 @@
+package suga.engine.network;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A BitWriter packs values into a byte array using only as many bits as each value needs. Bits are written most
+ * significant first. The array is reused between packets and only grows when a packet is larger than any before it.
+ *
+ * @author Sugaku
+ */
+public class BitWriter {
+
+    /**
+     * The bytes written so far. Only the first {@link #length} bytes are complete.
+     */
+    protected byte[] bytes;
+
+    /**
+     * The number of complete bytes written.
+     */
+    protected int length = 0;
+
+    /**
+     * Bits which haven't filled a complete byte yet, in the lowest {@link #pending} bits.
+     */
+    protected long scratch = 0;
+
+    /**
+     * The number of bits in {@link #scratch}. Always less than 8 between writes.
+     */
+    protected int pending = 0;
+
+    /**
+     * Creates a new BitWriter with room for a typical packet.
+     */
+    public BitWriter () {
+        this(1200);
+    }
+
+    /**
+     * Creates a new BitWriter with the given initial capacity.
+     *
+     * @param capacity The number of bytes to allocate up front.
+     */
+    public BitWriter (int capacity) {
+        bytes = new byte[Math.max(1, capacity)];
+    }
+
+    /**
+     * Forgets everything written so the writer can be reused for another packet.
+     */
+    public void reset () {
+        length = 0;
+        scratch = 0;
+        pending = 0;
+    }
+
+    /**
+     * Writes the lowest given number of bits of the value.
+     *
+     * @param value The value to write.
+     * @param bits  The number of bits to write, from 0 to 64.
+     */
+    public void writeBits (long value, int bits) {
+        if (bits > 32) {
+            writeBits(value >>> 32, bits - 32);
+            bits = 32;
+        }
+        if (bits == 0) return;
+        scratch = (scratch << bits) | (value & (-1L >>> (64 - bits)));
+        pending += bits;
+        while (pending >= 8) {
+            pending -= 8;
+            if (length == bytes.length) bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            bytes[length++] = (byte) (scratch >>> pending);
+        }
+    }
+
+    /**
+     * Writes a single bit.
+     *
+     * @param value The bit to write.
+     */
+    public void writeBoolean (boolean value) {
+        writeBits(value ? 1 : 0, 1);
+    }
+
+    /**
+     * Writes an unsigned value prefixed by the number of bits it needs. Small values take only a few bits.
+     *
+     * @param value The value to write, treated as unsigned.
+     */
+    public void writeUnsigned (long value) {
+        int bits = 64 - Long.numberOfLeadingZeros(value);
+        writeBits(bits, 7);
+        writeBits(value, bits);
+    }
+
+    /**
+     * Writes a signed value so that values close to zero take only a few bits.
+     *
+     * @param value The value to write.
+     */
+    public void writeSigned (long value) {
+        writeUnsigned((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Accessor method for the number of bits written so far.
+     *
+     * @return The number of bits written.
+     */
+    public int getBitLength () {
+        return length * 8 + pending;
+    }
+
+    /**
+     * Writes every complete and partial byte into the given buffer. The last byte is padded with zeros.
+     *
+     * @param buffer The buffer to write into.
+     */
+    public void flushTo (ByteBuffer buffer) {
+        buffer.put(bytes, 0, length);
+        if (pending > 0) buffer.put((byte) (scratch << (8 - pending)));
+    }
+
+    /**
+     * Accessor method for the number of bytes {@link #flushTo(ByteBuffer)} writes.
+     *
+     * @return The number of bytes needed to hold every bit written.
+     */
+    public int getByteLength () {
+        return length + (pending > 0 ? 1 : 0);
+    }
+}
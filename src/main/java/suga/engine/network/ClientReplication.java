@@ -0,0 +1,307 @@
+package suga.engine.network;
+
+import suga.engine.physics.Physical;
+import suga.engine.physics.Vector;
+
+import java.util.Arrays;
+
+/**
+ * ClientReplication turns the snapshots received by a client into smooth motion. Remote objects are drawn slightly in
+ * the past, interpolated between the two buffered snapshots around the render time, so the server can send far fewer
+ * snapshots than the client draws frames. The client's own avatar is instead predicted by applying local input right
+ * away. When a snapshot corrects the avatar, the avatar is reset to the server's state and every input the server
+ * hasn't processed yet is applied again.
+ *
+ * @author Sugaku
+ */
+public class ClientReplication {
+
+    /**
+     * An input applied to the avatar for a single tick, both when first predicted and whenever it is replayed.
+     *
+     * @author Sugaku
+     */
+    @FunctionalInterface
+    public interface PredictedInput {
+
+        /**
+         * Applies this input to the avatar. The avatar is updated afterwards.
+         *
+         * @param avatar The avatar to apply this input to.
+         */
+        void apply (Physical avatar);
+    }
+
+    /**
+     * The length of a server tick in nanoseconds.
+     */
+    protected final double tickNanos;
+
+    /**
+     * How many ticks behind the server remote objects are drawn.
+     */
+    protected final double delay;
+
+    /**
+     * The most ticks past the newest snapshot remote objects are extrapolated using their velocity.
+     */
+    protected double maxExtrapolation = 2;
+
+    /**
+     * The buffered snapshots, indexed by tick modulo their length.
+     */
+    protected final NetworkSnapshot[] frames;
+
+    /**
+     * The newest tick received, or -1 if none have been.
+     */
+    protected long newest = -1;
+
+    /**
+     * The estimated difference between server time and local time in nanoseconds. Smoothed over many snapshots so
+     * network jitter doesn't make remote objects stutter.
+     */
+    protected double clockOffset = 0;
+
+    /**
+     * The handle of the avatar, or 0 if the client doesn't predict one.
+     */
+    protected long avatarHandle = 0;
+
+    /**
+     * The avatar predicted by this client.
+     */
+    protected Physical avatar = null;
+
+    /**
+     * Inputs the server hasn't acknowledged yet. Only the first {@link #pendingCount} values are valid.
+     */
+    protected PredictedInput[] pending = new PredictedInput[64];
+
+    /**
+     * The tick each pending input was applied for, indexed the same as {@link #pending}.
+     */
+    protected long[] pendingTicks = new long[64];
+
+    /**
+     * The number of pending inputs.
+     */
+    protected int pendingCount = 0;
+
+    /**
+     * How far the avatar moved when it was last corrected.
+     */
+    protected double lastCorrection = 0;
+
+    /**
+     * Scratch space used while reading positions from snapshots.
+     */
+    private final Vector scratch = new Vector();
+
+    /**
+     * Creates a new ClientReplication.
+     *
+     * @param tickRate The number of snapshots the server sends per second.
+     * @param delay    How many ticks behind the server remote objects are drawn. Two is usually enough to always have a
+     *                 newer snapshot to interpolate towards, even when one is lost.
+     * @param buffered The number of snapshots to buffer.
+     */
+    public ClientReplication (double tickRate, double delay, int buffered) {
+        tickNanos = 1_000_000_000.0 / tickRate;
+        this.delay = delay;
+        frames = new NetworkSnapshot[buffered];
+        for (int i = 0; i < buffered; i++) frames[i] = new NetworkSnapshot();
+    }
+
+    /**
+     * Sets the avatar this client predicts. The avatar isn't interpolated, it runs ahead of the server instead.
+     *
+     * @param handle The handle of the avatar on the server.
+     * @param avatar The local copy of the avatar.
+     */
+    public void setAvatar (long handle, Physical avatar) {
+        avatarHandle = handle;
+        this.avatar = avatar;
+        pendingCount = 0;
+    }
+
+    /**
+     * Sets how many ticks past the newest snapshot remote objects may be extrapolated when snapshots are late.
+     *
+     * @param ticks The most ticks to extrapolate.
+     */
+    public void setMaxExtrapolation (double ticks) {
+        maxExtrapolation = ticks;
+    }
+
+    /**
+     * Buffers a snapshot received right now.
+     *
+     * @param snapshot The received snapshot.
+     * @return True if the snapshot was newer than every buffered snapshot.
+     */
+    public boolean receive (NetworkSnapshot snapshot) {
+        return receive(snapshot, System.nanoTime());
+    }
+
+    /**
+     * Buffers a snapshot received at the given time, and corrects the avatar if the snapshot holds it.
+     *
+     * @param snapshot The received snapshot.
+     * @param now      The local time the snapshot arrived in nanoseconds.
+     * @return True if the snapshot was newer than every buffered snapshot.
+     */
+    public boolean receive (NetworkSnapshot snapshot, long now) {
+        long tick = snapshot.getTick();
+        if (tick <= newest) return false;
+        double offset = tick * tickNanos - now;
+        clockOffset = newest < 0 ? offset : clockOffset + (offset - clockOffset) * 0.1;
+        newest = tick;
+        frames[Math.floorMod(tick, frames.length)].copy(snapshot);
+        if (avatar != null) reconcile(snapshot);
+        return true;
+    }
+
+    /**
+     * Applies an input to the avatar for the given tick and remembers it until the server acknowledges that tick.
+     *
+     * @param tick  The server tick the input is meant for.
+     * @param input The input to apply.
+     */
+    public void predict (long tick, PredictedInput input) {
+        if (avatar == null) return;
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, pendingCount * 2);
+            pendingTicks = Arrays.copyOf(pendingTicks, pendingCount * 2);
+        }
+        pending[pendingCount] = input;
+        pendingTicks[pendingCount++] = tick;
+        input.apply(avatar);
+        avatar.update();
+    }
+
+    /**
+     * Resets the avatar to the state in the given snapshot and applies every input for a later tick again. The
+     * snapshot of a tick already includes the input for that tick, so those inputs are forgotten even when the
+     * snapshot doesn't hold the avatar, such as when it's outside the client's interest.
+     *
+     * @param snapshot The snapshot which may hold the avatar.
+     */
+    protected void reconcile (NetworkSnapshot snapshot) {
+        int acked = 0;
+        while (acked < pendingCount && pendingTicks[acked] <= snapshot.getTick()) acked++;
+        System.arraycopy(pending, acked, pending, 0, pendingCount - acked);
+        System.arraycopy(pendingTicks, acked, pendingTicks, 0, pendingCount - acked);
+        Arrays.fill(pending, pendingCount - acked, pendingCount, null);
+        pendingCount -= acked;
+        int row = snapshot.indexOf(avatarHandle);
+        if (row < 0) return;
+        Vector pos = avatar.getPos();
+        double x = pos.getX(), y = pos.getY(), z = pos.getZ();
+        snapshot.getPosition(row, pos);
+        snapshot.getVelocity(row, avatar.getVelocity());
+        for (int i = 0; i < pendingCount; i++) {
+            pending[i].apply(avatar);
+            avatar.update();
+        }
+        lastCorrection = Math.sqrt(square(pos.getX() - x) + square(pos.getY() - y) + square(pos.getZ() - z));
+    }
+
+    /**
+     * Finds where a remote object should be drawn right now.
+     *
+     * @param handle The handle of the object.
+     * @param out    The vector to write the position into.
+     * @return True if the object is in the buffered snapshots.
+     */
+    public boolean interpolate (long handle, Vector out) {
+        return interpolate(handle, System.nanoTime(), out);
+    }
+
+    /**
+     * Finds where a remote object should be drawn at the given local time. Interpolates between the snapshots around
+     * the render time, or extrapolates from the newest one for a short while if no newer snapshot has arrived.
+     *
+     * @param handle The handle of the object.
+     * @param now    The local time in nanoseconds.
+     * @param out    The vector to write the position into.
+     * @return True if the object is in the buffered snapshots.
+     */
+    public boolean interpolate (long handle, long now, Vector out) {
+        if (newest < 0) return false;
+        double renderTick = getRenderTick(now);
+        NetworkSnapshot before = null, after = null;
+        int beforeRow = -1, afterRow = -1;
+        for (NetworkSnapshot frame : frames) {
+            long tick = frame.getTick();
+            if (tick < 0 || tick <= newest - frames.length) continue;
+            int row = frame.indexOf(handle);
+            if (row < 0) continue;
+            if (tick <= renderTick && (before == null || tick > before.getTick())) {
+                before = frame;
+                beforeRow = row;
+            } else if (tick > renderTick && (after == null || tick < after.getTick())) {
+                after = frame;
+                afterRow = row;
+            }
+        }
+        if (before == null && after == null) return false;
+        if (before == null) {
+            after.getPosition(afterRow, out);
+            return true;
+        }
+        before.getPosition(beforeRow, out);
+        if (after == null) {
+            double ticks = Math.min(renderTick - before.getTick(), maxExtrapolation);
+            before.getVelocity(beforeRow, scratch);
+            out.setX(out.getX() + scratch.getX() * ticks);
+            out.setY(out.getY() + scratch.getY() * ticks);
+            out.setZ(out.getZ() + scratch.getZ() * ticks);
+            return true;
+        }
+        double alpha = (renderTick - before.getTick()) / (after.getTick() - before.getTick());
+        after.getPosition(afterRow, scratch);
+        out.setX(out.getX() + (scratch.getX() - out.getX()) * alpha);
+        out.setY(out.getY() + (scratch.getY() - out.getY()) * alpha);
+        out.setZ(out.getZ() + (scratch.getZ() - out.getZ()) * alpha);
+        return true;
+    }
+
+    /**
+     * Accessor method for the server tick remote objects are drawn at for the given local time.
+     *
+     * @param now The local time in nanoseconds.
+     * @return The fractional server tick being drawn.
+     */
+    public double getRenderTick (long now) {
+        return (now + clockOffset) / tickNanos - delay;
+    }
+
+    /**
+     * Accessor method for the number of inputs the server hasn't acknowledged yet.
+     *
+     * @return The number of pending inputs.
+     */
+    public int getPending () {
+        return pendingCount;
+    }
+
+    /**
+     * Accessor method for how far the avatar moved when it was last corrected. Zero when prediction was correct.
+     *
+     * @return The distance of the last correction.
+     */
+    public double getLastCorrection () {
+        return lastCorrection;
+    }
+
+    /**
+     * Squares the given value.
+     *
+     * @param value The value to square.
+     * @return The value squared.
+     */
+    private static double square (double value) {
+        return value * value;
+    }
+}
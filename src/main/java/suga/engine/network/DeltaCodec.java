@@ -0,0 +1,144 @@
+package suga.engine.network;
+
+/**
+ * The DeltaCodec writes a snapshot as the differences from an older snapshot the receiver already has, known as the
+ * baseline. Objects are visited in order of handle and only objects which were added, removed, or changed are written.
+ * Changed objects only write the fields which changed, each as a small signed difference. The size of a delta
+ * therefore depends on how much changed rather than how many objects there are. Without a baseline every object is
+ * written in full.
+ *
+ * @author Sugaku
+ */
+public final class DeltaCodec {
+
+    /**
+     * Marks the end of the list of objects.
+     */
+    private static final int END = 0;
+
+    /**
+     * Marks an object which was added or changed.
+     */
+    private static final int CHANGED = 1;
+
+    /**
+     * Marks an object which was removed.
+     */
+    private static final int REMOVED = 2;
+
+    /**
+     * DeltaCodec is a collection of static methods and should not be instantiated.
+     */
+    private DeltaCodec () {
+
+    }
+
+    /**
+     * Writes the given snapshot as a delta against the given baseline.
+     *
+     * @param current  The snapshot to write.
+     * @param baseline The snapshot the receiver already has, or null to write every object in full.
+     * @param out      The writer to write to.
+     */
+    public static void encode (NetworkSnapshot current, NetworkSnapshot baseline, BitWriter out) {
+        out.writeUnsigned(current.getTick());
+        out.writeBoolean(baseline != null);
+        if (baseline != null) out.writeUnsigned(current.getTick() - baseline.getTick());
+        int cs = current.size();
+        int bs = baseline == null ? 0 : baseline.size();
+        int i = 0, j = 0;
+        long previous = 0;
+        while (i < cs || j < bs) {
+            long cid = i < cs ? current.getId(i) : Long.MAX_VALUE;
+            long bid = j < bs ? baseline.getId(j) : Long.MAX_VALUE;
+            if (j >= bs || (i < cs && cid < bid)) {
+                out.writeBits(CHANGED, 2);
+                out.writeUnsigned(cid - previous);
+                for (int f = 0; f < NetworkSnapshot.FIELDS; f++) out.writeSigned(current.getField(i, f));
+                previous = cid;
+                i++;
+            } else if (i >= cs || bid < cid) {
+                out.writeBits(REMOVED, 2);
+                out.writeUnsigned(bid - previous);
+                previous = bid;
+                j++;
+            } else {
+                int mask = 0;
+                for (int f = 0; f < NetworkSnapshot.FIELDS; f++)
+                    if (current.getField(i, f) != baseline.getField(j, f)) mask |= 1 << f;
+                if (mask != 0) {
+                    out.writeBits(CHANGED, 2);
+                    out.writeUnsigned(cid - previous);
+                    out.writeBits(mask, NetworkSnapshot.FIELDS);
+                    for (int f = 0; f < NetworkSnapshot.FIELDS; f++)
+                        if ((mask & (1 << f)) != 0) out.writeSigned((long) current.getField(i, f) - baseline.getField(j, f));
+                    previous = cid;
+                }
+                i++;
+                j++;
+            }
+        }
+        out.writeBits(END, 2);
+    }
+
+    /**
+     * Reads the tick and baseline tick at the start of a delta without reading the rest of it.
+     *
+     * @param in The reader positioned at the start of a delta. Left positioned after the header.
+     * @return The tick of the delta and the tick of its baseline, which is -1 if it has no baseline.
+     */
+    public static long[] readHeader (BitReader in) {
+        long tick = in.readUnsigned();
+        long baseline = in.readBoolean() ? tick - in.readUnsigned() : -1;
+        return new long[]{tick, baseline};
+    }
+
+    /**
+     * Reads the objects of a delta into the given snapshot after the header has been read.
+     *
+     * @param in       The reader positioned after the header.
+     * @param tick     The tick of the delta.
+     * @param baseline The baseline the delta was written against, or null if it has none.
+     * @param out      The snapshot to read into. Must not be the baseline.
+     */
+    public static void decode (BitReader in, long tick, NetworkSnapshot baseline, NetworkSnapshot out) {
+        out.clear(tick);
+        int bs = baseline == null ? 0 : baseline.size();
+        int j = 0;
+        long id = 0;
+        for (int op = (int) in.readBits(2); op != END; op = (int) in.readBits(2)) {
+            id += in.readUnsigned();
+            while (j < bs && baseline.getId(j) < id) copyRow(baseline, j++, out);
+            boolean known = j < bs && baseline.getId(j) == id;
+            if (op == REMOVED) {
+                if (known) j++;
+                continue;
+            }
+            int row = out.add(id);
+            if (!known) {
+                for (int f = 0; f < NetworkSnapshot.FIELDS; f++) out.setField(row, f, (int) in.readSigned());
+                continue;
+            }
+            int mask = (int) in.readBits(NetworkSnapshot.FIELDS);
+            for (int f = 0; f < NetworkSnapshot.FIELDS; f++) {
+                int value = baseline.getField(j, f);
+                if ((mask & (1 << f)) != 0) value += (int) in.readSigned();
+                out.setField(row, f, value);
+            }
+            j++;
+        }
+        while (j < bs) copyRow(baseline, j++, out);
+    }
+
+    /**
+     * Copies an unchanged object from the baseline to the end of the output snapshot.
+     *
+     * @param from The snapshot to copy from.
+     * @param row  The row of the object to copy.
+     * @param to   The snapshot to copy to.
+     */
+    private static void copyRow (NetworkSnapshot from, int row, NetworkSnapshot to) {
+        int dest = to.add(from.getId(row));
+        for (int f = 0; f < NetworkSnapshot.FIELDS; f++) to.setField(dest, f, from.getField(row, f));
+    }
+}
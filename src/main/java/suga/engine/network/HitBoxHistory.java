@@ -0,0 +1,241 @@
+package suga.engine.network;
+
+import suga.engine.game.GameObjectTable;
+import suga.engine.game.GameObjectView;
+import suga.engine.game.objects.GameObject;
+import suga.engine.physics.collidables.Collidable;
+import suga.engine.physics.hitboxes.BoundingBox;
+import suga.engine.physics.hitboxes.HitBox;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A HitBoxHistory remembers where every hit box was over the last few ticks so that hits reported by lagging clients
+ * can be checked against what those clients actually saw. Only the bounding boxes of hit boxes are kept, in primitive
+ * arrays with one frame per tick, so checking against a past tick is a scan over a few flat arrays and never touches
+ * the live game state. Bounds are written straight into the frame with {@link HitBox#writeBounds(double[], int)}, so
+ * recording doesn't allocate once the frames have grown to fit.
+ *
+ * @author Sugaku
+ */
+public class HitBoxHistory {
+
+    /**
+     * The tick held by each frame, or -1 if the frame is empty.
+     */
+    protected final long[] ticks;
+
+    /**
+     * The handles of the objects in each frame.
+     */
+    protected final long[][] handles;
+
+    /**
+     * The bounds of the objects in each frame, as min x, min y, max x, and max y for each object.
+     */
+    protected final double[][] bounds;
+
+    /**
+     * The number of objects in each frame.
+     */
+    protected final int[] counts;
+
+    /**
+     * The distance to the object hit by the last raycast.
+     */
+    protected double hitDistance = Double.NaN;
+
+    /**
+     * The end of the interval found by the last call to {@link #slab(double, double, double, double, double, double)}.
+     */
+    private double farSlab;
+
+    /**
+     * Creates a new, empty, HitBoxHistory.
+     *
+     * @param frames The number of ticks to remember.
+     */
+    public HitBoxHistory (int frames) {
+        if (frames <= 0) throw new IllegalArgumentException("History must hold at least one frame!");
+        ticks = new long[frames];
+        handles = new long[frames][16];
+        bounds = new double[frames][16 * 4];
+        counts = new int[frames];
+        Arrays.fill(ticks, -1);
+    }
+
+    /**
+     * Records the hit box of every object with a collider, replacing the oldest frame.
+     *
+     * @param tick    The current tick.
+     * @param objects The objects to record.
+     */
+    public void record (long tick, GameObjectView objects) {
+        int frame = Math.floorMod(tick, ticks.length);
+        long[] h = handles[frame];
+        double[] b = bounds[frame];
+        int count = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject object = objects.getAt(i);
+            Collidable collider = object.getCollider();
+            HitBox hitBox = collider == null ? null : collider.getHitBox();
+            if (hitBox == null) continue;
+            if (count == h.length) {
+                h = handles[frame] = Arrays.copyOf(h, count * 2);
+                b = bounds[frame] = Arrays.copyOf(b, count * 8);
+            }
+            h[count] = objects.handleAt(i);
+            hitBox.writeBounds(b, count * 4);
+            count++;
+        }
+        counts[frame] = count;
+        ticks[frame] = tick;
+    }
+
+    /**
+     * Checks whether the given tick is still remembered.
+     *
+     * @param tick The tick to check.
+     * @return True if hit boxes from the tick can be queried.
+     */
+    public boolean contains (long tick) {
+        return tick >= 0 && ticks[Math.floorMod(tick, ticks.length)] == tick;
+    }
+
+    /**
+     * Accessor method for the bounds an object had at the given tick.
+     *
+     * @param tick   The tick to look at.
+     * @param handle The handle of the object.
+     * @return The bounds of the object or null if it had no hit box at that tick, or the tick isn't remembered.
+     */
+    public BoundingBox getBounds (long tick, long handle) {
+        if (!contains(tick)) return null;
+        int frame = Math.floorMod(tick, ticks.length);
+        long[] h = handles[frame];
+        double[] b = bounds[frame];
+        for (int i = 0; i < counts[frame]; i++)
+            if (h[i] == handle) return new BoundingBox(b[i * 4], b[i * 4 + 1], b[i * 4 + 2], b[i * 4 + 3]);
+        return null;
+    }
+
+    /**
+     * Finds every object whose hit box overlapped, or touched, the given range at the given tick.
+     *
+     * @param tick     The tick to look at.
+     * @param minX     The smallest x value of the range.
+     * @param minY     The smallest y value of the range.
+     * @param maxX     The largest x value of the range.
+     * @param maxY     The largest y value of the range.
+     * @param consumer Called with the handle of each overlapping object. May be null to only count them.
+     * @return The number of overlapping objects, or -1 if the tick isn't remembered.
+     */
+    public int overlap (long tick, double minX, double minY, double maxX, double maxY, LongConsumer consumer) {
+        if (!contains(tick)) return -1;
+        int frame = Math.floorMod(tick, ticks.length);
+        long[] h = handles[frame];
+        double[] b = bounds[frame];
+        int found = 0;
+        for (int i = 0; i < counts[frame]; i++) {
+            int o = i * 4;
+            if (b[o] > maxX || b[o + 2] < minX || b[o + 1] > maxY || b[o + 3] < minY) continue;
+            found++;
+            if (consumer != null) consumer.accept(h[i]);
+        }
+        return found;
+    }
+
+    /**
+     * Casts a ray against the hit boxes of the given tick and finds the first one it hits. The distance to the hit can
+     * be read afterwards with {@link #getHitDistance()}.
+     *
+     * @param tick        The tick to look at.
+     * @param originX     The x value the ray starts at.
+     * @param originY     The y value the ray starts at.
+     * @param directionX  The x value of the direction of the ray. Doesn't need to be normalized.
+     * @param directionY  The y value of the direction of the ray. Doesn't need to be normalized.
+     * @param maxDistance The length of the ray.
+     * @param ignore      The handle of an object to ignore, usually the shooter, or {@link GameObjectTable#INVALID}.
+     * @return The handle of the closest object hit or {@link GameObjectTable#INVALID} if nothing was hit, or the tick
+     *         isn't remembered.
+     */
+    public long raycast (long tick, double originX, double originY, double directionX, double directionY,
+                         double maxDistance, long ignore) {
+        hitDistance = Double.NaN;
+        double length = Math.hypot(directionX, directionY);
+        if (!contains(tick) || length == 0) return GameObjectTable.INVALID;
+        double dx = directionX / length;
+        double dy = directionY / length;
+        int frame = Math.floorMod(tick, ticks.length);
+        long[] h = handles[frame];
+        double[] b = bounds[frame];
+        long hit = GameObjectTable.INVALID;
+        double closest = maxDistance;
+        for (int i = 0; i < counts[frame]; i++) {
+            if (h[i] == ignore) continue;
+            int o = i * 4;
+            double near = slab(originX, dx, b[o], b[o + 2], 0, closest);
+            if (Double.isNaN(near)) continue;
+            double far = farSlab;
+            near = slab(originY, dy, b[o + 1], b[o + 3], near, far);
+            if (Double.isNaN(near)) continue;
+            closest = near;
+            hit = h[i];
+        }
+        if (hit != GameObjectTable.INVALID) hitDistance = closest;
+        return hit;
+    }
+
+    /**
+     * Narrows the interval along a ray to the part inside a slab between two values on one axis.
+     *
+     * @param origin    The value the ray starts at on this axis.
+     * @param direction The direction of the ray on this axis.
+     * @param min       The smallest value of the slab.
+     * @param max       The largest value of the slab.
+     * @param near      The start of the interval so far.
+     * @param far       The end of the interval so far.
+     * @return The start of the narrowed interval, or NaN if it is empty. The end is left in {@link #farSlab}.
+     */
+    private double slab (double origin, double direction, double min, double max, double near, double far) {
+        if (direction == 0) {
+            if (origin < min || origin > max) return Double.NaN;
+            farSlab = far;
+            return near;
+        }
+        double t1 = (min - origin) / direction;
+        double t2 = (max - origin) / direction;
+        near = Math.max(near, Math.min(t1, t2));
+        far = Math.min(far, Math.max(t1, t2));
+        if (near > far) return Double.NaN;
+        farSlab = far;
+        return near;
+    }
+
+    /**
+     * Accessor method for the distance to the object hit by the last raycast.
+     *
+     * @return The distance along the ray to the hit or NaN if the last raycast didn't hit anything.
+     */
+    public double getHitDistance () {
+        return hitDistance;
+    }
+
+    /**
+     * Accessor method for the number of ticks this history can remember.
+     *
+     * @return The number of frames.
+     */
+    public int getFrames () {
+        return ticks.length;
+    }
+
+    /**
+     * Forgets every recorded tick.
+     */
+    public void clear () {
+        Arrays.fill(ticks, -1);
+        Arrays.fill(counts, 0);
+    }
+}
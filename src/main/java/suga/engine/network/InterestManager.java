@@ -0,0 +1,154 @@
+package suga.engine.network;
+
+import suga.engine.game.GameObjectTable;
+import suga.engine.game.objects.GameObject;
+import suga.engine.physics.GridSpatialIndex;
+import suga.engine.physics.Physical;
+import suga.engine.physics.Vector;
+
+import java.util.Arrays;
+
+/**
+ * An InterestManager decides which objects each client should be sent. Every physical object is kept in a spatial index
+ * by position, and each client is only sent the objects near its viewpoint. Objects become relevant once they come
+ * within the enter radius and stay relevant until they pass the larger leave radius, so objects near the edge don't
+ * flicker in and out. Refreshing a client only looks at the grid cells near it, so its cost depends on how crowded its
+ * surroundings are rather than on how many objects exist.
+ *
+ * @author Sugaku
+ */
+public class InterestManager {
+
+    /**
+     * The spatial index of every physical object, keyed by slot.
+     */
+    protected final GridSpatialIndex index;
+
+    /**
+     * The squared distance within which objects become relevant.
+     */
+    protected final double enterSquared;
+
+    /**
+     * The distance past which relevant objects stop being relevant.
+     */
+    protected final double leaveRadius;
+
+    /**
+     * The handle of the object in each slot as of the last update, or 0 if the slot wasn't indexed.
+     */
+    protected long[] handles = new long[16];
+
+    /**
+     * The x position of the object in each slot as of the last update.
+     */
+    protected double[] xs = new double[16];
+
+    /**
+     * The y position of the object in each slot as of the last update.
+     */
+    protected double[] ys = new double[16];
+
+    /**
+     * The update each slot was last seen by. Slots not seen by the latest update are removed from the index.
+     */
+    protected int[] seen = new int[16];
+
+    /**
+     * The number of updates run so far.
+     */
+    protected int updates = 0;
+
+    /**
+     * The highest slot ever indexed, plus one.
+     */
+    protected int slots = 0;
+
+    /**
+     * Creates a new InterestManager.
+     *
+     * @param enterRadius The distance within which objects become relevant.
+     * @param leaveRadius The distance past which relevant objects stop being relevant. Must be at least the enter
+     *                    radius.
+     */
+    public InterestManager (double enterRadius, double leaveRadius) {
+        if (leaveRadius < enterRadius) throw new IllegalArgumentException("Leave radius must be at least the enter radius!");
+        this.enterSquared = enterRadius * enterRadius;
+        this.leaveRadius = leaveRadius;
+        index = new GridSpatialIndex(leaveRadius);
+    }
+
+    /**
+     * Moves every object in the index to its current position, adding new objects and removing ones that are gone.
+     * Should be called once per tick before refreshing any clients. Objects which aren't Physical are represented by
+     * their collider if they have one, otherwise they're never relevant.
+     *
+     * @param objects The objects to index.
+     */
+    public void update (GameObjectTable objects) {
+        updates++;
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject object = objects.getAt(i);
+            Physical physical = object instanceof Physical p ? p : object.getCollider();
+            if (physical == null) continue;
+            long handle = objects.handleAt(i);
+            int slot = GameObjectTable.slot(handle);
+            ensureCapacity(slot + 1);
+            Vector pos = physical.getPos();
+            handles[slot] = handle;
+            seen[slot] = updates;
+            xs[slot] = pos.getX();
+            ys[slot] = pos.getY();
+            slots = Math.max(slots, slot + 1);
+            index.put(slot, pos.getX(), pos.getY(), pos.getX(), pos.getY());
+        }
+        for (int slot = 0; slot < slots; slot++) {
+            if (handles[slot] == 0 || seen[slot] == updates) continue;
+            handles[slot] = 0;
+            index.remove(slot);
+        }
+    }
+
+    /**
+     * Replaces the contents of the given set with the objects currently relevant to it.
+     *
+     * @param set The set to refresh.
+     */
+    public void refresh (InterestSet set) {
+        double x = set.getViewX();
+        double y = set.getViewY();
+        double leaveSquared = leaveRadius * leaveRadius;
+        set.begin();
+        index.queryRange(x - leaveRadius, y - leaveRadius, x + leaveRadius, y + leaveRadius, (slot) -> {
+            double dx = xs[slot] - x;
+            double dy = ys[slot] - y;
+            double d = dx * dx + dy * dy;
+            long handle = handles[slot];
+            if (d <= enterSquared || (d <= leaveSquared && set.contains(handle, slot))) set.gather(handle);
+        });
+        set.finish();
+    }
+
+    /**
+     * Accessor method for the number of objects in the index.
+     *
+     * @return The number of indexed objects.
+     */
+    public int size () {
+        return index.size();
+    }
+
+    /**
+     * Grows the per slot arrays to hold at least the given number of slots.
+     *
+     * @param capacity The number of slots needed.
+     */
+    private void ensureCapacity (int capacity) {
+        if (capacity <= handles.length) return;
+        int length = Math.max(capacity, handles.length * 2);
+        handles = Arrays.copyOf(handles, length);
+        xs = Arrays.copyOf(xs, length);
+        ys = Arrays.copyOf(ys, length);
+        seen = Arrays.copyOf(seen, length);
+    }
+}
@@ -0,0 +1,145 @@
+package suga.engine.network;
+
+import suga.engine.game.GameObjectTable;
+
+import java.util.Arrays;
+
+/**
+ * An InterestSet holds the objects relevant to a single client, which are the objects near its viewpoint. It is filled
+ * by {@link InterestManager#refresh(InterestSet)} and remembers what it held last time so objects near the edge of the
+ * client's view don't flicker in and out.
+ *
+ * @author Sugaku
+ */
+public class InterestSet {
+
+    /**
+     * The x value of the viewpoint of the client.
+     */
+    protected double viewX = 0;
+
+    /**
+     * The y value of the viewpoint of the client.
+     */
+    protected double viewY = 0;
+
+    /**
+     * The handles of every relevant object in ascending order. Only the first {@link #size} values are valid.
+     */
+    protected long[] handles = new long[16];
+
+    /**
+     * The number of relevant objects.
+     */
+    protected int size = 0;
+
+    /**
+     * The handles being gathered by the current refresh. Swapped with {@link #handles} once it is done.
+     */
+    protected long[] next = new long[16];
+
+    /**
+     * The number of handles in {@link #next}.
+     */
+    protected int nextSize = 0;
+
+    /**
+     * The handle of each relevant object indexed by its slot, or 0 if the slot isn't relevant. Used to check whether an
+     * object was already relevant without searching.
+     */
+    protected long[] bySlot = new long[16];
+
+    /**
+     * Sets the point this client is viewing the game from. Takes effect on the next refresh.
+     *
+     * @param x The x value of the viewpoint.
+     * @param y The y value of the viewpoint.
+     */
+    public void setViewpoint (double x, double y) {
+        viewX = x;
+        viewY = y;
+    }
+
+    /**
+     * Accessor method for the x value of the viewpoint.
+     *
+     * @return The x value of the viewpoint.
+     */
+    public double getViewX () {
+        return viewX;
+    }
+
+    /**
+     * Accessor method for the y value of the viewpoint.
+     *
+     * @return The y value of the viewpoint.
+     */
+    public double getViewY () {
+        return viewY;
+    }
+
+    /**
+     * Accessor method for the number of relevant objects.
+     *
+     * @return The number of relevant objects.
+     */
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Accessor method for a relevant object by index. Objects are in ascending order of handle.
+     *
+     * @param i The index of the object.
+     * @return The handle of the object.
+     */
+    public long getHandle (int i) {
+        return handles[i];
+    }
+
+    /**
+     * Checks whether the object with the given handle is relevant.
+     *
+     * @param handle The handle to check.
+     * @param slot   The slot of the handle.
+     * @return True if the object was relevant after the last refresh.
+     */
+    public boolean contains (long handle, int slot) {
+        return slot < bySlot.length && bySlot[slot] == handle;
+    }
+
+    /**
+     * Starts gathering the relevant objects for a new refresh. The previous objects are still reported by
+     * {@link #contains(long, int)} until the refresh finishes.
+     */
+    protected void begin () {
+        nextSize = 0;
+    }
+
+    /**
+     * Adds a relevant object to the refresh in progress.
+     *
+     * @param handle The handle of the object.
+     */
+    protected void gather (long handle) {
+        if (nextSize == next.length) next = Arrays.copyOf(next, nextSize * 2);
+        next[nextSize++] = handle;
+    }
+
+    /**
+     * Finishes the refresh in progress, replacing the previous relevant objects with the gathered ones.
+     */
+    protected void finish () {
+        for (int i = 0; i < size; i++) bySlot[GameObjectTable.slot(handles[i])] = 0;
+        Arrays.sort(next, 0, nextSize);
+        for (int i = 0; i < nextSize; i++) {
+            int slot = GameObjectTable.slot(next[i]);
+            if (slot >= bySlot.length) bySlot = Arrays.copyOf(bySlot, Math.max(slot + 1, bySlot.length * 2));
+            bySlot[slot] = next[i];
+        }
+        long[] swap = handles;
+        handles = next;
+        next = swap;
+        size = nextSize;
+    }
+}
@@ -0,0 +1,270 @@
+package suga.engine.network;
+
+import suga.engine.game.GameObjectTable;
+import suga.engine.game.objects.GameObject;
+import suga.engine.physics.Physical;
+import suga.engine.physics.Vector;
+
+import java.util.Arrays;
+
+/**
+ * A NetworkSnapshot is the state of every Physical object in a game at a single tick, as sent over the network. Each
+ * object is its handle followed by its position and velocity quantized to fixed point, and objects are kept sorted by
+ * handle so two snapshots can be compared in a single pass. Snapshots are reused between ticks rather than allocated.
+ *
+ * @author Sugaku
+ */
+public class NetworkSnapshot {
+
+    /**
+     * The number of quantized fields of each object. Three for position and three for velocity.
+     */
+    public static final int FIELDS = 6;
+
+    /**
+     * The number of steps per world unit positions and velocities are quantized to.
+     */
+    public static final double SCALE = 64;
+
+    /**
+     * The tick this snapshot was taken at. -1 for snapshots which haven't been taken.
+     */
+    protected long tick = -1;
+
+    /**
+     * The handle of each object in ascending order. Only the first {@link #size} values are valid.
+     */
+    protected long[] ids = new long[16];
+
+    /**
+     * The quantized fields of each object, {@link #FIELDS} values per object, indexed the same as {@link #ids}.
+     */
+    protected int[] fields = new int[16 * FIELDS];
+
+    /**
+     * The number of objects in this snapshot.
+     */
+    protected int size = 0;
+
+    /**
+     * Scratch space for handles while sorting. Swapped with {@link #ids} afterwards.
+     */
+    private long[] sortedIds = new long[0];
+
+    /**
+     * Scratch space for fields while sorting. Swapped with {@link #fields} afterwards.
+     */
+    private int[] sortedFields = new int[0];
+
+    /**
+     * Replaces the contents of this snapshot with the state of every Physical object in the given table. Objects which
+     * aren't Physical are represented by their collider if they have one, otherwise they're skipped.
+     *
+     * @param tick    The tick being captured.
+     * @param objects The objects to capture.
+     */
+    public void capture (long tick, GameObjectTable objects) {
+        clear(tick);
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject object = objects.getAt(i);
+            Physical physical = object instanceof Physical p ? p : object.getCollider();
+            if (physical == null) continue;
+            int row = add(objects.handleAt(i));
+            Vector pos = physical.getPos();
+            Vector vel = physical.getVelocity();
+            set(row, 0, pos.getX());
+            set(row, 1, pos.getY());
+            set(row, 2, pos.getZ());
+            set(row, 3, vel.getX());
+            set(row, 4, vel.getY());
+            set(row, 5, vel.getZ());
+        }
+        sort();
+    }
+
+    /**
+     * Empties this snapshot so it can be filled for the given tick.
+     *
+     * @param tick The tick this snapshot will hold.
+     */
+    public void clear (long tick) {
+        this.tick = tick;
+        size = 0;
+    }
+
+    /**
+     * Copies the contents of another snapshot into this one.
+     *
+     * @param other The snapshot to copy.
+     */
+    public void copy (NetworkSnapshot other) {
+        clear(other.tick);
+        ensureCapacity(other.size);
+        System.arraycopy(other.ids, 0, ids, 0, other.size);
+        System.arraycopy(other.fields, 0, fields, 0, other.size * FIELDS);
+        size = other.size;
+    }
+
+    /**
+     * Replaces the contents of this snapshot with the objects of another snapshot which are in the given interest set.
+     * Costs a binary search per relevant object, so it doesn't depend on the size of the other snapshot.
+     *
+     * @param other The snapshot to select from.
+     * @param set   The objects to keep.
+     */
+    public void select (NetworkSnapshot other, InterestSet set) {
+        clear(other.tick);
+        for (int i = 0; i < set.size(); i++) {
+            int row = other.indexOf(set.getHandle(i));
+            if (row < 0) continue;
+            int dest = add(other.ids[row]);
+            System.arraycopy(other.fields, row * FIELDS, fields, dest * FIELDS, FIELDS);
+        }
+    }
+
+    /**
+     * Adds an object to the end of this snapshot with every field zeroed. Objects must be added in ascending order of
+     * handle, or {@link #sort()} called afterwards.
+     *
+     * @param id The handle of the object.
+     * @return The row of the new object.
+     */
+    public int add (long id) {
+        ensureCapacity(size + 1);
+        ids[size] = id;
+        Arrays.fill(fields, size * FIELDS, (size + 1) * FIELDS, 0);
+        return size++;
+    }
+
+    /**
+     * Finds the row of the object with the given handle.
+     *
+     * @param id The handle of the object.
+     * @return The row of the object or a negative value if it isn't in this snapshot.
+     */
+    public int indexOf (long id) {
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    /**
+     * Accessor method for the tick this snapshot was taken at.
+     *
+     * @return The tick of this snapshot.
+     */
+    public long getTick () {
+        return tick;
+    }
+
+    /**
+     * Accessor method for the number of objects in this snapshot.
+     *
+     * @return The number of objects.
+     */
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Accessor method for the handle of the object in the given row.
+     *
+     * @param row The row of the object.
+     * @return The handle of the object.
+     */
+    public long getId (int row) {
+        return ids[row];
+    }
+
+    /**
+     * Accessor method for a quantized field of an object.
+     *
+     * @param row   The row of the object.
+     * @param field The field, from 0 to {@link #FIELDS} - 1. Position x, y, z and then velocity x, y, z.
+     * @return The quantized value of the field.
+     */
+    public int getField (int row, int field) {
+        return fields[row * FIELDS + field];
+    }
+
+    /**
+     * Sets a quantized field of an object.
+     *
+     * @param row   The row of the object.
+     * @param field The field to set.
+     * @param value The quantized value of the field.
+     */
+    public void setField (int row, int field, int value) {
+        fields[row * FIELDS + field] = value;
+    }
+
+    /**
+     * Reads the position of an object into the given vector.
+     *
+     * @param row The row of the object.
+     * @param out The vector to write the position into.
+     */
+    public void getPosition (int row, Vector out) {
+        out.setX(fields[row * FIELDS] / SCALE);
+        out.setY(fields[row * FIELDS + 1] / SCALE);
+        out.setZ(fields[row * FIELDS + 2] / SCALE);
+    }
+
+    /**
+     * Reads the velocity of an object into the given vector.
+     *
+     * @param row The row of the object.
+     * @param out The vector to write the velocity into.
+     */
+    public void getVelocity (int row, Vector out) {
+        out.setX(fields[row * FIELDS + 3] / SCALE);
+        out.setY(fields[row * FIELDS + 4] / SCALE);
+        out.setZ(fields[row * FIELDS + 5] / SCALE);
+    }
+
+    /**
+     * Quantizes and sets a field of an object.
+     *
+     * @param row   The row of the object.
+     * @param field The field to set.
+     * @param value The value in world units.
+     */
+    protected void set (int row, int field, double value) {
+        fields[row * FIELDS + field] = (int) Math.round(value * SCALE);
+    }
+
+    /**
+     * Sorts the objects of this snapshot by handle.
+     */
+    protected void sort () {
+        boolean sorted = true;
+        for (int i = 1; i < size && sorted; i++) sorted = ids[i - 1] < ids[i];
+        if (sorted) return;
+        if (sortedIds.length < ids.length) {
+            sortedIds = new long[ids.length];
+            sortedFields = new int[fields.length];
+        }
+        System.arraycopy(ids, 0, sortedIds, 0, size);
+        Arrays.sort(sortedIds, 0, size);
+        for (int i = 0; i < size; i++) {
+            int to = Arrays.binarySearch(sortedIds, 0, size, ids[i]);
+            System.arraycopy(fields, i * FIELDS, sortedFields, to * FIELDS, FIELDS);
+        }
+        long[] swapIds = ids;
+        ids = sortedIds;
+        sortedIds = swapIds;
+        int[] swapFields = fields;
+        fields = sortedFields;
+        sortedFields = swapFields;
+    }
+
+    /**
+     * Grows the arrays of this snapshot to hold at least the given number of objects.
+     *
+     * @param capacity The number of objects to make room for.
+     */
+    private void ensureCapacity (int capacity) {
+        if (capacity <= ids.length) return;
+        int length = Math.max(capacity, ids.length * 2);
+        ids = Arrays.copyOf(ids, length);
+        fields = Arrays.copyOf(fields, length * FIELDS);
+    }
+}
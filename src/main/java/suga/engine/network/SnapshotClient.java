@@ -0,0 +1,306 @@
+package suga.engine.network;
+
+import suga.engine.GameEngine;
+import suga.engine.logger.Level;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * A SnapshotClient receives snapshots from a {@link SnapshotServer}. Every snapshot received is decoded against the
+ * baseline the server used, acknowledged so the server can send smaller deltas, and kept so it can be used as a
+ * baseline for later snapshots. Snapshots older than the newest one received are dropped. Snapshots the server split
+ * into fragments are put back together before being decoded, and dropped if a newer snapshot starts arriving first.
+ * A client which stops hearing from the server acknowledges its latest snapshot again, so a stall or a burst of lost
+ * acknowledgements doesn't get it dropped, and says hello again once the server has been silent for the timeout.
+ *
+ * @author Sugaku
+ */
+public class SnapshotClient {
+
+    /**
+     * How long the server may be silent before the latest acknowledgement is sent again, in nanoseconds.
+     */
+    public static final long RESEND_NANOS = 100_000_000L;
+
+    /**
+     * The channel packets are sent and received on. Connected to the server.
+     */
+    protected final DatagramChannel channel;
+
+    /**
+     * The recently received snapshots, indexed by tick modulo {@link SnapshotServer#HISTORY}.
+     */
+    protected final NetworkSnapshot[] history = new NetworkSnapshot[SnapshotServer.HISTORY];
+
+    /**
+     * The reader each snapshot is decoded with.
+     */
+    protected final BitReader reader = new BitReader();
+
+    /**
+     * The buffer packets are received into.
+     */
+    protected final ByteBuffer receive = ByteBuffer.allocateDirect(SnapshotServer.MAX_PACKET);
+
+    /**
+     * The buffer packets are sent from.
+     */
+    protected final ByteBuffer send = ByteBuffer.allocateDirect(32);
+
+    /**
+     * The fragments of the snapshot being put back together. Grown when needed.
+     */
+    protected ByteBuffer assembly = ByteBuffer.allocate(0);
+
+    /**
+     * The tick of the snapshot being put back together, or -1 if there isn't one.
+     */
+    protected long assemblyTick = -1;
+
+    /**
+     * The fragments of the snapshot being put back together which have arrived, one bit per fragment index.
+     */
+    protected long assemblyMask = 0;
+
+    /**
+     * The number of bytes in the snapshot being put back together, known once its last fragment arrives.
+     */
+    protected int assemblyLength = 0;
+
+    /**
+     * Whether the server has answered with a challenge yet.
+     */
+    protected boolean challenged = false;
+
+    /**
+     * The challenge sent by the server, echoed in every acknowledgement.
+     */
+    protected long challenge = 0;
+
+    /**
+     * The newest snapshot received, or null if none have been.
+     */
+    protected NetworkSnapshot latest = null;
+
+    /**
+     * The number of snapshots dropped because their baseline was no longer held.
+     */
+    protected int dropped = 0;
+
+    /**
+     * When the server was last heard from in nanoseconds.
+     */
+    protected long heardAt = System.nanoTime();
+
+    /**
+     * When an acknowledgement was last sent in nanoseconds.
+     */
+    protected long ackedAt = 0;
+
+    /**
+     * How long the server may be silent before the handshake is started again, in nanoseconds.
+     */
+    protected long timeout = 5_000_000_000L;
+
+    /**
+     * Creates a new SnapshotClient and says hello to the given server.
+     *
+     * @param server The address of the server.
+     * @throws IOException Thrown if the channel can't be opened.
+     */
+    public SnapshotClient (SocketAddress server) throws IOException {
+        channel = DatagramChannel.open();
+        channel.connect(server);
+        channel.configureBlocking(false);
+        for (int i = 0; i < history.length; i++) history[i] = new NetworkSnapshot();
+        sendHello();
+    }
+
+    /**
+     * Handles every snapshot received since the last call. Never blocks. Says hello again until the server answers
+     * with a challenge, and acknowledges the challenge again until the first snapshot arrives, in case either packet
+     * was lost or the server was full. Once connected, the latest snapshot is acknowledged again whenever the server
+     * has been quiet for {@link #RESEND_NANOS}, and the handshake is started over once it has been quiet for the
+     * timeout.
+     *
+     * @return The number of snapshots accepted.
+     */
+    public int poll () {
+        int accepted = 0;
+        try {
+            long now = System.nanoTime();
+            if (challenged && now - heardAt > timeout) restart();
+            if (!challenged) sendHello();
+            else if (latest == null) sendAck(-1);
+            else if (now - heardAt > RESEND_NANOS && now - ackedAt > RESEND_NANOS) sendAck(latest.getTick());
+            while (channel.receive(receive.clear()) != null) {
+                receive.flip();
+                if (!receive.hasRemaining()) continue;
+                byte type = receive.get();
+                if (type == SnapshotServer.SNAPSHOT && challenged && accept(receive)) accepted++;
+                else if (type == SnapshotServer.FRAGMENT && challenged && assemble() && accept(assembly)) accepted++;
+                else if (type == SnapshotServer.CHALLENGE && receive.remaining() >= Long.BYTES && !challenged) {
+                    challenge = receive.getLong();
+                    challenged = true;
+                    heardAt = System.nanoTime();
+                    sendAck(-1);
+                }
+            }
+        } catch (IOException e) {
+            GameEngine.getLogger().log(e, Level.WARNING);
+        }
+        return accepted;
+    }
+
+    /**
+     * Copies the fragment in the receive buffer into the snapshot being put back together. Fragments of a snapshot
+     * older than the one being put back together, or than the latest snapshot, are ignored.
+     *
+     * @return True if this was the last missing fragment and the assembly buffer now holds the whole snapshot.
+     */
+    protected boolean assemble () {
+        if (receive.remaining() < SnapshotServer.FRAGMENT_HEADER - 1) return false;
+        long tick = receive.getLong();
+        int index = receive.get() & 0xFF;
+        int count = receive.get() & 0xFF;
+        if (count == 0 || count > SnapshotServer.MAX_FRAGMENTS || index >= count) return false;
+        if (tick < assemblyTick || (latest != null && tick <= latest.getTick())) return false;
+        if (tick != assemblyTick) {
+            assemblyTick = tick;
+            assemblyMask = 0;
+            assemblyLength = -1;
+            int capacity = count * SnapshotServer.FRAGMENT_PAYLOAD;
+            if (assembly.capacity() < capacity) assembly = ByteBuffer.allocate(capacity);
+        }
+        if (index == count - 1) assemblyLength = index * SnapshotServer.FRAGMENT_PAYLOAD + receive.remaining();
+        else if (receive.remaining() != SnapshotServer.FRAGMENT_PAYLOAD) return false;
+        assembly.clear().position(index * SnapshotServer.FRAGMENT_PAYLOAD);
+        assembly.put(receive);
+        assemblyMask |= 1L << index;
+        if (assemblyMask != -1L >>> (64 - count) || assemblyLength < 0) return false;
+        assembly.position(0).limit(assemblyLength);
+        assemblyTick = -1;
+        return true;
+    }
+
+    /**
+     * Decodes the snapshot in the given buffer and acknowledges it.
+     *
+     * @param packet The buffer holding the snapshot, positioned after the packet type.
+     * @return True if the snapshot was newer than the latest one and its baseline was held.
+     * @throws IOException Thrown if the acknowledgement can't be sent.
+     */
+    protected boolean accept (ByteBuffer packet) throws IOException {
+        NetworkSnapshot out = null;
+        try {
+            reader.reset(packet);
+            long[] header = DeltaCodec.readHeader(reader);
+            long tick = header[0];
+            if (latest != null && tick <= latest.getTick()) return false;
+            NetworkSnapshot baseline = null;
+            if (header[1] >= 0) {
+                baseline = history[Math.floorMod(header[1], history.length)];
+                if (baseline.getTick() != header[1] || tick - header[1] >= history.length) {
+                    dropped++;
+                    return false;
+                }
+            }
+            out = history[Math.floorMod(tick, history.length)];
+            DeltaCodec.decode(reader, tick, baseline, out);
+            latest = out;
+            heardAt = System.nanoTime();
+        } catch (BufferUnderflowException e) {
+            GameEngine.getLogger().log("Received a truncated snapshot.", Level.WARNING);
+            if (out != null) out.clear(-1);
+            if (out == latest) latest = null;
+            return false;
+        }
+        sendAck(latest.getTick());
+        return true;
+    }
+
+    /**
+     * Sets how long the server may be silent before the handshake is started again.
+     *
+     * @param nanos The timeout in nanoseconds.
+     */
+    public void setTimeout (long nanos) {
+        timeout = nanos;
+    }
+
+    /**
+     * Forgets the challenge and every snapshot received so the handshake starts over, in case the server has dropped
+     * this client or been restarted.
+     */
+    protected void restart () {
+        GameEngine.getLogger().log("SnapshotClient: The server has gone quiet, saying hello again.", Level.WARNING);
+        challenged = false;
+        latest = null;
+        assemblyTick = -1;
+        for (NetworkSnapshot snapshot : history) snapshot.clear(-1);
+        heardAt = System.nanoTime();
+    }
+
+    /**
+     * Accessor method for the newest snapshot received. Its contents are overwritten once the history wraps around.
+     *
+     * @return The newest snapshot or null if none have been received since the handshake last started.
+     */
+    public NetworkSnapshot getLatest () {
+        return latest;
+    }
+
+    /**
+     * Accessor method for the number of snapshots dropped because their baseline was no longer held.
+     *
+     * @return The number of dropped snapshots.
+     */
+    public int getDropped () {
+        return dropped;
+    }
+
+    /**
+     * Says goodbye to the server and closes the channel of this client.
+     */
+    public void close () {
+        try {
+            if (challenged) {
+                send.clear();
+                send.put(SnapshotServer.BYE).putLong(challenge).flip();
+                channel.write(send);
+            }
+            channel.close();
+        } catch (IOException e) {
+            GameEngine.getLogger().log(e, Level.WARNING);
+        }
+    }
+
+    /**
+     * Sends a hello to the server, padded so that it's as large as the challenge sent in reply.
+     *
+     * @throws IOException Thrown if the packet can't be sent.
+     */
+    protected void sendHello () throws IOException {
+        send.clear();
+        send.put(SnapshotServer.HELLO);
+        while (send.position() < SnapshotServer.HELLO_SIZE) send.put((byte) 0);
+        channel.write(send.flip());
+    }
+
+    /**
+     * Acknowledges the given tick to the server along with the challenge.
+     *
+     * @param tick The tick to acknowledge, or -1 before any snapshot has been received.
+     * @throws IOException Thrown if the packet can't be sent.
+     */
+    protected void sendAck (long tick) throws IOException {
+        send.clear();
+        send.put(SnapshotServer.ACK).putLong(tick).putLong(challenge).flip();
+        channel.write(send);
+        ackedAt = System.nanoTime();
+    }
+}
@@ -0,0 +1,517 @@
+package suga.engine.network;
+
+import suga.engine.GameEngine;
+import suga.engine.game.GameObjectTable;
+import suga.engine.logger.Level;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.*;
+
+/**
+ * A SnapshotServer sends the state of a game to clients over UDP. Clients say hello, are answered with a challenge, and
+ * then acknowledge each snapshot they receive along with that challenge. Hellos must be padded to the size of the
+ * challenge and no state is kept until the challenge is echoed back, so a hello with a spoofed address can't be used to
+ * make the server send more than it received. Clients which stop acknowledging are dropped. Each snapshot is sent as a
+ * delta against the newest snapshot that client has acknowledged, falling back to a full snapshot when the client
+ * hasn't acknowledged one recently enough. Lost packets are never resent, the next snapshot simply carries the changes
+ * again. When an {@link InterestManager} is set each client is only sent the objects near its viewpoint.
+ *
+ * @author Sugaku
+ */
+public class SnapshotServer {
+
+    /**
+     * The packet type sent by clients to start receiving snapshots. Padded to {@link #HELLO_SIZE} bytes.
+     */
+    public static final byte HELLO = 1;
+
+    /**
+     * The packet type sent by clients after receiving a snapshot, followed by the tick of that snapshot and the
+     * client's challenge. Clients send -1 as the tick before they've received a snapshot, which makes the server send
+     * a full snapshot next.
+     */
+    public static final byte ACK = 2;
+
+    /**
+     * The packet type sent by the server holding a snapshot.
+     */
+    public static final byte SNAPSHOT = 3;
+
+    /**
+     * The packet type sent by clients when they disconnect, followed by the client's challenge.
+     */
+    public static final byte BYE = 4;
+
+    /**
+     * The packet type sent by the server in reply to a hello, followed by the challenge the client must acknowledge
+     * with.
+     */
+    public static final byte CHALLENGE = 5;
+
+    /**
+     * The packet type sent by the server holding one piece of a snapshot too large for a single packet, followed by
+     * the tick of the snapshot, the index of the piece, and the number of pieces.
+     */
+    public static final byte FRAGMENT = 6;
+
+    /**
+     * The smallest hello the server replies to. Equal to the size of the challenge sent in reply.
+     */
+    public static final int HELLO_SIZE = 1 + Long.BYTES;
+
+    /**
+     * The number of snapshots kept for use as baselines. Clients and servers must keep the same number.
+     */
+    public static final int HISTORY = 32;
+
+    /**
+     * The largest payload a single UDP packet can hold.
+     */
+    public static final int MAX_PACKET = 65507;
+
+    /**
+     * The size of the header at the start of every fragment.
+     */
+    public static final int FRAGMENT_HEADER = 1 + Long.BYTES + 2;
+
+    /**
+     * The most snapshot bytes a single fragment holds.
+     */
+    public static final int FRAGMENT_PAYLOAD = MAX_PACKET - FRAGMENT_HEADER;
+
+    /**
+     * The most fragments a snapshot may be split into. One fragment is sent per tick, so this is kept well below
+     * {@link #HISTORY} for the snapshot to still be held as a baseline once the client acknowledges it. Larger
+     * snapshots aren't sent.
+     */
+    public static final int MAX_FRAGMENTS = HISTORY / 2;
+
+    /**
+     * The state kept for each connected client.
+     *
+     * @author Sugaku
+     */
+    protected static class Connection {
+
+        /**
+         * The address of the client.
+         */
+        protected final SocketAddress address;
+
+        /**
+         * The challenge the client acknowledges with.
+         */
+        protected final long challenge;
+
+        /**
+         * The newest tick the client has acknowledged, or -1 if it hasn't acknowledged any.
+         */
+        protected long acked = -1;
+
+        /**
+         * The last tick published before the client was last heard from.
+         */
+        protected long heard;
+
+        /**
+         * The size in bytes of the last packet sent to the client.
+         */
+        protected int lastPacket = 0;
+
+        /**
+         * The snapshot being sent to the client in fragments, or null if none has been. Grown when needed.
+         */
+        protected ByteBuffer fragments = null;
+
+        /**
+         * The tick of the snapshot being sent in fragments.
+         */
+        protected long fragmentTick = -1;
+
+        /**
+         * The length in bytes of the snapshot being sent in fragments.
+         */
+        protected int fragmentLength = 0;
+
+        /**
+         * The number of fragments the snapshot being sent was split into.
+         */
+        protected int fragmentCount = 0;
+
+        /**
+         * The index of the next fragment to send.
+         */
+        protected int fragmentNext = 0;
+
+        /**
+         * The objects relevant to the client. Only used when the server has an interest manager.
+         */
+        protected final InterestSet interest = new InterestSet();
+
+        /**
+         * The snapshots recently sent to the client, indexed by tick modulo {@link #HISTORY}.
+         */
+        protected final NetworkSnapshot[] history = new NetworkSnapshot[HISTORY];
+
+        /**
+         * Creates a new connection to the given address.
+         *
+         * @param address   The address of the client.
+         * @param challenge The challenge the client acknowledges with.
+         * @param heard     The last tick published.
+         */
+        protected Connection (SocketAddress address, long challenge, long heard) {
+            this.address = address;
+            this.challenge = challenge;
+            this.heard = heard;
+            for (int i = 0; i < HISTORY; i++) history[i] = new NetworkSnapshot();
+        }
+    }
+
+    /**
+     * The channel packets are sent and received on.
+     */
+    protected final DatagramChannel channel;
+
+    /**
+     * The connected clients by address.
+     */
+    protected final Map<SocketAddress, Connection> clients = new HashMap<>();
+
+    /**
+     * The state of every object as of the last publish, before it is narrowed down for each client.
+     */
+    protected final NetworkSnapshot world = new NetworkSnapshot();
+
+    /**
+     * Decides which objects each client is sent, or null to send every object to every client.
+     */
+    protected InterestManager interest = null;
+
+    /**
+     * The writer each delta is encoded with.
+     */
+    protected final BitWriter writer = new BitWriter(1024);
+
+    /**
+     * The buffer packets are received into.
+     */
+    protected final ByteBuffer receive = ByteBuffer.allocateDirect(64);
+
+    /**
+     * The buffer packets are sent from.
+     */
+    protected final ByteBuffer send = ByteBuffer.allocateDirect(MAX_PACKET);
+
+    /**
+     * Whether a snapshot too large to send has been logged, so it's only logged once.
+     */
+    protected boolean warned = false;
+
+    /**
+     * The total number of bytes sent to every client.
+     */
+    protected long bytesSent = 0;
+
+    /**
+     * Derives the challenge of each address from a random key, so challenges don't need to be stored.
+     */
+    protected final Mac challenges;
+
+    /**
+     * The most clients which may be connected at once.
+     */
+    protected int maxClients = 64;
+
+    /**
+     * The number of published ticks a client may go without acknowledging before it is dropped.
+     */
+    protected int timeout = 10 * HISTORY;
+
+    /**
+     * The last tick published.
+     */
+    protected long tick = 0;
+
+    /**
+     * Creates a new SnapshotServer listening on the given port.
+     *
+     * @param port The port to listen on, or 0 to use any free port.
+     * @throws IOException Thrown if the port can't be bound.
+     */
+    public SnapshotServer (int port) throws IOException {
+        channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(port));
+        channel.configureBlocking(false);
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        try {
+            challenges = Mac.getInstance("HmacSHA256");
+            challenges.init(new SecretKeySpec(key, "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            channel.close();
+            throw new IOException("Unable to create challenges.", e);
+        }
+    }
+
+    /**
+     * Handles every packet received from clients since the last call. Never blocks. Hellos are answered with a
+     * challenge, and clients are only connected once they acknowledge with it and there is room for them.
+     */
+    public void poll () {
+        try {
+            SocketAddress from;
+            while ((from = channel.receive(receive.clear())) != null) {
+                receive.flip();
+                if (!receive.hasRemaining()) continue;
+                byte type = receive.get();
+                if (type == HELLO && receive.limit() >= HELLO_SIZE) {
+                    send.clear();
+                    send.put(CHALLENGE).putLong(challenge(from)).flip();
+                    bytesSent += channel.send(send, from);
+                } else if (type == BYE && receive.remaining() >= Long.BYTES) {
+                    Connection connection = clients.get(from);
+                    if (connection != null && connection.challenge == receive.getLong()) clients.remove(from);
+                } else if (type == ACK && receive.remaining() >= 2 * Long.BYTES) {
+                    long acked = receive.getLong();
+                    long challenge = receive.getLong();
+                    Connection connection = clients.get(from);
+                    if (connection == null) {
+                        if (clients.size() >= maxClients || challenge != challenge(from)) continue;
+                        connection = new Connection(from, challenge, tick);
+                        clients.put(from, connection);
+                    } else if (connection.challenge != challenge) continue;
+                    connection.acked = acked < 0 ? -1 : Math.max(connection.acked, acked);
+                    connection.heard = tick;
+                }
+            }
+        } catch (IOException e) {
+            GameEngine.getLogger().log(e, Level.WARNING);
+        }
+    }
+
+    /**
+     * Derives the challenge of the given address.
+     *
+     * @param address The address of the client.
+     * @return The challenge the client must acknowledge with.
+     */
+    protected long challenge (SocketAddress address) {
+        if (address instanceof InetSocketAddress inet && inet.getAddress() != null) {
+            challenges.update(inet.getAddress().getAddress());
+            challenges.update((byte) (inet.getPort() >> 8));
+            challenges.update((byte) inet.getPort());
+        } else challenges.update(address.toString().getBytes());
+        return ByteBuffer.wrap(challenges.doFinal()).getLong();
+    }
+
+    /**
+     * Captures the given objects and sends them to every connected client as a delta against the newest snapshot that
+     * client acknowledged. Clients which haven't acknowledged anything for longer than the timeout are dropped first.
+     * Snapshots too large for a single packet, such as the first full snapshot of a large game, are split into up to
+     * {@link #MAX_FRAGMENTS} fragments which are sent one per tick, so a client isn't flooded with more than its
+     * socket can buffer. No new snapshot is sent to that client until the last fragment has been.
+     *
+     * @param tick    The current tick. Should increase with every call.
+     * @param objects The objects to send.
+     */
+    public void publish (long tick, GameObjectTable objects) {
+        this.tick = tick;
+        clients.values().removeIf((c) -> tick - c.heard > timeout);
+        world.capture(tick, objects);
+        if (interest != null) interest.update(objects);
+        for (Connection connection : clients.values()) {
+            if (connection.fragmentNext < connection.fragmentCount) {
+                sendFragment(connection);
+                continue;
+            }
+            NetworkSnapshot current = connection.history[Math.floorMod(tick, HISTORY)];
+            if (interest == null) current.copy(world);
+            else {
+                interest.refresh(connection.interest);
+                current.select(world, connection.interest);
+            }
+            NetworkSnapshot baseline = getBaseline(connection, tick);
+            writer.reset();
+            DeltaCodec.encode(current, baseline, writer);
+            try {
+                if (writer.getByteLength() + 1 <= MAX_PACKET) {
+                    send.clear();
+                    send.put(SNAPSHOT);
+                    writer.flushTo(send);
+                    send.flip();
+                    connection.lastPacket = send.remaining();
+                    bytesSent += channel.send(send, connection.address);
+                } else if (split(connection, tick)) sendFragment(connection);
+            } catch (IOException e) {
+                GameEngine.getLogger().log(e, Level.WARNING);
+            }
+        }
+    }
+
+    /**
+     * Copies the snapshot held by the writer into the given client's fragment buffer to be sent over the next ticks.
+     * Snapshots needing more than {@link #MAX_FRAGMENTS} fragments aren't sent, which is logged the first time it
+     * happens.
+     *
+     * @param connection The client being sent to.
+     * @param tick       The tick of the snapshot.
+     * @return True if the snapshot was split. False if it is too large to send.
+     */
+    protected boolean split (Connection connection, long tick) {
+        int length = writer.getByteLength();
+        int count = (length + FRAGMENT_PAYLOAD - 1) / FRAGMENT_PAYLOAD;
+        if (count > MAX_FRAGMENTS) {
+            if (!warned) GameEngine.getLogger().log("SnapshotServer: A snapshot of " + length + " bytes is too large "
+                    + "to send. Later ones won't be logged.", Level.WARNING);
+            warned = true;
+            return false;
+        }
+        if (connection.fragments == null || connection.fragments.capacity() < length)
+            connection.fragments = ByteBuffer.allocate(count * FRAGMENT_PAYLOAD);
+        connection.fragments.clear();
+        writer.flushTo(connection.fragments);
+        connection.fragmentTick = tick;
+        connection.fragmentLength = length;
+        connection.fragmentCount = count;
+        connection.fragmentNext = 0;
+        return true;
+    }
+
+    /**
+     * Sends the next fragment of the snapshot being sent to the given client.
+     *
+     * @param connection The client to send to.
+     */
+    protected void sendFragment (Connection connection) {
+        int i = connection.fragmentNext++;
+        ByteBuffer fragments = connection.fragments;
+        fragments.limit(Math.min(connection.fragmentLength, (i + 1) * FRAGMENT_PAYLOAD)).position(i * FRAGMENT_PAYLOAD);
+        send.clear();
+        send.put(FRAGMENT).putLong(connection.fragmentTick).put((byte) i).put((byte) connection.fragmentCount);
+        send.put(fragments).flip();
+        connection.lastPacket = send.remaining();
+        try {
+            bytesSent += channel.send(send, connection.address);
+        } catch (IOException e) {
+            GameEngine.getLogger().log(e, Level.WARNING);
+        }
+    }
+
+    /**
+     * Finds the snapshot a client acknowledged, if it is still in its history.
+     *
+     * @param connection The client being sent to.
+     * @param tick       The tick being sent.
+     * @return The acknowledged snapshot or null if the client needs a full snapshot.
+     */
+    protected NetworkSnapshot getBaseline (Connection connection, long tick) {
+        long acked = connection.acked;
+        if (acked < 0 || acked >= tick || tick - acked >= HISTORY) return null;
+        NetworkSnapshot baseline = connection.history[Math.floorMod(acked, HISTORY)];
+        return baseline.getTick() == acked ? baseline : null;
+    }
+
+    /**
+     * Sets the most clients which may be connected at once. Clients already connected are kept.
+     *
+     * @param maxClients The most clients to connect.
+     */
+    public void setMaxClients (int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * Sets the number of published ticks a client may go without acknowledging before it is dropped.
+     *
+     * @param timeout The timeout in ticks.
+     */
+    public void setTimeout (int timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sets the interest manager which decides which objects each client is sent.
+     *
+     * @param interest The interest manager to use, or null to send every object to every client.
+     */
+    public void setInterestManager (InterestManager interest) {
+        this.interest = interest;
+    }
+
+    /**
+     * Sets the point a client is viewing the game from. Only used when an interest manager is set.
+     *
+     * @param address The address of the client.
+     * @param x       The x value of the viewpoint.
+     * @param y       The y value of the viewpoint.
+     * @return True if the viewpoint was set. False if the client isn't connected.
+     */
+    public boolean setViewpoint (SocketAddress address, double x, double y) {
+        Connection connection = clients.get(address);
+        if (connection == null) return false;
+        connection.interest.setViewpoint(x, y);
+        return true;
+    }
+
+    /**
+     * Accessor method for the port this server is listening on.
+     *
+     * @return The local port.
+     */
+    public int getPort () {
+        try {
+            return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Accessor method for the addresses of every connected client.
+     *
+     * @return A copy of the connected addresses.
+     */
+    public List<SocketAddress> getClients () {
+        return new ArrayList<>(clients.keySet());
+    }
+
+    /**
+     * Accessor method for the size of the last snapshot sent to a client, including every fragment if it was split.
+     *
+     * @param address The address of the client.
+     * @return The size of the last snapshot in bytes, or -1 if the client isn't connected.
+     */
+    public int getLastPacketSize (SocketAddress address) {
+        Connection connection = clients.get(address);
+        return connection == null ? -1 : connection.lastPacket;
+    }
+
+    /**
+     * Accessor method for the total number of bytes sent to every client.
+     *
+     * @return The number of bytes sent.
+     */
+    public long getBytesSent () {
+        return bytesSent;
+    }
+
+    /**
+     * Closes the channel of this server. Clients are not notified.
+     */
+    public void close () {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            GameEngine.getLogger().log(e, Level.WARNING);
+        }
+    }
+}
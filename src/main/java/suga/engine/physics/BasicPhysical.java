@@ -1,11 +1,16 @@
 package suga.engine.physics;
 
+import suga.engine.snapshot.Saveable;
+import suga.engine.snapshot.Snapshots;
+
+import java.nio.ByteBuffer;
+
 /**
  * A simple implementation of the Physical interface which can be used to cut down on development time.
  *
  * @author Sugaku
  */
-public class BasicPhysical implements Physical {
+public class BasicPhysical implements Physical, Saveable {
 
     /**
      * The position of this Physical object.
@@ -136,4 +141,41 @@ public class BasicPhysical implements Physical {
         pos.add(vel);
         vel.add(accel);
     }
+
+    /**
+     * Writes the position, velocity, acceleration, and mass of this object into the given buffer.
+     *
+     * @param buffer The buffer to write to.
+     */
+    @Override
+    public void save (ByteBuffer buffer) {
+        Snapshots.putVector(buffer, pos);
+        Snapshots.putVector(buffer, vel);
+        Snapshots.putVector(buffer, accel);
+        buffer.putDouble(mass);
+    }
+
+    /**
+     * Reads the position, velocity, acceleration, and mass of this object from the given buffer. The existing vectors
+     * are updated in place.
+     *
+     * @param buffer The buffer to read from.
+     */
+    @Override
+    public void load (ByteBuffer buffer) {
+        Snapshots.getVector(buffer, pos);
+        Snapshots.getVector(buffer, vel);
+        Snapshots.getVector(buffer, accel);
+        mass = buffer.getDouble();
+    }
+
+    /**
+     * Accessor method for the number of bytes this object saves.
+     *
+     * @return The size of three vectors and a double.
+     */
+    @Override
+    public int getSaveSize () {
+        return 3 * Snapshots.VECTOR_SIZE + Double.BYTES;
+    }
 }
@@ -3,8 +3,8 @@ package suga.engine.physics;
 import suga.engine.physics.collidables.Collidable;
 import suga.engine.physics.hitboxes.HitBox;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * The PhysicsEngine has a list of all the objects currently in the world and checks every logic cycle whether any are
@@ -24,6 +24,21 @@ public class BasicPhysicsEngine implements PhysicsEngine {
      */
     protected List<Physical> physicals = new ArrayList<>();
 
+    /**
+     * The position of each object in {@link #collidables}, used to remove objects without searching the list.
+     */
+    protected final Map<Physical, Integer> collidableIndex = new IdentityHashMap<>();
+
+    /**
+     * The position of each object in {@link #physicals}, used to remove objects without searching the list.
+     */
+    protected final Map<Physical, Integer> physicalIndex = new IdentityHashMap<>();
+
+    /**
+     * Told about every object whose position changes during {@link #update()}, or null if nothing is listening.
+     */
+    protected Consumer<Physical> moveListener = null;
+
     /**
      * Checks if the test points in the points HitBox are inside or colliding with the given box HitBox.
      *
@@ -67,11 +82,40 @@ public class BasicPhysicsEngine implements PhysicsEngine {
     }
 
     /**
-     * Updates the position of all physical objects in the physics engine.
+     * Updates the position of all physical objects in the physics engine. Objects whose position changed are passed to
+     * the move listener, if there is one.
      */
     @Override
     public void update () {
-        physicals.forEach(Physical::update);
+        Consumer<Physical> listener = moveListener;
+        if (listener == null) {
+            physicals.forEach(Physical::update);
+            return;
+        }
+        for (int i = 0; i < physicals.size(); i++) {
+            Physical physical = physicals.get(i);
+            Vector pos = physical.getPos();
+            if (pos == null) {
+                physical.update();
+                continue;
+            }
+            double x = pos.getX();
+            double y = pos.getY();
+            double z = pos.getZ();
+            physical.update();
+            pos = physical.getPos();
+            if (pos == null || pos.getX() != x || pos.getY() != y || pos.getZ() != z) listener.accept(physical);
+        }
+    }
+
+    /**
+     * Sets the listener told about every object whose position changes during {@link #update()}.
+     *
+     * @param listener Called with each moved object, or null to stop reporting moves.
+     */
+    @Override
+    public void setMoveListener (Consumer<Physical> listener) {
+        moveListener = listener;
     }
 
     /**
@@ -81,7 +125,7 @@ public class BasicPhysicsEngine implements PhysicsEngine {
      */
     @Override
     public void addPhysical (Physical object) {
-        physicals.add(object);
+        add(physicals, physicalIndex, object);
     }
 
     /**
@@ -91,7 +135,7 @@ public class BasicPhysicsEngine implements PhysicsEngine {
      */
     @Override
     public void addCollidable (Collidable object) {
-        collidables.add(object);
+        add(collidables, collidableIndex, object);
     }
 
     /**
@@ -100,7 +144,50 @@ public class BasicPhysicsEngine implements PhysicsEngine {
      * @param object The object to add to the physics engine.
      */
     public void addObject (Collidable object) {
-        collidables.add(object);
-        physicals.add(object);
+        add(collidables, collidableIndex, object);
+        add(physicals, physicalIndex, object);
+    }
+
+    /**
+     * Removes the given object from the physics engine, regardless of how it was added. Objects are compared by
+     * identity as colliders may be equal to each other while being different objects. Takes constant time, the last
+     * object of each list is moved into the removed object's place.
+     *
+     * @param object The object to remove from the physics engine.
+     */
+    @Override
+    public void removeObject (Physical object) {
+        remove(collidables, collidableIndex, object);
+        remove(physicals, physicalIndex, object);
+    }
+
+    /**
+     * Adds the given object to the end of the given list, unless it's already in it.
+     *
+     * @param list   The list to add to.
+     * @param index  The position of each object in the list.
+     * @param object The object to add.
+     * @param <E>    The type of object in the list.
+     */
+    private static <E extends Physical> void add (List<E> list, Map<Physical, Integer> index, E object) {
+        if (index.putIfAbsent(object, list.size()) == null) list.add(object);
+    }
+
+    /**
+     * Removes the given object from the given list by moving the last object into its place.
+     *
+     * @param list   The list to remove from.
+     * @param index  The position of each object in the list.
+     * @param object The object to remove.
+     * @param <E>    The type of object in the list.
+     */
+    private static <E extends Physical> void remove (List<E> list, Map<Physical, Integer> index, Physical object) {
+        Integer position = index.remove(object);
+        if (position == null) return;
+        E last = list.remove(list.size() - 1);
+        if (position < list.size()) {
+            list.set(position, last);
+            index.put(last, position);
+        }
     }
 }
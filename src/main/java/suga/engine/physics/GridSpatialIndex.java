@@ -0,0 +1,403 @@
+package suga.engine.physics;
+
+import suga.engine.physics.hitboxes.BoundingBox;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * A uniform grid over the x-y plane which buckets integer ids by their bounding boxes. Queries only look at the cells
+ * they overlap, so their cost depends on the local density of entries rather than how many entries exist in total.
+ * Bounds are kept in primitive arrays indexed by id, so ids should be small and dense. Entries which would cover more
+ * than {@link #MAX_CELLS} cells, such as ones with huge or infinite bounds, are kept in a separate overflow list which
+ * every query checks instead.
+ *
+ * @author Sugaku
+ */
+public class GridSpatialIndex {
+
+    /**
+     * The most cells a single entry is bucketed into. Larger entries are kept in the overflow list.
+     */
+    public static final int MAX_CELLS = 1024;
+
+    /**
+     * The width and height of a single cell in the grid.
+     */
+    protected final double cellSize;
+
+    /**
+     * The non-empty cells of the grid indexed by their packed cell coordinates.
+     */
+    protected final Map<Long, Cell> cells = new HashMap<>();
+
+    /**
+     * The smallest x value of each entry's bounds.
+     */
+    protected double[] minX = new double[0];
+
+    /**
+     * The smallest y value of each entry's bounds.
+     */
+    protected double[] minY = new double[0];
+
+    /**
+     * The largest x value of each entry's bounds.
+     */
+    protected double[] maxX = new double[0];
+
+    /**
+     * The largest y value of each entry's bounds.
+     */
+    protected double[] maxY = new double[0];
+
+    /**
+     * The cell range each entry is currently bucketed into. Stored as four ints per entry: min x, min y, max x, max y.
+     */
+    protected int[] cellRange = new int[0];
+
+    /**
+     * Whether the id at each index is currently present in the index.
+     */
+    protected boolean[] present = new boolean[0];
+
+    /**
+     * Whether each entry is kept in the overflow list rather than in the grid.
+     */
+    protected boolean[] oversized = new boolean[0];
+
+    /**
+     * The ids of entries too large to bucket. Only the first {@link #overflowCount} values are valid.
+     */
+    protected int[] overflow = new int[4];
+
+    /**
+     * The number of ids in {@link #overflow}.
+     */
+    protected int overflowCount = 0;
+
+    /**
+     * The query number each entry was last visited by. Used to report entries spanning several cells only once.
+     */
+    protected int[] visited = new int[0];
+
+    /**
+     * The number of the query currently running.
+     */
+    protected int query = 0;
+
+    /**
+     * The number of entries currently in the index.
+     */
+    protected int size = 0;
+
+    /**
+     * A single cell of the grid holding the ids of every entry that overlaps it.
+     *
+     * @author Sugaku
+     */
+    protected static final class Cell {
+
+        /**
+         * The ids of the entries overlapping this cell. Only the first {@link #size} values are valid.
+         */
+        int[] ids = new int[4];
+
+        /**
+         * The number of ids in this cell.
+         */
+        int size = 0;
+
+        /**
+         * Adds the given id to this cell.
+         *
+         * @param id The id to add.
+         */
+        void add (int id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        /**
+         * Removes the given id from this cell. Does not preserve the order of the remaining ids.
+         *
+         * @param id The id to remove.
+         */
+        void remove (int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a new GridSpatialIndex with the given cell size. Cells should be around the size of a typical entry.
+     *
+     * @param cellSize The width and height of a single cell.
+     */
+    public GridSpatialIndex (double cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("Cell size must be positive!");
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Inserts the given id with the given bounds, or moves it if it is already present. Moving an entry within the
+     * cells it already covers only updates its bounds.
+     *
+     * @param id     The id of the entry. Must not be negative.
+     * @param bounds The bounds of the entry.
+     */
+    public void put (int id, BoundingBox bounds) {
+        put(id, bounds.minX(), bounds.minY(), bounds.maxX(), bounds.maxY());
+    }
+
+    /**
+     * Inserts the given id with the given bounds, or moves it if it is already present. Moving an entry within the
+     * cells it already covers only updates its bounds. Entries covering more than {@link #MAX_CELLS} cells go in the
+     * overflow list.
+     *
+     * @param id   The id of the entry. Must not be negative.
+     * @param minX The smallest x value of the entry.
+     * @param minY The smallest y value of the entry.
+     * @param maxX The largest x value of the entry.
+     * @param maxY The largest y value of the entry.
+     */
+    public void put (int id, double minX, double minY, double maxX, double maxY) {
+        ensureCapacity(id + 1);
+        this.minX[id] = minX;
+        this.minY[id] = minY;
+        this.maxX[id] = maxX;
+        this.maxY[id] = maxY;
+        int cx0 = cell(minX);
+        int cy0 = cell(minY);
+        int cx1 = cell(maxX);
+        int cy1 = cell(maxY);
+        boolean large = cx0 > cx1 || cy0 > cy1 || span(cx0, cx1) * span(cy0, cy1) > MAX_CELLS;
+        int r = id * 4;
+        if (present[id]) {
+            if (large && oversized[id]) return;
+            if (!large && !oversized[id] && cellRange[r] == cx0 && cellRange[r + 1] == cy0
+                    && cellRange[r + 2] == cx1 && cellRange[r + 3] == cy1)
+                return;
+            unlink(id);
+        } else {
+            present[id] = true;
+            size++;
+        }
+        if (large) {
+            oversized[id] = true;
+            if (overflowCount == overflow.length) overflow = Arrays.copyOf(overflow, overflowCount * 2);
+            overflow[overflowCount++] = id;
+            return;
+        }
+        cellRange[r] = cx0;
+        cellRange[r + 1] = cy0;
+        cellRange[r + 2] = cx1;
+        cellRange[r + 3] = cy1;
+        for (long x = cx0; x <= cx1; x++)
+            for (long y = cy0; y <= cy1; y++)
+                cells.computeIfAbsent(key((int) x, (int) y), (k) -> new Cell()).add(id);
+    }
+
+    /**
+     * Removes the given id from the index. Does nothing if the id is not present.
+     *
+     * @param id The id to remove.
+     */
+    public void remove (int id) {
+        if (!contains(id)) return;
+        unlink(id);
+        present[id] = false;
+        size--;
+    }
+
+    /**
+     * Checks whether the given id is currently in the index.
+     *
+     * @param id The id to check.
+     * @return True if and only if the id is present.
+     */
+    public boolean contains (int id) {
+        return id >= 0 && id < present.length && present[id];
+    }
+
+    /**
+     * Accessor method for the number of entries in the index.
+     *
+     * @return The number of entries currently in the index.
+     */
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Removes every entry from the index.
+     */
+    public void clear () {
+        cells.clear();
+        Arrays.fill(present, false);
+        Arrays.fill(oversized, false);
+        overflowCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Calls the given consumer with every id whose bounds contain the given point.
+     *
+     * @param x        The x value of the point.
+     * @param y        The y value of the point.
+     * @param consumer The consumer to pass each id to.
+     */
+    public void queryPoint (double x, double y, IntConsumer consumer) {
+        for (int i = 0; i < overflowCount; i++) {
+            int id = overflow[i];
+            if (x >= minX[id] && x <= maxX[id] && y >= minY[id] && y <= maxY[id]) consumer.accept(id);
+        }
+        Cell cell = cells.get(key(cell(x), cell(y)));
+        if (cell == null) return;
+        for (int i = 0; i < cell.size; i++) {
+            int id = cell.ids[i];
+            if (x >= minX[id] && x <= maxX[id] && y >= minY[id] && y <= maxY[id]) consumer.accept(id);
+        }
+    }
+
+    /**
+     * Calls the given consumer once with every id whose bounds overlap, or touch, the given range.
+     *
+     * @param minX     The smallest x value of the range.
+     * @param minY     The smallest y value of the range.
+     * @param maxX     The largest x value of the range.
+     * @param maxY     The largest y value of the range.
+     * @param consumer The consumer to pass each id to.
+     */
+    public void queryRange (double minX, double minY, double maxX, double maxY, IntConsumer consumer) {
+        if (++query == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            query = 1;
+        }
+        for (int i = 0; i < overflowCount; i++) {
+            int id = overflow[i];
+            if (this.minX[id] <= maxX && this.maxX[id] >= minX && this.minY[id] <= maxY && this.maxY[id] >= minY)
+                consumer.accept(id);
+        }
+        int cx0 = cell(minX);
+        int cy0 = cell(minY);
+        int cx1 = cell(maxX);
+        int cy1 = cell(maxY);
+        if (cx0 > cx1 || cy0 > cy1) return;
+        if (span(cx0, cx1) * span(cy0, cy1) > cells.size()) {
+            for (Cell cell : cells.values()) visit(cell, minX, minY, maxX, maxY, consumer);
+            return;
+        }
+        for (long x = cx0; x <= cx1; x++) {
+            for (long y = cy0; y <= cy1; y++) {
+                Cell cell = cells.get(key((int) x, (int) y));
+                if (cell != null) visit(cell, minX, minY, maxX, maxY, consumer);
+            }
+        }
+    }
+
+    /**
+     * Passes every id in the given cell which overlaps the given range and has not been seen this query.
+     *
+     * @param cell     The cell to look through.
+     * @param minX     The smallest x value of the range.
+     * @param minY     The smallest y value of the range.
+     * @param maxX     The largest x value of the range.
+     * @param maxY     The largest y value of the range.
+     * @param consumer The consumer to pass each id to.
+     */
+    private void visit (Cell cell, double minX, double minY, double maxX, double maxY, IntConsumer consumer) {
+        for (int i = 0; i < cell.size; i++) {
+            int id = cell.ids[i];
+            if (visited[id] == query) continue;
+            visited[id] = query;
+            if (this.minX[id] <= maxX && this.maxX[id] >= minX && this.minY[id] <= maxY && this.maxY[id] >= minY)
+                consumer.accept(id);
+        }
+    }
+
+    /**
+     * Removes the given id from every cell it is currently bucketed into, or from the overflow list.
+     *
+     * @param id The id to remove from the grid.
+     */
+    private void unlink (int id) {
+        if (oversized[id]) {
+            oversized[id] = false;
+            for (int i = 0; i < overflowCount; i++) {
+                if (overflow[i] == id) {
+                    overflow[i] = overflow[--overflowCount];
+                    return;
+                }
+            }
+            return;
+        }
+        int r = id * 4;
+        for (long x = cellRange[r]; x <= cellRange[r + 2]; x++) {
+            for (long y = cellRange[r + 1]; y <= cellRange[r + 3]; y++) {
+                Long key = key((int) x, (int) y);
+                Cell cell = cells.get(key);
+                if (cell == null) continue;
+                cell.remove(id);
+                if (cell.size == 0) cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Grows the per id arrays so that they can hold at least the given number of ids.
+     *
+     * @param capacity The number of ids the arrays need to hold.
+     */
+    private void ensureCapacity (int capacity) {
+        if (capacity <= present.length) return;
+        int length = Math.max(capacity, Math.max(16, present.length * 2));
+        minX = Arrays.copyOf(minX, length);
+        minY = Arrays.copyOf(minY, length);
+        maxX = Arrays.copyOf(maxX, length);
+        maxY = Arrays.copyOf(maxY, length);
+        cellRange = Arrays.copyOf(cellRange, length * 4);
+        present = Arrays.copyOf(present, length);
+        oversized = Arrays.copyOf(oversized, length);
+        visited = Arrays.copyOf(visited, length);
+    }
+
+    /**
+     * Converts the given coordinate into a cell coordinate. Coordinates beyond the range of an int are clamped to it.
+     *
+     * @param v The coordinate to convert.
+     * @return The cell coordinate containing the given value.
+     */
+    private int cell (double v) {
+        return (int) Math.floor(v / cellSize);
+    }
+
+    /**
+     * Finds the number of cells between the given cell coordinates, capped so that the product of two spans can't
+     * overflow.
+     *
+     * @param from The first cell coordinate.
+     * @param to   The last cell coordinate.
+     * @return The number of cells from the first coordinate to the last, inclusive, or at most {@code 1 << 30}.
+     */
+    private static long span (int from, int to) {
+        return Math.min((long) to - from + 1, 1L << 30);
+    }
+
+    /**
+     * Packs the given cell coordinates into a single key.
+     *
+     * @param x The x cell coordinate.
+     * @param y The y cell coordinate.
+     * @return The key of the cell in {@link #cells}.
+     */
+    private static long key (int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
@@ -1,7 +1,12 @@
 package suga.engine.physics;
 
+import suga.engine.GameEngine;
+import suga.engine.logger.Level;
 import suga.engine.physics.collidables.Collidable;
 
+import java.util.Collection;
+import java.util.function.Consumer;
+
 /**
  * The PhysicsEngine has a list of all the objects currently in the world and checks every logic cycle whether any are
  * currently colliding. If they are they the appropriate method is called.
@@ -41,4 +46,43 @@ public interface PhysicsEngine {
      * @param object The collidable, physical object to be added to the list.
      */
     void addObject (Collidable object);
+
+    /**
+     * Adds every given collidable, physical object at once, such as when a snapshot recreates objects. By default each
+     * object is added with {@link #addObject(Collidable)}.
+     *
+     * @param objects The objects to add to the physics engine.
+     */
+    default void addObjects (Collection<? extends Collidable> objects) {
+        for (Collidable object : objects) addObject(object);
+    }
+
+    /**
+     * Removes the given object from the physics engine, regardless of how it was added. Engines which can't remove
+     * objects log that it's unsupported and leave the object registered.
+     *
+     * @param object The object to remove from the physics engine.
+     */
+    default void removeObject (Physical object) {
+        GameEngine.getLogger().log("PhysicsEngine: " + getClass().getSimpleName() + " does not support removing objects.", Level.WARNING);
+    }
+
+    /**
+     * Removes every given object from the physics engine at once. By default each object is removed with
+     * {@link #removeObject(Physical)}, engines may override this to be faster when many objects are removed together.
+     *
+     * @param objects The objects to remove from the physics engine.
+     */
+    default void removeObjects (Collection<? extends Physical> objects) {
+        for (Physical object : objects) removeObject(object);
+    }
+
+    /**
+     * Sets the listener told about every object whose position changes during {@link #update()}. Used to keep indexes
+     * over object positions up to date without scanning every object. Engines which can't report moves ignore this.
+     *
+     * @param listener Called with each moved object, or null to stop reporting moves.
+     */
+    default void setMoveListener (Consumer<Physical> listener) {
+    }
 }
@@ -2,13 +2,17 @@ package suga.engine.physics.collidables;
 
 import suga.engine.physics.Vector;
 import suga.engine.physics.hitboxes.HitBox;
+import suga.engine.snapshot.Saveable;
+import suga.engine.snapshot.Snapshots;
+
+import java.nio.ByteBuffer;
 
 /**
  * An ElasticCollider is a collider which results in perfectly elastic collisions.
  *
  * @author Sugaku
  */
-public class ElasticCollider implements Collidable {
+public class ElasticCollider implements Collidable, Saveable {
 
     /**
      * The mass of this ElasticCollider.
@@ -223,4 +227,42 @@ public class ElasticCollider implements Collidable {
             else return collider.hitBox == null;
         } else return false;
     }
+
+    /**
+     * Writes the position, velocity, acceleration, and mass of this collider into the given buffer. The hit box is
+     * expected to follow the position and isn't saved.
+     *
+     * @param buffer The buffer to write to.
+     */
+    @Override
+    public void save (ByteBuffer buffer) {
+        Snapshots.putVector(buffer, pos);
+        Snapshots.putVector(buffer, velocity);
+        Snapshots.putVector(buffer, acceleration);
+        buffer.putDouble(mass);
+    }
+
+    /**
+     * Reads the position, velocity, acceleration, and mass of this collider from the given buffer. The existing vectors
+     * are updated in place.
+     *
+     * @param buffer The buffer to read from.
+     */
+    @Override
+    public void load (ByteBuffer buffer) {
+        Snapshots.getVector(buffer, pos);
+        Snapshots.getVector(buffer, velocity);
+        Snapshots.getVector(buffer, acceleration);
+        mass = buffer.getDouble();
+    }
+
+    /**
+     * Accessor method for the number of bytes this collider saves.
+     *
+     * @return The size of three vectors and a double.
+     */
+    @Override
+    public int getSaveSize () {
+        return 3 * Snapshots.VECTOR_SIZE + Double.BYTES;
+    }
 }
@@ -0,0 +1,34 @@
+package suga.engine.physics.hitboxes;
+
+/**
+ * An axis aligned bounding box on the x-y plane. Used to quickly cull objects before running exact hit box tests.
+ *
+ * @param minX The smallest x value covered by this box.
+ * @param minY The smallest y value covered by this box.
+ * @param maxX The largest x value covered by this box.
+ * @param maxY The largest y value covered by this box.
+ * @author Sugaku
+ */
+public record BoundingBox (double minX, double minY, double maxX, double maxY) {
+
+    /**
+     * Checks whether the given point is inside or on the boundary of this bounding box.
+     *
+     * @param x The x value of the point to check.
+     * @param y The y value of the point to check.
+     * @return True if and only if the point is covered by this bounding box.
+     */
+    public boolean contains (double x, double y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    /**
+     * Checks whether this bounding box overlaps, or touches, the given bounding box.
+     *
+     * @param other The other bounding box to check against.
+     * @return True if and only if the two boxes share at least one point.
+     */
+    public boolean intersects (BoundingBox other) {
+        return minX <= other.maxX && maxX >= other.minX && minY <= other.maxY && maxY >= other.minY;
+    }
+}
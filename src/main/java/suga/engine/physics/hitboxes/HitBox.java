@@ -59,6 +59,43 @@ public interface HitBox {
     @Deprecated
     boolean touching (Vector test);
 
+    /**
+     * Returns the smallest axis aligned box containing this hit box. By default, this is built from the test points
+     * so hit boxes with a cheaper exact answer should override it.
+     *
+     * @return The bounding box of this hit box at its current position.
+     */
+    default BoundingBox getBoundingBox () {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (Vector v : getTestPoints()) {
+            minX = Math.min(minX, v.getX());
+            minY = Math.min(minY, v.getY());
+            maxX = Math.max(maxX, v.getX());
+            maxY = Math.max(maxY, v.getY());
+        }
+        if (minX > maxX) return new BoundingBox(getPos().getX(), getPos().getY(), getPos().getX(), getPos().getY());
+        return new BoundingBox(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Writes the smallest axis aligned box containing this hit box into the given array as min x, min y, max x, and
+     * max y. Used by code which records many bounds every tick. By default, this copies {@link #getBoundingBox()} so
+     * hit boxes should override it to avoid allocating.
+     *
+     * @param out    The array to write the bounds into.
+     * @param offset The position of min x in the array. The other three values follow it.
+     */
+    default void writeBounds (double[] out, int offset) {
+        BoundingBox box = getBoundingBox();
+        out[offset] = box.minX();
+        out[offset + 1] = box.minY();
+        out[offset + 2] = box.maxX();
+        out[offset + 3] = box.maxY();
+    }
+
     /**
      * Draws this hit box to the given graphics panel. Different hit boxes may appear differently when drawn.
      *
@@ -113,6 +113,31 @@ public class SquareHitBox implements HitBox { // todo equals method.
         return isTouching(test);
     }
 
+    /**
+     * Returns the smallest axis aligned box containing this hit box.
+     *
+     * @return The bounding box of this hit box at its current position.
+     */
+    @Override
+    public BoundingBox getBoundingBox () {
+        return new BoundingBox(pos.getX() - (width / 2.0), pos.getY() - (height / 2.0),
+                               pos.getX() + (width / 2.0), pos.getY() + (height / 2.0));
+    }
+
+    /**
+     * Writes the smallest axis aligned box containing this hit box into the given array without allocating.
+     *
+     * @param out    The array to write the bounds into.
+     * @param offset The position of min x in the array. The other three values follow it.
+     */
+    @Override
+    public void writeBounds (double[] out, int offset) {
+        out[offset] = pos.getX() - (width / 2.0);
+        out[offset + 1] = pos.getY() - (height / 2.0);
+        out[offset + 2] = pos.getX() + (width / 2.0);
+        out[offset + 3] = pos.getY() + (height / 2.0);
+    }
+
     /**
      * Returns a collection of test points to determine if this HitBox is colliding with another.
      *
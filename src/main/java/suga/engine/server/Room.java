@@ -0,0 +1,274 @@
+package suga.engine.server;
+
+import suga.engine.Engine;
+import suga.engine.game.Game;
+import suga.engine.logger.Level;
+import suga.engine.threads.FramePacer;
+import suga.engine.threads.SugaThread;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * A Room runs a single game on the carrier pool of a {@link RoomManager} instead of on its own thread. Each tick is a
+ * short task, so thousands of rooms can share a handful of threads. Rooms measure how late each tick starts compared
+ * to when it was scheduled. Each tick schedules the next once it finishes, so late ticks run back to back to catch up,
+ * but once a room is {@link FramePacer#MAX_CATCH_UP} ticks behind the missed ticks are dropped instead.
+ *
+ * @author Sugaku
+ */
+public class Room implements SugaThread {
+
+    /**
+     * The id of this room within its manager.
+     */
+    protected final int id;
+
+    /**
+     * The manager which schedules this room.
+     */
+    protected final RoomManager manager;
+
+    /**
+     * The game run by this room.
+     */
+    protected final Game game;
+
+    /**
+     * The engine bound to the carrier thread while this room ticks.
+     */
+    protected final Engine engine;
+
+    /**
+     * The time between ticks in nanoseconds.
+     */
+    protected final long period;
+
+    /**
+     * The scheduled task running the next tick of this room. Null until the room is started.
+     */
+    protected volatile ScheduledFuture<?> task;
+
+    /**
+     * Whether to simulate game logic or not.
+     */
+    protected volatile boolean paused = false;
+
+    /**
+     * Whether this room has been stopped.
+     */
+    protected volatile boolean stopped = false;
+
+    /**
+     * The time the next tick is due at.
+     */
+    protected long next;
+
+    /**
+     * The number of ticks dropped rather than run because the room fell too far behind.
+     */
+    protected volatile long dropped = 0;
+
+    /**
+     * The number of ticks that have started.
+     */
+    protected volatile long ticks = 0;
+
+    /**
+     * How late the last tick started in nanoseconds.
+     */
+    protected volatile long lastLag = 0;
+
+    /**
+     * How late the latest tick so far started in nanoseconds.
+     */
+    protected volatile long maxLag = 0;
+
+    /**
+     * The total lag of every tick in nanoseconds.
+     */
+    protected volatile long totalLag = 0;
+
+    /**
+     * Creates a new Room. Rooms should be created through {@link RoomManager#addRoom(Game, int)}.
+     *
+     * @param id        The id of this room within its manager.
+     * @param manager   The manager which schedules this room.
+     * @param game      The game to run.
+     * @param logicRate How many times per second the game logic should be called.
+     * @param engine    The engine to bind while this room ticks.
+     */
+    protected Room (int id, RoomManager manager, Game game, int logicRate, Engine engine) {
+        this.id = id;
+        this.manager = manager;
+        this.game = game;
+        this.engine = engine;
+        period = 1_000_000_000L / logicRate;
+        game.setThread(this);
+    }
+
+    /**
+     * Runs a single tick of this room, then schedules the next. Called by the carrier pool. Exceptions are logged and
+     * the room keeps ticking, while errors stop and remove the room.
+     */
+    @Override
+    public void run () {
+        if (stopped) return;
+        long now = System.nanoTime();
+        lastLag = Math.max(0, now - next);
+        maxLag = Math.max(maxLag, lastLag);
+        totalLag += lastLag;
+        ticks++;
+        Engine.bind(engine);
+        try {
+            game.processInput();
+            if (!paused) game.loop();
+        } catch (Exception e) {
+            engine.getLogger().log("Room " + id + ": Tick failed.", e, Level.EXCEPTION);
+        } catch (Throwable e) {
+            engine.getLogger().log("Room " + id + ": Tick failed with " + e + ", stopping the room.", Level.ERROR);
+            setStopped(true);
+        } finally {
+            Engine.bind(null);
+        }
+        scheduleNext();
+    }
+
+    /**
+     * Schedules the next tick of this room. If the room has fallen {@link FramePacer#MAX_CATCH_UP} or more ticks behind,
+     * the missed ticks are dropped and the next tick is due a period from now.
+     */
+    protected void scheduleNext () {
+        if (stopped) return;
+        next += period;
+        long now = System.nanoTime();
+        long missed = (now - next) / period;
+        if (missed >= FramePacer.MAX_CATCH_UP) {
+            dropped += missed;
+            next += missed * period;
+        }
+        try {
+            task = manager.schedule(this, next - now);
+        } catch (RejectedExecutionException e) {
+            setStopped(true);
+        }
+    }
+
+    /**
+     * Schedules this room on its manager's carrier pool.
+     */
+    @Override
+    public void start () {
+        if (task != null || stopped) return;
+        next = System.nanoTime();
+        task = manager.schedule(this, 0);
+    }
+
+    /**
+     * Sets whether the room is paused or not. Paused rooms still process input.
+     *
+     * @param val Whether the room should be paused or not.
+     */
+    @Override
+    public void setPaused (boolean val) {
+        paused = val;
+    }
+
+    /**
+     * Accessor method for the current status of the room.
+     *
+     * @return Whether the room is paused currently or not.
+     */
+    @Override
+    public boolean getPaused () {
+        return paused;
+    }
+
+    /**
+     * Stops this room. Stopped rooms are removed from their manager and can't be started again.
+     *
+     * @param val Whether the room should be stopped.
+     */
+    @Override
+    public void setStopped (boolean val) {
+        if (!val || stopped) return;
+        manager.rooms.remove(id, this);
+        stopped = true;
+        ScheduledFuture<?> current = task;
+        if (current != null) current.cancel(false);
+    }
+
+    /**
+     * Accessor method for the current status of the room.
+     *
+     * @return Whether this room has been stopped or not.
+     */
+    @Override
+    public boolean getStopped () {
+        return stopped;
+    }
+
+    /**
+     * Accessor method for the id of this room.
+     *
+     * @return The id of this room within its manager.
+     */
+    public int getId () {
+        return id;
+    }
+
+    /**
+     * Accessor method for the game run by this room.
+     *
+     * @return The game of this room.
+     */
+    public Game getGame () {
+        return game;
+    }
+
+    /**
+     * Accessor method for the number of ticks that have started.
+     *
+     * @return The number of ticks run by this room.
+     */
+    public long getTicks () {
+        return ticks;
+    }
+
+    /**
+     * Accessor method for the number of ticks dropped rather than run because the room fell too far behind.
+     *
+     * @return The number of dropped ticks.
+     */
+    public long getDropped () {
+        return dropped;
+    }
+
+    /**
+     * Accessor method for how late the last tick started.
+     *
+     * @return The lag of the last tick in nanoseconds.
+     */
+    public long getLastLag () {
+        return lastLag;
+    }
+
+    /**
+     * Accessor method for how late the latest tick so far started.
+     *
+     * @return The largest lag of any tick in nanoseconds.
+     */
+    public long getMaxLag () {
+        return maxLag;
+    }
+
+    /**
+     * Accessor method for how late ticks start on average.
+     *
+     * @return The average lag of every tick in nanoseconds.
+     */
+    public double getAverageLag () {
+        long t = ticks;
+        return t == 0 ? 0 : (double) totalLag / t;
+    }
+}
@@ -0,0 +1,154 @@
+package suga.engine.server;
+
+import suga.engine.Engine;
+import suga.engine.game.Game;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The RoomManager runs many games on a small pool of carrier threads, for dedicated servers hosting many small matches.
+ * Each {@link Room} is a game whose ticks are scheduled at its logic rate, rather than a GameLogicThread and
+ * GraphicsThread of its own. A room never ticks on two carriers at once, and late ticks are run back to back to catch
+ * up until a room is too far behind, then the rest are dropped.
+ *
+ * @author Sugaku
+ */
+public class RoomManager {
+
+    /**
+     * The carrier pool rooms are ticked on.
+     */
+    protected final ScheduledThreadPoolExecutor carriers;
+
+    /**
+     * Every room which hasn't been stopped indexed by id.
+     */
+    protected final Map<Integer, Room> rooms = new ConcurrentHashMap<>();
+
+    /**
+     * The id to give the next room.
+     */
+    protected final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Creates a new RoomManager with a carrier thread for each available processor.
+     */
+    public RoomManager () {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new RoomManager with the given number of carrier threads.
+     *
+     * @param carriers The number of threads to tick rooms on.
+     */
+    public RoomManager (int carriers) {
+        AtomicInteger count = new AtomicInteger();
+        this.carriers = new ScheduledThreadPoolExecutor(carriers, (r) -> {
+            Thread thread = new Thread(r, "Room Carrier " + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.carriers.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Creates and starts a room running the given game. The room logs to the engine of the calling thread.
+     *
+     * @param game      The game to run. Should not have a panel.
+     * @param logicRate How many times per second the game logic should be called.
+     * @return The newly started room.
+     */
+    public Room addRoom (Game game, int logicRate) {
+        return addRoom(game, logicRate, Engine.current());
+    }
+
+    /**
+     * Creates and starts a room running the given game.
+     *
+     * @param game      The game to run. Should not have a panel.
+     * @param logicRate How many times per second the game logic should be called.
+     * @param engine    The engine to bind while the room ticks.
+     * @return The newly started room.
+     */
+    public Room addRoom (Game game, int logicRate, Engine engine) {
+        Room room = new Room(nextId.getAndIncrement(), this, game, logicRate, engine);
+        rooms.put(room.getId(), room);
+        room.start();
+        return room;
+    }
+
+    /**
+     * Removes the given room from this manager, stopping it if it hasn't been already.
+     *
+     * @param room The room to remove.
+     */
+    public void removeRoom (Room room) {
+        if (rooms.remove(room.getId()) != null) room.setStopped(true);
+    }
+
+    /**
+     * Accessor method for a room by id.
+     *
+     * @param id The id of the room.
+     * @return The room or null if there is no running room with the id.
+     */
+    public Room getRoom (int id) {
+        return rooms.get(id);
+    }
+
+    /**
+     * Accessor method for every running room.
+     *
+     * @return A copy of the running rooms.
+     */
+    public List<Room> getRooms () {
+        return List.copyOf(rooms.values());
+    }
+
+    /**
+     * Accessor method for the number of running rooms.
+     *
+     * @return The number of rooms that haven't been stopped.
+     */
+    public int size () {
+        return rooms.size();
+    }
+
+    /**
+     * Finds the largest lag of the last tick of any room.
+     *
+     * @return The worst current lag in nanoseconds.
+     */
+    public long getWorstLag () {
+        long worst = 0;
+        for (Room room : rooms.values()) worst = Math.max(worst, room.getLastLag());
+        return worst;
+    }
+
+    /**
+     * Stops every room and the carrier pool.
+     */
+    public void shutdown () {
+        for (Room room : getRooms()) room.setStopped(true);
+        carriers.shutdown();
+    }
+
+    /**
+     * Schedules a single tick of the given room on the carrier pool. Rooms schedule each tick once the last finishes.
+     *
+     * @param room  The room to schedule.
+     * @param delay The time until the tick in nanoseconds.
+     * @return The scheduled task.
+     * @throws java.util.concurrent.RejectedExecutionException Thrown if the manager has been shut down.
+     */
+    protected ScheduledFuture<?> schedule (Room room, long delay) {
+        return carriers.schedule(room, Math.max(0, delay), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,108 @@
+package suga.engine.snapshot;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A RollbackBuffer keeps snapshots of the last few ticks of a Saveable object in a ring of reused buffers. Capturing a
+ * tick overwrites the oldest snapshot, and restoring a tick loads its snapshot back into the object. Buffers only
+ * grow when the saved state grows, so capturing every tick doesn't allocate.
+ *
+ * @author Sugaku
+ */
+public class RollbackBuffer {
+
+    /**
+     * The object being snapshot.
+     */
+    protected final Saveable target;
+
+    /**
+     * The snapshot of each tick indexed by tick modulo the number of frames.
+     */
+    protected final ByteBuffer[] frames;
+
+    /**
+     * The tick held by each frame. -1 for frames which haven't been captured.
+     */
+    protected final long[] ticks;
+
+    /**
+     * Creates a new RollbackBuffer which keeps the given number of ticks.
+     *
+     * @param target The object to snapshot.
+     * @param frames The number of ticks to keep.
+     */
+    public RollbackBuffer (Saveable target, int frames) {
+        if (frames <= 0) throw new IllegalArgumentException("A rollback buffer must keep at least one frame!");
+        this.target = target;
+        this.frames = new ByteBuffer[frames];
+        this.ticks = new long[frames];
+        Arrays.fill(ticks, -1);
+    }
+
+    /**
+     * Saves the current state of the target as the given tick, replacing the oldest snapshot.
+     *
+     * @param tick The tick the target is currently at.
+     */
+    public void capture (long tick) {
+        int i = index(tick);
+        int size = target.getSaveSize();
+        if (frames[i] == null || frames[i].capacity() < size)
+            frames[i] = ByteBuffer.allocateDirect(size + size / 2);
+        ByteBuffer frame = frames[i].clear();
+        target.save(frame);
+        frame.flip();
+        ticks[i] = tick;
+    }
+
+    /**
+     * Loads the snapshot of the given tick into the target.
+     *
+     * @param tick The tick to restore.
+     * @return True if the tick was restored. False if it isn't held by this buffer.
+     */
+    public boolean restore (long tick) {
+        if (!contains(tick)) return false;
+        ByteBuffer frame = frames[index(tick)];
+        target.load(frame.rewind());
+        return true;
+    }
+
+    /**
+     * Checks whether this buffer holds a snapshot of the given tick.
+     *
+     * @param tick The tick to check.
+     * @return True if and only if the tick can be restored.
+     */
+    public boolean contains (long tick) {
+        return tick >= 0 && ticks[index(tick)] == tick;
+    }
+
+    /**
+     * Accessor method for the number of ticks this buffer keeps.
+     *
+     * @return The number of frames in the ring.
+     */
+    public int getFrames () {
+        return frames.length;
+    }
+
+    /**
+     * Forgets every snapshot. Buffers are kept to be reused.
+     */
+    public void clear () {
+        Arrays.fill(ticks, -1);
+    }
+
+    /**
+     * Finds the frame a tick is stored in.
+     *
+     * @param tick The tick to find the frame of.
+     * @return The index of the frame.
+     */
+    private int index (long tick) {
+        return (int) Math.floorMod(tick, (long) frames.length);
+    }
+}
@@ -0,0 +1,34 @@
+package suga.engine.snapshot;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A Saveable object can write its state into a snapshot and later read it back. State is packed as primitives directly
+ * into a ByteBuffer, so saving never allocates and loading only allocates to create objects which no longer exist.
+ *
+ * @author Sugaku
+ */
+public interface Saveable {
+
+    /**
+     * Writes the state of this object into the given buffer at its current position.
+     *
+     * @param buffer The buffer to write to. Must have at least {@link #getSaveSize()} bytes remaining.
+     */
+    void save (ByteBuffer buffer);
+
+    /**
+     * Reads the state of this object from the given buffer at its current position. Should read exactly what
+     * {@link #save(ByteBuffer)} wrote, reusing existing objects where possible.
+     *
+     * @param buffer The buffer to read from.
+     */
+    void load (ByteBuffer buffer);
+
+    /**
+     * Accessor method for the number of bytes {@link #save(ByteBuffer)} would currently write.
+     *
+     * @return The size of this object's saved state in bytes.
+     */
+    int getSaveSize ();
+}
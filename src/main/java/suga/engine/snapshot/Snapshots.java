@@ -0,0 +1,113 @@
+package suga.engine.snapshot;
+
+import suga.engine.physics.Vector;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A collection of static methods used to pack common values into snapshots.
+ *
+ * @author Sugaku
+ */
+public final class Snapshots {
+
+    /**
+     * The number of bytes a vector takes in a snapshot.
+     */
+    public static final int VECTOR_SIZE = 3 * Double.BYTES;
+
+    /**
+     * Snapshots is a collection of static methods and should not be instantiated.
+     */
+    private Snapshots () {
+
+    }
+
+    /**
+     * Writes the given vector into the buffer.
+     *
+     * @param buffer The buffer to write to.
+     * @param vector The vector to write.
+     */
+    public static void putVector (ByteBuffer buffer, Vector vector) {
+        buffer.putDouble(vector.getX()).putDouble(vector.getY()).putDouble(vector.getZ());
+    }
+
+    /**
+     * Reads a vector from the buffer into the given vector.
+     *
+     * @param buffer The buffer to read from.
+     * @param vector The vector to update in place.
+     */
+    public static void getVector (ByteBuffer buffer, Vector vector) {
+        vector.setX(buffer.getDouble());
+        vector.setY(buffer.getDouble());
+        vector.setZ(buffer.getDouble());
+    }
+
+    /**
+     * Writes the given string into the buffer as its length followed by its chars. Null is written as a length of -1.
+     *
+     * @param buffer The buffer to write to.
+     * @param string The string to write. May be null.
+     */
+    public static void putString (ByteBuffer buffer, String string) {
+        if (string == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(string.length());
+        for (int i = 0; i < string.length(); i++) buffer.putChar(string.charAt(i));
+    }
+
+    /**
+     * Reads a string written by {@link #putString(ByteBuffer, String)}.
+     *
+     * @param buffer The buffer to read from.
+     * @return The string that was read. May be null.
+     */
+    public static String getString (ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) chars[i] = buffer.getChar();
+        return new String(chars);
+    }
+
+    /**
+     * Checks whether the string at the current position of the buffer is the given string without reading it.
+     *
+     * @param buffer The buffer to check.
+     * @param string The string to compare against. May be null.
+     * @return True if and only if the next string in the buffer is equal to the given string.
+     */
+    public static boolean matchesString (ByteBuffer buffer, String string) {
+        int pos = buffer.position();
+        int length = buffer.getInt(pos);
+        if (string == null || length < 0) return string == null && length < 0;
+        if (length != string.length()) return false;
+        for (int i = 0; i < length; i++)
+            if (buffer.getChar(pos + Integer.BYTES + i * Character.BYTES) != string.charAt(i)) return false;
+        return true;
+    }
+
+    /**
+     * Moves the position of the buffer past the next string.
+     *
+     * @param buffer The buffer to skip a string in.
+     */
+    public static void skipString (ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length > 0) buffer.position(buffer.position() + length * Character.BYTES);
+    }
+
+    /**
+     * Finds the number of bytes the given string takes in a snapshot.
+     *
+     * @param string The string to measure. May be null.
+     * @return The size of the string in bytes.
+     */
+    public static int stringSize (String string) {
+        return Integer.BYTES + (string == null ? 0 : string.length() * Character.BYTES);
+    }
+}
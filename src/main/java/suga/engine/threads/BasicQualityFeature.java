@@ -0,0 +1,86 @@
+package suga.engine.threads;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A basic implementation of a quality feature which passes each new level to a callback.
+ *
+ * @author Sugaku
+ */
+public class BasicQualityFeature implements QualityFeature {
+
+    /**
+     * The name of this feature.
+     */
+    protected final String name;
+
+    /**
+     * The highest quality level of this feature.
+     */
+    protected final int maxLevel;
+
+    /**
+     * Called with each new level.
+     */
+    protected final IntConsumer apply;
+
+    /**
+     * The current quality level of this feature.
+     */
+    protected volatile int level;
+
+    /**
+     * Creates a new BasicQualityFeature starting at its highest level.
+     *
+     * @param name     The name of the feature.
+     * @param maxLevel The highest quality level.
+     * @param apply    Called with each new level, including the starting one.
+     */
+    public BasicQualityFeature (String name, int maxLevel, IntConsumer apply) {
+        this.name = name;
+        this.maxLevel = maxLevel;
+        this.apply = apply;
+        setLevel(maxLevel);
+    }
+
+    /**
+     * Accessor method for the name of this feature, used when logging changes.
+     *
+     * @return The name of the feature.
+     */
+    @Override
+    public String getName () {
+        return name;
+    }
+
+    /**
+     * Accessor method for the highest quality level of this feature.
+     *
+     * @return The highest level.
+     */
+    @Override
+    public int getMaxLevel () {
+        return maxLevel;
+    }
+
+    /**
+     * Accessor method for the current quality level of this feature.
+     *
+     * @return The current level, from 0 to the highest level.
+     */
+    @Override
+    public int getLevel () {
+        return level;
+    }
+
+    /**
+     * Changes the quality level of this feature and passes it to the callback.
+     *
+     * @param level The new level. Clamped from 0 to the highest level.
+     */
+    @Override
+    public void setLevel (int level) {
+        this.level = Math.max(0, Math.min(maxLevel, level));
+        apply.accept(this.level);
+    }
+}
@@ -0,0 +1,203 @@
+package suga.engine.threads;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A FramePacer holds a loop to a fixed rate using {@link System#nanoTime()}. Each wait parks the thread until shortly
+ * before the next deadline and then spins the rest of the way, since parking alone can overshoot by a millisecond or
+ * more depending on the operating system. Deadlines are a fixed period apart rather than a period after the previous
+ * frame finished, so frame times don't drift. What happens when the loop falls behind depends on the {@link Policy}.
+ *
+ * @author Sugaku
+ */
+public class FramePacer {
+
+    /**
+     * What a FramePacer does once the loop has missed one or more deadlines.
+     *
+     * @author Sugaku
+     */
+    public enum Policy {
+
+        /**
+         * Runs the missed frames back to back without waiting until the loop is on schedule again. Suited to game
+         * logic, where every tick should run. Falling too far behind still drops the backlog.
+         */
+        CATCH_UP,
+
+        /**
+         * Skips the missed frames and waits for the next deadline still ahead. Suited to drawing, where a late frame
+         * is worthless.
+         */
+        DROP
+    }
+
+    /**
+     * How long before a deadline to stop parking and start spinning, in nanoseconds.
+     */
+    public static final long DEFAULT_SPIN = 1_500_000;
+
+    /**
+     * The most frames the {@link Policy#CATCH_UP} policy will run back to back before dropping the rest.
+     */
+    public static final int MAX_CATCH_UP = 5;
+
+    /**
+     * What to do once the loop has missed deadlines.
+     */
+    protected volatile Policy policy;
+
+    /**
+     * The time between deadlines in nanoseconds.
+     */
+    protected volatile long period;
+
+    /**
+     * How long before a deadline to stop parking and start spinning, in nanoseconds.
+     */
+    protected volatile long spin = DEFAULT_SPIN;
+
+    /**
+     * The next deadline. Only valid when {@link #started} is true.
+     */
+    protected long next = 0;
+
+    /**
+     * Whether the first deadline has been set.
+     */
+    protected boolean started = false;
+
+    /**
+     * The number of deadlines that were skipped rather than run.
+     */
+    protected volatile long dropped = 0;
+
+    /**
+     * Whether the current or next call to {@link #await()} should return early.
+     */
+    protected volatile boolean woken = false;
+
+    /**
+     * Creates a new FramePacer.
+     *
+     * @param rate   The number of frames per second.
+     * @param policy What to do once the loop has missed deadlines.
+     */
+    public FramePacer (double rate, Policy policy) {
+        setRate(rate);
+        this.policy = policy;
+    }
+
+    /**
+     * Waits until the next deadline. The first call returns right away and sets the deadlines that follow. Returns
+     * early if the calling thread is interrupted or {@link #wake(Thread)} is called. The interrupt is cleared, so the
+     * caller should check whether it was asked to stop or pause rather than relying on the flag, and later calls wait
+     * again rather than returning at once.
+     *
+     * @return How late this frame is starting, in nanoseconds.
+     */
+    public long await () {
+        long now = System.nanoTime();
+        if (!started) {
+            started = true;
+            next = now + period;
+            return 0;
+        }
+        long remaining;
+        boolean interrupted = Thread.interrupted();
+        while ((remaining = next - now) > spin && !woken && !interrupted) {
+            LockSupport.parkNanos(remaining - spin);
+            now = System.nanoTime();
+            interrupted = Thread.interrupted();
+        }
+        while (next - now > 0 && !woken && !interrupted) {
+            Thread.onSpinWait();
+            now = System.nanoTime();
+            interrupted = Thread.interrupted();
+        }
+        woken = false;
+        long late = Math.max(0, now - next);
+        long missed = late / period;
+        if (missed > 0 && (policy == Policy.DROP || missed >= MAX_CATCH_UP)) {
+            dropped += missed;
+            next += missed * period;
+        }
+        next += period;
+        return late;
+    }
+
+    /**
+     * Makes the current, or next, call to {@link #await()} return right away. Used to stop a slow loop promptly without
+     * interrupting it.
+     *
+     * @param waiter The thread which calls {@link #await()}, unparked if it's waiting.
+     */
+    public void wake (Thread waiter) {
+        woken = true;
+        LockSupport.unpark(waiter);
+    }
+
+    /**
+     * Forgets the current schedule so the next call to {@link #await()} returns right away and starts a new one. Should
+     * be called after the loop stops waiting for a while, so it doesn't try to catch up afterwards.
+     */
+    public void reset () {
+        started = false;
+    }
+
+    /**
+     * Sets the number of frames per second. Takes effect after the next deadline.
+     *
+     * @param rate The number of frames per second.
+     */
+    public void setRate (double rate) {
+        if (rate <= 0) throw new IllegalArgumentException("Rate must be positive!");
+        period = Math.max(1, Math.round(1_000_000_000.0 / rate));
+    }
+
+    /**
+     * Accessor method for the time between deadlines.
+     *
+     * @return The period in nanoseconds.
+     */
+    public long getPeriod () {
+        return period;
+    }
+
+    /**
+     * Sets what to do once the loop has missed deadlines.
+     *
+     * @param policy The new policy.
+     */
+    public void setPolicy (Policy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Accessor method for what is done once the loop has missed deadlines.
+     *
+     * @return The current policy.
+     */
+    public Policy getPolicy () {
+        return policy;
+    }
+
+    /**
+     * Sets how long before each deadline to stop parking and start spinning. Longer spins are more precise but use
+     * more processor time.
+     *
+     * @param nanos The spin time in nanoseconds.
+     */
+    public void setSpin (long nanos) {
+        spin = Math.max(0, nanos);
+    }
+
+    /**
+     * Accessor method for the number of deadlines that were skipped rather than run.
+     *
+     * @return The number of dropped frames.
+     */
+    public long getDropped () {
+        return dropped;
+    }
+}
@@ -0,0 +1,235 @@
+package suga.engine.threads;
+
+import java.util.Arrays;
+
+/**
+ * FrameStatistics keeps the durations of the most recent frames, or ticks, and reports percentiles over them. Samples
+ * are counted in a log-linear histogram, with 32 buckets between each power of two, so recording a sample and reading
+ * a percentile never sort anything and stay within about 3% of the true value. Once the window is full the oldest
+ * sample leaves the histogram as each new one enters, so the statistics follow recent stutter rather than the lifetime
+ * average. Safe to read from any thread while the owning thread records.
+ *
+ * @author Sugaku
+ */
+public class FrameStatistics {
+
+    /**
+     * A summary of the samples in the window at one moment. Durations are in nanoseconds.
+     *
+     * @param count  The number of samples in the window.
+     * @param p50    The median duration.
+     * @param p95    The 95th percentile duration.
+     * @param p99    The 99th percentile duration.
+     * @param max    The longest duration.
+     * @param missed The number of samples in the window which went over budget.
+     * @author Sugaku
+     */
+    public record Summary (int count, long p50, long p95, long p99, long max, int missed) { }
+
+    /**
+     * The number of samples kept by the threads of the engine.
+     */
+    public static final int DEFAULT_WINDOW = 1024;
+
+    /**
+     * The number of bits used to pick a bucket between two powers of two.
+     */
+    private static final int SUB_BITS = 5;
+
+    /**
+     * The number of buckets between two powers of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /**
+     * The number of buckets needed to hold any positive long.
+     */
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    /**
+     * The number of samples in each histogram bucket.
+     */
+    protected final int[] histogram = new int[BUCKETS];
+
+    /**
+     * The samples in the window, oldest first starting at {@link #head} once full.
+     */
+    protected final long[] samples;
+
+    /**
+     * The index the next sample is written to.
+     */
+    protected int head = 0;
+
+    /**
+     * The number of samples in the window.
+     */
+    protected int count = 0;
+
+    /**
+     * Samples longer than this many nanoseconds count as missed deadlines.
+     */
+    protected long budget;
+
+    /**
+     * The number of samples in the window which went over budget.
+     */
+    protected int missed = 0;
+
+    /**
+     * The number of samples ever recorded which went over budget.
+     */
+    protected long missedTotal = 0;
+
+    /**
+     * The number of samples ever recorded.
+     */
+    protected long recorded = 0;
+
+    /**
+     * Creates new, empty, FrameStatistics.
+     *
+     * @param window The number of recent samples to keep.
+     * @param budget Samples longer than this many nanoseconds count as missed deadlines.
+     */
+    public FrameStatistics (int window, long budget) {
+        if (window <= 0) throw new IllegalArgumentException("Window must hold at least one sample!");
+        samples = new long[window];
+        this.budget = budget;
+    }
+
+    /**
+     * Records the duration of a frame, replacing the oldest sample once the window is full.
+     *
+     * @param nanos The duration of the frame in nanoseconds.
+     */
+    public synchronized void record (long nanos) {
+        nanos = Math.max(0, nanos);
+        recorded++;
+        if (count == samples.length) {
+            long old = samples[head];
+            histogram[bucket(old)]--;
+            if (old > budget) missed--;
+        } else count++;
+        samples[head] = nanos;
+        head = (head + 1) % samples.length;
+        histogram[bucket(nanos)]++;
+        if (nanos > budget) {
+            missed++;
+            missedTotal++;
+        }
+    }
+
+    /**
+     * Finds the given percentile of the samples in the window.
+     *
+     * @param percentile The percentile to find, from 0 to 100.
+     * @return The duration at the given percentile in nanoseconds, or 0 if there are no samples.
+     */
+    public synchronized long getPercentile (double percentile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank) return value(i);
+        }
+        return value(BUCKETS - 1);
+    }
+
+    /**
+     * Accessor method for the longest sample in the window. Exact, unlike the percentiles.
+     *
+     * @return The longest duration in nanoseconds, or 0 if there are no samples.
+     */
+    public synchronized long getMax () {
+        long max = 0;
+        for (int i = 0; i < count; i++) max = Math.max(max, samples[i]);
+        return max;
+    }
+
+    /**
+     * Summarizes the samples currently in the window.
+     *
+     * @return The current summary.
+     */
+    public synchronized Summary getSummary () {
+        return new Summary(count, getPercentile(50), getPercentile(95), getPercentile(99), getMax(), missed);
+    }
+
+    /**
+     * Accessor method for the number of samples ever recorded which went over budget, including ones which have left
+     * the window.
+     *
+     * @return The total number of missed deadlines.
+     */
+    public synchronized long getMissedTotal () {
+        return missedTotal;
+    }
+
+    /**
+     * Accessor method for the number of samples ever recorded, including ones which have left the window.
+     *
+     * @return The total number of samples.
+     */
+    public synchronized long getRecorded () {
+        return recorded;
+    }
+
+    /**
+     * Accessor method for how long a sample can take before it counts as a missed deadline.
+     *
+     * @return The budget in nanoseconds.
+     */
+    public synchronized long getBudget () {
+        return budget;
+    }
+
+    /**
+     * Sets how long a sample can take before it counts as a missed deadline. Samples already in the window are counted
+     * again against the new budget.
+     *
+     * @param nanos The budget in nanoseconds.
+     */
+    public synchronized void setBudget (long nanos) {
+        budget = nanos;
+        missed = 0;
+        for (int i = 0; i < count; i++) if (samples[i] > nanos) missed++;
+    }
+
+    /**
+     * Removes every sample from the window.
+     */
+    public synchronized void clear () {
+        Arrays.fill(histogram, 0);
+        head = 0;
+        count = 0;
+        missed = 0;
+    }
+
+    /**
+     * Finds the histogram bucket holding the given value. Values below {@link #SUB_BUCKETS} * 2 each have their own
+     * bucket, above that each power of two is split into {@link #SUB_BUCKETS} equal buckets.
+     *
+     * @param value The value to find the bucket of. Must not be negative.
+     * @return The index of the bucket.
+     */
+    static int bucket (long value) {
+        if (value < SUB_BUCKETS * 2) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Finds the value a bucket represents, which is the middle of the range of values it holds.
+     *
+     * @param bucket The index of the bucket.
+     * @return The value of the bucket.
+     */
+    static long value (int bucket) {
+        if (bucket < SUB_BUCKETS * 2) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long low = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return low + ((1L << shift) >>> 1);
+    }
+}
@@ -1,8 +1,11 @@
 package suga.engine.threads;
 
+import suga.engine.Engine;
 import suga.engine.GameEngine;
 import suga.engine.game.Game;
 
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * A thread used to run game logic once every 1/60th of a second.
  *
@@ -10,15 +13,40 @@ import suga.engine.game.Game;
  */
 public class GameLogicThread extends Thread implements SugaThread {
 
+    /**
+     * The engine this thread is bound to while running.
+     */
+    protected final Engine engine;
+
     /**
      * Whether to exit the thread.
      */
-    protected boolean stopped = false;
+    protected volatile boolean stopped = false;
 
     /**
      * Whether to simulate game logic or not.
      */
-    protected boolean paused = false;
+    protected volatile boolean paused = false;
+
+    /**
+     * Whether input has arrived since this thread last processed input while paused.
+     */
+    protected volatile boolean inputPending = false;
+
+    /**
+     * Whether to run game logic as fast as possible instead of at the logic rate.
+     */
+    protected volatile boolean unthrottled = false;
+
+    /**
+     * The number of ticks run during the last full second.
+     */
+    protected volatile double ticksPerSecond = 0;
+
+    /**
+     * Lowers and restores quality features based on frame and tick times, or null if there is none.
+     */
+    protected volatile QualityGovernor governor = null;
 
     /**
      * The game that should be called once every 1/60th of a second.
@@ -26,29 +54,54 @@ public class GameLogicThread extends Thread implements SugaThread {
     private final Game game;
 
     /**
-     * A constant on how fast game logic should be called.
+     * Holds the game logic to the logic rate.
      */
-    private final int LOGIC_RATE;
+    protected final FramePacer pacer;
 
     /**
-     * Creates a new GameLogicThread.
+     * The time between the starts of recent ticks.
+     */
+    protected final FrameStatistics statistics;
+
+    /**
+     * The time spent running recent ticks. A tick misses its deadline once it takes longer than the period.
+     */
+    protected final FrameStatistics work;
+
+    /**
+     * Creates a new GameLogicThread bound to the engine of the calling thread.
      *
      * @param game The game to run.
      * @param rate How many times the logic should be run per second as a maximum.
      */
     public GameLogicThread (Game game, int rate) {
+        this(game, rate, Engine.current());
+    }
+
+    /**
+     * Creates a new GameLogicThread bound to the given engine.
+     *
+     * @param game   The game to run.
+     * @param rate   How many times the logic should be run per second as a maximum.
+     * @param engine The engine to bind this thread to while it runs.
+     */
+    public GameLogicThread (Game game, int rate, Engine engine) {
+        this.engine = engine;
         this.game = game;
-        LOGIC_RATE = rate;
+        pacer = new FramePacer(rate, FramePacer.Policy.CATCH_UP);
+        statistics = new FrameStatistics(FrameStatistics.DEFAULT_WINDOW, pacer.getPeriod() * 3 / 2);
+        work = new FrameStatistics(FrameStatistics.DEFAULT_WINDOW, pacer.getPeriod());
         game.setThread(this);
     }
 
     /**
-     * Sets whether the thread is paused or not.
+     * Sets whether the thread is paused or not. A paused thread parks until it's resumed or stopped.
      *
      * @param val Whether the thread should be paused or not.
      */
     public void setPaused (boolean val) {
         paused = val;
+        if (!val) LockSupport.unpark(this);
     }
 
     /**
@@ -61,12 +114,100 @@ public class GameLogicThread extends Thread implements SugaThread {
     }
 
     /**
-     * Sets whether the thread is stopped or not.
+     * Tells this thread that new input has arrived. A paused thread wakes up to process it, so that input such as an
+     * unpause key still works while the game is paused. Does nothing noticeable while the thread is running.
+     */
+    public void wake () {
+        inputPending = true;
+        LockSupport.unpark(this);
+    }
+
+    /**
+     * Sets whether game logic should run as fast as possible rather than at the logic rate. Useful for fast-forwarding
+     * a headless game.
+     *
+     * @param val Whether the thread should skip sleeping between ticks.
+     */
+    public void setUnthrottled (boolean val) {
+        unthrottled = val;
+    }
+
+    /**
+     * Accessor method for whether the thread is running game logic as fast as possible.
+     *
+     * @return Whether the thread skips sleeping between ticks.
+     */
+    public boolean getUnthrottled () {
+        return unthrottled;
+    }
+
+    /**
+     * Accessor method for the pacer holding game logic to the logic rate. Catches up on missed ticks by default.
+     *
+     * @return The pacer of this thread.
+     */
+    public FramePacer getPacer () {
+        return pacer;
+    }
+
+    /**
+     * Sets the governor this thread updates every tick. The governor decides for itself how often to evaluate.
+     *
+     * @param governor The governor to update, or null to stop updating one.
+     */
+    public void setGovernor (QualityGovernor governor) {
+        this.governor = governor;
+    }
+
+    /**
+     * Accessor method for the governor this thread updates every tick.
+     *
+     * @return The governor or null if there is none.
+     */
+    public QualityGovernor getGovernor () {
+        return governor;
+    }
+
+    /**
+     * Accessor method for the number of ticks achieved during the last full second.
+     *
+     * @return The measured ticks per second.
+     */
+    public double getTicksPerSecond () {
+        return ticksPerSecond;
+    }
+
+    /**
+     * Accessor method for the time between the starts of recent ticks. A tick counts as missing its deadline once it
+     * starts more than half a period late. Since missed ticks are caught up on, ticks which run slightly over the
+     * period stretch every interval without counting as missed, so use {@link #getWorkStatistics()} to find overruns.
+     *
+     * @return The tick time statistics of this thread.
+     */
+    public FrameStatistics getStatistics () {
+        return statistics;
+    }
+
+    /**
+     * Accessor method for the time spent processing input and running the game in recent ticks. A tick counts as
+     * missing its deadline once it takes longer than the period of the pacer. These are the statistics a
+     * {@link QualityGovernor} should watch.
+     *
+     * @return The tick work statistics of this thread.
+     */
+    public FrameStatistics getWorkStatistics () {
+        return work;
+    }
+
+    /**
+     * Sets whether the thread is stopped or not. Wakes the thread if it's paused or waiting for the next tick so that it
+     * exits right away. Use {@link #awaitStopped(long)} to wait for it to finish.
      *
      * @param val Whether the thread should be stopped.
      */
     public void setStopped (boolean val) {
         stopped = val;
+        if (val) pacer.wake(this);
     }
 
     /**
@@ -83,26 +224,53 @@ public class GameLogicThread extends Thread implements SugaThread {
      */
     @Override
     public void run () {
-        long lastFinished = 0;
+        Engine.bind(engine);
+        long windowStart = System.nanoTime();
+        long lastStart = windowStart;
+        int ticks = 0;
         while (!stopped) {
-            long logicTime = System.currentTimeMillis() - lastFinished;
-            if (logicTime < (1000 / LOGIC_RATE)) {
-                try {
-                    //noinspection BusyWait
-                    sleep((1000 / LOGIC_RATE) - logicTime);
-                } catch (Exception e) {
-                    GameEngine.getLogger().log(e);
-                }
+            if (paused) {
+                idle();
+                lastStart = System.nanoTime();
+                continue;
             }
-            lastFinished = System.currentTimeMillis();
+            if (unthrottled) pacer.reset();
+            else pacer.await();
+            long start = System.nanoTime();
+            statistics.record(start - lastStart);
+            lastStart = start;
+            QualityGovernor current = governor;
+            if (current != null) current.update(start);
             game.processInput();
             if (!paused) {
+                ticks++;
                 try {
                     game.loop();
                 } catch (Exception e) {
                     GameEngine.getLogger().log(e);
                 }
             }
+            long now = System.nanoTime();
+            if (work.getBudget() != pacer.getPeriod()) work.setBudget(pacer.getPeriod());
+            work.record(now - start);
+            if (now - windowStart >= 1_000_000_000L) {
+                ticksPerSecond = ticks * 1e9 / (now - windowStart);
+                windowStart = now;
+                ticks = 0;
+            }
+        }
+    }
+
+    /**
+     * Parks this thread until it's resumed, stopped or woken by input, processing any pending input before returning.
+     * The pacer is reset so that the paused time isn't caught up on once the game resumes.
+     */
+    protected void idle () {
+        if (!inputPending) LockSupport.park(this);
+        if (inputPending && !stopped) {
+            inputPending = false;
+            game.processInput();
         }
+        pacer.reset();
     }
 }
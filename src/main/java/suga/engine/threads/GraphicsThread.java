@@ -1,24 +1,33 @@
 package suga.engine.threads;
 
+import suga.engine.Engine;
 import suga.engine.GameEngine;
 import suga.engine.graphics.GraphicsPanel;
 
+import java.util.concurrent.locks.LockSupport;
+
 /**
- * A thread used to refresh the graphics of a panel as fast as possible.
+ * A thread used to refresh the graphics of a panel at the target frame rate. Each frame calls
+ * {@link GraphicsPanel#render()}, which either requests a repaint or, for active panels, draws the frame directly.
  *
  * @author Sugaku
  */
 public class GraphicsThread extends Thread implements SugaThread {
 
+    /**
+     * The engine this thread is bound to while running.
+     */
+    protected final Engine engine;
+
     /**
      * Whether to exit the thread.
      */
-    protected boolean stopped = false;
+    protected volatile boolean stopped = false;
 
     /**
      * Whether to simulate game logic or not.
      */
-    protected boolean paused = false;
+    protected volatile boolean paused = false;
 
     /**
      * The panel that should be redrawn every frame.
@@ -28,17 +37,27 @@ public class GraphicsThread extends Thread implements SugaThread {
     /**
      * The time that this graphics thread was started. Used in calculating average frame rate.
      */
-    private static long startTime = 0;
+    protected volatile long startTime = 0;
 
     /**
      * The number of frames that have been rendered since the thread started.
      */
-    private static long frames = 0;
+    protected volatile long frames = 0;
+
+    /**
+     * Holds drawing to the target frame rate.
+     */
+    protected final FramePacer pacer;
+
+    /**
+     * The time between the starts of recent frames.
+     */
+    protected final FrameStatistics statistics;
 
     /**
-     * The target frame rate for this GraphicsThread.
+     * The time spent running recent frames. A frame misses its deadline once it takes longer than the period.
      */
-    private final int FRAME_RATE;
+    protected final FrameStatistics work;
 
     /**
      * Creates a new graphics thread with the given panel.
@@ -47,18 +66,33 @@ public class GraphicsThread extends Thread implements SugaThread {
      * @param frameRate The target frequency to draw frames at.
      */
     public GraphicsThread (GraphicsPanel panel, int frameRate) {
+        this(panel, frameRate, Engine.current());
+    }
+
+    /**
+     * Creates a new graphics thread with the given panel bound to the given engine.
+     *
+     * @param panel     The panel to refresh for every frame.
+     * @param frameRate The target frequency to draw frames at.
+     * @param engine    The engine to bind this thread to while it runs.
+     */
+    public GraphicsThread (GraphicsPanel panel, int frameRate, Engine engine) {
+        this.engine = engine;
         this.panel = panel;
-        FRAME_RATE = frameRate;
+        pacer = new FramePacer(frameRate, FramePacer.Policy.DROP);
+        statistics = new FrameStatistics(FrameStatistics.DEFAULT_WINDOW, pacer.getPeriod() * 3 / 2);
+        work = new FrameStatistics(FrameStatistics.DEFAULT_WINDOW, pacer.getPeriod());
         panel.setThread(this);
     }
 
     /**
-     * Sets whether the thread is paused or not.
+     * Sets whether the thread is paused or not. A paused thread parks until it's resumed or stopped.
      *
      * @param val Whether the thread should be paused or not.
      */
     public void setPaused (boolean val) {
         paused = val;
+        if (!val) LockSupport.unpark(this);
     }
 
     /**
@@ -71,12 +105,45 @@ public class GraphicsThread extends Thread implements SugaThread {
     }
 
     /**
-     * Sets whether the thread is stopped or not.
+     * Accessor method for the pacer holding drawing to the target frame rate. Drops missed frames by default.
+     *
+     * @return The pacer of this thread.
+     */
+    public FramePacer getPacer () {
+        return pacer;
+    }
+
+    /**
+     * Accessor method for the time between the starts of recent frames. A frame counts as missing its deadline once it
+     * starts more than half a period late. Frames which run slightly over the period stretch every interval without
+     * counting as missed, so use {@link #getWorkStatistics()} to find overruns.
+     *
+     * @return The frame time statistics of this thread.
+     */
+    public FrameStatistics getStatistics () {
+        return statistics;
+    }
+
+    /**
+     * Accessor method for the time spent rendering recent frames. A frame counts as missing its deadline once it takes
+     * longer than the period of the pacer. Passive panels only request a repaint which Swing performs later, so for
+     * them this is the time taken to make the request rather than to paint, and only active panels report paint time.
+     *
+     * @return The frame work statistics of this thread.
+     */
+    public FrameStatistics getWorkStatistics () {
+        return work;
+    }
+
+    /**
+     * Sets whether the thread is stopped or not. Wakes the thread if it's paused or waiting for the next frame so that it
+     * exits right away. Use {@link #awaitStopped(long)} to wait for it to finish.
      *
      * @param val Whether the thread should be stopped.
      */
     public void setStopped (boolean val) {
         stopped = val;
+        if (val) pacer.wake(this);
     }
 
     /**
@@ -93,26 +160,27 @@ public class GraphicsThread extends Thread implements SugaThread {
      */
     @Override
     public void run () {
-        startTime = System.currentTimeMillis();
-        long lastFinished = 0;
+        Engine.bind(engine);
+        startTime = System.nanoTime();
+        long lastStart = startTime;
         while (!stopped) {
-            long drawTime = System.currentTimeMillis() - lastFinished;
-            if (drawTime < (1000 / FRAME_RATE)) {
-                try {
-                    //noinspection BusyWait
-                    sleep((int) ((1000 / FRAME_RATE) - drawTime));
-                } catch (Exception e) {
-                    GameEngine.getLogger().log(e);
-                }
+            if (paused) {
+                LockSupport.park(this);
+                pacer.reset();
+                lastStart = System.nanoTime();
+                continue;
             }
-            lastFinished = System.currentTimeMillis();
-            if (!paused) {
-                try {
-                    panel.repaint();
-                } catch (Exception e) {
-                    GameEngine.getLogger().log(e);
-                }
+            pacer.await();
+            long start = System.nanoTime();
+            statistics.record(start - lastStart);
+            lastStart = start;
+            try {
+                panel.render();
+            } catch (Exception e) {
+                GameEngine.getLogger().log(e);
             }
+            if (work.getBudget() != pacer.getPeriod()) work.setBudget(pacer.getPeriod());
+            work.record(System.nanoTime() - start);
             frames++;
         }
     }
@@ -120,9 +188,22 @@ public class GraphicsThread extends Thread implements SugaThread {
     /**
      * Returns the average frame rate while this GraphicsThread has been running.
      *
-     * @return The average frame rate of this thread since starting.
+     * @see #getStatistics()
+     * @return The average frame rate of this thread since starting, or 0 if it hasn't started.
+     */
+    public double getAverageFPS () {
+        long start = startTime;
+        return start == 0 ? 0 : (frames * 1.0) / ((System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Returns the average frame rate of the graphics thread of the default engine while it has been running.
+     *
+     * @see #getStatistics()
+     * @return The average frame rate of the default engine's graphics thread, or 0 if it has none.
      */
+    @Deprecated
     public static double getFPS () {
-        return (frames * 1.0) / ((System.currentTimeMillis() - startTime) / 1000.0);
+        return GameEngine.getDefault().getGraphicsThread() instanceof GraphicsThread thread ? thread.getAverageFPS() : 0;
     }
 }
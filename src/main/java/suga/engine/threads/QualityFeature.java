@@ -0,0 +1,39 @@
+package suga.engine.threads;
+
+/**
+ * A QualityFeature is something the engine can do less of when it is falling behind, such as updating AI less often,
+ * spawning fewer particles, drawing at a lower resolution, or running fewer physics substeps. Each feature has a number
+ * of quality levels from 0, the cheapest, up to its maximum.
+ *
+ * @author Sugaku
+ */
+public interface QualityFeature {
+
+    /**
+     * Accessor method for the name of this feature, used when logging changes.
+     *
+     * @return The name of the feature.
+     */
+    String getName ();
+
+    /**
+     * Accessor method for the highest quality level of this feature.
+     *
+     * @return The highest level.
+     */
+    int getMaxLevel ();
+
+    /**
+     * Accessor method for the current quality level of this feature.
+     *
+     * @return The current level, from 0 to the highest level.
+     */
+    int getLevel ();
+
+    /**
+     * Changes the quality level of this feature.
+     *
+     * @param level The new level, from 0 to the highest level.
+     */
+    void setLevel (int level);
+}
@@ -0,0 +1,253 @@
+package suga.engine.threads;
+
+import suga.engine.GameEngine;
+import suga.engine.logger.Level;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A QualityGovernor keeps frame and tick times within budget by lowering the quality of registered features while the
+ * engine is falling behind, and raising it again once it keeps up. Every interval it looks at how many of the samples
+ * recorded since the last interval missed their deadline. Features are lowered one level at a time, in the order they
+ * were registered, after a few bad intervals in a row, and restored in the opposite order after a longer run of clean
+ * intervals. Each time a restore is followed by falling behind again the wait before the next restore doubles, so the
+ * governor settles instead of flipping between two levels.
+ *
+ * @author Sugaku
+ */
+public class QualityGovernor {
+
+    /**
+     * The longest the wait before restoring can grow to, in intervals.
+     */
+    public static final int MAX_RESTORE_WAIT = 64;
+
+    /**
+     * The statistics being watched.
+     */
+    protected final List<FrameStatistics> watched = new ArrayList<>();
+
+    /**
+     * The number of samples each watched statistic had recorded as of the last interval.
+     */
+    protected long[] lastRecorded = new long[0];
+
+    /**
+     * The number of missed deadlines each watched statistic had as of the last interval.
+     */
+    protected long[] lastMissed = new long[0];
+
+    /**
+     * The features which can be lowered, cheapest to lower first.
+     */
+    protected final List<QualityFeature> features = new ArrayList<>();
+
+    /**
+     * The features which were lowered, most recent first.
+     */
+    protected final Deque<QualityFeature> lowered = new ArrayDeque<>();
+
+    /**
+     * The time between evaluations in nanoseconds.
+     */
+    protected final long interval;
+
+    /**
+     * The fraction of missed deadlines above which an interval counts as falling behind.
+     */
+    protected final double threshold;
+
+    /**
+     * The number of bad intervals in a row needed to lower a feature.
+     */
+    protected final int lowerAfter;
+
+    /**
+     * The number of clean intervals in a row needed to restore a feature before any backoff.
+     */
+    protected final int restoreAfter;
+
+    /**
+     * The number of clean intervals in a row currently needed to restore a feature.
+     */
+    protected int restoreWait;
+
+    /**
+     * The number of bad intervals in a row so far.
+     */
+    protected int bad = 0;
+
+    /**
+     * The number of clean intervals in a row so far.
+     */
+    protected int clean = 0;
+
+    /**
+     * The number of intervals since the last restore, or -1 if nothing has been restored.
+     */
+    protected int sinceRestore = -1;
+
+    /**
+     * When the last interval was evaluated in nanoseconds, or 0 if none have been.
+     */
+    protected long lastEvaluation = 0;
+
+    /**
+     * Creates a new QualityGovernor which evaluates twice a second, lowers after two bad intervals where more than 5%
+     * of deadlines were missed, and restores after four clean intervals.
+     */
+    public QualityGovernor () {
+        this(500_000_000L, 0.05, 2, 4);
+    }
+
+    /**
+     * Creates a new QualityGovernor.
+     *
+     * @param interval     The time between evaluations in nanoseconds.
+     * @param threshold    The fraction of missed deadlines above which an interval counts as falling behind.
+     * @param lowerAfter   The number of bad intervals in a row needed to lower a feature.
+     * @param restoreAfter The number of clean intervals in a row needed to restore a feature.
+     */
+    public QualityGovernor (long interval, double threshold, int lowerAfter, int restoreAfter) {
+        this.interval = interval;
+        this.threshold = threshold;
+        this.lowerAfter = Math.max(1, lowerAfter);
+        this.restoreAfter = Math.max(1, restoreAfter);
+        restoreWait = this.restoreAfter;
+    }
+
+    /**
+     * Starts watching the given statistics. Deadlines missed before this call are ignored. Watch the work statistics of
+     * a thread, such as {@link GameLogicThread#getWorkStatistics()}, since small sustained overruns don't count as
+     * missed in the time between frame starts.
+     *
+     * @param statistics The frame or tick statistics to watch.
+     */
+    public synchronized void watch (FrameStatistics statistics) {
+        watched.add(statistics);
+        lastRecorded = Arrays.copyOf(lastRecorded, watched.size());
+        lastMissed = Arrays.copyOf(lastMissed, watched.size());
+        lastRecorded[watched.size() - 1] = statistics.getRecorded();
+        lastMissed[watched.size() - 1] = statistics.getMissedTotal();
+    }
+
+    /**
+     * Registers a feature which can be lowered. Features registered first are lowered first.
+     *
+     * @param feature The feature to register.
+     */
+    public synchronized void addFeature (QualityFeature feature) {
+        features.add(feature);
+    }
+
+    /**
+     * Evaluates the watched statistics if an interval has passed since the last evaluation. Cheap enough to call every
+     * tick.
+     *
+     * @return True if the quality of a feature was changed.
+     */
+    public boolean update () {
+        return update(System.nanoTime());
+    }
+
+    /**
+     * Evaluates the watched statistics if an interval has passed since the last evaluation.
+     *
+     * @param now The current time in nanoseconds.
+     * @return True if the quality of a feature was changed.
+     */
+    public synchronized boolean update (long now) {
+        if (lastEvaluation != 0 && now - lastEvaluation < interval) return false;
+        lastEvaluation = now;
+        return evaluate();
+    }
+
+    /**
+     * Evaluates the samples recorded since the last evaluation and lowers or restores a feature if needed.
+     *
+     * @return True if the quality of a feature was changed.
+     */
+    protected boolean evaluate () {
+        double worst = 0;
+        for (int i = 0; i < watched.size(); i++) {
+            FrameStatistics statistics = watched.get(i);
+            long recorded = statistics.getRecorded();
+            long missed = statistics.getMissedTotal();
+            long samples = recorded - lastRecorded[i];
+            if (samples > 0) worst = Math.max(worst, (double) (missed - lastMissed[i]) / samples);
+            lastRecorded[i] = recorded;
+            lastMissed[i] = missed;
+        }
+        if (sinceRestore >= 0) sinceRestore++;
+        if (worst > threshold) {
+            clean = 0;
+            if (++bad < lowerAfter) return false;
+            bad = 0;
+            if (sinceRestore >= 0 && sinceRestore <= restoreWait) restoreWait = Math.min(MAX_RESTORE_WAIT, restoreWait * 2);
+            sinceRestore = -1;
+            return lower();
+        }
+        bad = 0;
+        if (worst > 0) {
+            clean = 0;
+            return false;
+        }
+        if (++clean < restoreWait) return false;
+        clean = 0;
+        return restore();
+    }
+
+    /**
+     * Lowers the first registered feature which isn't already at its lowest level.
+     *
+     * @return True if a feature was lowered.
+     */
+    protected boolean lower () {
+        for (QualityFeature feature : features) {
+            if (feature.getLevel() <= 0) continue;
+            feature.setLevel(feature.getLevel() - 1);
+            lowered.push(feature);
+            GameEngine.getLogger().log("QualityGovernor: Lowered " + feature.getName() + " to level "
+                    + feature.getLevel() + ".", Level.INFO);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Restores the most recently lowered feature by one level.
+     *
+     * @return True if a feature was restored.
+     */
+    protected boolean restore () {
+        QualityFeature feature = lowered.poll();
+        if (feature == null) return false;
+        feature.setLevel(Math.min(feature.getMaxLevel(), feature.getLevel() + 1));
+        sinceRestore = 0;
+        GameEngine.getLogger().log("QualityGovernor: Restored " + feature.getName() + " to level "
+                + feature.getLevel() + ".", Level.INFO);
+        return true;
+    }
+
+    /**
+     * Accessor method for the number of clean intervals in a row currently needed to restore a feature.
+     *
+     * @return The current restore wait in intervals.
+     */
+    public synchronized int getRestoreWait () {
+        return restoreWait;
+    }
+
+    /**
+     * Accessor method for the number of levels currently lowered across every feature.
+     *
+     * @return The number of lowered levels.
+     */
+    public synchronized int getLowered () {
+        return lowered.size();
+    }
+}
@@ -2,7 +2,8 @@ package suga.engine.threads;
 
 /**
  * A thread in the SugaEngine is no different from a normal thread except that it has built in pause and stop values.
- * These can be set by calling the appropriate methods.
+ * These can be set by calling the appropriate methods. Paused threads should block rather than poll, so a paused game
+ * doesn't use any CPU, and wake up as soon as they're resumed or stopped.
  *
  * @author Sugaku
  */
@@ -40,4 +41,20 @@ public interface SugaThread extends Runnable {
      * Starts this thread. Should be implemented by extending {@link Thread}.
      */
     void start ();
+
+    /**
+     * Waits for this thread to finish after it has been stopped. Threads which extend {@link Thread} are joined, other
+     * implementations are considered finished as soon as they're stopped.
+     *
+     * @param timeoutMillis The longest time to wait, in milliseconds.
+     * @return True if the thread has finished. False if it's still running once the timeout elapses, or if a thread
+     *         tries to wait for itself.
+     * @throws InterruptedException If the waiting thread is interrupted.
+     */
+    default boolean awaitStopped (long timeoutMillis) throws InterruptedException {
+        if (!(this instanceof Thread thread)) return getStopped();
+        if (thread == Thread.currentThread()) return false;
+        thread.join(Math.max(1, timeoutMillis));
+        return !thread.isAlive();
+    }
 }
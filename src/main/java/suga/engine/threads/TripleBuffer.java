@@ -0,0 +1,91 @@
+package suga.engine.threads;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A TripleBuffer hands values from one writing thread to one reading thread without either ever waiting on the other.
+ * The writer fills its back buffer and publishes it, the reader takes the most recently published buffer as its front
+ * buffer, and the third buffer sits between them. Publishing and acquiring each swap a buffer with the middle one using
+ * a single atomic operation, so the writer never touches the buffer being read and the reader always sees a buffer
+ * that was completely written.
+ *
+ * @param <T> The type of value being handed over.
+ * @author Sugaku
+ */
+public class TripleBuffer<T> {
+
+    /**
+     * Set in {@link #middle} when the middle buffer was published and hasn't been acquired yet.
+     */
+    private static final int FRESH = 4;
+
+    /**
+     * The three buffers.
+     */
+    protected final Object[] buffers = new Object[3];
+
+    /**
+     * The index of the middle buffer, combined with {@link #FRESH} when it holds a newly published value.
+     */
+    protected final AtomicInteger middle = new AtomicInteger(1);
+
+    /**
+     * The index of the buffer the writer is filling. Only used by the writing thread.
+     */
+    protected int back = 0;
+
+    /**
+     * The index of the buffer the reader is reading. Only used by the reading thread.
+     */
+    protected int front = 2;
+
+    /**
+     * Creates a new TripleBuffer filled by the given factory.
+     *
+     * @param factory Creates each of the three buffers.
+     */
+    public TripleBuffer (Supplier<T> factory) {
+        for (int i = 0; i < 3; i++) buffers[i] = factory.get();
+    }
+
+    /**
+     * Accessor method for the buffer the writer should fill next. Must only be called by the writing thread.
+     *
+     * @return The back buffer.
+     */
+    @SuppressWarnings("unchecked")
+    public T getBack () {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Publishes the back buffer so the reader picks it up on its next acquire. The writer is given a new back buffer,
+     * which holds stale contents. Must only be called by the writing thread.
+     */
+    public void publish () {
+        back = middle.getAndSet(back | FRESH) & ~FRESH;
+    }
+
+    /**
+     * Takes the most recently published buffer if one was published since the last acquire, otherwise keeps the
+     * current one. Must only be called by the reading thread.
+     *
+     * @return The front buffer.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire () {
+        if ((middle.get() & FRESH) != 0) front = middle.getAndSet(front) & ~FRESH;
+        return (T) buffers[front];
+    }
+
+    /**
+     * Accessor method for the buffer returned by the last acquire. Must only be called by the reading thread.
+     *
+     * @return The front buffer.
+     */
+    @SuppressWarnings("unchecked")
+    public T getFront () {
+        return (T) buffers[front];
+    }
+}
@@ -0,0 +1,73 @@
+package suga.engine;
+
+import org.junit.jupiter.api.Test;
+import suga.engine.game.BasicGame;
+import suga.engine.logger.Logger;
+import suga.engine.threads.SugaThread;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the Engine.
+ *
+ * @author Sugaku
+ */
+class EngineTest {
+
+    /**
+     * Threads which aren't bound to an engine should use the default engine.
+     */
+    @Test
+    void current () {
+        assertSame(GameEngine.getDefault(), Engine.current(), "Unbound threads should use the default engine.");
+        Engine engine = new Engine(mock(Logger.class));
+        Engine.bind(engine);
+        try {
+            assertSame(engine, Engine.current(), "The bound engine should be current.");
+            assertSame(engine.getLogger(), GameEngine.getLogger(), "The static logger should be the bound engine's.");
+        } finally {
+            Engine.bind(null);
+        }
+        assertSame(GameEngine.getDefault(), Engine.current(), "Unbinding should restore the default engine.");
+    }
+
+    /**
+     * Several headless engines should run their own games at the same time, each logging to its own logger.
+     */
+    @Test
+    void independentEngines () throws InterruptedException {
+        int count = 4;
+        CountDownLatch ticked = new CountDownLatch(count);
+        Engine[] engines = new Engine[count];
+        Logger[] loggers = new Logger[count];
+        for (int i = 0; i < count; i++) {
+            loggers[i] = mock(Logger.class);
+            engines[i] = new Engine(loggers[i]);
+            Logger expected = loggers[i];
+            AtomicBoolean first = new AtomicBoolean(true);
+            engines[i].launchHeadless(new BasicGame() {
+                @Override
+                public void loop () {
+                    if (GameEngine.getLogger() == expected && first.getAndSet(false)) ticked.countDown();
+                    super.loop();
+                }
+            }, 1000);
+        }
+        try {
+            assertTrue(ticked.await(5, TimeUnit.SECONDS), "Every game should tick with its own engine bound.");
+        } finally {
+            for (Engine engine : engines) engine.stop();
+        }
+        for (int i = 0; i < count; i++) {
+            SugaThread logic = engines[i].getLogicThread();
+            assertTrue(logic.getStopped(), "Stopping an engine should stop its logic thread.");
+            for (int j = 0; j < i; j++)
+                assertNotSame(engines[j].getGame(), engines[i].getGame(), "Each engine should have its own game.");
+        }
+    }
+}
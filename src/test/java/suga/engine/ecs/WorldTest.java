@@ -0,0 +1,133 @@
+package suga.engine.ecs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the entity component World.
+ *
+ * @author Sugaku
+ */
+class WorldTest {
+
+    /**
+     * The world being used in each test.
+     */
+    private World world;
+
+    /**
+     * Resets the world before each unit test runs.
+     */
+    @BeforeEach
+    void setUp () {
+        world = new World();
+    }
+
+    /**
+     * Entities should keep their own components even as other entities are destroyed around them.
+     */
+    @Test
+    void createAndDestroy () {
+        int a = world.create(ComponentType.POSITION);
+        int b = world.create(ComponentType.POSITION);
+        int c = world.create(ComponentType.POSITION);
+        world.set(a, ComponentType.POSITION, 1, 1, 1);
+        world.set(b, ComponentType.POSITION, 2, 2, 2);
+        world.set(c, ComponentType.POSITION, 3, 3, 3);
+        world.destroy(a);
+        assertFalse(world.isAlive(a), "Destroyed entities should no longer exist.");
+        assertEquals(2, world.size(), "Only two entities should remain.");
+        assertEquals(2, world.get(b, ComponentType.POSITION, 0), "Destroying an entity shouldn't change another.");
+        assertEquals(3, world.get(c, ComponentType.POSITION, 2), "Destroying an entity shouldn't change another.");
+        int d = world.create(ComponentType.POSITION);
+        assertEquals(0, world.get(d, ComponentType.POSITION, 1), "New entities should start zeroed.");
+        assertEquals(World.index(a), World.index(d), "The index of a destroyed entity should be reused.");
+        assertFalse(world.isAlive(a), "Ids of destroyed entities shouldn't refer to the entity reusing their index.");
+        assertFalse(world.has(a, ComponentType.POSITION), "Ids of destroyed entities shouldn't see new components.");
+        world.destroy(a);
+        assertTrue(world.isAlive(d), "Destroying a stale id shouldn't destroy the entity reusing its index.");
+    }
+
+    /**
+     * Adding and removing components should keep the values of the components that remain.
+     */
+    @Test
+    void addAndRemoveComponent () {
+        int e = world.create(ComponentType.POSITION);
+        world.set(e, ComponentType.POSITION, 4, 5, 6);
+        world.addComponent(e, ComponentType.VELOCITY);
+        assertTrue(world.has(e, ComponentType.VELOCITY), "Entity should now have a velocity.");
+        assertEquals(5, world.get(e, ComponentType.POSITION, 1), "Position should be kept when moving archetype.");
+        world.removeComponent(e, ComponentType.POSITION);
+        assertFalse(world.has(e, ComponentType.POSITION), "Entity should no longer have a position.");
+        assertThrows(IllegalArgumentException.class, () -> world.get(e, ComponentType.POSITION, 0));
+    }
+
+    /**
+     * The MotionSystem should only move entities with both a position and velocity.
+     */
+    @Test
+    void update () {
+        world.addSystem(new MotionSystem());
+        int moving = world.create(ComponentType.POSITION, ComponentType.VELOCITY, ComponentType.ACCELERATION);
+        int still = world.create(ComponentType.POSITION);
+        world.set(moving, ComponentType.VELOCITY, 1, 2, 0);
+        world.set(moving, ComponentType.ACCELERATION, 0, 1, 0);
+        world.set(still, ComponentType.POSITION, 7, 7, 7);
+        world.update();
+        world.update();
+        assertEquals(2, world.get(moving, ComponentType.POSITION, 0), "Velocity should be added to position.");
+        assertEquals(5, world.get(moving, ComponentType.POSITION, 1), "Acceleration should be added to velocity.");
+        assertEquals(7, world.get(still, ComponentType.POSITION, 0), "Entities without velocity shouldn't move.");
+    }
+
+    /**
+     * Clearing a world should destroy every entity but keep its systems running over new entities.
+     */
+    @Test
+    void clear () {
+        world.addSystem(new MotionSystem());
+        int old = world.create(ComponentType.POSITION, ComponentType.VELOCITY);
+        world.clear();
+        assertFalse(world.isAlive(old), "Cleared entities should no longer exist.");
+        assertEquals(0, world.size(), "A cleared world should be empty.");
+        int e = world.create(ComponentType.POSITION, ComponentType.VELOCITY);
+        world.set(e, ComponentType.VELOCITY, 3, 0, 0);
+        world.update();
+        assertEquals(3, world.get(e, ComponentType.POSITION, 0), "Systems should still run after a clear.");
+    }
+
+    /**
+     * Loading a saved world should restore every entity and component, even after entities were created, changed, and
+     * destroyed.
+     */
+    @Test
+    void saveAndLoad () {
+        int count = 50_000;
+        for (int i = 0; i < count; i++) {
+            int e = world.create(ComponentType.POSITION, ComponentType.VELOCITY);
+            world.set(e, ComponentType.POSITION, i, 2 * i, 3 * i);
+        }
+        int lone = world.create(ComponentType.POSITION);
+        world.destroy(5);
+        ByteBuffer buffer = ByteBuffer.allocate(world.getSaveSize());
+        world.save(buffer);
+        assertEquals(buffer.capacity(), buffer.position(), "The world should write exactly its save size.");
+        world.set(7, ComponentType.POSITION, 0, -1);
+        world.destroy(lone);
+        world.create(ComponentType.VELOCITY);
+        world.load(buffer.flip());
+        assertEquals(count, world.size(), "The number of entities should be restored.");
+        assertFalse(world.isAlive(5), "Destroyed entities should stay destroyed.");
+        assertTrue(world.isAlive(lone), "Entities destroyed after saving should be restored.");
+        assertEquals(7, world.get(7, ComponentType.POSITION, 0), "Component values should be restored.");
+        assertEquals(3 * (count - 1), world.get(count - 1, ComponentType.POSITION, 2), "Component values should be restored.");
+        int reused = world.create(ComponentType.POSITION);
+        assertEquals(5, World.index(reused), "Free entity indexes should be restored.");
+        assertFalse(world.isAlive(5), "A reused index should be given a new id.");
+    }
+}
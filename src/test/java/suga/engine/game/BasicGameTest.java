@@ -2,15 +2,26 @@ package suga.engine.game;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import suga.engine.ecs.ComponentType;
 import suga.engine.game.objects.AIAgent;
+import suga.engine.game.objects.BasicGameObject;
 import suga.engine.game.objects.GameObject;
+import suga.engine.graphics.DrawListener;
+import suga.engine.graphics.Graphics2d;
 import suga.engine.graphics.GraphicsPanel;
+import suga.engine.graphics.RenderState;
 import suga.engine.input.mouse.BasicMouseListener;
 import suga.engine.physics.BasicPhysicsEngine;
 import suga.engine.input.keyboard.GameKeyListener;
 import suga.engine.physics.PhysicsEngine;
+import suga.engine.physics.Vector;
+import suga.engine.physics.collidables.Collidable;
+import suga.engine.physics.collidables.ElasticCollider;
+import suga.engine.physics.hitboxes.SquareHitBox;
 import suga.engine.threads.SugaThread;
 
+import java.awt.Point;
+import java.nio.ByteBuffer;
 import java.util.Stack;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,6 +53,80 @@ class BasicGameTest {
         game = new BasicGame(panel, mock(GameKeyListener.class), mock(BasicMouseListener.class));
     }
 
+    /**
+     * Each tick should publish the positions of physical objects for the drawing thread, which keeps its copy until it
+     * acquires a newer one, along with the positions of the tick before for interpolation.
+     */
+    @Test
+    void renderState () {
+        Collidable collider = mock(Collidable.class);
+        Vector pos = new Vector(1, 2, 3);
+        when(collider.getPos()).thenReturn(pos);
+        GameObject object = mock(GameObject.class);
+        when(object.getCollider()).thenReturn(collider);
+        long handle = game.addGameObject(object);
+        game.addGameObject(mock(GameObject.class));
+        game.loop();
+        RenderState state = game.renderStates.acquire();
+        assertEquals(1, state.size());
+        int row = state.indexOf(handle, GameObjectTable.slot(handle));
+        Vector drawn = new Vector();
+        state.getPosition(row, drawn);
+        assertEquals(2, drawn.getY());
+        pos.setY(5);
+        state.getPosition(row, drawn);
+        assertEquals(2, drawn.getY());
+        game.loop();
+        state = game.renderStates.acquire();
+        row = state.indexOf(handle, GameObjectTable.slot(handle));
+        state.getPosition(row, drawn);
+        assertEquals(5, drawn.getY());
+        state.interpolate(row, 0.5, drawn);
+        assertEquals(3.5, drawn.getY());
+        state.setTiming(1_000, 100);
+        assertEquals(0, state.getAlpha(900));
+        assertEquals(0.25, state.getAlpha(1_025));
+        assertEquals(1, state.getAlpha(5_000));
+    }
+
+    /**
+     * Objects moved by the physics engine should be picked at their new position after the tick.
+     */
+    @Test
+    void pickMoved () {
+        game.setPanel(null);
+        Vector pos = new Vector(0, 0, 0);
+        ElasticCollider collider = new ElasticCollider(pos, new Vector(50, 0, 0), Vector.ZERO, 1, new SquareHitBox(10, 10, pos));
+        collider.getHitBox().setPos(collider.getPos());
+        GameObject object = mock(GameObject.class);
+        when(object.getCollider()).thenReturn(collider);
+        game.addGameObject(object);
+        assertSame(object, game.pick(new Point(0, 0)));
+        game.loop();
+        assertNull(game.pick(new Point(0, 0)), "The object should have moved away.");
+        assertSame(object, game.pick(new Point(50, 0)), "The object should be found where physics moved it.");
+    }
+
+    /**
+     * Objects moved by their own logic should be picked at their new position after the tick, without being marked.
+     */
+    @Test
+    void pickLogicMoved () {
+        game.setPanel(null);
+        BasicGameObject object = new BasicGameObject() {
+            @Override
+            public void runLogic () {
+                setPos(new Vector(200, 0, 0));
+            }
+        };
+        object.setCollider(new ElasticCollider(new Vector(), Vector.ZERO, Vector.ZERO, 1, new SquareHitBox(10, 10)));
+        game.addGameObject(object);
+        assertSame(object, game.pick(new Point(0, 0)));
+        game.loop();
+        assertNull(game.pick(new Point(0, 0)), "The object should have moved away.");
+        assertSame(object, game.pick(new Point(200, 0)), "The object should be found where its logic moved it.");
+    }
+
     /**
      * Tests the setThread() method on Game. Expected behavior is that setting a thread will overwrite the current thread.
      */
@@ -102,6 +187,127 @@ class BasicGameTest {
         verify(game.physics, times(1)).checkCollisions();
     }
 
+    /**
+     * A game without a panel or input listeners should still be able to add, run, and remove objects that draw.
+     */
+    @Test
+    void headless () {
+        BasicGame headless = new BasicGame();
+        headless.loadedScene = mock(Scene.class);
+        BasicGameObject object = spy(new BasicGameObject());
+        long handle = headless.addGameObject(object);
+        headless.processInput();
+        headless.loop();
+        verify(object, times(1)).runLogic();
+        assertTrue(headless.removeGameObject(handle), "Removing an object without a panel should succeed.");
+    }
+
+    /**
+     * Loading a snapshot should restore saved objects in place and remove objects added after it was taken.
+     */
+    @Test
+    void snapshot () {
+        game.setPanel(null);
+        BasicGameObject saved = new BasicGameObject();
+        long savedHandle = game.addGameObject("saved", saved, DrawListener.Priorities.FOREGROUND);
+        saved.getPos().setX(10);
+        game.loop();
+        ByteBuffer buffer = ByteBuffer.allocate(game.getSaveSize());
+        game.save(buffer);
+        assertEquals(buffer.capacity(), buffer.position(), "The game should write exactly its save size.");
+        saved.getPos().setX(-3);
+        saved.setMass(9);
+        long added = game.addGameObject(mock(GameObject.class));
+        game.loop();
+        game.load(buffer.flip());
+        assertEquals(1, game.getTick(), "The tick should be restored.");
+        assertSame(saved, game.getGameObject(savedHandle), "Saved objects should keep their handle.");
+        assertEquals(10, saved.getPos().getX(), "Saved positions should be restored.");
+        assertEquals(1, saved.getMass(), "Saved mass should be restored.");
+        assertNull(game.getGameObject(added), "Objects added after the snapshot should be removed.");
+    }
+
+    /**
+     * Loading a snapshot should recreate removed objects of registered types with their handle and name, in the order
+     * they were saved in, including into a game which never had them.
+     */
+    @Test
+    void snapshotRecreate () {
+        game.setPanel(null);
+        game.registerType(BasicGameObject.class, BasicGameObject::new);
+        BasicGameObject first = new BasicGameObject();
+        long firstHandle = game.addGameObject("first", first, DrawListener.Priorities.FOREGROUND);
+        first.getPos().setX(4);
+        long secondHandle = game.addGameObject(new BasicGameObject());
+        game.loop();
+        ByteBuffer buffer = ByteBuffer.allocate(game.getSaveSize());
+        game.save(buffer);
+        game.removeGameObject(firstHandle);
+        game.loop();
+        assertEquals(-1, game.getLastRemoval(), "Removing a registered type shouldn't block loading older snapshots.");
+        game.load(buffer.flip());
+        GameObject recreated = game.getGameObject(firstHandle);
+        assertNotNull(recreated, "Removed objects should be recreated.");
+        assertNotSame(first, recreated, "Recreated objects should come from the factory.");
+        assertEquals(4, ((BasicGameObject) recreated).getPos().getX(), "Recreated objects should have their saved state.");
+        assertSame(recreated, game.getGameObject("first"), "Recreated objects should keep their name.");
+        assertEquals(firstHandle, game.getObjects().handleAt(0), "Objects should be left in the order they were saved.");
+        BasicGame fresh = new BasicGame(null, mock(GameKeyListener.class), mock(BasicMouseListener.class));
+        fresh.registerType(BasicGameObject.class, BasicGameObject::new);
+        fresh.load(buffer.rewind());
+        assertEquals(2, fresh.getObjects().size(), "Every saved object should be recreated.");
+        assertNotNull(fresh.getGameObject(secondHandle), "Recreated objects should keep their handle.");
+        assertNotEquals(firstHandle, fresh.addGameObject(new BasicGameObject()), "Recreated handles shouldn't be reused.");
+    }
+
+    /**
+     * Loading a snapshot taken before any scene was loaded should unload the current scene.
+     */
+    @Test
+    void snapshotWithoutScene () {
+        game.setPanel(null);
+        ByteBuffer buffer = ByteBuffer.allocate(game.getSaveSize());
+        game.save(buffer);
+        game.scenes.put("level", mock(Scene.class));
+        game.loadedScene = game.scenes.get("level");
+        game.load(buffer.flip());
+        assertNull(game.loadedScene, "The snapshot had no scene loaded.");
+    }
+
+    /**
+     * Game objects should be drawn at the position published after the last tick, not at a position the logic thread
+     * has changed since.
+     */
+    @Test
+    void drawPublished () {
+        Graphics2d panel = new Graphics2d();
+        BasicGame drawn = new BasicGame(panel, mock(GameKeyListener.class), mock(BasicMouseListener.class));
+        double[] seen = { Double.NaN };
+        BasicGameObject object = new BasicGameObject() {
+            @Override
+            protected void draw (int width, int height, GraphicsPanel panel, Vector pos) {
+                seen[0] = pos.getX();
+            }
+        };
+        object.getPos().setX(1);
+        drawn.addGameObject(object);
+        panel.drawing(10, 10);
+        assertTrue(Double.isNaN(seen[0]), "Objects shouldn't be drawn before they are published.");
+        drawn.loop();
+        object.getPos().setX(5);
+        panel.drawing(10, 10);
+        assertEquals(1, seen[0], "The object should be drawn where it was when the tick ended.");
+        drawn.loop();
+        panel.drawing(10, 10);
+        assertEquals(5, seen[0], "Without a tick length the newest position should be drawn.");
+        drawn.setTickLength(60_000_000_000L);
+        drawn.loop();
+        object.getPos().setX(9);
+        drawn.loop();
+        panel.drawing(10, 10);
+        assertEquals(5, seen[0], 0.01, "Right after a publish the object should be drawn at the tick before.");
+    }
+
     /**
      * Process input should read from the mouse and keyboard listeners.
      */
@@ -141,6 +347,48 @@ class BasicGameTest {
         assertNull(game.getGameObject("not-added"), "Un-added game object should return null.");
     }
 
+    /**
+     * Removing a game object should stop its logic from being run and invalidate its handle.
+     */
+    @Test
+    void removeGameObject () {
+        GameObject o1 = mock(GameObject.class);
+        long handle = game.addGameObject("o1", o1, DrawListener.Priorities.FOREGROUND);
+        assertEquals(o1, game.getGameObject(handle), "Should be able to get added object by handle.");
+        assertTrue(game.removeGameObject(handle), "Removing an added object should succeed.");
+        assertFalse(game.removeGameObject(handle), "The handle should no longer be valid.");
+        assertNull(game.getGameObject("o1"), "Removed object should not be found by name.");
+        game.loop();
+        verify(o1, times(0)).runLogic();
+    }
+
+    /**
+     * Objects added or removed by another object during the loop should be found by handle straight away, but should
+     * only start or stop running once the loop has finished.
+     */
+    @Test
+    void deferredSpawn () {
+        GameObject spawned = mock(GameObject.class);
+        GameObject victim = mock(GameObject.class);
+        GameObject spawner = mock(GameObject.class);
+        long victimHandle = game.addGameObject("victim", victim, DrawListener.Priorities.FOREGROUND);
+        long[] spawnedHandle = new long[1];
+        doAnswer((invocation) -> {
+            spawnedHandle[0] = game.addGameObject(spawned);
+            assertEquals(spawned, game.getGameObject(spawnedHandle[0]), "Spawned objects should have a handle.");
+            assertTrue(game.removeGameObject(victimHandle), "Removing during the loop should succeed.");
+            return null;
+        }).when(spawner).runLogic();
+        game.addGameObject("spawner", spawner);
+        game.loop();
+        verify(spawned, times(0)).runLogic();
+        assertNull(game.getGameObject(victimHandle), "Removed object should be gone after the loop.");
+        doNothing().when(spawner).runLogic();
+        game.loop();
+        verify(spawned, times(1)).runLogic();
+        verify(victim, times(1)).runLogic();
+    }
+
     /**
      * Expected to add an agent so that its logic is called each time on loop.
      * May fail depending on whether game.loop() is fully functional.
@@ -182,11 +430,41 @@ class BasicGameTest {
         game.addGameObject("obj", o);
         AIAgent a = mock(AIAgent.class);
         game.addAgent(a);
+        game.getWorld().create(ComponentType.POSITION);
         game.panel = mock(GraphicsPanel.class);
         game.clear();
         assertNull(game.getGameObject("obj"), "Game should no longer contain added object after clear.");
         assertFalse(game.agents.contains(a), "Game should no longer contain added AIAgent after clear.");
         assertNotEquals(physics, game.physics, "Game should have a fresh physics system after clear.");
+        assertEquals(0, game.getWorld().size(), "Game should no longer contain any entities after clear.");
+    }
+
+    /**
+     * Handles given out before a clear should stay invalid after their slots are reused, and a new object in a reused
+     * slot shouldn't be drawn sliding in from the old object's position.
+     */
+    @Test
+    void clearHandles () {
+        Collidable old = mock(Collidable.class);
+        when(old.getPos()).thenReturn(new Vector(100, 0, 0));
+        GameObject first = mock(GameObject.class);
+        when(first.getCollider()).thenReturn(old);
+        long stale = game.addGameObject(first);
+        game.loop();
+        game.clear();
+        assertEquals(0, game.renderStates.acquire().size(), "Cleared objects shouldn't be drawn.");
+        Collidable fresh = mock(Collidable.class);
+        when(fresh.getPos()).thenReturn(new Vector(0, 0, 0));
+        GameObject second = mock(GameObject.class);
+        when(second.getCollider()).thenReturn(fresh);
+        long handle = game.addGameObject(second);
+        assertEquals(GameObjectTable.slot(stale), GameObjectTable.slot(handle), "The slot should be reused.");
+        assertNull(game.getGameObject(stale), "Handles from before the clear should stay invalid.");
+        game.loop();
+        RenderState state = game.renderStates.acquire();
+        Vector drawn = new Vector();
+        state.interpolate(state.indexOf(handle, GameObjectTable.slot(handle)), 0, drawn);
+        assertEquals(0, drawn.getX(), "New objects shouldn't interpolate from the old object's position.");
     }
 
     /**
@@ -0,0 +1,139 @@
+package suga.engine.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import suga.engine.game.objects.BasicGameObject;
+import suga.engine.game.objects.GameObject;
+import suga.engine.graphics.DrawListener;
+import suga.engine.physics.Vector;
+import suga.engine.physics.collidables.ElasticCollider;
+import suga.engine.physics.hitboxes.SquareHitBox;
+
+import java.awt.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the GameObjectPicker.
+ *
+ * @author Sugaku
+ */
+class GameObjectPickerTest {
+
+    /**
+     * The picker being used in each test.
+     */
+    private GameObjectPicker picker;
+
+    /**
+     * Resets the picker before each unit test runs.
+     */
+    @BeforeEach
+    void setUp () {
+        picker = new GameObjectPicker(32);
+    }
+
+    /**
+     * Creates a mock game object with a square hit box of the given size centered at the given position.
+     *
+     * @param x    The x position of the object.
+     * @param y    The y position of the object.
+     * @param size The width and height of the object's hit box.
+     * @return The newly created mock game object.
+     */
+    private static GameObject object (double x, double y, double size) {
+        Vector pos = new Vector(x, y, 0);
+        ElasticCollider collider = new ElasticCollider(pos, Vector.ZERO, Vector.ZERO, 1, new SquareHitBox(size, size, pos));
+        collider.getHitBox().setPos(collider.getPos());
+        GameObject object = mock(GameObject.class);
+        when(object.getCollider()).thenReturn(collider);
+        return object;
+    }
+
+    /**
+     * Picking should only return objects whose hit box contains the point.
+     */
+    @Test
+    void pick () {
+        GameObject a = object(0, 0, 10);
+        GameObject b = object(100, 100, 10);
+        picker.add(0, a, DrawListener.Priorities.FOREGROUND);
+        picker.add(1, b, DrawListener.Priorities.FOREGROUND);
+        assertEquals(a, picker.pick(new Point(2, 3)), "The point is inside of the first object.");
+        assertEquals(b, picker.pick(98, 104), "The point is inside of the second object.");
+        assertNull(picker.pick(50, 50), "There is nothing at the given point.");
+    }
+
+    /**
+     * Objects drawn at a higher priority, or added later at the same priority, should be picked first.
+     */
+    @Test
+    void pickOrder () {
+        GameObject background = object(0, 0, 200);
+        GameObject first = object(0, 0, 10);
+        GameObject second = object(0, 0, 10);
+        GameObject gui = object(50, 50, 10);
+        picker.add(0, gui, DrawListener.Priorities.GUI);
+        picker.add(1, first, DrawListener.Priorities.FOREGROUND);
+        picker.add(2, second, DrawListener.Priorities.FOREGROUND);
+        picker.add(3, background, DrawListener.Priorities.BACKGROUND);
+        assertEquals(second, picker.pick(0, 0), "The object added last in the foreground should be on top.");
+        assertEquals(gui, picker.pick(50, 50), "GUI objects should be above the background.");
+        assertEquals(background, picker.pick(-80, 80), "Only the background is at the given point.");
+    }
+
+    /**
+     * Moved objects should be found at their new position once the picker is marked dirty. Removed objects should not
+     * be found at all.
+     */
+    @Test
+    void moveAndRemove () {
+        GameObject a = object(0, 0, 10);
+        picker.add(0, a, DrawListener.Priorities.FOREGROUND);
+        a.getCollider().getPos().add(new Vector(300, 0, 0));
+        picker.markDirty();
+        assertNull(picker.pick(0, 0), "The object has moved away from the origin.");
+        assertEquals(a, picker.pick(300, 0), "The object should be found at its new position.");
+        picker.remove(0);
+        assertNull(picker.pick(300, 0), "Removed objects shouldn't be picked.");
+    }
+
+    /**
+     * Only objects marked as moved should be refreshed before a pick, whether marked by id or by collider.
+     */
+    @Test
+    void markMoved () {
+        GameObject a = object(0, 0, 10);
+        GameObject b = object(100, 0, 10);
+        GameObject c = object(200, 0, 10);
+        picker.add(0, a, DrawListener.Priorities.FOREGROUND);
+        picker.add(1, b, DrawListener.Priorities.FOREGROUND);
+        picker.add(2, c, DrawListener.Priorities.FOREGROUND);
+        a.getCollider().getPos().add(new Vector(0, 300, 0));
+        b.getCollider().getPos().add(new Vector(0, 300, 0));
+        c.getCollider().getPos().add(new Vector(0, 300, 0));
+        picker.markMoved(0);
+        picker.moved(c.getCollider());
+        assertEquals(a, picker.pick(0, 300), "Objects marked by id should be found at their new position.");
+        assertEquals(c, picker.pick(200, 300), "Objects marked by collider should be found at their new position.");
+        assertEquals(b, picker.pick(100, 0), "Objects which weren't marked keep their old entry.");
+        picker.markDirty();
+        assertEquals(b, picker.pick(100, 300), "Marking the picker dirty should refresh every object.");
+    }
+
+    /**
+     * A stock BasicGameObject given a collider should be pickable, and its collider should follow it when it moves.
+     */
+    @Test
+    void basicGameObject () {
+        BasicGameObject object = new BasicGameObject(new Vector(0, 0, 0), new Vector(), new Vector(), 1);
+        object.setCollider(new ElasticCollider(new Vector(), Vector.ZERO, Vector.ZERO, 1, new SquareHitBox(10, 10)));
+        picker.add(0, object, DrawListener.Priorities.FOREGROUND);
+        assertEquals(object, picker.pick(2, 2), "The object should be picked by its collider.");
+        object.setPos(new Vector(100, 0, 0));
+        picker.markMoved(0);
+        assertNull(picker.pick(2, 2), "The collider should have moved with the object.");
+        assertEquals(object, picker.pick(100, 2), "The object should be found at its new position.");
+    }
+}
@@ -0,0 +1,123 @@
+package suga.engine.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import suga.engine.game.objects.BasicGameObject;
+import suga.engine.graphics.DrawListener;
+import suga.engine.graphics.Graphics2d;
+import suga.engine.graphics.GraphicsPanel;
+import suga.engine.input.keyboard.GameKeyListener;
+import suga.engine.input.mouse.BasicMouseListener;
+import suga.engine.physics.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the GameObjectPool.
+ *
+ * @author Sugaku
+ */
+class GameObjectPoolTest {
+
+    /**
+     * The game objects are spawned into in each test.
+     */
+    private BasicGame game;
+
+    /**
+     * The pool being used in each test.
+     */
+    private GameObjectPool<BasicGameObject> pool;
+
+    /**
+     * The number of objects the pool's factory has created.
+     */
+    private int created;
+
+    /**
+     * Resets the game and pool before each unit test runs.
+     */
+    @BeforeEach
+    void setUp () {
+        game = new BasicGame(mock(GraphicsPanel.class), mock(GameKeyListener.class), mock(BasicMouseListener.class));
+        created = 0;
+        pool = game.createPool(() -> {
+            created++;
+            return new BasicGameObject() {
+                @Override
+                public DrawListener getDrawListener () {
+                    return null;
+                }
+            };
+        }, DrawListener.Priorities.FOREGROUND);
+    }
+
+    /**
+     * Released objects should be reset and reused by the next spawn, while the old handle stops working.
+     */
+    @Test
+    void reuse () {
+        long first = pool.spawn();
+        BasicGameObject object = pool.get(first);
+        object.getPos().add(new Vector(5, 5, 0));
+        assertTrue(pool.release(first), "Releasing a spawned object should succeed.");
+        assertFalse(pool.release(first), "Releasing an object twice should fail.");
+        long second = pool.spawn();
+        assertEquals(1, created, "The released object should have been reused.");
+        assertSame(object, pool.get(second), "The released object should have been reused.");
+        assertEquals(Vector.ZERO, object.getPos(), "Reused objects should have been reset.");
+        assertNull(pool.get(first), "The old handle should no longer find the object.");
+        assertEquals(1, pool.getActive(), "Only one object is spawned.");
+    }
+
+    /**
+     * Objects released during a tick should not be reused until the game has removed them.
+     */
+    @Test
+    void releaseDuringTick () {
+        long handle = pool.spawn();
+        game.ticking = true;
+        pool.release(handle);
+        pool.spawn();
+        assertEquals(2, created, "The released object is still in the game and can't be reused yet.");
+        game.ticking = false;
+        game.commands.apply(game.applier);
+        pool.spawn();
+        assertEquals(2, created, "The released object should be reused once the game has removed it.");
+        assertEquals(0, pool.getFree(), "Every object in the pool is spawned.");
+    }
+
+    /**
+     * Spawning and releasing pooled objects shouldn't queue listener changes on the panel, since each object's draw
+     * listener stays registered between spawns.
+     */
+    @Test
+    void listenerRegisteredOnce () {
+        Graphics2d panel = new Graphics2d();
+        BasicGame drawn = new BasicGame(panel, mock(GameKeyListener.class), mock(BasicMouseListener.class));
+        GameObjectPool<BasicGameObject> objects = drawn.createPool(BasicGameObject::new, DrawListener.Priorities.FOREGROUND);
+        objects.release(objects.spawn());
+        int pending = panel.getPendingChanges();
+        for (int i = 0; i < 1000; i++) objects.release(objects.spawn());
+        assertEquals(pending, panel.getPendingChanges(), "Cycling pooled objects shouldn't change the panel's listeners.");
+        assertEquals(1, objects.getFree(), "The single object should be reused every cycle.");
+    }
+
+    /**
+     * Objects removed by clearing the game should be taken back by the pool.
+     */
+    @Test
+    void clear () {
+        pool.spawn();
+        pool.spawn();
+        long handle = pool.spawn();
+        pool.release(handle);
+        game.clear();
+        assertEquals(0, pool.getActive(), "Clearing the game should despawn every pooled object.");
+        assertEquals(3, pool.getFree(), "Every object should be back in the pool.");
+        pool.spawn();
+        assertEquals(3, created, "Spawning after a clear should reuse an object.");
+        assertEquals(1, pool.getActive(), "Only one object is spawned.");
+    }
+}
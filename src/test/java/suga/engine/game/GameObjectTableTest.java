@@ -0,0 +1,78 @@
+package suga.engine.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import suga.engine.game.objects.GameObject;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the GameObjectTable.
+ *
+ * @author Sugaku
+ */
+class GameObjectTableTest {
+
+    /**
+     * The table being used in each test.
+     */
+    private GameObjectTable table;
+
+    /**
+     * Resets the table before each unit test runs.
+     */
+    @BeforeEach
+    void setUp () {
+        table = new GameObjectTable();
+    }
+
+    /**
+     * Handles should find their object until it is removed, even if its slot is reused by a new object.
+     */
+    @Test
+    void handles () {
+        GameObject a = mock(GameObject.class);
+        GameObject b = mock(GameObject.class);
+        long ha = table.add(null, a);
+        assertEquals(a, table.get(ha), "The handle should find the object it was given for.");
+        assertEquals(a, table.remove(ha), "Removing should return the removed object.");
+        long hb = table.add(null, b);
+        assertEquals(GameObjectTable.slot(ha), GameObjectTable.slot(hb), "The freed slot should be reused.");
+        assertNull(table.get(ha), "A handle to a removed object should not find the object reusing its slot.");
+        assertEquals(b, table.get(hb), "The new handle should find the new object.");
+        assertNull(table.get(GameObjectTable.INVALID), "The invalid handle should never find an object.");
+    }
+
+    /**
+     * The dense array should hold every object exactly once after removals.
+     */
+    @Test
+    void dense () {
+        long[] handles = new long[10];
+        for (int i = 0; i < handles.length; i++) handles[i] = table.add(null, mock(GameObject.class));
+        table.remove(handles[0]);
+        table.remove(handles[5]);
+        assertEquals(8, table.size(), "Two objects have been removed.");
+        Set<GameObject> seen = new HashSet<>();
+        for (int i = 0; i < table.size(); i++) {
+            assertTrue(seen.add(table.getAt(i)), "Each object should appear once in the dense array.");
+            assertEquals(table.getAt(i), table.get(table.handleAt(i)), "The handle at a position should match the object.");
+        }
+    }
+
+    /**
+     * Names should resolve to the handle of the object until it's removed.
+     */
+    @Test
+    void names () {
+        GameObject a = mock(GameObject.class);
+        long handle = table.add("player", a);
+        assertEquals(handle, table.getHandle("player"), "The name should resolve to the handle.");
+        table.remove(handle);
+        assertEquals(GameObjectTable.INVALID, table.getHandle("player"), "Removed objects shouldn't be found by name.");
+    }
+}
@@ -0,0 +1,124 @@
+package suga.engine.game;
+
+import org.junit.jupiter.api.Test;
+import suga.engine.game.objects.BasicGameObject;
+import suga.engine.game.scripts.Script;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the RollbackSimulation.
+ *
+ * @author Sugaku
+ */
+class RollbackSimulationTest {
+
+    /**
+     * A game object which is pushed along the x axis by the input of each tick.
+     *
+     * @author Sugaku
+     */
+    private static class Pushed extends BasicGameObject {
+
+        /**
+         * The push of the current tick.
+         */
+        private double push = 0;
+
+        /**
+         * Moves this object by its velocity after adding the push to it.
+         */
+        @Override
+        public void runLogic () {
+            vel.setX(vel.getX() + push);
+            update();
+        }
+    }
+
+    /**
+     * Creates a headless game containing the given object.
+     *
+     * @param object The object to add to the game.
+     * @return The newly created game.
+     */
+    private static BasicGame game (Pushed object) {
+        BasicGame game = new BasicGame();
+        game.addGameObject("pushed", object);
+        return game;
+    }
+
+    /**
+     * Rolling back after correcting input should end in the same state as if the corrected input was known all along.
+     */
+    @Test
+    void rollback () {
+        double[] inputs = new double[20];
+        Pushed object = new Pushed();
+        RollbackSimulation<BasicGame> simulation = new RollbackSimulation<>(game(object), 8,
+                (tick) -> object.push = inputs[(int) tick]);
+        for (int i = 0; i < 12; i++) simulation.step();
+        assertEquals(0, object.getPos().getX(), "Nothing has pushed the object yet.");
+        inputs[6] = 2;
+        inputs[9] = -1;
+        assertTrue(simulation.rollback(6), "Tick 6 is within the last 8 ticks.");
+        assertEquals(6, simulation.getReplayed(), "Ticks 6 through 11 should have been replayed.");
+        assertEquals(12, simulation.getGame().getTick(), "The game should be back at the tick it was at.");
+
+        Pushed expected = new Pushed();
+        RollbackSimulation<BasicGame> reference = new RollbackSimulation<>(game(expected), 8,
+                (tick) -> expected.push = inputs[(int) tick]);
+        for (int i = 0; i < 12; i++) reference.step();
+        assertEquals(expected.getPos().getX(), object.getPos().getX(), "Rolling back should match the corrected run.");
+        assertEquals(expected.getVelocity().getX(), object.getVelocity().getX(), "Velocity should match as well.");
+    }
+
+    /**
+     * Ticks older than the history, or which haven't happened yet, can't be rolled back to.
+     */
+    @Test
+    void outOfRange () {
+        RollbackSimulation<BasicGame> simulation = new RollbackSimulation<>(game(new Pushed()), 4, (tick) -> { });
+        for (int i = 0; i < 10; i++) simulation.step();
+        assertEquals(6, simulation.getOldestTick(), "Only the last 4 ticks should be kept.");
+        assertFalse(simulation.rollback(5), "Tick 5 is too old to roll back to.");
+        assertFalse(simulation.rollback(10), "Tick 10 hasn't happened yet.");
+        assertTrue(simulation.rollback(6), "Tick 6 is the oldest tick kept.");
+    }
+
+    /**
+     * Removed objects can't be recreated, so rolling back to a tick at or before a removal should be refused.
+     */
+    @Test
+    void removal () {
+        BasicGame game = game(new Pushed());
+        long handle = game.addGameObject(new Pushed());
+        RollbackSimulation<BasicGame> simulation = new RollbackSimulation<>(game, 8, (tick) -> { });
+        for (int i = 0; i < 5; i++) simulation.step();
+        game.removeGameObject(handle);
+        for (int i = 0; i < 3; i++) simulation.step();
+        assertFalse(simulation.rollback(4), "Tick 4 holds an object which has since been removed.");
+        assertFalse(simulation.rollback(5), "The object was removed on tick 5.");
+        assertTrue(simulation.rollback(6), "Nothing has been removed since tick 6.");
+    }
+
+    /**
+     * Rolling back should restore the step running scripts are on, including scripts which have since finished.
+     */
+    @Test
+    void scripts () {
+        BasicGame game = game(new Pushed());
+        AtomicInteger runs = new AtomicInteger();
+        Script script = new Script().then(runs::incrementAndGet).waitTicks(3).then(runs::incrementAndGet);
+        game.getScripts().start(script);
+        RollbackSimulation<BasicGame> simulation = new RollbackSimulation<>(game, 8, (tick) -> { });
+        for (int i = 0; i < 6; i++) simulation.step();
+        assertEquals(2, runs.get(), "The script should have run both of its actions.");
+        assertTrue(script.isFinished(), "The script finished on tick 3.");
+        assertTrue(simulation.rollback(2), "Tick 2 is within the last 8 ticks.");
+        assertEquals(3, runs.get(), "The script's last action should have run again when tick 3 was replayed.");
+        assertTrue(script.isFinished(), "The script should have finished again.");
+        assertFalse(game.getScripts().isRunning(script), "The script shouldn't be running after it finished.");
+    }
+}
@@ -0,0 +1,159 @@
+package suga.engine.game;
+
+import org.junit.jupiter.api.Test;
+import suga.engine.game.scripts.Script;
+import suga.engine.game.scripts.ScriptRunner;
+import suga.engine.game.scripts.Wait;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scripts and the ScriptRunner.
+ *
+ * @author Sugaku
+ */
+class ScriptRunnerTest {
+
+    /**
+     * A script should wait the given number of ticks and for events before carrying on.
+     */
+    @Test
+    void waits () {
+        ScriptRunner runner = new ScriptRunner();
+        List<String> log = new ArrayList<>();
+        Script script = new Script()
+                .then(() -> log.add("start"))
+                .waitSeconds(2, 5)
+                .then(() -> log.add("moved"))
+                .waitFor("collision")
+                .then(() -> log.add("hit"));
+        runner.start(script);
+        for (long tick = 0; tick <= 20; tick++) {
+            runner.update(tick);
+            if (tick == 10) assertEquals(List.of("start", "moved"), log);
+            if (tick == 9) assertEquals(List.of("start"), log);
+            if (tick == 15) assertEquals(1, runner.signal("collision"));
+            if (tick == 15) assertEquals(2, log.size());
+            if (tick == 16) assertEquals(3, log.size());
+        }
+        assertTrue(script.isFinished());
+        assertFalse(runner.isRunning(script));
+        assertEquals(0, runner.size());
+    }
+
+    /**
+     * Scripts waking on the same tick should run in the order they were started, and stopped scripts shouldn't run.
+     */
+    @Test
+    void order () {
+        ScriptRunner runner = new ScriptRunner();
+        List<Integer> log = new ArrayList<>();
+        List<Script> scripts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int id = i;
+            Script script = new Script().waitTicks(5 - i).then(() -> log.add(id)).waitFor("go").then(() -> log.add(id));
+            scripts.add(script);
+            runner.start(script);
+        }
+        assertFalse(runner.start(scripts.get(0)));
+        runner.stop(scripts.get(2));
+        for (long tick = 0; tick < 10; tick++) runner.update(tick);
+        assertEquals(List.of(4, 3, 1, 0), log);
+        log.clear();
+        runner.signal("go");
+        runner.update(10);
+        assertEquals(List.of(0, 1, 3, 4), log);
+    }
+
+    /**
+     * Waiting until a condition should check it once a tick, and repeating scripts should loop.
+     */
+    @Test
+    void conditionsAndRepeats () {
+        ScriptRunner runner = new ScriptRunner();
+        AtomicInteger counter = new AtomicInteger();
+        AtomicInteger loops = new AtomicInteger();
+        runner.start(new Script().waitUntil(() -> counter.incrementAndGet() >= 3).then(loops::incrementAndGet));
+        Script repeating = new Script().then(loops::incrementAndGet).step((tick) -> Wait.ticks(2)).repeat();
+        runner.start(repeating);
+        for (long tick = 0; tick < 10; tick++) runner.update(tick);
+        assertEquals(3, counter.get());
+        assertEquals(1 + 5, loops.get());
+        assertTrue(runner.isRunning(repeating));
+    }
+
+    /**
+     * A script whose step throws should be ended without stopping the other scripts from running.
+     */
+    @Test
+    void failure () {
+        ScriptRunner runner = new ScriptRunner();
+        AtomicInteger runs = new AtomicInteger();
+        Script failing = new Script().then(() -> {
+            throw new IllegalStateException("Expected");
+        }).then(runs::incrementAndGet);
+        Script other = new Script().then(runs::incrementAndGet).waitTicks(1).then(runs::incrementAndGet);
+        runner.start(failing);
+        runner.start(other);
+        for (long tick = 0; tick < 3; tick++) runner.update(tick);
+        assertFalse(runner.isRunning(failing), "The failed script should have ended.");
+        assertEquals(2, runs.get(), "Only the other script should have carried on.");
+        assertEquals(0, runner.size());
+    }
+
+    /**
+     * Saving the same state twice should write the same bytes with scripts in the order they were started, and loading
+     * should restore scripts waiting on events.
+     */
+    @Test
+    void snapshot () {
+        ScriptRunner runner = new ScriptRunner();
+        runner.setHistory(10);
+        AtomicInteger woke = new AtomicInteger();
+        for (int i = 0; i < 50; i++)
+            runner.start(new Script().waitFor(i % 2 == 0 ? "go" : "up").then(woke::incrementAndGet));
+        runner.update(0);
+        ByteBuffer first = ByteBuffer.allocate(runner.getSaveSize());
+        runner.save(first);
+        ByteBuffer second = ByteBuffer.allocate(runner.getSaveSize());
+        runner.save(second);
+        assertEquals(first.flip(), second.flip(), "Saving the same state twice should write the same bytes.");
+        int header = 2 * Long.BYTES + Integer.BYTES;
+        for (int i = 0; i < 50; i++)
+            assertEquals(i, first.getLong(header + i * (first.limit() - header) / 50),
+                    "Scripts should be saved in the order they were started.");
+        runner.signal("go");
+        runner.update(1);
+        assertEquals(25, woke.get());
+        assertEquals(25, runner.size());
+        runner.load(first);
+        assertEquals(50, runner.size(), "Scripts which ended since the snapshot should be restored.");
+        assertEquals(25, runner.signal("go"), "Restored scripts should wait for their event again.");
+        runner.update(2);
+        assertEquals(50, woke.get());
+    }
+
+    /**
+     * Scripts started on a game should be resumed by its loop, and thousands of sleeping scripts shouldn't cost much.
+     */
+    @Test
+    void game () {
+        BasicGame game = new BasicGame() {
+            @Override
+            public void processInput () {
+
+            }
+        };
+        AtomicInteger woke = new AtomicInteger();
+        for (int i = 0; i < 10_000; i++)
+            game.getScripts().start(new Script().waitTicks(1000 + i % 7).then(woke::incrementAndGet));
+        for (int i = 0; i < 1007; i++) game.loop();
+        assertEquals(10_000, woke.get());
+        assertEquals(0, game.getScripts().size());
+    }
+}
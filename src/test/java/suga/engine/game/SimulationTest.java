@@ -0,0 +1,97 @@
+package suga.engine.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import suga.engine.game.objects.GameObject;
+import suga.engine.input.keyboard.KeyValue;
+import suga.engine.input.keyboard.ScriptedKeyListener;
+import suga.engine.input.mouse.ScriptedMouseListener;
+
+import java.awt.*;
+import java.awt.event.MouseEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the Simulation.
+ *
+ * @author Sugaku
+ */
+class SimulationTest {
+
+    /**
+     * The game being simulated in each test.
+     */
+    private BasicGame game;
+
+    /**
+     * The scene receiving input in each test.
+     */
+    private Scene scene;
+
+    /**
+     * The scripted key listener used by the game.
+     */
+    private ScriptedKeyListener keys;
+
+    /**
+     * The scripted mouse listener used by the game.
+     */
+    private ScriptedMouseListener mouse;
+
+    /**
+     * The simulation being used in each test.
+     */
+    private Simulation simulation;
+
+    /**
+     * Creates a headless game with scripted input before each unit test runs.
+     */
+    @BeforeEach
+    void setUp () {
+        game = new BasicGame();
+        scene = mock(Scene.class);
+        game.loadedScene = scene;
+        keys = new ScriptedKeyListener();
+        mouse = new ScriptedMouseListener();
+        game.setKeyListener(keys);
+        game.setMouseListener(mouse);
+        simulation = new Simulation(game);
+        simulation.addInput(keys);
+        simulation.addInput(mouse);
+    }
+
+    /**
+     * Stepping should run the game loop once per tick and report the ticks per second achieved.
+     */
+    @Test
+    void step () {
+        GameObject object = mock(GameObject.class);
+        game.addGameObject(object);
+        double rate = simulation.step(1000);
+        verify(object, times(1000)).runLogic();
+        assertEquals(1000, simulation.getTick(), "Every tick should have been counted.");
+        assertTrue(rate > 0, "The achieved tick rate should be positive.");
+        assertEquals(rate, simulation.getTicksPerSecond(), "The achieved tick rate should be remembered.");
+    }
+
+    /**
+     * Scripted input should reach the game on the tick it was scheduled at and not before.
+     */
+    @Test
+    void scriptedInput () {
+        keys.tap(5, KeyValue.ENTER, 3);
+        mouse.press(2, 40, 50, MouseEvent.BUTTON1);
+        simulation.step(5);
+        verify(scene, times(1)).mouseInput(new Point(40, 50), true);
+        verify(scene, times(0)).keyboardInput(KeyValue.ENTER, true);
+        assertEquals(new Point(40, 50), mouse.getMousePos(), "The mouse should be where it was last pressed.");
+        simulation.step(1);
+        verify(scene, times(1)).keyboardInput(KeyValue.ENTER, true);
+        assertTrue(keys.isHeld(KeyValue.ENTER), "The key should be held until it is released.");
+        simulation.step(3);
+        verify(scene, times(1)).keyboardInput(KeyValue.ENTER, false);
+        assertEquals(0, keys.getRemaining(), "Every scripted key event should have happened.");
+    }
+}
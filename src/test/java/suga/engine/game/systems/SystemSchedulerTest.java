@@ -0,0 +1,130 @@
+package suga.engine.game.systems;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import suga.engine.Engine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SystemScheduler.
+ *
+ * @author Sugaku
+ */
+class SystemSchedulerTest {
+
+    /**
+     * The scheduler being used in each test.
+     */
+    private SystemScheduler scheduler;
+
+    /**
+     * Resets the scheduler before each unit test runs.
+     */
+    @BeforeEach
+    void setUp () {
+        scheduler = new SystemScheduler(new ForkJoinPool(4));
+    }
+
+    /**
+     * Systems conflict when one writes something the other reads or writes.
+     */
+    @Test
+    void conflicts () {
+        Resource a = new Resource("a");
+        Resource b = new Resource("b");
+        GameSystem readA = new BasicGameSystem("readA", () -> {}, Set.of(a), Set.of());
+        GameSystem readA2 = new BasicGameSystem("readA2", () -> {}, Set.of(a), Set.of());
+        GameSystem writeA = new BasicGameSystem("writeA", () -> {}, Set.of(), Set.of(a));
+        GameSystem writeB = new BasicGameSystem("writeB", () -> {}, Set.of(a), Set.of(b));
+        assertFalse(SystemScheduler.conflicts(readA, readA2), "Two readers should not conflict.");
+        assertTrue(SystemScheduler.conflicts(readA, writeA), "A reader and writer of the same resource conflict.");
+        assertTrue(SystemScheduler.conflicts(writeA, writeB), "A writer conflicts with a reader of the same resource.");
+        assertFalse(SystemScheduler.conflicts(readA, writeB), "Systems writing different resources shouldn't conflict.");
+    }
+
+    /**
+     * Systems which don't conflict should run at the same time, and a system which conflicts with both should run once
+     * both have finished.
+     */
+    @Test
+    void run () {
+        Resource a = new Resource("a");
+        Resource b = new Resource("b");
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        Runnable meet = () -> {
+            try {
+                barrier.await(5, TimeUnit.SECONDS); // Only passes if both systems are running at once.
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+        scheduler.addSystem(new BasicGameSystem("a", () -> { meet.run(); order.add("a"); }, Set.of(), Set.of(a)));
+        scheduler.addSystem(new BasicGameSystem("b", () -> { meet.run(); order.add("b"); }, Set.of(), Set.of(b)));
+        scheduler.addSystem(new BasicGameSystem("ab", () -> order.add("ab"), Set.of(a), Set.of(b)));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), scheduler::run);
+        assertEquals(3, order.size(), "Every system should have run once.");
+        assertEquals("ab", order.get(2), "The conflicting system should run after both others.");
+    }
+
+    /**
+     * A system which throws an error on the pool should still release its dependents, and the error should reach the
+     * calling thread rather than leaving it waiting forever.
+     */
+    @Test
+    void error () {
+        Resource a = new Resource("a");
+        Resource b = new Resource("b");
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        scheduler.addSystem(new BasicGameSystem("a", () -> { throw new AssertionError("a"); }, Set.of(), Set.of(a)));
+        scheduler.addSystem(new BasicGameSystem("b", () -> order.add("b"), Set.of(), Set.of(b)));
+        scheduler.addSystem(new BasicGameSystem("ab", () -> order.add("ab"), Set.of(a), Set.of(b)));
+        Error error = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(AssertionError.class, scheduler::run));
+        assertEquals("a", error.getMessage());
+        assertEquals(List.of("b", "ab"), order, "Every other system should still have run.");
+    }
+
+    /**
+     * A system which throws an exception while running in order should be logged, and later systems should still run.
+     */
+    @Test
+    void serialException () {
+        Resource a = new Resource("a");
+        List<String> order = new ArrayList<>();
+        scheduler.addSystem(new BasicGameSystem("first", () -> { throw new IllegalStateException(); }, Set.of(), Set.of(a)));
+        scheduler.addSystem(new BasicGameSystem("second", () -> order.add("second"), Set.of(), Set.of(a)));
+        assertDoesNotThrow(scheduler::run);
+        assertEquals(List.of("second"), order, "Later systems should run after an earlier one throws.");
+    }
+
+    /**
+     * Systems running on the pool should see the engine of the thread running the tick, as they would running in
+     * order.
+     */
+    @Test
+    void engine () {
+        Resource a = new Resource("a");
+        Resource b = new Resource("b");
+        Engine engine = new Engine();
+        List<Engine> seen = Collections.synchronizedList(new ArrayList<>());
+        scheduler.addSystem(new BasicGameSystem("a", () -> seen.add(Engine.current()), Set.of(), Set.of(a)));
+        scheduler.addSystem(new BasicGameSystem("b", () -> seen.add(Engine.current()), Set.of(), Set.of(b)));
+        Engine.bind(engine);
+        try {
+            scheduler.run();
+        } finally {
+            Engine.bind(null);
+        }
+        assertEquals(List.of(engine, engine), seen, "Systems on the pool should have the tick's engine bound.");
+    }
+}
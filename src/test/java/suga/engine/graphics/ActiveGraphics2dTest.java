@@ -0,0 +1,97 @@
+package suga.engine.graphics;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ActiveGraphics2d.
+ *
+ * @author Sugaku
+ */
+class ActiveGraphics2dTest {
+
+    /**
+     * A listener which counts its calls and draws a red rectangle in the top left corner.
+     *
+     * @author Sugaku
+     */
+    private static class Square implements DrawListener {
+
+        /**
+         * The number of times this listener has been called.
+         */
+        int calls = 0;
+
+        /**
+         * Draws a red rectangle in the top left corner.
+         *
+         * @param width  The width of the screen.
+         * @param height The height of the screen.
+         * @param panel  The panel to draw onto.
+         */
+        @Override
+        public void applyChanges (int width, int height, GraphicsPanel panel) {
+            calls++;
+            panel.setRectangle(0, 0, 2, 2, Color.RED);
+        }
+    }
+
+    /**
+     * Nothing should be drawn until the canvas can be displayed.
+     */
+    @Test
+    void notDisplayable () {
+        ActiveGraphics2d panel = new ActiveGraphics2d();
+        Square square = new Square();
+        panel.registerListener(square);
+        panel.getCanvas().setSize(10, 10);
+        assertFalse(panel.render());
+        assertEquals(0, square.calls);
+    }
+
+    /**
+     * Swing painting the panel shouldn't call draw listeners, since the graphics thread owns every frame.
+     */
+    @Test
+    void paintComponent () {
+        ActiveGraphics2d panel = new ActiveGraphics2d();
+        Square square = new Square();
+        panel.registerListener(square);
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = image.getGraphics();
+        panel.paintComponent(graphics);
+        graphics.dispose();
+        assertEquals(0, square.calls);
+        assertEquals(0, image.getRGB(0, 0) & 0xFFFFFF);
+    }
+
+    /**
+     * Queued output should be drawable more than once, for when buffer contents are lost, until it's cleared.
+     */
+    @Test
+    void redraw () {
+        ActiveGraphics2d panel = new ActiveGraphics2d();
+        Square square = new Square();
+        panel.registerListener(square);
+        panel.drawing(4, 4);
+        for (int i = 0; i < 2; i++) {
+            BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+            Graphics graphics = image.getGraphics();
+            panel.paintQueued(graphics);
+            graphics.dispose();
+            assertEquals(Color.RED.getRGB(), image.getRGB(1, 1));
+            assertEquals(0, image.getRGB(3, 3) & 0xFFFFFF);
+        }
+        panel.clearQueued();
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = image.getGraphics();
+        panel.paintQueued(graphics);
+        graphics.dispose();
+        assertEquals(0, image.getRGB(1, 1) & 0xFFFFFF);
+        assertEquals(1, square.calls);
+    }
+}
@@ -0,0 +1,59 @@
+package suga.engine.graphics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the listener bookkeeping of the GraphicsPanel.
+ *
+ * @author Sugaku
+ */
+class GraphicsPanelTest {
+
+    /**
+     * Registering and removing listeners while no frames are drawn, such as while paused, shouldn't grow the list of
+     * waiting changes without bound.
+     */
+    @Test
+    void coalesce () {
+        GraphicsPanel panel = new Graphics2d();
+        DrawListener kept = mock(DrawListener.class);
+        panel.registerListener(kept);
+        panel.drawing(10, 10);
+        for (int i = 0; i < 1000; i++) {
+            DrawListener churn = mock(DrawListener.class);
+            panel.registerListener(churn);
+            panel.removeListener(churn);
+            panel.removeListener(kept);
+            panel.registerListener(kept);
+        }
+        assertEquals(2, panel.getPendingChanges(), "Only the removal and registration of the kept listener should wait.");
+        panel.drawing(10, 10);
+        assertEquals(0, panel.getPendingChanges());
+        verify(kept, times(2)).applyChanges(10, 10, panel);
+    }
+
+    /**
+     * A listener registered again after being removed should be drawn once, and a listener removed after being
+     * registered again shouldn't be drawn at all.
+     */
+    @Test
+    void order () {
+        GraphicsPanel panel = new Graphics2d();
+        DrawListener a = mock(DrawListener.class);
+        DrawListener b = mock(DrawListener.class);
+        panel.registerListener(a);
+        panel.registerListener(b);
+        panel.drawing(10, 10);
+        panel.removeListener(a);
+        panel.registerListener(DrawListener.Priorities.GUI, a);
+        panel.removeListener(b);
+        panel.registerListener(b);
+        panel.removeListener(b);
+        panel.drawing(10, 10);
+        verify(a, times(2)).applyChanges(10, 10, panel);
+        verify(b, times(1)).applyChanges(10, 10, panel);
+    }
+}
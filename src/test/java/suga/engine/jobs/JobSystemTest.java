@@ -0,0 +1,98 @@
+package suga.engine.jobs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the JobSystem.
+ *
+ * @author Sugaku
+ */
+class JobSystemTest {
+
+    /**
+     * Jobs should only start once every dependency has finished.
+     */
+    @Test
+    void dependencies () throws InterruptedException {
+        JobSystem jobs = new JobSystem();
+        ConcurrentLinkedQueue<String> order = new ConcurrentLinkedQueue<>();
+        JobHandle a = jobs.submit("a", () -> {
+            sleep(20);
+            order.add("a");
+        });
+        JobHandle b = jobs.submit("b", () -> order.add("b"));
+        JobHandle c = jobs.submit("c", () -> order.add("c"), a, b);
+        JobHandle d = jobs.then(c, "d", () -> order.add("d"));
+        d.await();
+        List<String> seen = List.copyOf(order);
+        assertEquals(4, seen.size());
+        assertTrue(seen.indexOf("c") > seen.indexOf("a"));
+        assertTrue(seen.indexOf("c") > seen.indexOf("b"));
+        assertEquals("d", seen.get(3));
+        assertTrue(a.getRunTime() >= 20_000_000);
+        assertTrue(c.startedAt >= a.finishedAt);
+        JobHandle late = jobs.submit("late", () -> order.add("late"), a);
+        late.await();
+        assertEquals("late", List.copyOf(order).get(4));
+    }
+
+    /**
+     * A parallel for should visit every index exactly once.
+     */
+    @Test
+    void parallelFor () throws InterruptedException {
+        JobSystem jobs = new JobSystem();
+        AtomicIntegerArray visits = new AtomicIntegerArray(100_000);
+        jobs.parallelFor("visit", 0, visits.length(), 1024, visits::incrementAndGet).await();
+        for (int i = 0; i < visits.length(); i++) assertEquals(1, visits.get(i));
+    }
+
+    /**
+     * Failed jobs should record their failure, even if it's an error, and still release their dependents, and every job should be timed.
+     */
+    @Test
+    void failuresAndTimings () throws InterruptedException {
+        JobSystem jobs = new JobSystem();
+        JobHandle failing = jobs.submit("failing", () -> {
+            throw new IllegalStateException("Expected");
+        });
+        JobHandle after = jobs.then(failing, "after", () -> { });
+        JobSystem.awaitAll(failing, after);
+        assertInstanceOf(IllegalStateException.class, failing.getFailure());
+        assertNull(after.getFailure());
+        JobHandle error = jobs.submit("error", () -> {
+            throw new AssertionError("Expected");
+        });
+        JobHandle afterError = jobs.then(error, "after", () -> { });
+        JobSystem.awaitAll(error, afterError);
+        assertInstanceOf(AssertionError.class, error.getFailure());
+        assertTrue(afterError.isDone());
+        for (int i = 0; i < 10; i++) jobs.submit("sleep", () -> sleep(2)).await();
+        JobTiming top = jobs.getTimings().get(0);
+        assertEquals("sleep", top.name());
+        assertEquals(10, top.count());
+        assertTrue(top.average() >= 2_000_000);
+        assertTrue(top.max() >= 2_000_000);
+        jobs.resetTimings();
+        assertTrue(jobs.getTimings().isEmpty());
+    }
+
+    /**
+     * Sleeps the current thread without throwing.
+     *
+     * @param millis The time to sleep in milliseconds.
+     */
+    private static void sleep (long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
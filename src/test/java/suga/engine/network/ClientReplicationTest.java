@@ -0,0 +1,94 @@
+package suga.engine.network;
+
+import org.junit.jupiter.api.Test;
+import suga.engine.physics.BasicPhysical;
+import suga.engine.physics.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ClientReplication.
+ *
+ * @author Sugaku
+ */
+class ClientReplicationTest {
+
+    /**
+     * The number of nanoseconds in a millisecond.
+     */
+    private static final long MS = 1_000_000;
+
+    /**
+     * Creates a snapshot holding a single object moving along the x-axis.
+     *
+     * @param tick   The tick of the snapshot.
+     * @param handle The handle of the object.
+     * @param x      The x position of the object.
+     * @param vx     The x velocity of the object.
+     * @return The created snapshot.
+     */
+    private static NetworkSnapshot create (long tick, long handle, double x, double vx) {
+        NetworkSnapshot snapshot = new NetworkSnapshot();
+        snapshot.clear(tick);
+        int row = snapshot.add(handle);
+        snapshot.setField(row, 0, (int) (x * NetworkSnapshot.SCALE));
+        snapshot.setField(row, 3, (int) (vx * NetworkSnapshot.SCALE));
+        return snapshot;
+    }
+
+    /**
+     * Remote objects should be interpolated between snapshots and briefly extrapolated past the newest one.
+     */
+    @Test
+    void interpolate () {
+        ClientReplication replication = new ClientReplication(20, 1, 8);
+        Vector pos = new Vector();
+        assertFalse(replication.interpolate(5, 0, pos));
+        assertTrue(replication.receive(create(0, 5, 0, 10), 0));
+        assertTrue(replication.receive(create(1, 5, 10, 10), 50 * MS));
+        assertFalse(replication.receive(create(0, 5, 0, 10), 60 * MS));
+        assertTrue(replication.interpolate(5, 75 * MS, pos));
+        assertEquals(5, pos.getX(), 1e-9);
+        replication.interpolate(5, 100 * MS, pos);
+        assertEquals(10, pos.getX(), 1e-9);
+        replication.interpolate(5, 125 * MS, pos);
+        assertEquals(15, pos.getX(), 1e-9);
+        replication.interpolate(5, 1000 * MS, pos);
+        assertEquals(30, pos.getX(), 1e-9);
+        assertFalse(replication.interpolate(6, 75 * MS, pos));
+    }
+
+    /**
+     * Corrections should reset the avatar to the server state and replay the inputs the server hasn't processed.
+     */
+    @Test
+    void predict () {
+        ClientReplication replication = new ClientReplication(20, 2, 8);
+        BasicPhysical avatar = new BasicPhysical(new Vector(), new Vector(), new Vector(), 1);
+        replication.setAvatar(7, avatar);
+        for (int tick = 1; tick <= 5; tick++) replication.predict(tick, (a) -> a.getVelocity().setX(1));
+        assertEquals(5, avatar.getPos().getX(), 1e-9);
+        assertEquals(5, replication.getPending());
+        replication.receive(create(3, 7, 2, 1), 0);
+        assertEquals(2, replication.getPending());
+        assertEquals(4, avatar.getPos().getX(), 1e-9);
+        assertEquals(1, replication.getLastCorrection(), 1e-9);
+        replication.receive(create(5, 7, 4, 1), 10 * MS);
+        assertEquals(0, replication.getPending());
+        assertEquals(0, replication.getLastCorrection(), 1e-9);
+    }
+
+    /**
+     * Snapshots without the avatar, such as when it's outside the client's interest, should still acknowledge inputs.
+     */
+    @Test
+    void missingAvatar () {
+        ClientReplication replication = new ClientReplication(20, 2, 8);
+        BasicPhysical avatar = new BasicPhysical(new Vector(), new Vector(), new Vector(), 1);
+        replication.setAvatar(7, avatar);
+        for (int tick = 1; tick <= 5; tick++) replication.predict(tick, (a) -> a.getVelocity().setX(1));
+        replication.receive(create(4, 9, 0, 0), 0);
+        assertEquals(1, replication.getPending(), "Inputs up to tick 4 have been processed by the server.");
+        assertEquals(5, avatar.getPos().getX(), 1e-9, "The avatar shouldn't be corrected without its state.");
+    }
+}
@@ -0,0 +1,114 @@
+package suga.engine.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the DeltaCodec.
+ *
+ * @author Sugaku
+ */
+class DeltaCodecTest {
+
+    /**
+     * Creates a snapshot with the given number of objects whose fields are derived from their ids.
+     *
+     * @param tick  The tick of the snapshot.
+     * @param count The number of objects.
+     * @return The created snapshot.
+     */
+    private static NetworkSnapshot create (long tick, int count) {
+        NetworkSnapshot snapshot = new NetworkSnapshot();
+        snapshot.clear(tick);
+        for (int i = 0; i < count; i++) {
+            int row = snapshot.add(i * 3L + 1);
+            for (int f = 0; f < NetworkSnapshot.FIELDS; f++) snapshot.setField(row, f, i * 100 - f * 7);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Encodes and then decodes the given snapshot.
+     *
+     * @param current  The snapshot to encode.
+     * @param baseline The baseline to encode against or null.
+     * @param writer   The writer to encode with. Left holding the encoded snapshot.
+     * @return The decoded snapshot.
+     */
+    private static NetworkSnapshot roundTrip (NetworkSnapshot current, NetworkSnapshot baseline, BitWriter writer) {
+        writer.reset();
+        DeltaCodec.encode(current, baseline, writer);
+        ByteBuffer buffer = ByteBuffer.allocate(writer.getByteLength());
+        writer.flushTo(buffer);
+        BitReader reader = new BitReader();
+        reader.reset(buffer.flip());
+        long[] header = DeltaCodec.readHeader(reader);
+        assertEquals(current.getTick(), header[0]);
+        assertEquals(baseline == null ? -1 : baseline.getTick(), header[1]);
+        NetworkSnapshot out = new NetworkSnapshot();
+        DeltaCodec.decode(reader, header[0], baseline, out);
+        return out;
+    }
+
+    /**
+     * Asserts that two snapshots hold the same objects with the same fields.
+     *
+     * @param expected The expected snapshot.
+     * @param actual   The decoded snapshot.
+     */
+    private static void assertSnapshotEquals (NetworkSnapshot expected, NetworkSnapshot actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getId(i), actual.getId(i));
+            for (int f = 0; f < NetworkSnapshot.FIELDS; f++) assertEquals(expected.getField(i, f), actual.getField(i, f));
+        }
+    }
+
+    /**
+     * A snapshot without a baseline should decode to itself.
+     */
+    @Test
+    void full () {
+        NetworkSnapshot snapshot = create(5, 100);
+        assertSnapshotEquals(snapshot, roundTrip(snapshot, null, new BitWriter()));
+    }
+
+    /**
+     * A delta with added, removed, and changed objects should decode to the new snapshot and be much smaller than a
+     * full snapshot.
+     */
+    @Test
+    void delta () {
+        BitWriter writer = new BitWriter();
+        NetworkSnapshot baseline = create(10, 1000);
+        NetworkSnapshot current = new NetworkSnapshot();
+        current.clear(11);
+        for (int i = 0; i < baseline.size(); i++) {
+            if (i == 0 || i == 500) continue;
+            int row = current.add(baseline.getId(i));
+            for (int f = 0; f < NetworkSnapshot.FIELDS; f++) current.setField(row, f, baseline.getField(i, f));
+            if (i == 250) current.setField(row, 1, -42);
+        }
+        int row = current.add(100_000);
+        for (int f = 0; f < NetworkSnapshot.FIELDS; f++) current.setField(row, f, f);
+        assertSnapshotEquals(current, roundTrip(current, baseline, writer));
+        int delta = writer.getByteLength();
+        roundTrip(current, null, writer);
+        assertTrue(delta * 50 < writer.getByteLength(), delta + " bytes vs " + writer.getByteLength());
+    }
+
+    /**
+     * An unchanged snapshot should only take a few bytes.
+     */
+    @Test
+    void unchanged () {
+        BitWriter writer = new BitWriter();
+        NetworkSnapshot baseline = create(1, 1000);
+        NetworkSnapshot current = create(2, 1000);
+        assertSnapshotEquals(baseline, roundTrip(current, baseline, writer));
+        assertTrue(writer.getByteLength() <= 4);
+    }
+}
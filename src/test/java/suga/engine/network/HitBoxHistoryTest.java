@@ -0,0 +1,99 @@
+package suga.engine.network;
+
+import org.junit.jupiter.api.Test;
+import suga.engine.game.GameObjectTable;
+import suga.engine.game.objects.BasicGameObject;
+import suga.engine.physics.Vector;
+import suga.engine.physics.collidables.ElasticCollider;
+import suga.engine.physics.hitboxes.BoundingBox;
+import suga.engine.physics.hitboxes.SquareHitBox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the HitBoxHistory.
+ *
+ * @author Sugaku
+ */
+class HitBoxHistoryTest {
+
+    /**
+     * Creates a game object with a two by two square hit box centered on the given position.
+     *
+     * @param x The x value of the center.
+     * @param y The y value of the center.
+     * @return The created object.
+     */
+    private static BasicGameObject create (double x, double y) {
+        BasicGameObject object = new BasicGameObject(new Vector(x, y, 0), new Vector(), new Vector(), 1);
+        object.setCollider(new ElasticCollider(new Vector(), new Vector(), new Vector(), 1, new SquareHitBox(2, 2)));
+        return object;
+    }
+
+    /**
+     * Queries against a past tick should see hit boxes where they were at that tick.
+     */
+    @Test
+    void rewind () {
+        GameObjectTable objects = new GameObjectTable();
+        BasicGameObject target = create(10, 0);
+        long handle = objects.add(null, target);
+        HitBoxHistory history = new HitBoxHistory(8);
+        for (int tick = 0; tick < 10; tick++) {
+            target.getCollider().getHitBox().setPos(new Vector(10 + tick, 0, 0));
+            history.record(tick, objects);
+        }
+        assertFalse(history.contains(1));
+        assertTrue(history.contains(2));
+        assertEquals(new BoundingBox(13, -1, 15, 1), history.getBounds(4, handle));
+        assertEquals(handle, history.raycast(4, 0, 0, 1, 0, 100, GameObjectTable.INVALID));
+        assertEquals(13, history.getHitDistance(), 1e-9);
+        assertEquals(handle, history.raycast(9, 0, 0, 1, 0, 100, GameObjectTable.INVALID));
+        assertEquals(18, history.getHitDistance(), 1e-9);
+        assertEquals(GameObjectTable.INVALID, history.raycast(9, 0, 0, 1, 0, 17, GameObjectTable.INVALID));
+        assertEquals(GameObjectTable.INVALID, history.raycast(1, 0, 0, 1, 0, 100, GameObjectTable.INVALID));
+        assertEquals(1, history.overlap(3, 12, 0, 12, 0, null));
+        assertEquals(0, history.overlap(9, 12, 0, 12, 0, null));
+    }
+
+    /**
+     * Raycasts should return the closest object that isn't ignored.
+     */
+    @Test
+    void closest () {
+        GameObjectTable objects = new GameObjectTable();
+        long shooter = objects.add(null, create(0, 0));
+        long far = objects.add(null, create(20, 0));
+        long near = objects.add(null, create(10, 0.5));
+        objects.add(null, create(5, 10));
+        HitBoxHistory history = new HitBoxHistory(4);
+        history.record(0, objects);
+        assertEquals(near, history.raycast(0, 0, 0, 3, 0, 100, shooter));
+        assertEquals(9, history.getHitDistance(), 1e-9);
+        assertEquals(shooter, history.raycast(0, -5, 0, 1, 0, 100, GameObjectTable.INVALID));
+        List<Long> found = new ArrayList<>();
+        history.overlap(0, 8, -2, 30, 2, found::add);
+        assertEquals(List.of(far, near), found);
+    }
+
+    /**
+     * A check against a crowded past tick should take microseconds.
+     */
+    @Test
+    void fast () {
+        GameObjectTable objects = new GameObjectTable();
+        for (int i = 0; i < 2000; i++) objects.add(null, create(i % 50 * 4, i / 50 * 4));
+        HitBoxHistory history = new HitBoxHistory(16);
+        for (int tick = 0; tick < 16; tick++) history.record(tick, objects);
+        long hits = 0;
+        for (int i = 0; i < 20_000; i++) hits += history.raycast(i % 16, -10, i % 160, 1, 0.01, 500, GameObjectTable.INVALID);
+        long start = System.nanoTime();
+        for (int i = 0; i < 20_000; i++) hits += history.raycast(i % 16, -10, i % 160, 1, 0.01, 500, GameObjectTable.INVALID);
+        long perCheck = (System.nanoTime() - start) / 20_000;
+        assertNotEquals(0, hits);
+        assertTrue(perCheck < 100_000, perCheck + "ns per raycast");
+    }
+}
@@ -0,0 +1,93 @@
+package suga.engine.network;
+
+import org.junit.jupiter.api.Test;
+import suga.engine.game.GameObjectTable;
+import suga.engine.game.objects.BasicGameObject;
+import suga.engine.physics.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the InterestManager.
+ *
+ * @author Sugaku
+ */
+class InterestManagerTest {
+
+    /**
+     * Checks whether the given set holds the given handle.
+     *
+     * @param set    The set to check.
+     * @param handle The handle to look for.
+     * @return True if the handle is in the set.
+     */
+    private static boolean holds (InterestSet set, long handle) {
+        return set.contains(handle, GameObjectTable.slot(handle));
+    }
+
+    /**
+     * Only objects near the viewpoint should be relevant, out of a large crowd spread across the world.
+     */
+    @Test
+    void nearby () {
+        GameObjectTable objects = new GameObjectTable();
+        for (int x = 0; x < 100; x++)
+            for (int y = 0; y < 100; y++)
+                objects.add(null, new BasicGameObject(new Vector(x * 10, y * 10, 0), new Vector(), new Vector(), 1));
+        InterestManager manager = new InterestManager(25, 35);
+        manager.update(objects);
+        assertEquals(10_000, manager.size());
+        InterestSet set = new InterestSet();
+        set.setViewpoint(500, 500);
+        manager.refresh(set);
+        assertEquals(21, set.size()); // Grid points within 25 of the center.
+        for (int i = 1; i < set.size(); i++) assertTrue(set.getHandle(i - 1) < set.getHandle(i));
+    }
+
+    /**
+     * Objects should enter at the enter radius but only leave once past the leave radius.
+     */
+    @Test
+    void hysteresis () {
+        GameObjectTable objects = new GameObjectTable();
+        BasicGameObject object = new BasicGameObject(new Vector(15, 0, 0), new Vector(), new Vector(), 1);
+        long handle = objects.add(null, object);
+        InterestManager manager = new InterestManager(10, 20);
+        InterestSet set = new InterestSet();
+        manager.update(objects);
+        manager.refresh(set);
+        assertFalse(holds(set, handle));
+        object.setPos(new Vector(9, 0, 0));
+        manager.update(objects);
+        manager.refresh(set);
+        assertTrue(holds(set, handle));
+        object.setPos(new Vector(15, 0, 0));
+        manager.update(objects);
+        manager.refresh(set);
+        assertTrue(holds(set, handle));
+        object.setPos(new Vector(21, 0, 0));
+        manager.update(objects);
+        manager.refresh(set);
+        assertFalse(holds(set, handle));
+        assertEquals(0, set.size());
+    }
+
+    /**
+     * Removed objects should leave the index and every interest set.
+     */
+    @Test
+    void removed () {
+        GameObjectTable objects = new GameObjectTable();
+        long handle = objects.add(null, new BasicGameObject());
+        InterestManager manager = new InterestManager(10, 20);
+        InterestSet set = new InterestSet();
+        manager.update(objects);
+        manager.refresh(set);
+        assertTrue(holds(set, handle));
+        objects.remove(handle);
+        manager.update(objects);
+        manager.refresh(set);
+        assertEquals(0, manager.size());
+        assertFalse(holds(set, handle));
+    }
+}
@@ -0,0 +1,249 @@
+package suga.engine.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import suga.engine.game.GameObjectTable;
+import suga.engine.game.objects.BasicGameObject;
+import suga.engine.physics.Vector;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SnapshotServer and SnapshotClient over the loopback interface.
+ *
+ * @author Sugaku
+ */
+class SnapshotServerTest {
+
+    /**
+     * The server being used in each test.
+     */
+    private SnapshotServer server;
+
+    /**
+     * The client being used in each test.
+     */
+    private SnapshotClient client;
+
+    /**
+     * Creates a server and a client connected to it before each unit test runs.
+     */
+    @BeforeEach
+    void setUp () throws IOException {
+        server = new SnapshotServer(0);
+        client = new SnapshotClient(new InetSocketAddress("127.0.0.1", server.getPort()));
+    }
+
+    /**
+     * Closes the client and server after each unit test.
+     */
+    @AfterEach
+    void tearDown () {
+        client.close();
+        server.close();
+    }
+
+    /**
+     * Polls both ends until the given condition holds or two seconds pass.
+     *
+     * @param condition The condition to wait for.
+     */
+    private void await (BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting on loopback.");
+            server.poll();
+            client.poll();
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * The first snapshot should be sent in full and later ones as small deltas which the client decodes correctly.
+     */
+    @Test
+    void replicate () throws InterruptedException {
+        GameObjectTable objects = new GameObjectTable();
+        long[] handles = new long[200];
+        for (int i = 0; i < handles.length; i++)
+            handles[i] = objects.add(null, new BasicGameObject(new Vector(i, i * 2, 0), new Vector(1, 0, 0), new Vector(), 1));
+        await(() -> !server.getClients().isEmpty());
+        SocketAddress address = server.getClients().get(0);
+
+        server.publish(0, objects);
+        await(() -> client.getLatest() != null);
+        int full = server.getLastPacketSize(address);
+        assertEquals(handles.length, client.getLatest().size());
+
+        await(() -> server.getBaseline(server.clients.get(address), 1) != null);
+        ((BasicGameObject) objects.get(handles[7])).setPos(new Vector(-3.5, 12.25, 0));
+        server.publish(1, objects);
+        await(() -> client.getLatest().getTick() == 1);
+        int delta = server.getLastPacketSize(address);
+        assertTrue(delta * 20 < full, delta + " bytes vs " + full);
+
+        NetworkSnapshot latest = client.getLatest();
+        assertEquals(handles.length, latest.size());
+        Vector pos = new Vector();
+        latest.getPosition(latest.indexOf(handles[7]), pos);
+        assertEquals(-3.5, pos.getX(), 1.0 / NetworkSnapshot.SCALE);
+        assertEquals(12.25, pos.getY(), 1.0 / NetworkSnapshot.SCALE);
+        latest.getPosition(latest.indexOf(handles[8]), pos);
+        assertEquals(8, pos.getX(), 1.0 / NetworkSnapshot.SCALE);
+        assertEquals(16, pos.getY(), 1.0 / NetworkSnapshot.SCALE);
+    }
+
+    /**
+     * Snapshots too large for a single packet should be sent in fragments over several ticks and put back together by
+     * the client.
+     */
+    @Test
+    void fragments () throws InterruptedException {
+        GameObjectTable objects = new GameObjectTable();
+        for (int i = 0; i < 20_000; i++)
+            objects.add(null, new BasicGameObject(new Vector(i * 3.25, -i, 0), new Vector(i, 1, 0), new Vector(), 1));
+        await(() -> !server.getClients().isEmpty());
+        long[] tick = {0};
+        await(() -> {
+            server.publish(tick[0]++, objects);
+            return client.getLatest() != null;
+        });
+        assertTrue(tick[0] > 2, "The full snapshot should have needed several packets.");
+        assertEquals(0, client.getLatest().getTick(), "The fragmented snapshot is the first one sent.");
+        NetworkSnapshot latest = client.getLatest();
+        assertEquals(20_000, latest.size());
+        Vector pos = new Vector();
+        latest.getPosition(latest.indexOf(objects.handleAt(19_999)), pos);
+        assertEquals(19_999 * 3.25, pos.getX(), 1.0 / NetworkSnapshot.SCALE);
+        assertEquals(-19_999, pos.getY(), 1.0 / NetworkSnapshot.SCALE);
+    }
+
+    /**
+     * With an interest manager the client should only be sent the objects near its viewpoint.
+     */
+    @Test
+    void interest () throws InterruptedException {
+        GameObjectTable objects = new GameObjectTable();
+        long near = objects.add(null, new BasicGameObject(new Vector(5, 5, 0), new Vector(), new Vector(), 1));
+        objects.add(null, new BasicGameObject(new Vector(500, 500, 0), new Vector(), new Vector(), 1));
+        server.setInterestManager(new InterestManager(50, 60));
+        await(() -> !server.getClients().isEmpty());
+        assertTrue(server.setViewpoint(server.getClients().get(0), 0, 0));
+        server.publish(0, objects);
+        await(() -> client.getLatest() != null);
+        assertEquals(1, client.getLatest().size());
+        assertEquals(near, client.getLatest().getId(0));
+    }
+
+    /**
+     * A hello should only be answered with a challenge no larger than itself, and short hellos shouldn't be answered at
+     * all. Nothing should be sent until the challenge is acknowledged.
+     */
+    @Test
+    void challenge () throws IOException, InterruptedException {
+        try (DatagramChannel raw = DatagramChannel.open()) {
+            raw.connect(new InetSocketAddress("127.0.0.1", server.getPort()));
+            raw.configureBlocking(false);
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            raw.write(buffer.put(SnapshotServer.HELLO).flip());
+            Thread.sleep(20);
+            server.poll();
+            assertEquals(0, raw.read(buffer.clear()), "Hellos smaller than the challenge shouldn't be answered.");
+
+            raw.write(buffer.clear().put(SnapshotServer.HELLO).put(new byte[SnapshotServer.HELLO_SIZE - 1]).flip());
+            long deadline = System.nanoTime() + 2_000_000_000L;
+            int read = 0;
+            while (read == 0 && System.nanoTime() < deadline) {
+                server.poll();
+                Thread.sleep(1);
+                read = raw.read(buffer.clear());
+            }
+            assertEquals(SnapshotServer.HELLO_SIZE, read, "The challenge should be as large as the hello.");
+            assertEquals(SnapshotServer.CHALLENGE, buffer.get(0));
+            long challenge = buffer.getLong(1);
+
+            GameObjectTable objects = new GameObjectTable();
+            objects.add(null, new BasicGameObject(new Vector(), new Vector(), new Vector(), 1));
+            await(() -> server.getClients().size() == 1);
+            server.publish(0, objects);
+            Thread.sleep(20);
+            assertEquals(0, raw.read(buffer.clear()), "Clients which haven't acknowledged shouldn't be sent snapshots.");
+
+            raw.write(buffer.clear().put(SnapshotServer.ACK).putLong(-1).putLong(challenge + 1).flip());
+            Thread.sleep(20);
+            server.poll();
+            assertEquals(1, server.getClients().size(), "A wrong challenge shouldn't connect.");
+            raw.write(buffer.clear().put(SnapshotServer.ACK).putLong(-1).putLong(challenge).flip());
+            await(() -> server.getClients().size() == 2);
+        }
+    }
+
+    /**
+     * Clients beyond the limit shouldn't be connected, and clients which stop acknowledging should be dropped.
+     */
+    @Test
+    void limits () throws IOException, InterruptedException {
+        server.setMaxClients(1);
+        server.setTimeout(5);
+        await(() -> server.getClients().size() == 1);
+        SnapshotClient second = new SnapshotClient(new InetSocketAddress("127.0.0.1", server.getPort()));
+        try {
+            for (int i = 0; i < 20; i++) {
+                second.poll();
+                server.poll();
+                Thread.sleep(1);
+            }
+            assertEquals(1, server.getClients().size(), "Only one client may be connected.");
+            GameObjectTable objects = new GameObjectTable();
+            for (int tick = 0; tick <= 6; tick++) server.publish(tick, objects);
+            assertTrue(server.getClients().isEmpty(), "The client hasn't acknowledged for longer than the timeout.");
+            long deadline = System.nanoTime() + 2_000_000_000L;
+            while (server.getClients().isEmpty() && System.nanoTime() < deadline) {
+                second.poll();
+                server.poll();
+                Thread.sleep(1);
+            }
+            assertEquals(1, server.getClients().size(), "The waiting client should take the free place.");
+        } finally {
+            second.close();
+        }
+    }
+
+    /**
+     * A client which stalls long enough to be dropped should reconnect by acknowledging again, and a client which
+     * hears nothing for its timeout should start the handshake over.
+     */
+    @Test
+    void stall () throws InterruptedException {
+        GameObjectTable objects = new GameObjectTable();
+        objects.add(null, new BasicGameObject(new Vector(), new Vector(), new Vector(), 1));
+        await(() -> !server.getClients().isEmpty());
+        server.publish(0, objects);
+        await(() -> client.getLatest() != null);
+        server.setTimeout(5);
+        for (int tick = 1; tick <= 6; tick++) server.publish(tick, objects);
+        assertTrue(server.getClients().isEmpty(), "The stalled client should have been dropped.");
+        Thread.sleep(SnapshotClient.RESEND_NANOS / 1_000_000 + 20);
+        await(() -> server.getClients().size() == 1);
+        server.publish(7, objects);
+        await(() -> client.getLatest().getTick() == 7);
+
+        client.setTimeout(50_000_000L);
+        Thread.sleep(80);
+        client.poll();
+        assertNull(client.getLatest(), "The client should have started over after hearing nothing.");
+        await(() -> {
+            server.publish(8, objects);
+            return client.getLatest() != null;
+        });
+        assertEquals(8, client.getLatest().getTick());
+    }
+}
@@ -0,0 +1,48 @@
+package suga.engine.physics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the GridSpatialIndex.
+ *
+ * @author Sugaku
+ */
+class GridSpatialIndexTest {
+
+    /**
+     * Entries with huge or infinite bounds should be kept out of the grid but still be found by every query, and
+     * entries near the edge of the int range shouldn't loop forever.
+     */
+    @Test
+    void hugeBounds () {
+        GridSpatialIndex index = new GridSpatialIndex(1);
+        index.put(0, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        index.put(1, -1e12, 0, 1e12, 1);
+        index.put(2, 1e12, 1e12, 1e12 + 1, 1e12 + 1);
+        index.put(3, 5, 5, 6, 6);
+        assertEquals(4, index.size());
+        assertTrue(index.cells.size() <= GridSpatialIndex.MAX_CELLS, "Oversized entries shouldn't fill the grid.");
+        List<Integer> found = new ArrayList<>();
+        index.queryPoint(5.5, 5.5, found::add);
+        assertEquals(List.of(0, 3), found);
+        found.clear();
+        index.queryPoint(1e12, 1e12, found::add);
+        assertEquals(List.of(0, 2), found);
+        found.clear();
+        index.queryRange(-10, 0, 10, 10, found::add);
+        found.sort(null);
+        assertEquals(List.of(0, 1, 3), found);
+        index.put(0, 0, 0, 1, 1);
+        index.remove(1);
+        found.clear();
+        index.queryRange(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.POSITIVE_INFINITY, found::add);
+        found.sort(null);
+        assertEquals(List.of(0, 2, 3), found, "Entries should move between the overflow list and the grid.");
+    }
+}
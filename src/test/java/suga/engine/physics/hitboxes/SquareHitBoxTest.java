@@ -136,4 +136,17 @@ class SquareHitBoxTest {
             assertEquals(w, shb.getWidth(), "Square HitBox should return the width it was created at.");
         }
     }
+
+    /**
+     * Writing the bounds of a square HitBox should give the same values as its bounding box, at the given offset.
+     */
+    @Test
+    void writeBounds () {
+        hitBox.setPos(new Vector(5, -3, 0));
+        double[] out = new double[6];
+        hitBox.writeBounds(out, 2);
+        BoundingBox box = hitBox.getBoundingBox();
+        assertArrayEquals(new double[]{ 0, 0, box.minX(), box.minY(), box.maxX(), box.maxY() }, out,
+                "The written bounds should match the bounding box.");
+    }
 }
@@ -0,0 +1,143 @@
+package suga.engine.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import suga.engine.game.BasicGame;
+import suga.engine.threads.FramePacer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the RoomManager.
+ *
+ * @author Sugaku
+ */
+class RoomManagerTest {
+
+    /**
+     * The manager being used in each test.
+     */
+    private RoomManager manager;
+
+    /**
+     * Creates a manager with two carrier threads before each unit test runs.
+     */
+    @BeforeEach
+    void setUp () {
+        manager = new RoomManager(2);
+    }
+
+    /**
+     * Shuts the manager down after each unit test.
+     */
+    @AfterEach
+    void tearDown () {
+        manager.shutdown();
+    }
+
+    /**
+     * Many rooms should all tick on a small pool of carriers.
+     */
+    @Test
+    void manyRooms () throws InterruptedException {
+        int count = 500;
+        CountDownLatch ticked = new CountDownLatch(count * 3);
+        for (int i = 0; i < count; i++) {
+            manager.addRoom(new BasicGame() {
+                private int ticks = 0;
+
+                @Override
+                public void processInput () {
+
+                }
+
+                @Override
+                public void loop () {
+                    if (ticks++ < 3) ticked.countDown();
+                }
+            }, 100);
+        }
+        assertEquals(count, manager.size(), "Every room should be running.");
+        assertTrue(ticked.await(5, TimeUnit.SECONDS), "Every room should have ticked three times.");
+        for (Room room : manager.getRooms()) {
+            assertTrue(room.getTicks() >= 3, "Every room should have counted its ticks.");
+            assertTrue(room.getMaxLag() >= room.getLastLag(), "The max lag should be the largest lag.");
+            assertTrue(room.getAverageLag() >= 0, "Lag should never be negative.");
+        }
+    }
+
+    /**
+     * Stopped rooms should be removed from the manager and stop ticking.
+     */
+    @Test
+    void stop () throws InterruptedException {
+        Room room = manager.addRoom(new BasicGame() {
+            @Override
+            public void processInput () {
+
+            }
+        }, 200);
+        Thread.sleep(50);
+        room.setStopped(true);
+        assertTrue(room.getStopped(), "The room should be stopped.");
+        assertNull(manager.getRoom(room.getId()), "Stopped rooms should be removed from the manager.");
+        Thread.sleep(20);
+        long ticks = room.getTicks();
+        Thread.sleep(50);
+        assertEquals(ticks, room.getTicks(), "Stopped rooms should no longer tick.");
+    }
+
+    /**
+     * A room whose tick throws an error should be stopped and removed rather than silently left unscheduled.
+     */
+    @Test
+    void error () throws InterruptedException {
+        Room room = manager.addRoom(new BasicGame() {
+            @Override
+            public void processInput () {
+                throw new AssertionError("Tick failed.");
+            }
+        }, 200);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!room.getStopped() && System.currentTimeMillis() < deadline) Thread.sleep(1);
+        assertTrue(room.getStopped(), "A room whose tick throws an error should be stopped.");
+        assertNull(manager.getRoom(room.getId()), "Failed rooms should be removed from the manager.");
+        assertEquals(1, room.getTicks(), "Failed rooms should no longer tick.");
+    }
+
+    /**
+     * A room which falls far behind should catch up a few ticks back to back and drop the rest.
+     */
+    @Test
+    void catchUp () throws InterruptedException {
+        CountDownLatch ticked = new CountDownLatch(20);
+        Room room = manager.addRoom(new BasicGame() {
+            private boolean slow = true;
+
+            @Override
+            public void processInput () {
+
+            }
+
+            @Override
+            public void loop () {
+                if (slow) {
+                    slow = false;
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                ticked.countDown();
+            }
+        }, 1000);
+        assertTrue(ticked.await(5, TimeUnit.SECONDS), "The room should keep ticking after a slow tick.");
+        long dropped = room.getDropped();
+        assertTrue(dropped >= 100 - 2 * FramePacer.MAX_CATCH_UP, "Most of the missed ticks should be dropped, not " + dropped + ".");
+    }
+}
@@ -0,0 +1,90 @@
+package suga.engine.threads;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the FramePacer.
+ *
+ * @author Sugaku
+ */
+class FramePacerTest {
+
+    /**
+     * Frames should start a period apart on average, without the drift of millisecond rounding.
+     */
+    @Test
+    void rate () {
+        FramePacer pacer = new FramePacer(144, FramePacer.Policy.DROP);
+        assertEquals(6_944_444, pacer.getPeriod());
+        pacer.await();
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) pacer.await();
+        double average = (System.nanoTime() - start) / 50.0;
+        assertEquals(pacer.getPeriod(), average, 200_000);
+    }
+
+    /**
+     * Typical frame times should be within a fraction of a millisecond of the period. The median is checked rather
+     * than the worst frame, since the scheduler can always preempt the thread.
+     */
+    @Test
+    void jitter () {
+        FramePacer pacer = new FramePacer(500, FramePacer.Policy.DROP);
+        pacer.setSpin(1_000_000);
+        int frames = 100;
+        long[] starts = new long[frames];
+        for (int i = 0; i < frames; i++) {
+            pacer.await();
+            starts[i] = System.nanoTime();
+        }
+        long[] errors = new long[frames - 1];
+        for (int i = 1; i < frames; i++) errors[i - 1] = Math.abs(starts[i] - starts[i - 1] - pacer.getPeriod());
+        Arrays.sort(errors);
+        long median = errors[errors.length / 2];
+        assertTrue(median < 200_000, median + "ns median error");
+    }
+
+    /**
+     * The drop policy should skip missed deadlines, while catching up should run them back to back.
+     */
+    @Test
+    void policies () throws InterruptedException {
+        FramePacer drop = new FramePacer(1000, FramePacer.Policy.DROP);
+        FramePacer catchUp = new FramePacer(1000, FramePacer.Policy.CATCH_UP);
+        drop.await();
+        catchUp.await();
+        Thread.sleep(4);
+        drop.await();
+        catchUp.await();
+        assertTrue(drop.getDropped() >= 3);
+        assertEquals(0, catchUp.getDropped());
+        long start = System.nanoTime();
+        catchUp.await();
+        catchUp.await();
+        assertTrue(System.nanoTime() - start < 1_000_000);
+        Thread.sleep(20);
+        catchUp.await();
+        assertTrue(catchUp.getDropped() >= FramePacer.MAX_CATCH_UP);
+    }
+
+    /**
+     * An interrupt should end the current wait early and be cleared, so later waits aren't skipped.
+     */
+    @Test
+    void interrupt () {
+        FramePacer pacer = new FramePacer(20, FramePacer.Policy.DROP);
+        pacer.await();
+        Thread.currentThread().interrupt();
+        long start = System.nanoTime();
+        pacer.await();
+        assertTrue(System.nanoTime() - start < pacer.getPeriod() / 2, "An interrupt should end the wait early.");
+        assertFalse(Thread.currentThread().isInterrupted(), "The interrupt should be cleared.");
+        start = System.nanoTime();
+        pacer.await();
+        assertTrue(System.nanoTime() - start > pacer.getPeriod() / 2, "Later waits should wait for the deadline.");
+    }
+}
@@ -0,0 +1,60 @@
+package suga.engine.threads;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FrameStatistics.
+ *
+ * @author Sugaku
+ */
+class FrameStatisticsTest {
+
+    /**
+     * Every bucket should hold the values it represents, within the precision of the histogram.
+     */
+    @Test
+    void buckets () {
+        for (long value = 0; value < 1_000_000; value += 7) {
+            long bucketed = FrameStatistics.value(FrameStatistics.bucket(value));
+            assertTrue(Math.abs(bucketed - value) <= value / 32 + 1, value + " became " + bucketed);
+        }
+        assertTrue(FrameStatistics.bucket(Long.MAX_VALUE) > FrameStatistics.bucket(1L << 40));
+    }
+
+    /**
+     * Percentiles should match the recorded distribution within a few percent.
+     */
+    @Test
+    void percentiles () {
+        FrameStatistics statistics = new FrameStatistics(1000, 15_000_000);
+        for (int i = 1; i <= 1000; i++) statistics.record(i * 10_000L);
+        FrameStatistics.Summary summary = statistics.getSummary();
+        assertEquals(1000, summary.count());
+        assertEquals(5_000_000, summary.p50(), 5_000_000 * 0.04);
+        assertEquals(9_500_000, summary.p95(), 9_500_000 * 0.04);
+        assertEquals(9_900_000, summary.p99(), 9_900_000 * 0.04);
+        assertEquals(10_000_000, summary.max());
+        assertEquals(0, summary.missed());
+    }
+
+    /**
+     * Old samples should leave the window, taking their missed deadlines with them.
+     */
+    @Test
+    void rolling () {
+        FrameStatistics statistics = new FrameStatistics(100, 10_000_000);
+        for (int i = 0; i < 100; i++) statistics.record(i % 10 == 0 ? 50_000_000 : 7_000_000);
+        assertEquals(10, statistics.getSummary().missed());
+        assertEquals(50_000_000, statistics.getMax());
+        for (int i = 0; i < 100; i++) statistics.record(7_000_000);
+        FrameStatistics.Summary summary = statistics.getSummary();
+        assertEquals(0, summary.missed());
+        assertEquals(7_000_000, summary.max());
+        assertEquals(7_000_000, summary.p99(), 7_000_000 * 0.04);
+        assertEquals(10, statistics.getMissedTotal());
+        statistics.setBudget(6_000_000);
+        assertEquals(100, statistics.getSummary().missed());
+    }
+}
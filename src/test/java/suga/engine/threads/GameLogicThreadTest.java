@@ -0,0 +1,107 @@
+package suga.engine.threads;
+
+import org.junit.jupiter.api.Test;
+import suga.engine.Engine;
+import suga.engine.game.Game;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for pausing and stopping the GameLogicThread.
+ *
+ * @author Sugaku
+ */
+class GameLogicThreadTest {
+
+    /**
+     * Waits for the given thread to reach the given state.
+     *
+     * @param thread The thread to watch.
+     * @param state  The state to wait for.
+     */
+    private static void awaitState (Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (thread.getState() != state && System.currentTimeMillis() < deadline) Thread.sleep(1);
+        assertEquals(state, thread.getState());
+    }
+
+    /**
+     * A paused thread should park without running any logic, and resume right away once unpaused.
+     */
+    @Test
+    void pause () throws InterruptedException {
+        Game game = mock(Game.class);
+        GameLogicThread thread = new GameLogicThread(game, 100, new Engine());
+        thread.setPaused(true);
+        thread.start();
+        awaitState(thread, Thread.State.WAITING);
+        Thread.sleep(50);
+        assertEquals(Thread.State.WAITING, thread.getState());
+        verify(game, never()).loop();
+        thread.setPaused(false);
+        verify(game, timeout(1000).atLeastOnce()).loop();
+        thread.setStopped(true);
+        assertTrue(thread.awaitStopped(1000));
+    }
+
+    /**
+     * Input arriving while paused should be processed once, after which the thread parks again.
+     */
+    @Test
+    void wake () throws InterruptedException {
+        Game game = mock(Game.class);
+        GameLogicThread thread = new GameLogicThread(game, 100, new Engine());
+        thread.setPaused(true);
+        thread.start();
+        awaitState(thread, Thread.State.WAITING);
+        thread.wake();
+        verify(game, timeout(1000)).processInput();
+        awaitState(thread, Thread.State.WAITING);
+        verify(game, times(1)).processInput();
+        verify(game, never()).loop();
+        thread.setStopped(true);
+        assertTrue(thread.awaitStopped(1000));
+    }
+
+    /**
+     * Stopping a paused thread should wake it so that it finishes well within the timeout.
+     */
+    @Test
+    void stop () throws InterruptedException {
+        GameLogicThread thread = new GameLogicThread(mock(Game.class), 1, new Engine());
+        thread.start();
+        Thread.sleep(20);
+        thread.setStopped(true);
+        assertTrue(thread.awaitStopped(500));
+        assertFalse(thread.isAlive());
+        GameLogicThread paused = new GameLogicThread(mock(Game.class), 100, new Engine());
+        paused.setPaused(true);
+        paused.start();
+        awaitState(paused, Thread.State.WAITING);
+        paused.setStopped(true);
+        assertTrue(paused.awaitStopped(500));
+    }
+
+    /**
+     * Ticks which run longer than the period should count as missed in the work statistics.
+     */
+    @Test
+    void work () throws InterruptedException {
+        Game game = mock(Game.class);
+        doAnswer((invocation) -> {
+            Thread.sleep(15);
+            return null;
+        }).when(game).loop();
+        GameLogicThread thread = new GameLogicThread(game, 100, new Engine());
+        assertEquals(thread.getPacer().getPeriod(), thread.getWorkStatistics().getBudget());
+        thread.start();
+        long deadline = System.currentTimeMillis() + 2000;
+        while (thread.getWorkStatistics().getRecorded() < 3 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        thread.setStopped(true);
+        assertTrue(thread.awaitStopped(1000));
+        FrameStatistics work = thread.getWorkStatistics();
+        assertTrue(work.getRecorded() >= 3, "Every tick should be recorded.");
+        assertEquals(work.getRecorded(), work.getMissedTotal(), "Every tick ran longer than the period.");
+    }
+}
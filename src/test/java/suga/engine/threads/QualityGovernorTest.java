@@ -0,0 +1,117 @@
+package suga.engine.threads;
+
+import org.junit.jupiter.api.Test;
+import suga.engine.Engine;
+import suga.engine.game.Game;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the QualityGovernor.
+ *
+ * @author Sugaku
+ */
+class QualityGovernorTest {
+
+    /**
+     * The time between evaluations used in each test.
+     */
+    private static final long INTERVAL = 1_000;
+
+    /**
+     * Records an interval of frames and then lets the governor evaluate it.
+     *
+     * @param governor   The governor to update.
+     * @param statistics The statistics to record into.
+     * @param interval   The number of the interval, used as its time.
+     * @param slow       The number of frames which miss their deadline.
+     * @return Whether the governor changed a feature.
+     */
+    private static boolean run (QualityGovernor governor, FrameStatistics statistics, int interval, int slow) {
+        for (int i = 0; i < 60; i++) statistics.record(i < slow ? 30 : 10);
+        return governor.update(interval * INTERVAL);
+    }
+
+    /**
+     * Features should be lowered in order under sustained load and restored in reverse once there is headroom.
+     */
+    @Test
+    void lowerAndRestore () {
+        FrameStatistics statistics = new FrameStatistics(100, 20);
+        QualityGovernor governor = new QualityGovernor(INTERVAL, 0.05, 2, 3);
+        BasicQualityFeature particles = new BasicQualityFeature("particles", 1, (l) -> { });
+        BasicQualityFeature ai = new BasicQualityFeature("ai", 2, (l) -> { });
+        governor.watch(statistics);
+        governor.addFeature(particles);
+        governor.addFeature(ai);
+        int t = 1;
+        assertFalse(run(governor, statistics, t++, 30));
+        assertTrue(run(governor, statistics, t++, 30));
+        assertEquals(0, particles.getLevel());
+        assertFalse(run(governor, statistics, t++, 1)); // Under the threshold, but not clean either.
+        run(governor, statistics, t++, 30);
+        run(governor, statistics, t++, 30);
+        assertEquals(1, ai.getLevel());
+        for (int i = 0; i < 3; i++) run(governor, statistics, t++, 0);
+        assertEquals(2, ai.getLevel());
+        assertEquals(0, particles.getLevel());
+        for (int i = 0; i < 3; i++) run(governor, statistics, t++, 0);
+        assertEquals(1, particles.getLevel());
+        assertEquals(0, governor.getLowered());
+        assertFalse(governor.update(t * INTERVAL + 1));
+    }
+
+    /**
+     * Falling behind right after a restore should double the wait before the next restore.
+     */
+    @Test
+    void backoff () {
+        FrameStatistics statistics = new FrameStatistics(100, 20);
+        QualityGovernor governor = new QualityGovernor(INTERVAL, 0.05, 1, 2);
+        BasicQualityFeature feature = new BasicQualityFeature("resolution", 3, (l) -> { });
+        governor.watch(statistics);
+        governor.addFeature(feature);
+        int t = 1;
+        run(governor, statistics, t++, 30);
+        assertEquals(2, feature.getLevel());
+        run(governor, statistics, t++, 0);
+        run(governor, statistics, t++, 0);
+        assertEquals(3, feature.getLevel());
+        run(governor, statistics, t++, 30);
+        assertEquals(2, feature.getLevel());
+        assertEquals(4, governor.getRestoreWait());
+        for (int i = 0; i < 3; i++) run(governor, statistics, t++, 0);
+        assertEquals(2, feature.getLevel());
+        run(governor, statistics, t++, 0);
+        assertEquals(3, feature.getLevel());
+    }
+
+    /**
+     * Ticks which run just over the period, which the catch-up pacer turns into intervals well under the interval
+     * budget, should still lower a feature when the governor watches the work statistics.
+     */
+    @Test
+    void smallOverrun () {
+        GameLogicThread thread = new GameLogicThread(mock(Game.class), 60, new Engine());
+        long overrun = thread.getPacer().getPeriod() * 6 / 5;
+        QualityGovernor governor = new QualityGovernor(INTERVAL, 0.05, 2, 3);
+        QualityGovernor cadence = new QualityGovernor(INTERVAL, 0.05, 2, 3);
+        BasicQualityFeature feature = new BasicQualityFeature("particles", 2, (l) -> { });
+        BasicQualityFeature unchanged = new BasicQualityFeature("particles", 2, (l) -> { });
+        governor.watch(thread.getWorkStatistics());
+        governor.addFeature(feature);
+        cadence.watch(thread.getStatistics());
+        cadence.addFeature(unchanged);
+        for (int t = 1; t <= 2; t++) {
+            for (int i = 0; i < 60; i++) {
+                thread.getWorkStatistics().record(overrun);
+                thread.getStatistics().record(overrun);
+            }
+            governor.update(t * INTERVAL);
+            cadence.update(t * INTERVAL);
+        }
+        assertEquals(1, feature.getLevel(), "Running 20% over the period should lower a feature.");
+        assertEquals(2, unchanged.getLevel(), "The time between tick starts hides the overrun.");
+    }
+}
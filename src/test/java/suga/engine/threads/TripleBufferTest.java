@@ -0,0 +1,60 @@
+package suga.engine.threads;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TripleBuffer.
+ *
+ * @author Sugaku
+ */
+class TripleBufferTest {
+
+    /**
+     * The reader should see the newest published value and keep it until another is published.
+     */
+    @Test
+    void handoff () {
+        TripleBuffer<long[]> buffer = new TripleBuffer<>(() -> new long[1]);
+        buffer.getBack()[0] = 1;
+        buffer.publish();
+        buffer.getBack()[0] = 2;
+        buffer.publish();
+        assertEquals(2, buffer.acquire()[0]);
+        buffer.getBack()[0] = 3;
+        assertEquals(2, buffer.acquire()[0]);
+        buffer.publish();
+        assertEquals(3, buffer.acquire()[0]);
+        assertSame(buffer.getFront(), buffer.acquire());
+    }
+
+    /**
+     * A reader on another thread should never see a buffer while it is being written.
+     */
+    @Test
+    void torn () throws InterruptedException {
+        TripleBuffer<long[]> buffer = new TripleBuffer<>(() -> new long[64]);
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread writer = new Thread(() -> {
+            for (long value = 1; value <= 200_000; value++) {
+                long[] back = buffer.getBack();
+                for (int i = 0; i < back.length; i++) back[i] = value;
+                buffer.publish();
+            }
+            done.set(true);
+        });
+        writer.start();
+        long last = 0;
+        while (!done.get() || last < 200_000) {
+            long[] front = buffer.acquire();
+            long first = front[0];
+            for (long v : front) assertEquals(first, v);
+            assertTrue(first >= last);
+            last = first;
+        }
+        writer.join();
+    }
+}